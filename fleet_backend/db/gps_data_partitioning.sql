@@ -0,0 +1,76 @@
+-- Conversion de gps_data en table partitionnée par mois (PostgreSQL 12+).
+--
+-- À lancer par l'exploitant, ingestion arrêtée (abonnement MQTT coupé, instances arrêtées ou en
+-- maintenance) : le rattachement de l'historique construit la clé primaire et l'index
+-- (vehicle_id, "timestamp") sur toute la table sous verrou ACCESS EXCLUSIVE.
+--
+--   psql -v ON_ERROR_STOP=1 -f db/gps_data_partitioning.sql <base>
+--
+-- Les partitions mensuelles suivantes, la partition par défaut et la rétention sont ensuite
+-- gérées par l'application (GpsPartitionManager, propriétés gps.partitions.*).
+
+begin;
+
+select pg_advisory_xact_lock(x'0F1EE70B1'::bigint);
+
+do $$
+declare
+    max_ts    timestamp;
+    max_id    bigint;
+    boundary  timestamp;
+    pk_name   text;
+begin
+    if (select c.relkind from pg_class c where c.oid = to_regclass('gps_data')) is distinct from 'r' then
+        raise notice 'gps_data is already partitioned (or missing), nothing to do';
+        return;
+    end if;
+
+    select max("timestamp"), coalesce(max(id), 0) into max_ts, max_id from gps_data;
+
+    alter table gps_data rename to gps_data_legacy;
+
+    -- Les noms de contraintes restent attachés à l'ancienne table : on libère celui de la clé primaire.
+    select conname into pk_name
+    from pg_constraint
+    where conrelid = to_regclass('gps_data_legacy') and contype = 'p';
+
+    if pk_name is not null then
+        execute format('alter table gps_data_legacy rename constraint %I to gps_data_legacy_pkey', pk_name);
+    end if;
+
+    create sequence if not exists gps_data_part_id_seq;
+    perform setval('gps_data_part_id_seq', max_id + 1, false);
+
+    create table gps_data (like gps_data_legacy including defaults) partition by range ("timestamp");
+    alter table gps_data alter column id set default nextval('gps_data_part_id_seq');
+    alter sequence gps_data_part_id_seq owned by gps_data.id;
+
+    -- La clé de partition doit faire partie de la clé primaire.
+    alter table gps_data add constraint gps_data_pkey primary key (id, "timestamp");
+    alter table gps_data add constraint gps_data_vehicle_fk foreign key (vehicle_id) references vehicles(id);
+    create index gps_data_vehicle_timestamp_idx on gps_data (vehicle_id, "timestamp");
+
+    create table gps_data_default partition of gps_data default;
+
+    if max_ts is null then
+        drop table gps_data_legacy;
+        raise notice 'gps_data converted (no existing rows)';
+        return;
+    end if;
+
+    boundary := date_trunc('month', max_ts) + interval '1 month';
+
+    -- Les identifiants sont désormais portés par la séquence de la table partitionnée.
+    alter table gps_data_legacy alter column id drop identity if exists;
+    alter table gps_data_legacy alter column id drop default;
+
+    execute format(
+            'alter table gps_data attach partition gps_data_legacy for values from (minvalue) to (%L)',
+            boundary
+    );
+
+    raise notice 'gps_data converted, existing rows kept in gps_data_legacy up to %', boundary;
+end
+$$;
+
+commit;
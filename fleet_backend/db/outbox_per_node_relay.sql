@@ -0,0 +1,14 @@
+-- Outbox relayée par chaque instance vers son broker STOMP local (OutboxRelay) : l'état de
+-- livraison n'est plus tenu en base, les lignes sont purgées à l'âge (outbox.retention-minutes).
+--
+-- À lancer par l'exploitant avant le déploiement : attempts, NOT NULL sans défaut, bloquerait
+-- sinon les insertions de WebSocketOutbox. Les anciennes instances continuent de fonctionner.
+--
+--   psql -v ON_ERROR_STOP=1 -f db/outbox_per_node_relay.sql <base>
+--
+-- Une fois toutes les instances à jour, les colonnes devenues inutiles peuvent être supprimées :
+--
+--   drop index if exists idx_outbox_pending;
+--   alter table outbox_messages drop column if exists delivered_at, drop column if exists attempts;
+
+alter table if exists outbox_messages alter column attempts set default 0;
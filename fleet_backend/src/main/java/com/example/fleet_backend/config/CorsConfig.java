@@ -37,7 +37,7 @@ public class CorsConfig {
         );
 
         config.setExposedHeaders(
-                List.of("Authorization")
+                List.of("Authorization", "X-Track-Original-Points", "X-Track-Points")
         );
 
         UrlBasedCorsConfigurationSource source =
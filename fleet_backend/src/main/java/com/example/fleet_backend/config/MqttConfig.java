@@ -6,6 +6,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.UUID;
+
 @Configuration
 public class MqttConfig {
 
@@ -15,9 +17,17 @@ public class MqttConfig {
     @Value("${mqtt.client.id}")
     private String clientId;
 
+    // Plusieurs instances ne peuvent pas partager le même client id sur le broker.
+    @Value("${mqtt.client.unique-suffix:false}")
+    private boolean uniqueClientIdSuffix;
+
     @Bean
     public MqttClient mqttClient() throws Exception {
-        MqttClient client = new MqttClient(brokerUrl, clientId);
+        String effectiveClientId = uniqueClientIdSuffix
+                ? clientId + "-" + UUID.randomUUID().toString().substring(0, 8)
+                : clientId;
+
+        MqttClient client = new MqttClient(brokerUrl, effectiveClientId);
 
         MqttConnectOptions options = new MqttConnectOptions();
         options.setAutomaticReconnect(true);
@@ -56,6 +56,7 @@ public class SecurityConfig {
                         ).permitAll()
 
                         .requestMatchers(HttpMethod.POST, "/api/gps/ingest").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/gps/ingest/batch").permitAll()
                         .requestMatchers("/api/simulator/**").permitAll()
                         .requestMatchers("/api/places/**").permitAll()
                         .requestMatchers("/ws/**").permitAll()
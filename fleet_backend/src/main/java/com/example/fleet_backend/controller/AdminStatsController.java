@@ -1,7 +1,9 @@
 package com.example.fleet_backend.controller;
 
 import com.example.fleet_backend.dto.AdminStatsDTO;
-import com.example.fleet_backend.service.AdminStatsService;
+import com.example.fleet_backend.dto.GpsArchiveStatsDTO;
+import com.example.fleet_backend.service.AdminStatsSnapshotService;
+import com.example.fleet_backend.service.gps.archive.GpsArchiveService;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -10,15 +12,24 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class AdminStatsController {
 
-    private final AdminStatsService adminStatsService;
+    private final AdminStatsSnapshotService adminStatsSnapshotService;
+    private final GpsArchiveService gpsArchiveService;
 
-    public AdminStatsController(AdminStatsService adminStatsService) {
-        this.adminStatsService = adminStatsService;
+    public AdminStatsController(AdminStatsSnapshotService adminStatsSnapshotService,
+                                GpsArchiveService gpsArchiveService) {
+        this.adminStatsSnapshotService = adminStatsSnapshotService;
+        this.gpsArchiveService = gpsArchiveService;
     }
 
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
-    public AdminStatsDTO stats() {
-        return adminStatsService.getStats();
+    public AdminStatsDTO stats(@RequestParam(defaultValue = "false") boolean refresh) {
+        return adminStatsSnapshotService.getStats(refresh);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/gps-archive/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public GpsArchiveStatsDTO gpsArchiveStats() {
+        return gpsArchiveService.getStats();
+    }
+}
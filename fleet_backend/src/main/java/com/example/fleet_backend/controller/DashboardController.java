@@ -2,7 +2,7 @@ package com.example.fleet_backend.controller;
 
 import com.example.fleet_backend.dto.DashboardKpiDTO;
 import com.example.fleet_backend.security.AuthUtil;
-import com.example.fleet_backend.service.DashboardKpiService;
+import com.example.fleet_backend.service.kpi.OwnerKpiStore;
 import com.example.fleet_backend.websocket.DashboardWebSocketPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -11,21 +11,21 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/owner/dashboard")
 public class DashboardController {
 
-    private final DashboardKpiService dashboardKpiService;
+    private final OwnerKpiStore ownerKpiStore;
     private final DashboardWebSocketPublisher dashboardWebSocketPublisher;
 
     public DashboardController(
-            DashboardKpiService dashboardKpiService,
+            OwnerKpiStore ownerKpiStore,
             DashboardWebSocketPublisher dashboardWebSocketPublisher
     ) {
-        this.dashboardKpiService = dashboardKpiService;
+        this.ownerKpiStore = ownerKpiStore;
         this.dashboardWebSocketPublisher = dashboardWebSocketPublisher;
     }
 
     @GetMapping("/kpi")
     public DashboardKpiDTO getKpi(Authentication authentication) {
         Long ownerId = AuthUtil.userId(authentication);
-        return dashboardKpiService.getOwnerKpi(ownerId);
+        return ownerKpiStore.getOwnerKpi(ownerId);
     }
 
     @PostMapping("/kpi/publish")
@@ -1,14 +1,26 @@
 package com.example.fleet_backend.controller;
 
+import com.example.fleet_backend.dto.CursorPage;
+import com.example.fleet_backend.dto.DailyMileageDTO;
+import com.example.fleet_backend.dto.GpsBulkIngestResultDTO;
 import com.example.fleet_backend.dto.GpsIncomingDTO;
 import com.example.fleet_backend.dto.GpsPointDTO;
+import com.example.fleet_backend.dto.GpsTrackResult;
+import com.example.fleet_backend.dto.TripDTO;
 import com.example.fleet_backend.dto.VehicleLiveStatusDTO;
 import com.example.fleet_backend.service.GpsService;
+import com.example.fleet_backend.service.gps.GpsExportFormat;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +43,14 @@ public class GpsController {
         return ResponseEntity.ok("GPS + OBD ingested successfully");
     }
 
+    @PostMapping(
+            value = "/ingest/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public ResponseEntity<GpsBulkIngestResultDTO> ingestBatch(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(gpsService.processIncomingGpsBulk(request.getInputStream()));
+    }
+
     @GetMapping("/live")
     public ResponseEntity<List<VehicleLiveStatusDTO>> getLiveFleet(Authentication auth) {
         return ResponseEntity.ok(gpsService.getLiveFleetSecured(auth));
@@ -51,11 +71,80 @@ public class GpsController {
                                                         @RequestParam(required = false)
                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
                                                         LocalDateTime to,
+                                                        @RequestParam(required = false) Integer maxPoints,
+                                                        @RequestParam(required = false) Integer zoom,
+                                                        @RequestParam(required = false) Double toleranceMeters,
                                                         Authentication auth) {
         if (from != null && to != null) {
-            return ResponseEntity.ok(gpsService.getHistoryRangeSecured(id, from, to, auth));
+            return toResponse(gpsService.getHistoryRangeSecured(id, from, to, maxPoints, zoom, toleranceMeters, auth));
         }
 
-        return ResponseEntity.ok(gpsService.getHistorySecured(id, auth));
+        return toResponse(gpsService.getHistorySecured(id, zoom, toleranceMeters, auth));
+    }
+
+    @GetMapping("/vehicle/{id}/points")
+    public ResponseEntity<CursorPage<GpsPointDTO>> getHistoryPage(@PathVariable Long id,
+                                                                  @RequestParam(required = false)
+                                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                                  LocalDateTime from,
+                                                                  @RequestParam(required = false)
+                                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                                  LocalDateTime to,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer limit,
+                                                                  Authentication auth) {
+        return ResponseEntity.ok(gpsService.getHistoryPageSecured(id, from, to, cursor, limit, auth));
+    }
+
+    @GetMapping("/vehicle/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportHistory(@PathVariable Long id,
+                                                               @RequestParam(required = false)
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                               LocalDateTime from,
+                                                               @RequestParam(required = false)
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                               LocalDateTime to,
+                                                               @RequestParam(required = false) String format,
+                                                               Authentication auth) {
+        GpsExportFormat exportFormat = GpsExportFormat.from(format);
+        StreamingResponseBody body = gpsService.exportHistorySecured(id, from, to, exportFormat, auth);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"gps-vehicle-" + id + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/vehicle/{id}/trips")
+    public ResponseEntity<List<TripDTO>> getTrips(@PathVariable Long id,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime from,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                  LocalDateTime to,
+                                                  @RequestParam(defaultValue = "false") boolean includeStops,
+                                                  Authentication auth) {
+        return ResponseEntity.ok(gpsService.getTripsSecured(id, from, to, includeStops, auth));
+    }
+
+    @GetMapping("/vehicle/{id}/mileage")
+    public ResponseEntity<List<DailyMileageDTO>> getDailyMileage(@PathVariable Long id,
+                                                                 @RequestParam(required = false)
+                                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                                 LocalDate from,
+                                                                 @RequestParam(required = false)
+                                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                                 LocalDate to,
+                                                                 Authentication auth) {
+        return ResponseEntity.ok(gpsService.getDailyMileageSecured(id, from, to, auth));
+    }
+
+    private ResponseEntity<List<GpsPointDTO>> toResponse(GpsTrackResult track) {
+        return ResponseEntity.ok()
+                .header(GpsTrackResult.ORIGINAL_POINTS_HEADER, String.valueOf(track.getOriginalPointCount()))
+                .header(GpsTrackResult.POINTS_HEADER, String.valueOf(track.getPointCount()))
+                .body(track.getPoints());
     }
 }
\ No newline at end of file
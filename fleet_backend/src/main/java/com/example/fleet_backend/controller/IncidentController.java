@@ -1,9 +1,12 @@
 package com.example.fleet_backend.controller;
 
+import com.example.fleet_backend.dto.CursorPage;
 import com.example.fleet_backend.dto.IncidentCreateRequest;
 import com.example.fleet_backend.dto.IncidentDTO;
 import com.example.fleet_backend.dto.IncidentFromEventRequest;
 import com.example.fleet_backend.dto.IncidentUpdateStatusRequest;
+import com.example.fleet_backend.model.IncidentSeverity;
+import com.example.fleet_backend.model.IncidentStatus;
 import com.example.fleet_backend.service.IncidentService;
 import jakarta.validation.Valid;
 import org.springframework.http.MediaType;
@@ -67,16 +70,49 @@ public class IncidentController {
         return incidentService.getMyIncidents(auth);
     }
 
+    @GetMapping("/me/page")
+    public CursorPage<IncidentDTO> getMyIncidentsPage(
+            @RequestParam(required = false) List<IncidentStatus> status,
+            @RequestParam(required = false) List<IncidentSeverity> severity,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth
+    ) {
+        return incidentService.getMyIncidentsPage(status, severity, cursor, limit, auth);
+    }
+
     @GetMapping("/vehicle/{vehicleId}")
     public List<IncidentDTO> getIncidentsByVehicle(@PathVariable Long vehicleId) {
         return incidentService.getIncidentsByVehicle(vehicleId);
     }
 
+    @GetMapping("/vehicle/{vehicleId}/page")
+    public CursorPage<IncidentDTO> getIncidentsByVehiclePage(
+            @PathVariable Long vehicleId,
+            @RequestParam(required = false) List<IncidentStatus> status,
+            @RequestParam(required = false) List<IncidentSeverity> severity,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return incidentService.getIncidentsByVehiclePage(vehicleId, status, severity, cursor, limit);
+    }
+
     @GetMapping("/mission/{missionId}")
     public List<IncidentDTO> getIncidentsByMission(@PathVariable Long missionId) {
         return incidentService.getIncidentsByMission(missionId);
     }
 
+    @GetMapping("/mission/{missionId}/page")
+    public CursorPage<IncidentDTO> getIncidentsByMissionPage(
+            @PathVariable Long missionId,
+            @RequestParam(required = false) List<IncidentStatus> status,
+            @RequestParam(required = false) List<IncidentSeverity> severity,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return incidentService.getIncidentsByMissionPage(missionId, status, severity, cursor, limit);
+    }
+
     @PutMapping("/{id}/status")
     public IncidentDTO updateStatus(
             @PathVariable Long id,
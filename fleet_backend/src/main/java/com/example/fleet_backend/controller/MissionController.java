@@ -1,6 +1,7 @@
 package com.example.fleet_backend.controller;
 
 import com.example.fleet_backend.dto.GpsPointDTO;
+import com.example.fleet_backend.dto.GpsTrackResult;
 import com.example.fleet_backend.dto.MissionDTO;
 import com.example.fleet_backend.dto.RouteCheckResultDTO;
 import com.example.fleet_backend.dto.VehicleLiveStatusDTO;
@@ -55,9 +56,17 @@ public class MissionController {
             @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
             LocalDateTime to,
+            @RequestParam(required = false) Integer maxPoints,
+            @RequestParam(required = false) Integer zoom,
+            @RequestParam(required = false) Double toleranceMeters,
             Authentication auth
     ) {
-        return ResponseEntity.ok(gpsService.getMissionHistorySecured(id, from, to, auth));
+        GpsTrackResult track = gpsService.getMissionHistorySecured(id, from, to, maxPoints, zoom, toleranceMeters, auth);
+
+        return ResponseEntity.ok()
+                .header(GpsTrackResult.ORIGINAL_POINTS_HEADER, String.valueOf(track.getOriginalPointCount()))
+                .header(GpsTrackResult.POINTS_HEADER, String.valueOf(track.getPointCount()))
+                .body(track.getPoints());
     }
 
     @PostMapping
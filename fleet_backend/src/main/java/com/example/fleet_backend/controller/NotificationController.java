@@ -1,5 +1,6 @@
 package com.example.fleet_backend.controller;
 
+import com.example.fleet_backend.dto.CursorPage;
 import com.example.fleet_backend.dto.NotificationDTO;
 import com.example.fleet_backend.service.NotificationService;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -25,6 +26,15 @@ public class NotificationController {
         return notificationService.myNotifications(auth);
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('OWNER','DRIVER')")
+    public CursorPage<NotificationDTO> myPage(@RequestParam(defaultValue = "false") boolean unreadOnly,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limit,
+                                             Authentication auth) {
+        return notificationService.myNotificationsPage(auth, unreadOnly, cursor, limit);
+    }
+
     @GetMapping("/unread-count")
     @PreAuthorize("hasAnyRole('OWNER','DRIVER')")
     public long unreadCount(Authentication auth) {
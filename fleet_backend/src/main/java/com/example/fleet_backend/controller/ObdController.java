@@ -38,9 +38,10 @@ public class ObdController {
             LocalDateTime from,
             @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
-            LocalDateTime to
+            LocalDateTime to,
+            @RequestParam(required = false) Integer points
     ) {
-        return ResponseEntity.ok(obdHistoryService.getVehicleHistory(vehicleId, from, to));
+        return ResponseEntity.ok(obdHistoryService.getVehicleHistory(vehicleId, from, to, points));
     }
 
     @GetMapping("/vehicle/{vehicleId}/live")
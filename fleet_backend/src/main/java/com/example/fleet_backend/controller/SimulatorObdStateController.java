@@ -1,7 +1,7 @@
 package com.example.fleet_backend.controller;
 
 import com.example.fleet_backend.model.VehicleLiveState;
-import com.example.fleet_backend.repository.VehicleLiveStateRepository;
+import com.example.fleet_backend.service.gps.LiveStateStore;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -11,15 +11,15 @@ import java.util.Map;
 @RequestMapping("/api/simulator")
 public class SimulatorObdStateController {
 
-    private final VehicleLiveStateRepository vehicleLiveStateRepository;
+    private final LiveStateStore liveStateStore;
 
-    public SimulatorObdStateController(VehicleLiveStateRepository vehicleLiveStateRepository) {
-        this.vehicleLiveStateRepository = vehicleLiveStateRepository;
+    public SimulatorObdStateController(LiveStateStore liveStateStore) {
+        this.liveStateStore = liveStateStore;
     }
 
     @GetMapping("/vehicles/{vehicleId}/obd-state")
     public Map<String, Object> getSimulatorObdState(@PathVariable Long vehicleId) {
-        VehicleLiveState liveState = vehicleLiveStateRepository.findByVehicleId(vehicleId)
+        VehicleLiveState liveState = liveStateStore.find(vehicleId)
                 .orElse(null);
 
         Map<String, Object> response = new HashMap<>();
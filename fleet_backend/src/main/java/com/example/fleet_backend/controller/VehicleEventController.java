@@ -1,6 +1,9 @@
 package com.example.fleet_backend.controller;
 
+import com.example.fleet_backend.dto.CursorPage;
 import com.example.fleet_backend.dto.VehicleEventDTO;
+import com.example.fleet_backend.model.EventSeverity;
+import com.example.fleet_backend.model.VehicleEventStatus;
 import com.example.fleet_backend.service.VehicleEventService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,4 +30,15 @@ public class VehicleEventController {
     public ResponseEntity<List<VehicleEventDTO>> getVehicleEvents(@PathVariable Long vehicleId) {
         return ResponseEntity.ok(vehicleEventService.getVehicleEvents(vehicleId));
     }
+
+    @GetMapping("/vehicle/{vehicleId}/page")
+    public ResponseEntity<CursorPage<VehicleEventDTO>> getVehicleEventsPage(
+            @PathVariable Long vehicleId,
+            @RequestParam(required = false) List<EventSeverity> severity,
+            @RequestParam(required = false) List<VehicleEventStatus> status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(vehicleEventService.getVehicleEventsPage(vehicleId, severity, status, cursor, limit));
+    }
 }
\ No newline at end of file
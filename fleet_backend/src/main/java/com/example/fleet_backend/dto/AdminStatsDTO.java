@@ -1,5 +1,7 @@
 package com.example.fleet_backend.dto;
 
+import java.time.LocalDateTime;
+
 public class AdminStatsDTO {
     public long ownersCount;
 
@@ -15,6 +17,8 @@ public class AdminStatsDTO {
 
     public double totalMileage;
 
+    public LocalDateTime generatedAt;
+
     // =========================
     // GETTERS & SETTERS
     // =========================
@@ -90,4 +94,12 @@ public class AdminStatsDTO {
     public void setTotalMileage(double totalMileage) {
         this.totalMileage = totalMileage;
     }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
 }
\ No newline at end of file
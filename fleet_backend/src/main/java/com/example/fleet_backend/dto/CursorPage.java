@@ -0,0 +1,50 @@
+package com.example.fleet_backend.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class CursorPage<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private final List<T> items;
+    private final String nextCursor;
+    private final boolean hasMore;
+
+    public CursorPage(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /*
+     * rows contient limit + 1 lignes au plus : la ligne en trop indique seulement qu'une page
+     * suivante existe, le curseur pointe sur la dernière ligne renvoyée.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows,
+                                          int limit,
+                                          Function<E, T> mapper,
+                                          Function<E, PageCursor> cursorOf) {
+        boolean hasMore = rows.size() > limit;
+        List<E> page = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = hasMore && !page.isEmpty()
+                ? cursorOf.apply(page.get(page.size() - 1)).encode()
+                : null;
+
+        return new CursorPage<>(page.stream().map(mapper).toList(), nextCursor, hasMore);
+    }
+
+    public List<T> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return hasMore; }
+}
@@ -0,0 +1,23 @@
+package com.example.fleet_backend.dto;
+
+import java.time.LocalDate;
+
+public class DailyMileageDTO {
+
+    private final LocalDate day;
+    private final double distanceKm;
+    private final long acceptedPoints;
+    private final long rejectedPoints;
+
+    public DailyMileageDTO(LocalDate day, double distanceKm, long acceptedPoints, long rejectedPoints) {
+        this.day = day;
+        this.distanceKm = distanceKm;
+        this.acceptedPoints = acceptedPoints;
+        this.rejectedPoints = rejectedPoints;
+    }
+
+    public LocalDate getDay() { return day; }
+    public double getDistanceKm() { return distanceKm; }
+    public long getAcceptedPoints() { return acceptedPoints; }
+    public long getRejectedPoints() { return rejectedPoints; }
+}
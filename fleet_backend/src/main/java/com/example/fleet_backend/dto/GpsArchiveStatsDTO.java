@@ -0,0 +1,40 @@
+package com.example.fleet_backend.dto;
+
+public class GpsArchiveStatsDTO {
+
+    private final long segments;
+    private final long points;
+    private final long archiveBytes;
+    private final long databaseBytes;
+    private final double compressionRatio;
+    private final double databaseScanPointsPerSecond;
+    private final double archiveScanPointsPerSecond;
+    private final int benchmarkedSegments;
+
+    public GpsArchiveStatsDTO(long segments,
+                              long points,
+                              long archiveBytes,
+                              long databaseBytes,
+                              double compressionRatio,
+                              double databaseScanPointsPerSecond,
+                              double archiveScanPointsPerSecond,
+                              int benchmarkedSegments) {
+        this.segments = segments;
+        this.points = points;
+        this.archiveBytes = archiveBytes;
+        this.databaseBytes = databaseBytes;
+        this.compressionRatio = compressionRatio;
+        this.databaseScanPointsPerSecond = databaseScanPointsPerSecond;
+        this.archiveScanPointsPerSecond = archiveScanPointsPerSecond;
+        this.benchmarkedSegments = benchmarkedSegments;
+    }
+
+    public long getSegments() { return segments; }
+    public long getPoints() { return points; }
+    public long getArchiveBytes() { return archiveBytes; }
+    public long getDatabaseBytes() { return databaseBytes; }
+    public double getCompressionRatio() { return compressionRatio; }
+    public double getDatabaseScanPointsPerSecond() { return databaseScanPointsPerSecond; }
+    public double getArchiveScanPointsPerSecond() { return archiveScanPointsPerSecond; }
+    public int getBenchmarkedSegments() { return benchmarkedSegments; }
+}
@@ -0,0 +1,64 @@
+package com.example.fleet_backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GpsBulkIngestResultDTO {
+
+    private static final int MAX_ERRORS = 20;
+
+    private long received;
+    private long accepted;
+    private long rejected;
+    private boolean queued;
+    private List<String> errors = new ArrayList<>();
+
+    public GpsBulkIngestResultDTO() {}
+
+    public void addAccepted(long count) {
+        accepted += count;
+    }
+
+    public void addRejected(long index, String reason) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("#" + index + ": " + reason);
+        }
+    }
+
+    public void addRejectedCount(long count, String reason) {
+        if (count <= 0) {
+            return;
+        }
+
+        rejected += count;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(count + " point(s): " + reason);
+        }
+    }
+
+    public void addError(String message) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(message);
+        }
+    }
+
+    public void incrementReceived() {
+        received++;
+    }
+
+    public long getReceived() { return received; }
+    public void setReceived(long received) { this.received = received; }
+
+    public long getAccepted() { return accepted; }
+    public void setAccepted(long accepted) { this.accepted = accepted; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+
+    public boolean isQueued() { return queued; }
+    public void setQueued(boolean queued) { this.queued = queued; }
+
+    public List<String> getErrors() { return errors; }
+    public void setErrors(List<String> errors) { this.errors = errors; }
+}
@@ -0,0 +1,79 @@
+package com.example.fleet_backend.dto;
+
+import java.time.LocalDateTime;
+
+// Point d'historique agrégé : position et horodatage du dernier point du bucket.
+public class GpsRollupPointDTO extends GpsPointDTO {
+    private int resolutionSeconds;
+    private LocalDateTime bucketStart;
+    private long pointCount;
+    private Double avgSpeed;
+    private Double maxSpeed;
+    private Double avgEngineRpm;
+    private Integer maxEngineRpm;
+    private Double lastFuelLevel;
+    private Double minFuelLevel;
+    private Double avgEngineTemperature;
+    private Double maxEngineTemperature;
+    private Double avgBatteryVoltage;
+    private Double minBatteryVoltage;
+    private Double avgEngineLoad;
+    private long checkEngineCount;
+
+    public GpsRollupPointDTO(Long vehicleId,
+                             Long missionId,
+                             Double latitude,
+                             Double longitude,
+                             Double speed,
+                             boolean engineOn,
+                             LocalDateTime timestamp,
+                             String routeId,
+                             String routeSource) {
+        super(null, vehicleId, missionId, latitude, longitude, speed, engineOn, timestamp, routeId, routeSource);
+    }
+
+    public int getResolutionSeconds() { return resolutionSeconds; }
+    public void setResolutionSeconds(int resolutionSeconds) { this.resolutionSeconds = resolutionSeconds; }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+
+    public long getPointCount() { return pointCount; }
+    public void setPointCount(long pointCount) { this.pointCount = pointCount; }
+
+    public Double getAvgSpeed() { return avgSpeed; }
+    public void setAvgSpeed(Double avgSpeed) { this.avgSpeed = avgSpeed; }
+
+    public Double getMaxSpeed() { return maxSpeed; }
+    public void setMaxSpeed(Double maxSpeed) { this.maxSpeed = maxSpeed; }
+
+    public Double getAvgEngineRpm() { return avgEngineRpm; }
+    public void setAvgEngineRpm(Double avgEngineRpm) { this.avgEngineRpm = avgEngineRpm; }
+
+    public Integer getMaxEngineRpm() { return maxEngineRpm; }
+    public void setMaxEngineRpm(Integer maxEngineRpm) { this.maxEngineRpm = maxEngineRpm; }
+
+    public Double getLastFuelLevel() { return lastFuelLevel; }
+    public void setLastFuelLevel(Double lastFuelLevel) { this.lastFuelLevel = lastFuelLevel; }
+
+    public Double getMinFuelLevel() { return minFuelLevel; }
+    public void setMinFuelLevel(Double minFuelLevel) { this.minFuelLevel = minFuelLevel; }
+
+    public Double getAvgEngineTemperature() { return avgEngineTemperature; }
+    public void setAvgEngineTemperature(Double avgEngineTemperature) { this.avgEngineTemperature = avgEngineTemperature; }
+
+    public Double getMaxEngineTemperature() { return maxEngineTemperature; }
+    public void setMaxEngineTemperature(Double maxEngineTemperature) { this.maxEngineTemperature = maxEngineTemperature; }
+
+    public Double getAvgBatteryVoltage() { return avgBatteryVoltage; }
+    public void setAvgBatteryVoltage(Double avgBatteryVoltage) { this.avgBatteryVoltage = avgBatteryVoltage; }
+
+    public Double getMinBatteryVoltage() { return minBatteryVoltage; }
+    public void setMinBatteryVoltage(Double minBatteryVoltage) { this.minBatteryVoltage = minBatteryVoltage; }
+
+    public Double getAvgEngineLoad() { return avgEngineLoad; }
+    public void setAvgEngineLoad(Double avgEngineLoad) { this.avgEngineLoad = avgEngineLoad; }
+
+    public long getCheckEngineCount() { return checkEngineCount; }
+    public void setCheckEngineCount(long checkEngineCount) { this.checkEngineCount = checkEngineCount; }
+}
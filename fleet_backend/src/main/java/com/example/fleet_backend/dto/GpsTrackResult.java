@@ -0,0 +1,21 @@
+package com.example.fleet_backend.dto;
+
+import java.util.List;
+
+public class GpsTrackResult {
+    // Effectifs avant / après simplification, renvoyés en en-têtes pour ne pas changer le corps JSON.
+    public static final String ORIGINAL_POINTS_HEADER = "X-Track-Original-Points";
+    public static final String POINTS_HEADER = "X-Track-Points";
+
+    private final List<GpsPointDTO> points;
+    private final int originalPointCount;
+
+    public GpsTrackResult(List<GpsPointDTO> points, int originalPointCount) {
+        this.points = points;
+        this.originalPointCount = originalPointCount;
+    }
+
+    public List<GpsPointDTO> getPoints() { return points; }
+    public int getOriginalPointCount() { return originalPointCount; }
+    public int getPointCount() { return points.size(); }
+}
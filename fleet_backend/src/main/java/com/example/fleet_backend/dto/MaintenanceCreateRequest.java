@@ -32,6 +32,8 @@ public class MaintenanceCreateRequest {
 
     private Integer mileage;
 
+    private Integer dueMileage;
+
     private BigDecimal cost;
 
     private Long incidentId;
@@ -73,6 +75,10 @@ public class MaintenanceCreateRequest {
         return mileage;
     }
 
+    public Integer getDueMileage() {
+        return dueMileage;
+    }
+
     public BigDecimal getCost() {
         return cost;
     }
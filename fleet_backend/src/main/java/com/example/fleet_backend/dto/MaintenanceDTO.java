@@ -26,6 +26,7 @@ public class MaintenanceDTO {
     private LocalDateTime completedAt;
 
     private Integer mileage;
+    private Integer dueMileage;
     private BigDecimal cost;
 
     private Long createdByUserId;
@@ -52,6 +53,7 @@ public class MaintenanceDTO {
             LocalDateTime plannedDate,
             LocalDateTime completedAt,
             Integer mileage,
+            Integer dueMileage,
             BigDecimal cost,
             Long createdByUserId,
             String createdByEmail,
@@ -74,6 +76,7 @@ public class MaintenanceDTO {
         this.plannedDate = plannedDate;
         this.completedAt = completedAt;
         this.mileage = mileage;
+        this.dueMileage = dueMileage;
         this.cost = cost;
         this.createdByUserId = createdByUserId;
         this.createdByEmail = createdByEmail;
@@ -133,6 +136,10 @@ public class MaintenanceDTO {
         return mileage;
     }
 
+    public Integer getDueMileage() {
+        return dueMileage;
+    }
+
     public BigDecimal getCost() {
         return cost;
     }
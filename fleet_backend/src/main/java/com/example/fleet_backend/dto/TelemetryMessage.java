@@ -11,6 +11,9 @@ public class TelemetryMessage {
     private Double speed;
     private Boolean engineOn;
 
+    private String routeId;
+    private String routeSource;
+
     private Integer engineRpm;
     private Double fuelLevel;
     private Double engineTemperature;
@@ -66,6 +69,22 @@ public class TelemetryMessage {
         this.engineOn = engineOn;
     }
 
+    public String getRouteId() {
+        return routeId;
+    }
+
+    public void setRouteId(String routeId) {
+        this.routeId = routeId;
+    }
+
+    public String getRouteSource() {
+        return routeSource;
+    }
+
+    public void setRouteSource(String routeSource) {
+        this.routeSource = routeSource;
+    }
+
     public Integer getEngineRpm() {
         return engineRpm;
     }
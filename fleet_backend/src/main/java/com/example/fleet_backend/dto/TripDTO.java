@@ -0,0 +1,87 @@
+package com.example.fleet_backend.dto;
+
+import java.time.LocalDateTime;
+
+// Résumé d'un trajet ou d'un arrêt ; pour un segment encore ouvert, la fin est celle du dernier point reçu.
+public class TripDTO {
+
+    private final Long id;
+    private final Long vehicleId;
+    private final Long missionId;
+    private final String kind;
+    private final String status;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime endedAt;
+    private final Double startLatitude;
+    private final Double startLongitude;
+    private final Double endLatitude;
+    private final Double endLongitude;
+    private final double distanceMeters;
+    private final long durationSeconds;
+    private final long idleSeconds;
+    private final double maxSpeed;
+    private final Double startFuelLevel;
+    private final Double endFuelLevel;
+    private final double fuelUsed;
+    private final long pointCount;
+
+    public TripDTO(Long id,
+                   Long vehicleId,
+                   Long missionId,
+                   String kind,
+                   String status,
+                   LocalDateTime startedAt,
+                   LocalDateTime endedAt,
+                   Double startLatitude,
+                   Double startLongitude,
+                   Double endLatitude,
+                   Double endLongitude,
+                   double distanceMeters,
+                   long durationSeconds,
+                   long idleSeconds,
+                   double maxSpeed,
+                   Double startFuelLevel,
+                   Double endFuelLevel,
+                   double fuelUsed,
+                   long pointCount) {
+        this.id = id;
+        this.vehicleId = vehicleId;
+        this.missionId = missionId;
+        this.kind = kind;
+        this.status = status;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+        this.startLatitude = startLatitude;
+        this.startLongitude = startLongitude;
+        this.endLatitude = endLatitude;
+        this.endLongitude = endLongitude;
+        this.distanceMeters = distanceMeters;
+        this.durationSeconds = durationSeconds;
+        this.idleSeconds = idleSeconds;
+        this.maxSpeed = maxSpeed;
+        this.startFuelLevel = startFuelLevel;
+        this.endFuelLevel = endFuelLevel;
+        this.fuelUsed = fuelUsed;
+        this.pointCount = pointCount;
+    }
+
+    public Long getId() { return id; }
+    public Long getVehicleId() { return vehicleId; }
+    public Long getMissionId() { return missionId; }
+    public String getKind() { return kind; }
+    public String getStatus() { return status; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getEndedAt() { return endedAt; }
+    public Double getStartLatitude() { return startLatitude; }
+    public Double getStartLongitude() { return startLongitude; }
+    public Double getEndLatitude() { return endLatitude; }
+    public Double getEndLongitude() { return endLongitude; }
+    public double getDistanceMeters() { return distanceMeters; }
+    public long getDurationSeconds() { return durationSeconds; }
+    public long getIdleSeconds() { return idleSeconds; }
+    public double getMaxSpeed() { return maxSpeed; }
+    public Double getStartFuelLevel() { return startFuelLevel; }
+    public Double getEndFuelLevel() { return endFuelLevel; }
+    public double getFuelUsed() { return fuelUsed; }
+    public long getPointCount() { return pointCount; }
+}
@@ -16,6 +16,8 @@ public class VehicleLiveSocketDTO {
     private Long missionId;
     private String missionStatus;
     private String routeSource;
+    private Double routeProgressPercent;
+    private Double routeRemainingKm;
 
     public VehicleLiveSocketDTO() {
     }
@@ -81,4 +83,10 @@ public class VehicleLiveSocketDTO {
 
     public String getRouteSource() { return routeSource; }
     public void setRouteSource(String routeSource) { this.routeSource = routeSource; }
-}
\ No newline at end of file
+
+    public Double getRouteProgressPercent() { return routeProgressPercent; }
+    public void setRouteProgressPercent(Double routeProgressPercent) { this.routeProgressPercent = routeProgressPercent; }
+
+    public Double getRouteRemainingKm() { return routeRemainingKm; }
+    public void setRouteRemainingKm(Double routeRemainingKm) { this.routeRemainingKm = routeRemainingKm; }
+}
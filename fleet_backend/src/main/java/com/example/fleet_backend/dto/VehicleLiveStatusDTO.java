@@ -27,6 +27,9 @@ public class VehicleLiveStatusDTO {
 
     private List<MissionRoutePointDTO> missionRoute;
 
+    private Double routeProgressPercent;
+    private Double routeRemainingKm;
+
     private String healthState;
     private String healthReason;
 
@@ -214,4 +217,20 @@ public class VehicleLiveStatusDTO {
     public void setHealthReason(String healthReason) {
         this.healthReason = healthReason;
     }
-}
\ No newline at end of file
+
+    public Double getRouteProgressPercent() {
+        return routeProgressPercent;
+    }
+
+    public void setRouteProgressPercent(Double routeProgressPercent) {
+        this.routeProgressPercent = routeProgressPercent;
+    }
+
+    public Double getRouteRemainingKm() {
+        return routeRemainingKm;
+    }
+
+    public void setRouteRemainingKm(Double routeRemainingKm) {
+        this.routeRemainingKm = routeRemainingKm;
+    }
+}
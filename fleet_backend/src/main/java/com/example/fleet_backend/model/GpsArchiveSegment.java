@@ -0,0 +1,89 @@
+package com.example.fleet_backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Journée de points GPS d'un véhicule déplacée de gps_data vers un fichier d'archive colonnaire.
+@Entity
+@Table(
+        name = "gps_archive_segments",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_gps_archive_segment_day", columnNames = {"vehicle_id", "archive_day"})
+        },
+        indexes = {
+                @Index(name = "idx_gps_archive_segment_range", columnList = "vehicle_id, first_timestamp, last_timestamp")
+        }
+)
+public class GpsArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private Long vehicleId;
+
+    @Column(name = "archive_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "file_name", nullable = false, length = 100)
+    private String fileName;
+
+    @Column(name = "point_count", nullable = false)
+    private Long pointCount;
+
+    @Column(name = "first_timestamp", nullable = false)
+    private LocalDateTime firstTimestamp;
+
+    @Column(name = "last_timestamp", nullable = false)
+    private LocalDateTime lastTimestamp;
+
+    @Column(name = "file_bytes", nullable = false)
+    private Long fileBytes;
+
+    // Taille des mêmes lignes dans PostgreSQL (pg_column_size) et durée de leur lecture, pour comparaison.
+    @Column(name = "db_bytes", nullable = false)
+    private Long dbBytes;
+
+    @Column(name = "db_read_nanos", nullable = false)
+    private Long dbReadNanos;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public GpsArchiveSegment() {
+    }
+
+    public Long getId() { return id; }
+
+    public Long getVehicleId() { return vehicleId; }
+    public void setVehicleId(Long vehicleId) { this.vehicleId = vehicleId; }
+
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public Long getPointCount() { return pointCount; }
+    public void setPointCount(Long pointCount) { this.pointCount = pointCount; }
+
+    public LocalDateTime getFirstTimestamp() { return firstTimestamp; }
+    public void setFirstTimestamp(LocalDateTime firstTimestamp) { this.firstTimestamp = firstTimestamp; }
+
+    public LocalDateTime getLastTimestamp() { return lastTimestamp; }
+    public void setLastTimestamp(LocalDateTime lastTimestamp) { this.lastTimestamp = lastTimestamp; }
+
+    public Long getFileBytes() { return fileBytes; }
+    public void setFileBytes(Long fileBytes) { this.fileBytes = fileBytes; }
+
+    public Long getDbBytes() { return dbBytes; }
+    public void setDbBytes(Long dbBytes) { this.dbBytes = dbBytes; }
+
+    public Long getDbReadNanos() { return dbReadNanos; }
+    public void setDbReadNanos(Long dbReadNanos) { this.dbReadNanos = dbReadNanos; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+}
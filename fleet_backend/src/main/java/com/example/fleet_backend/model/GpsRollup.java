@@ -0,0 +1,177 @@
+package com.example.fleet_backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Agrégat d'un intervalle fixe de points GPS ; écrit en SQL par GpsRollupService, lu en JPA ou recalculé en SQL.
+@Entity
+@Table(
+        name = "gps_rollups",
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_gps_rollup_bucket",
+                        columnNames = {"vehicle_id", "resolution_seconds", "bucket_start"}
+                )
+        }
+)
+public class GpsRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private Long vehicleId;
+
+    @Column(name = "resolution_seconds", nullable = false)
+    private Integer resolutionSeconds;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "point_count", nullable = false)
+    private Long pointCount;
+
+    @Column(name = "first_timestamp", nullable = false)
+    private LocalDateTime firstTimestamp;
+
+    // ===== Dernier point de l'intervalle =====
+
+    @Column(name = "last_timestamp", nullable = false)
+    private LocalDateTime lastTimestamp;
+
+    @Column(name = "last_latitude", nullable = false)
+    private Double lastLatitude;
+
+    @Column(name = "last_longitude", nullable = false)
+    private Double lastLongitude;
+
+    @Column(name = "last_speed")
+    private Double lastSpeed;
+
+    @Column(name = "last_engine_on")
+    private Boolean lastEngineOn;
+
+    @Column(name = "last_route_id", length = 100)
+    private String lastRouteId;
+
+    @Column(name = "last_route_source", length = 20)
+    private String lastRouteSource;
+
+    @Column(name = "last_mission_id")
+    private Long lastMissionId;
+
+    @Column(name = "last_fuel_level")
+    private Double lastFuelLevel;
+
+    // ===== Agrégats (somme + effectif pour les moyennes, fusionnables) =====
+
+    @Column(name = "speed_sum", nullable = false)
+    private Double speedSum;
+
+    @Column(name = "max_speed")
+    private Double maxSpeed;
+
+    @Column(name = "rpm_sum", nullable = false)
+    private Double rpmSum;
+
+    @Column(name = "rpm_count", nullable = false)
+    private Long rpmCount;
+
+    @Column(name = "max_rpm")
+    private Integer maxRpm;
+
+    @Column(name = "min_fuel_level")
+    private Double minFuelLevel;
+
+    @Column(name = "temperature_sum", nullable = false)
+    private Double temperatureSum;
+
+    @Column(name = "temperature_count", nullable = false)
+    private Long temperatureCount;
+
+    @Column(name = "max_temperature")
+    private Double maxTemperature;
+
+    @Column(name = "battery_sum", nullable = false)
+    private Double batterySum;
+
+    @Column(name = "battery_count", nullable = false)
+    private Long batteryCount;
+
+    @Column(name = "min_battery_voltage")
+    private Double minBatteryVoltage;
+
+    @Column(name = "load_sum", nullable = false)
+    private Double loadSum;
+
+    @Column(name = "load_count", nullable = false)
+    private Long loadCount;
+
+    @Column(name = "check_engine_count", nullable = false)
+    private Long checkEngineCount;
+
+    public GpsRollup() {
+    }
+
+    public Long getId() { return id; }
+    public Long getVehicleId() { return vehicleId; }
+    public Integer getResolutionSeconds() { return resolutionSeconds; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public Long getPointCount() { return pointCount; }
+    public LocalDateTime getFirstTimestamp() { return firstTimestamp; }
+    public LocalDateTime getLastTimestamp() { return lastTimestamp; }
+    public Double getLastLatitude() { return lastLatitude; }
+    public Double getLastLongitude() { return lastLongitude; }
+    public Double getLastSpeed() { return lastSpeed; }
+    public Boolean getLastEngineOn() { return lastEngineOn; }
+    public String getLastRouteId() { return lastRouteId; }
+    public String getLastRouteSource() { return lastRouteSource; }
+    public Long getLastMissionId() { return lastMissionId; }
+    public Double getLastFuelLevel() { return lastFuelLevel; }
+    public Double getSpeedSum() { return speedSum; }
+    public Double getMaxSpeed() { return maxSpeed; }
+    public Double getRpmSum() { return rpmSum; }
+    public Long getRpmCount() { return rpmCount; }
+    public Integer getMaxRpm() { return maxRpm; }
+    public Double getMinFuelLevel() { return minFuelLevel; }
+    public Double getTemperatureSum() { return temperatureSum; }
+    public Long getTemperatureCount() { return temperatureCount; }
+    public Double getMaxTemperature() { return maxTemperature; }
+    public Double getBatterySum() { return batterySum; }
+    public Long getBatteryCount() { return batteryCount; }
+    public Double getMinBatteryVoltage() { return minBatteryVoltage; }
+    public Double getLoadSum() { return loadSum; }
+    public Long getLoadCount() { return loadCount; }
+    public Long getCheckEngineCount() { return checkEngineCount; }
+
+    public void setVehicleId(Long vehicleId) { this.vehicleId = vehicleId; }
+    public void setResolutionSeconds(Integer resolutionSeconds) { this.resolutionSeconds = resolutionSeconds; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+    public void setPointCount(Long pointCount) { this.pointCount = pointCount; }
+    public void setFirstTimestamp(LocalDateTime firstTimestamp) { this.firstTimestamp = firstTimestamp; }
+    public void setLastTimestamp(LocalDateTime lastTimestamp) { this.lastTimestamp = lastTimestamp; }
+    public void setLastLatitude(Double lastLatitude) { this.lastLatitude = lastLatitude; }
+    public void setLastLongitude(Double lastLongitude) { this.lastLongitude = lastLongitude; }
+    public void setLastSpeed(Double lastSpeed) { this.lastSpeed = lastSpeed; }
+    public void setLastEngineOn(Boolean lastEngineOn) { this.lastEngineOn = lastEngineOn; }
+    public void setLastRouteId(String lastRouteId) { this.lastRouteId = lastRouteId; }
+    public void setLastRouteSource(String lastRouteSource) { this.lastRouteSource = lastRouteSource; }
+    public void setLastMissionId(Long lastMissionId) { this.lastMissionId = lastMissionId; }
+    public void setLastFuelLevel(Double lastFuelLevel) { this.lastFuelLevel = lastFuelLevel; }
+    public void setSpeedSum(Double speedSum) { this.speedSum = speedSum; }
+    public void setMaxSpeed(Double maxSpeed) { this.maxSpeed = maxSpeed; }
+    public void setRpmSum(Double rpmSum) { this.rpmSum = rpmSum; }
+    public void setRpmCount(Long rpmCount) { this.rpmCount = rpmCount; }
+    public void setMaxRpm(Integer maxRpm) { this.maxRpm = maxRpm; }
+    public void setMinFuelLevel(Double minFuelLevel) { this.minFuelLevel = minFuelLevel; }
+    public void setTemperatureSum(Double temperatureSum) { this.temperatureSum = temperatureSum; }
+    public void setTemperatureCount(Long temperatureCount) { this.temperatureCount = temperatureCount; }
+    public void setMaxTemperature(Double maxTemperature) { this.maxTemperature = maxTemperature; }
+    public void setBatterySum(Double batterySum) { this.batterySum = batterySum; }
+    public void setBatteryCount(Long batteryCount) { this.batteryCount = batteryCount; }
+    public void setMinBatteryVoltage(Double minBatteryVoltage) { this.minBatteryVoltage = minBatteryVoltage; }
+    public void setLoadSum(Double loadSum) { this.loadSum = loadSum; }
+    public void setLoadCount(Long loadCount) { this.loadCount = loadCount; }
+    public void setCheckEngineCount(Long checkEngineCount) { this.checkEngineCount = checkEngineCount; }
+}
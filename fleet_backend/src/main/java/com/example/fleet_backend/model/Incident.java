@@ -4,7 +4,14 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "incidents")
+@Table(
+        name = "incidents",
+        indexes = {
+                @Index(name = "idx_incidents_vehicle_created", columnList = "vehicle_id, created_at, id"),
+                @Index(name = "idx_incidents_mission_created", columnList = "mission_id, created_at, id"),
+                @Index(name = "idx_incidents_reporter_created", columnList = "reported_by_user_id, created_at, id")
+        }
+)
 public class Incident {
 
     @Id
@@ -45,7 +52,9 @@ public class Incident {
     @JoinColumn(name = "vehicle_event_id")
     private VehicleEvent vehicleEvent;
 
+    @Column(name = "reported_by_user_id")
     private Long reportedByUserId;
+
     private String reportedByEmail;
 
     private Long handledByUserId;
@@ -54,7 +63,10 @@ public class Incident {
     private LocalDateTime reportedAt;
     private LocalDateTime validatedAt;
     private LocalDateTime resolvedAt;
+
+    @Column(name = "created_at")
     private LocalDateTime createdAt;
+
     private LocalDateTime updatedAt;
 
     private Double latitude;
@@ -48,6 +48,11 @@ public class Maintenance {
     private LocalDateTime completedAt;
 
     private Integer mileage;
+
+    // Kilométrage compteur auquel la maintenance planifiée devient due ; null = échéance par date seulement.
+    @Column(name = "due_mileage")
+    private Integer dueMileage;
+
     private BigDecimal cost;
 
     private Long createdByUserId;
@@ -181,6 +186,14 @@ public class Maintenance {
         this.mileage = mileage;
     }
 
+    public Integer getDueMileage() {
+        return dueMileage;
+    }
+
+    public void setDueMileage(Integer dueMileage) {
+        this.dueMileage = dueMileage;
+    }
+
     public BigDecimal getCost() {
         return cost;
     }
@@ -0,0 +1,68 @@
+package com.example.fleet_backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "outbox_messages",
+        indexes = {
+                @Index(name = "idx_outbox_created_at", columnList = "created_at")
+        }
+)
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Clé d'ordre : les messages d'un même véhicule sont relayés dans l'ordre des identifiants.
+    @Column(name = "partition_key")
+    private Long partitionKey;
+
+    // Destinations STOMP, une par ligne.
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String destinations;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPartitionKey() {
+        return partitionKey;
+    }
+
+    public void setPartitionKey(Long partitionKey) {
+        this.partitionKey = partitionKey;
+    }
+
+    public String getDestinations() {
+        return destinations;
+    }
+
+    public void setDestinations(String destinations) {
+        this.destinations = destinations;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
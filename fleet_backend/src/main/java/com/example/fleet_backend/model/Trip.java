@@ -0,0 +1,222 @@
+package com.example.fleet_backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Trajet ou arrêt d'un véhicule, découpé au fil de l'ingestion GPS par TripSegmentationService.
+@Entity
+@Table(
+        name = "trips",
+        indexes = {
+                @Index(name = "idx_trips_vehicle_started", columnList = "vehicle_id, started_at"),
+                @Index(name = "idx_trips_status_last_point", columnList = "status, last_point_at")
+        }
+)
+public class Trip {
+
+    public enum Kind {
+        TRIP, STOP
+    }
+
+    public enum Status {
+        OPEN, CLOSED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private Long vehicleId;
+
+    @Column(name = "mission_id")
+    private Long missionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 10)
+    private Kind kind;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    private Status status;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "ended_at")
+    private LocalDateTime endedAt;
+
+    @Column(name = "start_latitude", nullable = false)
+    private Double startLatitude;
+
+    @Column(name = "start_longitude", nullable = false)
+    private Double startLongitude;
+
+    @Column(name = "end_latitude")
+    private Double endLatitude;
+
+    @Column(name = "end_longitude")
+    private Double endLongitude;
+
+    @Column(name = "distance_meters", nullable = false)
+    private Double distanceMeters;
+
+    @Column(name = "duration_seconds", nullable = false)
+    private Long durationSeconds;
+
+    // Moteur tournant, véhicule à l'arrêt.
+    @Column(name = "idle_seconds", nullable = false)
+    private Long idleSeconds;
+
+    @Column(name = "max_speed", nullable = false)
+    private Double maxSpeed;
+
+    @Column(name = "start_fuel_level")
+    private Double startFuelLevel;
+
+    @Column(name = "end_fuel_level")
+    private Double endFuelLevel;
+
+    // Somme des baisses de niveau entre points consécutifs : un plein en route ne l'annule pas.
+    @Column(name = "fuel_used", nullable = false)
+    private Double fuelUsed;
+
+    @Column(name = "point_count", nullable = false)
+    private Long pointCount;
+
+    // ===== État de segmentation (dernier point reçu) =====
+
+    @Column(name = "last_point_at", nullable = false)
+    private LocalDateTime lastPointAt;
+
+    @Column(name = "last_latitude", nullable = false)
+    private Double lastLatitude;
+
+    @Column(name = "last_longitude", nullable = false)
+    private Double lastLongitude;
+
+    @Column(name = "last_fuel_level")
+    private Double lastFuelLevel;
+
+    // Début de l'immobilisation en cours pendant un trajet (null si le véhicule roule).
+    @Column(name = "stationary_since")
+    private LocalDateTime stationarySince;
+
+    @Column(name = "stationary_latitude")
+    private Double stationaryLatitude;
+
+    @Column(name = "stationary_longitude")
+    private Double stationaryLongitude;
+
+    // Ralenti accumulé depuis stationarySince, rendu au trajet s'il repart avant la fin du temps d'arrêt.
+    @Column(name = "stationary_idle_seconds")
+    private Long stationaryIdleSeconds;
+
+    // Cumuls du trajet au début de l'immobilisation, rétablis si elle devient un arrêt.
+    @Column(name = "stationary_distance_meters")
+    private Double stationaryDistanceMeters;
+
+    @Column(name = "stationary_fuel_used")
+    private Double stationaryFuelUsed;
+
+    @Column(name = "stationary_fuel_level")
+    private Double stationaryFuelLevel;
+
+    @Column(name = "stationary_point_count")
+    private Long stationaryPointCount;
+
+    public Trip() {
+    }
+
+    public Long getId() { return id; }
+
+    public Long getVehicleId() { return vehicleId; }
+    public void setVehicleId(Long vehicleId) { this.vehicleId = vehicleId; }
+
+    public Long getMissionId() { return missionId; }
+    public void setMissionId(Long missionId) { this.missionId = missionId; }
+
+    public Kind getKind() { return kind; }
+    public void setKind(Kind kind) { this.kind = kind; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getEndedAt() { return endedAt; }
+    public void setEndedAt(LocalDateTime endedAt) { this.endedAt = endedAt; }
+
+    public Double getStartLatitude() { return startLatitude; }
+    public void setStartLatitude(Double startLatitude) { this.startLatitude = startLatitude; }
+
+    public Double getStartLongitude() { return startLongitude; }
+    public void setStartLongitude(Double startLongitude) { this.startLongitude = startLongitude; }
+
+    public Double getEndLatitude() { return endLatitude; }
+    public void setEndLatitude(Double endLatitude) { this.endLatitude = endLatitude; }
+
+    public Double getEndLongitude() { return endLongitude; }
+    public void setEndLongitude(Double endLongitude) { this.endLongitude = endLongitude; }
+
+    public Double getDistanceMeters() { return distanceMeters; }
+    public void setDistanceMeters(Double distanceMeters) { this.distanceMeters = distanceMeters; }
+
+    public Long getDurationSeconds() { return durationSeconds; }
+    public void setDurationSeconds(Long durationSeconds) { this.durationSeconds = durationSeconds; }
+
+    public Long getIdleSeconds() { return idleSeconds; }
+    public void setIdleSeconds(Long idleSeconds) { this.idleSeconds = idleSeconds; }
+
+    public Double getMaxSpeed() { return maxSpeed; }
+    public void setMaxSpeed(Double maxSpeed) { this.maxSpeed = maxSpeed; }
+
+    public Double getStartFuelLevel() { return startFuelLevel; }
+    public void setStartFuelLevel(Double startFuelLevel) { this.startFuelLevel = startFuelLevel; }
+
+    public Double getEndFuelLevel() { return endFuelLevel; }
+    public void setEndFuelLevel(Double endFuelLevel) { this.endFuelLevel = endFuelLevel; }
+
+    public Double getFuelUsed() { return fuelUsed; }
+    public void setFuelUsed(Double fuelUsed) { this.fuelUsed = fuelUsed; }
+
+    public Long getPointCount() { return pointCount; }
+    public void setPointCount(Long pointCount) { this.pointCount = pointCount; }
+
+    public LocalDateTime getLastPointAt() { return lastPointAt; }
+    public void setLastPointAt(LocalDateTime lastPointAt) { this.lastPointAt = lastPointAt; }
+
+    public Double getLastLatitude() { return lastLatitude; }
+    public void setLastLatitude(Double lastLatitude) { this.lastLatitude = lastLatitude; }
+
+    public Double getLastLongitude() { return lastLongitude; }
+    public void setLastLongitude(Double lastLongitude) { this.lastLongitude = lastLongitude; }
+
+    public Double getLastFuelLevel() { return lastFuelLevel; }
+    public void setLastFuelLevel(Double lastFuelLevel) { this.lastFuelLevel = lastFuelLevel; }
+
+    public LocalDateTime getStationarySince() { return stationarySince; }
+    public void setStationarySince(LocalDateTime stationarySince) { this.stationarySince = stationarySince; }
+
+    public Double getStationaryLatitude() { return stationaryLatitude; }
+    public void setStationaryLatitude(Double stationaryLatitude) { this.stationaryLatitude = stationaryLatitude; }
+
+    public Double getStationaryLongitude() { return stationaryLongitude; }
+    public void setStationaryLongitude(Double stationaryLongitude) { this.stationaryLongitude = stationaryLongitude; }
+
+    public Long getStationaryIdleSeconds() { return stationaryIdleSeconds; }
+    public void setStationaryIdleSeconds(Long stationaryIdleSeconds) { this.stationaryIdleSeconds = stationaryIdleSeconds; }
+
+    public Double getStationaryDistanceMeters() { return stationaryDistanceMeters; }
+    public void setStationaryDistanceMeters(Double stationaryDistanceMeters) { this.stationaryDistanceMeters = stationaryDistanceMeters; }
+
+    public Double getStationaryFuelUsed() { return stationaryFuelUsed; }
+    public void setStationaryFuelUsed(Double stationaryFuelUsed) { this.stationaryFuelUsed = stationaryFuelUsed; }
+
+    public Double getStationaryFuelLevel() { return stationaryFuelLevel; }
+    public void setStationaryFuelLevel(Double stationaryFuelLevel) { this.stationaryFuelLevel = stationaryFuelLevel; }
+
+    public Long getStationaryPointCount() { return stationaryPointCount; }
+    public void setStationaryPointCount(Long stationaryPointCount) { this.stationaryPointCount = stationaryPointCount; }
+}
@@ -1,9 +1,13 @@
 package com.example.fleet_backend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+
 import java.time.LocalDateTime;
 
+// Mises à jour limitées aux colonnes modifiées : l'ingestion ne réécrit pas le kilométrage cumulé par OdometerService.
 @Entity
+@DynamicUpdate
 @Table(name = "vehicles")
 public class Vehicle {
 
@@ -44,9 +48,14 @@ public class Vehicle {
     @Column(name = "parked")
     private Boolean parked = true;
 
-    @Column(name = "mileage")
+    // Écrit en SQL seulement (incréments de l'odomètre, correction à la hausse) : une entité chargée avant ne l'écrase pas.
+    @Column(name = "mileage", updatable = false)
     private Double mileage;
 
+    // Horodatage du dernier point compté par l'odomètre, avancé dans la même requête que le kilométrage.
+    @Column(name = "odometer_anchor_at", insertable = false, updatable = false)
+    private LocalDateTime odometerAnchorAt;
+
     @Column(name = "last_maintenance_date")
     private LocalDateTime lastMaintenanceDate;
 
@@ -156,6 +165,8 @@ public class Vehicle {
     public Double getMileage() { return mileage; }
     public void setMileage(Double mileage) { this.mileage = mileage; }
 
+    public LocalDateTime getOdometerAnchorAt() { return odometerAnchorAt; }
+
     public LocalDateTime getLastMaintenanceDate() { return lastMaintenanceDate; }
     public void setLastMaintenanceDate(LocalDateTime lastMaintenanceDate) { this.lastMaintenanceDate = lastMaintenanceDate; }
 
@@ -0,0 +1,50 @@
+package com.example.fleet_backend.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Kilométrage d'un véhicule par jour, cumulé depuis le flux GPS ; écrit en SQL par OdometerService, lu en JPA.
+@Entity
+@Table(
+        name = "vehicle_daily_mileage",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_vehicle_daily_mileage_day", columnNames = {"vehicle_id", "mileage_day"})
+        }
+)
+public class VehicleDailyMileage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "vehicle_id", nullable = false)
+    private Long vehicleId;
+
+    @Column(name = "mileage_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "distance_meters", nullable = false)
+    private Double distanceMeters;
+
+    @Column(name = "accepted_points", nullable = false)
+    private Long acceptedPoints;
+
+    // Sauts de position rejetés (vitesse implicite impossible).
+    @Column(name = "rejected_points", nullable = false)
+    private Long rejectedPoints;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public VehicleDailyMileage() {
+    }
+
+    public Long getId() { return id; }
+    public Long getVehicleId() { return vehicleId; }
+    public LocalDate getDay() { return day; }
+    public Double getDistanceMeters() { return distanceMeters; }
+    public Long getAcceptedPoints() { return acceptedPoints; }
+    public Long getRejectedPoints() { return rejectedPoints; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -4,7 +4,12 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "vehicle_events")
+@Table(
+        name = "vehicle_events",
+        indexes = {
+                @Index(name = "idx_vehicle_events_vehicle_created", columnList = "vehicle_id, created_at, id")
+        }
+)
 public class VehicleEvent {
 
     @Id
@@ -37,7 +42,7 @@ public class VehicleEvent {
     private Double longitude;
     private Double speed;
 
-    @Column(nullable = false)
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
     @Column(nullable = false)
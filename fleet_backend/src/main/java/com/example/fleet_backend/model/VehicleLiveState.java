@@ -51,6 +51,12 @@ public class VehicleLiveState {
 
     @Column(name = "route_source")
     private String routeSource;
+
+    @Column(name = "route_progress_percent")
+    private Double routeProgressPercent;
+
+    @Column(name = "route_remaining_km")
+    private Double routeRemainingKm;
     @Enumerated(EnumType.STRING)
     @Column(name = "health_state", length = 50)
     private VehicleHealthState healthState = VehicleHealthState.NORMAL;
@@ -134,6 +140,34 @@ public class VehicleLiveState {
     public VehicleLiveState() {
     }
 
+    public void copyFrom(VehicleLiveState other) {
+        this.vehicle = other.vehicle;
+        this.latitude = other.latitude;
+        this.longitude = other.longitude;
+        this.speed = other.speed;
+        this.engineOn = other.engineOn;
+        this.lastTimestamp = other.lastTimestamp;
+        this.liveStatus = other.liveStatus;
+        this.missionId = other.missionId;
+        this.missionStatus = other.missionStatus;
+        this.driverId = other.driverId;
+        this.driverName = other.driverName;
+        this.routeId = other.routeId;
+        this.routeSource = other.routeSource;
+        this.routeProgressPercent = other.routeProgressPercent;
+        this.routeRemainingKm = other.routeRemainingKm;
+        this.healthState = other.healthState;
+        this.healthReason = other.healthReason;
+        this.obdLastTimestamp = other.obdLastTimestamp;
+        this.engineRpm = other.engineRpm;
+        this.fuelLevel = other.fuelLevel;
+        this.engineTemperature = other.engineTemperature;
+        this.batteryVoltage = other.batteryVoltage;
+        this.engineLoad = other.engineLoad;
+        this.checkEngineOn = other.checkEngineOn;
+        this.obdStatus = other.obdStatus;
+    }
+
     public Long getId() {
         return id;
     }
@@ -265,4 +299,20 @@ public class VehicleLiveState {
     public void setObdLastTimestamp(LocalDateTime obdLastTimestamp) {
         this.obdLastTimestamp = obdLastTimestamp;
     }
-}
\ No newline at end of file
+
+    public Double getRouteProgressPercent() {
+        return routeProgressPercent;
+    }
+
+    public void setRouteProgressPercent(Double routeProgressPercent) {
+        this.routeProgressPercent = routeProgressPercent;
+    }
+
+    public Double getRouteRemainingKm() {
+        return routeRemainingKm;
+    }
+
+    public void setRouteRemainingKm(Double routeRemainingKm) {
+        this.routeRemainingKm = routeRemainingKm;
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.fleet_backend.mqtt;
+
+import com.example.fleet_backend.dto.GpsIncomingDTO;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Format binaire fixe (big-endian) des messages de télémétrie, version 1 :
+ *
+ * <pre>
+ *  0  u8   version (= 1)
+ *  1  u8   flags : bit0 engineOn, bit1 checkEngineOn, bit2 checkEngineOn renseigné,
+ *          bit3 timestamp absent, bit4 latitude absente, bit5 longitude absente
+ *  2  u16  présence : bit0 speed, bit1 engineRpm, bit2 fuelLevel, bit3 engineTemperature,
+ *          bit4 batteryVoltage, bit5 engineLoad, bit6 routeId, bit7 routeSource
+ *  4  i64  vehicleId
+ * 12  i64  timestamp (epoch millis, fuseau du serveur)
+ * 20  i32  latitude  (1e-7 degré)
+ * 24  i32  longitude (1e-7 degré)
+ * 28  u16  speed (0.01 km/h)
+ * 30  u16  engineRpm
+ * 32  u16  fuelLevel (0.01 %)
+ * 34  i16  engineTemperature (0.1 °C)
+ * 36  u16  batteryVoltage (0.001 V)
+ * 38  u16  engineLoad (0.01 %)
+ * 40  [u8 longueur + UTF-8] routeId puis routeSource, seulement si présents
+ * </pre>
+ *
+ * <p>Les bits d'absence valent 0 dans les trames des boîtiers existants : horodatage et position y
+ * restent lus comme présents. Un champ absent est décodé à {@code null}, comme en JSON.</p>
+ */
+public final class BinaryTelemetryCodec {
+
+    public static final byte VERSION = 1;
+    public static final int FIXED_LENGTH = 40;
+
+    private static final int FLAG_ENGINE_ON = 1;
+    private static final int FLAG_CHECK_ENGINE_ON = 1 << 1;
+    private static final int FLAG_CHECK_ENGINE_PRESENT = 1 << 2;
+    private static final int FLAG_NO_TIMESTAMP = 1 << 3;
+    private static final int FLAG_NO_LATITUDE = 1 << 4;
+    private static final int FLAG_NO_LONGITUDE = 1 << 5;
+
+    private static final int HAS_SPEED = 1;
+    private static final int HAS_ENGINE_RPM = 1 << 1;
+    private static final int HAS_FUEL_LEVEL = 1 << 2;
+    private static final int HAS_ENGINE_TEMPERATURE = 1 << 3;
+    private static final int HAS_BATTERY_VOLTAGE = 1 << 4;
+    private static final int HAS_ENGINE_LOAD = 1 << 5;
+    private static final int HAS_ROUTE_ID = 1 << 6;
+    private static final int HAS_ROUTE_SOURCE = 1 << 7;
+
+    private static final double COORDINATE_SCALE = 1e7;
+
+    private BinaryTelemetryCodec() {
+    }
+
+    public static boolean looksBinary(byte[] payload) {
+        return payload != null && payload.length >= FIXED_LENGTH && payload[0] == VERSION;
+    }
+
+    public static GpsIncomingDTO decode(byte[] payload) {
+        return decode(ByteBuffer.wrap(payload));
+    }
+
+    public static GpsIncomingDTO decode(ByteBuffer buffer) {
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+
+        try {
+            if (in.remaining() < FIXED_LENGTH) {
+                throw new IllegalArgumentException("Binary telemetry too short: " + in.remaining() + " bytes");
+            }
+
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported binary telemetry version: " + version);
+            }
+
+            int flags = in.get() & 0xFF;
+            int present = in.getShort() & 0xFFFF;
+
+            GpsIncomingDTO dto = new GpsIncomingDTO();
+
+            dto.setVehicleId(in.getLong());
+
+            long timestamp = in.getLong();
+            int latitude = in.getInt();
+            int longitude = in.getInt();
+
+            if ((flags & FLAG_NO_TIMESTAMP) == 0) {
+                dto.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()));
+            }
+            if ((flags & FLAG_NO_LATITUDE) == 0) dto.setLatitude(latitude / COORDINATE_SCALE);
+            if ((flags & FLAG_NO_LONGITUDE) == 0) dto.setLongitude(longitude / COORDINATE_SCALE);
+
+            int speed = in.getShort() & 0xFFFF;
+            int engineRpm = in.getShort() & 0xFFFF;
+            int fuelLevel = in.getShort() & 0xFFFF;
+            short engineTemperature = in.getShort();
+            int batteryVoltage = in.getShort() & 0xFFFF;
+            int engineLoad = in.getShort() & 0xFFFF;
+
+            dto.setEngineOn((flags & FLAG_ENGINE_ON) != 0);
+
+            if ((flags & FLAG_CHECK_ENGINE_PRESENT) != 0) {
+                dto.setCheckEngineOn((flags & FLAG_CHECK_ENGINE_ON) != 0);
+            }
+
+            if ((present & HAS_SPEED) != 0) dto.setSpeed(speed / 100.0);
+            if ((present & HAS_ENGINE_RPM) != 0) dto.setEngineRpm(engineRpm);
+            if ((present & HAS_FUEL_LEVEL) != 0) dto.setFuelLevel(fuelLevel / 100.0);
+            if ((present & HAS_ENGINE_TEMPERATURE) != 0) dto.setEngineTemperature(engineTemperature / 10.0);
+            if ((present & HAS_BATTERY_VOLTAGE) != 0) dto.setBatteryVoltage(batteryVoltage / 1000.0);
+            if ((present & HAS_ENGINE_LOAD) != 0) dto.setEngineLoad(engineLoad / 100.0);
+
+            if ((present & HAS_ROUTE_ID) != 0) dto.setRouteId(readString(in));
+            if ((present & HAS_ROUTE_SOURCE) != 0) dto.setRouteSource(readString(in));
+
+            return dto;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated binary telemetry payload");
+        }
+    }
+
+    public static byte[] encode(GpsIncomingDTO dto) {
+        byte[] routeId = dto.getRouteId() != null ? dto.getRouteId().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] routeSource = dto.getRouteSource() != null ? dto.getRouteSource().getBytes(StandardCharsets.UTF_8) : null;
+
+        int length = FIXED_LENGTH
+                + (routeId != null ? 1 + Math.min(routeId.length, 255) : 0)
+                + (routeSource != null ? 1 + Math.min(routeSource.length, 255) : 0);
+
+        ByteBuffer out = ByteBuffer.allocate(length).order(ByteOrder.BIG_ENDIAN);
+
+        int flags = 0;
+        if (dto.isEngineOn()) flags |= FLAG_ENGINE_ON;
+        if (dto.getCheckEngineOn() != null) {
+            flags |= FLAG_CHECK_ENGINE_PRESENT;
+            if (dto.getCheckEngineOn()) flags |= FLAG_CHECK_ENGINE_ON;
+        }
+        if (dto.getTimestamp() == null) flags |= FLAG_NO_TIMESTAMP;
+        if (dto.getLatitude() == null) flags |= FLAG_NO_LATITUDE;
+        if (dto.getLongitude() == null) flags |= FLAG_NO_LONGITUDE;
+
+        int present = 0;
+        if (dto.getSpeed() != null) present |= HAS_SPEED;
+        if (dto.getEngineRpm() != null) present |= HAS_ENGINE_RPM;
+        if (dto.getFuelLevel() != null) present |= HAS_FUEL_LEVEL;
+        if (dto.getEngineTemperature() != null) present |= HAS_ENGINE_TEMPERATURE;
+        if (dto.getBatteryVoltage() != null) present |= HAS_BATTERY_VOLTAGE;
+        if (dto.getEngineLoad() != null) present |= HAS_ENGINE_LOAD;
+        if (routeId != null) present |= HAS_ROUTE_ID;
+        if (routeSource != null) present |= HAS_ROUTE_SOURCE;
+
+        out.put(VERSION);
+        out.put((byte) flags);
+        out.putShort((short) present);
+        out.putLong(dto.getVehicleId() != null ? dto.getVehicleId() : 0L);
+        out.putLong(dto.getTimestamp() != null
+                ? dto.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : 0L);
+        out.putInt(dto.getLatitude() != null ? (int) Math.round(dto.getLatitude() * COORDINATE_SCALE) : 0);
+        out.putInt(dto.getLongitude() != null ? (int) Math.round(dto.getLongitude() * COORDINATE_SCALE) : 0);
+        out.putShort(unsigned16(dto.getSpeed(), 100.0));
+        out.putShort(unsigned16(dto.getEngineRpm() != null ? dto.getEngineRpm().doubleValue() : null, 1.0));
+        out.putShort(unsigned16(dto.getFuelLevel(), 100.0));
+        out.putShort(signed16(dto.getEngineTemperature(), 10.0));
+        out.putShort(unsigned16(dto.getBatteryVoltage(), 1000.0));
+        out.putShort(unsigned16(dto.getEngineLoad(), 100.0));
+
+        if (routeId != null) writeString(out, routeId);
+        if (routeSource != null) writeString(out, routeSource);
+
+        return out.array();
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.get() & 0xFF;
+
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+
+        if (in.hasArray()) {
+            String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return value;
+        }
+
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(ByteBuffer out, byte[] value) {
+        int length = Math.min(value.length, 255);
+        out.put((byte) length);
+        out.put(value, 0, length);
+    }
+
+    private static short unsigned16(Double value, double scale) {
+        if (value == null) {
+            return 0;
+        }
+
+        long scaled = Math.round(value * scale);
+        return (short) Math.max(0, Math.min(0xFFFF, scaled));
+    }
+
+    private static short signed16(Double value, double scale) {
+        if (value == null) {
+            return 0;
+        }
+
+        long scaled = Math.round(value * scale);
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, scaled));
+    }
+}
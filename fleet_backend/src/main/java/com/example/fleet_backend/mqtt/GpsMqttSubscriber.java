@@ -1,42 +1,278 @@
 package com.example.fleet_backend.mqtt;
 
 import com.example.fleet_backend.dto.GpsIncomingDTO;
+import com.example.fleet_backend.dto.TelemetryMessage;
 import com.example.fleet_backend.service.GpsService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.annotation.PostConstruct;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
 import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.MqttTopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
-public class GpsMqttSubscriber {
+public class GpsMqttSubscriber implements MqttCallbackExtended {
+
+    private static final Logger log = LoggerFactory.getLogger(GpsMqttSubscriber.class);
+
+    private static final int QOS = 1;
 
     private final MqttClient mqttClient;
     private final GpsService gpsService;
+    private final VehicleLaneDispatcher vehicleLaneDispatcher;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
     @Value("${mqtt.topic}")
     private String topic;
 
-    public GpsMqttSubscriber(MqttClient mqttClient, GpsService gpsService) {
+    @Value("${mqtt.topic.format:json}")
+    private String topicFormat;
+
+    @Value("${mqtt.topic.binary:}")
+    private String binaryTopic;
+
+    @Value("${mqtt.topic.telemetry:}")
+    private String telemetryTopic;
+
+    @Value("${mqtt.topic.telemetry.format:json}")
+    private String telemetryFormat;
+
+    // Groupe d'abonnement partagé ($share/<groupe>/...) pour répartir la flotte entre plusieurs instances.
+    @Value("${mqtt.shared-group:}")
+    private String sharedGroup;
+
+    public GpsMqttSubscriber(MqttClient mqttClient,
+                             GpsService gpsService,
+                             VehicleLaneDispatcher vehicleLaneDispatcher) {
         this.mqttClient = mqttClient;
         this.gpsService = gpsService;
+        this.vehicleLaneDispatcher = vehicleLaneDispatcher;
         objectMapper.registerModule(new JavaTimeModule());
     }
 
     @PostConstruct
     public void subscribe() throws Exception {
-        mqttClient.subscribe(topic, (receivedTopic, message) -> {
-            String payload = new String(message.getPayload());
-            System.out.println("[MQTT RECEIVED] " + payload);
+        if (topic != null && !topic.isBlank()) {
+            subscriptions.add(Subscription.shared(topic.trim(), parseFormat(topicFormat), false, sharedGroup));
+        }
+
+        if (binaryTopic != null && !binaryTopic.isBlank()) {
+            subscriptions.add(Subscription.shared(binaryTopic.trim(), TelemetryFormat.BINARY, false, sharedGroup));
+        }
+
+        if (telemetryTopic != null && !telemetryTopic.isBlank()) {
+            subscriptions.add(Subscription.shared(telemetryTopic.trim(), parseFormat(telemetryFormat), true, sharedGroup));
+        }
+
+        warnIfSharedWithoutVehicleAffinity();
+
+        mqttClient.setCallback(this);
+        subscribeAll();
+    }
+
+    @Override
+    public void connectComplete(boolean reconnect, String serverURI) {
+        if (!reconnect) {
+            return;
+        }
+
+        // Session propre : les abonnements sont perdus à chaque reconnexion automatique.
+        try {
+            subscribeAll();
+        } catch (MqttException e) {
+            log.warn("[MQTT ERROR] resubscription after reconnect to {} failed: {}", serverURI, e.getMessage());
+        }
+    }
+
+    @Override
+    public void connectionLost(Throwable cause) {
+        log.warn("[MQTT] connection lost: {}", cause != null ? cause.getMessage() : null);
+    }
+
+    @Override
+    public void messageArrived(String receivedTopic, MqttMessage message) {
+        Subscription subscription = findSubscription(receivedTopic);
+
+        if (subscription == null) {
+            log.debug("[MQTT] message on unexpected topic {}", receivedTopic);
+            return;
+        }
+
+        GpsIncomingDTO dto;
+
+        try {
+            dto = decode(receivedTopic, message.getPayload(), subscription);
+        } catch (Exception e) {
+            log.warn("[MQTT ERROR] invalid payload on {}: {}", receivedTopic, e.getMessage());
+            return;
+        }
+
+        vehicleLaneDispatcher.dispatch(dto.getVehicleId(), () -> process(dto));
+    }
+
+    @Override
+    public void deliveryComplete(IMqttDeliveryToken token) {
+    }
+
+    private void subscribeAll() throws MqttException {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+
+        String[] filters = new String[subscriptions.size()];
+        int[] qos = new int[subscriptions.size()];
+
+        for (int i = 0; i < subscriptions.size(); i++) {
+            filters[i] = subscriptions.get(i).subscribeFilter();
+            qos[i] = QOS;
+            log.info("MQTT subscription on {} ({})", filters[i], subscriptions.get(i).format());
+        }
+
+        mqttClient.subscribe(filters, qos);
+    }
+
+    // L'ordre par véhicule (trajets, odomètre) ne tient en partagé que si le broker garde un topic sur une instance.
+    private void warnIfSharedWithoutVehicleAffinity() {
+        if (sharedGroup == null || sharedGroup.isBlank()) {
+            return;
+        }
+
+        log.warn("MQTT shared group '{}': the broker must route shared subscriptions by topic hash "
+                + "so that each vehicle stays on one instance, otherwise per-vehicle ordering is lost", sharedGroup.trim());
+
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.perVehicle()) {
+                log.warn("MQTT shared subscription on {} carries every vehicle on one topic: "
+                        + "points of a vehicle may be spread across instances", subscription.filter());
+            }
+        }
+    }
+
+    private Subscription findSubscription(String receivedTopic) {
+        for (Subscription subscription : subscriptions) {
+            if (MqttTopic.isMatched(subscription.filter(), receivedTopic)) {
+                return subscription;
+            }
+        }
+
+        return null;
+    }
+
+    private GpsIncomingDTO decode(String receivedTopic,
+                                  byte[] payload,
+                                  Subscription subscription) throws IOException {
+        if (!subscription.perVehicle()) {
+            return decodePayload(payload, subscription.format());
+        }
+
+        Long topicVehicleId = subscription.vehicleIdFrom(receivedTopic);
+
+        GpsIncomingDTO dto = subscription.format() == TelemetryFormat.BINARY
+                && BinaryTelemetryCodec.looksBinary(payload)
+                ? BinaryTelemetryCodec.decode(payload)
+                : toGpsIncoming(objectMapper.readValue(payload, TelemetryMessage.class));
+
+        // Le topic fait foi ; un identifiant contradictoire dans le message est rejeté.
+        if (dto.getVehicleId() != null && dto.getVehicleId() != 0L && !dto.getVehicleId().equals(topicVehicleId)) {
+            throw new IllegalArgumentException(
+                    "vehicleId " + dto.getVehicleId() + " does not match topic vehicle " + topicVehicleId
+            );
+        }
+
+        dto.setVehicleId(topicVehicleId);
+        return dto;
+    }
+
+    private GpsIncomingDTO decodePayload(byte[] payload, TelemetryFormat format) throws IOException {
+        // Un topic binaire accepte encore le JSON des anciens boîtiers.
+        if (format == TelemetryFormat.BINARY && BinaryTelemetryCodec.looksBinary(payload)) {
+            return BinaryTelemetryCodec.decode(payload);
+        }
+
+        return objectMapper.readValue(payload, GpsIncomingDTO.class);
+    }
+
+    private GpsIncomingDTO toGpsIncoming(TelemetryMessage message) {
+        GpsIncomingDTO dto = new GpsIncomingDTO();
+
+        dto.setVehicleId(message.getVehicleId());
+        dto.setTimestamp(message.getTimestamp());
+        dto.setLatitude(message.getLatitude());
+        dto.setLongitude(message.getLongitude());
+        dto.setSpeed(message.getSpeed());
+        dto.setEngineOn(Boolean.TRUE.equals(message.getEngineOn()));
+        dto.setRouteId(message.getRouteId());
+        dto.setRouteSource(message.getRouteSource());
+
+        dto.setEngineRpm(message.getEngineRpm());
+        dto.setFuelLevel(message.getFuelLevel());
+        dto.setEngineTemperature(message.getEngineTemperature());
+        dto.setBatteryVoltage(message.getBatteryVoltage());
+        dto.setEngineLoad(message.getEngineLoad());
+        dto.setCheckEngineOn(message.getCheckEngineOn());
+
+        return dto;
+    }
+
+    private TelemetryFormat parseFormat(String value) {
+        return value == null || value.isBlank()
+                ? TelemetryFormat.JSON
+                : TelemetryFormat.valueOf(value.trim().toUpperCase());
+    }
+
+    private void process(GpsIncomingDTO dto) {
+        try {
+            gpsService.processIncomingGps(dto);
+        } catch (Exception e) {
+            log.warn("[MQTT ERROR] vehicle {}: {}", dto.getVehicleId(), e.getMessage());
+        }
+    }
+
+    private record Subscription(String filter,
+                                String subscribeFilter,
+                                TelemetryFormat format,
+                                boolean perVehicle,
+                                int vehicleIdLevel) {
+
+        static Subscription shared(String filter, TelemetryFormat format, boolean perVehicle, String sharedGroup) {
+            String subscribeFilter = sharedGroup != null && !sharedGroup.isBlank()
+                    ? "$share/" + sharedGroup.trim() + "/" + filter
+                    : filter;
+
+            int vehicleIdLevel = perVehicle ? List.of(filter.split("/", -1)).indexOf("+") : -1;
+
+            if (perVehicle && vehicleIdLevel < 0) {
+                throw new IllegalStateException("Telemetry topic must contain a '+' level for the vehicle id: " + filter);
+            }
+
+            return new Subscription(filter, subscribeFilter, format, perVehicle, vehicleIdLevel);
+        }
+
+        Long vehicleIdFrom(String topic) {
+            String[] levels = topic.split("/", -1);
+
+            if (vehicleIdLevel >= levels.length) {
+                throw new IllegalArgumentException("No vehicle id level in topic " + topic);
+            }
 
             try {
-                GpsIncomingDTO dto = objectMapper.readValue(payload, GpsIncomingDTO.class);
-                gpsService.processIncomingGps(dto);
-            } catch (Exception e) {
-                System.err.println("[MQTT ERROR] " + e.getMessage());
+                return Long.parseLong(levels[vehicleIdLevel]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid vehicle id in topic " + topic);
             }
-        });
+        }
     }
-}
\ No newline at end of file
+}
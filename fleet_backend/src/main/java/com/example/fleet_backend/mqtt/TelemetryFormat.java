@@ -0,0 +1,6 @@
+package com.example.fleet_backend.mqtt;
+
+public enum TelemetryFormat {
+    JSON,
+    BINARY
+}
@@ -0,0 +1,136 @@
+package com.example.fleet_backend.mqtt;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class VehicleLaneDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(VehicleLaneDispatcher.class);
+
+    private final ThreadPoolExecutor[] lanes;
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public VehicleLaneDispatcher(@Value("${mqtt.ingestion.lanes:0}") int laneCount,
+                                 @Value("${mqtt.ingestion.lane-queue-capacity:1000}") int laneQueueCapacity) {
+        int count = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        int capacity = Math.max(1, laneQueueCapacity);
+
+        this.lanes = new ThreadPoolExecutor[count];
+
+        for (int i = 0; i < count; i++) {
+            String threadName = "gps-lane-" + i;
+
+            lanes[i] = new ThreadPoolExecutor(
+                    1,
+                    1,
+                    0L,
+                    TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(capacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy()
+            );
+        }
+    }
+
+    public boolean dispatch(Long vehicleId, Runnable task) {
+        int lane = laneFor(vehicleId);
+
+        try {
+            lanes[lane].execute(task);
+            dispatched.incrementAndGet();
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("GPS lane {} is full, message for vehicle {} dropped", lane, vehicleId);
+            return false;
+        }
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    public int[] getQueueDepths() {
+        int[] depths = new int[lanes.length];
+
+        for (int i = 0; i < lanes.length; i++) {
+            depths[i] = lanes[i].getQueue().size();
+        }
+
+        return depths;
+    }
+
+    public int getTotalQueueDepth() {
+        int total = 0;
+
+        for (ThreadPoolExecutor lane : lanes) {
+            total += lane.getQueue().size();
+        }
+
+        return total;
+    }
+
+    public long getDispatchedCount() {
+        return dispatched.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Scheduled(fixedDelayString = "${mqtt.ingestion.metrics-log-interval-ms:30000}")
+    public void logQueueDepths() {
+        int total = getTotalQueueDepth();
+
+        if (total > 0 || rejected.get() > 0) {
+            log.info("GPS lanes: depth={} perLane={} dispatched={} rejected={}",
+                    total,
+                    Arrays.toString(getQueueDepths()),
+                    dispatched.get(),
+                    rejected.get());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+
+        for (ThreadPoolExecutor lane : lanes) {
+            try {
+                if (!lane.awaitTermination(10, TimeUnit.SECONDS)) {
+                    lane.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                lane.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private int laneFor(Long vehicleId) {
+        if (vehicleId == null) {
+            return 0;
+        }
+
+        return Math.floorMod(Long.hashCode(vehicleId), lanes.length);
+    }
+}
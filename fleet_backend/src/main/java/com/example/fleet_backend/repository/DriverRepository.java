@@ -3,6 +3,8 @@ package com.example.fleet_backend.repository;
 import com.example.fleet_backend.model.Driver;
 import com.example.fleet_backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -27,6 +29,14 @@ public interface DriverRepository extends JpaRepository<Driver, Long> {
 
 
     long countByStatus(Driver.DriverStatus status);
+
+    @Query("""
+        SELECT COUNT(d),
+               COALESCE(SUM(CASE WHEN d.status = :active THEN 1 ELSE 0 END), 0)
+        FROM Driver d
+    """)
+    List<Object[]> aggregateAdminStats(@Param("active") Driver.DriverStatus active);
+
     List<Driver> findAllByOwner(User owner);
 
     Optional<Driver> findByIdAndOwner(Long id, User owner);
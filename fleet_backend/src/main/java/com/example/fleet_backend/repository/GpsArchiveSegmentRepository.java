@@ -0,0 +1,50 @@
+package com.example.fleet_backend.repository;
+
+import com.example.fleet_backend.model.GpsArchiveSegment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface GpsArchiveSegmentRepository extends JpaRepository<GpsArchiveSegment, Long> {
+
+    Optional<GpsArchiveSegment> findByVehicleIdAndDay(Long vehicleId, LocalDate day);
+
+    @Query("""
+        SELECT s FROM GpsArchiveSegment s
+        WHERE s.vehicleId = :vehicleId
+          AND s.firstTimestamp <= :to
+          AND s.lastTimestamp >= :from
+        ORDER BY s.firstTimestamp ASC
+    """)
+    List<GpsArchiveSegment> findOverlapping(@Param("vehicleId") Long vehicleId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    @Query("""
+        SELECT COALESCE(SUM(s.pointCount), 0) FROM GpsArchiveSegment s
+        WHERE s.vehicleId = :vehicleId
+          AND s.firstTimestamp <= :to
+          AND s.lastTimestamp >= :from
+    """)
+    long sumPointsOverlapping(@Param("vehicleId") Long vehicleId,
+                              @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to);
+
+    @Query("""
+        SELECT COUNT(s),
+               COALESCE(SUM(s.pointCount), 0),
+               COALESCE(SUM(s.fileBytes), 0),
+               COALESCE(SUM(s.dbBytes), 0),
+               COALESCE(SUM(s.dbReadNanos), 0)
+        FROM GpsArchiveSegment s
+    """)
+    List<Object[]> aggregateStats();
+
+    List<GpsArchiveSegment> findByOrderByArchivedAtDesc(Pageable pageable);
+}
@@ -1,8 +1,11 @@
 package com.example.fleet_backend.repository;
 
+import com.example.fleet_backend.dto.GpsPointDTO;
 import com.example.fleet_backend.model.GpsData;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -12,13 +15,19 @@ public interface GpsDataRepository extends JpaRepository<GpsData, Long> {
 
     Optional<GpsData> findTopByVehicleIdOrderByTimestampDesc(Long vehicleId);
 
-    List<GpsData> findByVehicleIdOrderByTimestampDesc(Long vehicleId);
-
-    List<GpsData> findByVehicleIdAndTimestampBetweenOrderByTimestampAsc(
-            Long vehicleId,
-            LocalDateTime from,
-            LocalDateTime to
-    );
+    // Un parcours d'index (vehicle_id, timestamp) par véhicule, au lieu d'un tri de tout gps_data.
+    @Query(value = """
+        SELECT g.*
+        FROM vehicles v
+        CROSS JOIN LATERAL (
+            SELECT p.*
+            FROM gps_data p
+            WHERE p.vehicle_id = v.id
+            ORDER BY p.timestamp DESC
+            LIMIT 1
+        ) g
+    """, nativeQuery = true)
+    List<GpsData> findLatestPerVehicle();
 
     List<GpsData> findByVehicleIdAndTimestampBetweenOrderByTimestampDesc(
             Long vehicleId,
@@ -27,4 +36,40 @@ public interface GpsDataRepository extends JpaRepository<GpsData, Long> {
             Pageable pageable
     );
 
+    long countByVehicleIdAndTimestampBetween(Long vehicleId, LocalDateTime from, LocalDateTime to);
+
+    // Pagination par curseur (timestamp, id) décroissants : la borne <= reste utilisable par l'index.
+    @Query("""
+        SELECT new com.example.fleet_backend.dto.GpsPointDTO(
+            g.id, g.vehicle.id, g.missionId, g.latitude, g.longitude, g.speed,
+            g.engineOn, g.timestamp, g.routeId, g.routeSource
+        )
+        FROM GpsData g
+        WHERE g.vehicle.id = :vehicleId
+          AND g.timestamp >= :from
+          AND g.timestamp <= :to
+          AND g.timestamp <= :cursorAt
+          AND (g.timestamp < :cursorAt OR g.id < :cursorId)
+        ORDER BY g.timestamp DESC, g.id DESC
+    """)
+    List<GpsPointDTO> findPageByVehicle(@Param("vehicleId") Long vehicleId,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        @Param("cursorAt") LocalDateTime cursorAt,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+
+    // ===== Projections DTO : colonnes utiles seulement, sans entité ni proxy Vehicle =====
+
+    @Query("""
+        SELECT new com.example.fleet_backend.dto.GpsPointDTO(
+            g.id, g.vehicle.id, g.missionId, g.latitude, g.longitude, g.speed,
+            g.engineOn, g.timestamp, g.routeId, g.routeSource
+        )
+        FROM GpsData g
+        WHERE g.vehicle.id = :vehicleId
+        ORDER BY g.timestamp DESC, g.id DESC
+    """)
+    List<GpsPointDTO> findLatestPoints(@Param("vehicleId") Long vehicleId, Pageable pageable);
+
 }
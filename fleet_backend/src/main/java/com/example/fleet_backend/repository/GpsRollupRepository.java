@@ -0,0 +1,30 @@
+package com.example.fleet_backend.repository;
+
+import com.example.fleet_backend.model.GpsRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface GpsRollupRepository extends JpaRepository<GpsRollup, Long> {
+
+    @Query("""
+        SELECT r FROM GpsRollup r
+        WHERE r.vehicleId = :vehicleId
+          AND r.resolutionSeconds = :resolution
+          AND r.bucketStart >= :from
+          AND r.bucketStart < :to
+        ORDER BY r.bucketStart ASC
+    """)
+    List<GpsRollup> findBuckets(@Param("vehicleId") Long vehicleId,
+                                @Param("resolution") int resolution,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM GpsRollup r WHERE r.resolutionSeconds = :resolution AND r.bucketStart < :before")
+    int deleteOlderThan(@Param("resolution") int resolution, @Param("before") LocalDateTime before);
+}
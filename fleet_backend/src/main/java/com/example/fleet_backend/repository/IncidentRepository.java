@@ -3,7 +3,10 @@ package com.example.fleet_backend.repository;
 import com.example.fleet_backend.model.Incident;
 import com.example.fleet_backend.model.IncidentSeverity;
 import com.example.fleet_backend.model.IncidentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,6 +24,56 @@ public interface IncidentRepository extends JpaRepository<Incident, Long> {
 
     List<Incident> findByReportedByUserIdOrderByCreatedAtDesc(Long userId);
 
+    // ===== Pagination par curseur (createdAt, id) décroissants =====
+
+    @Query("""
+        SELECT i FROM Incident i
+        WHERE i.vehicle.id = :vehicleId
+          AND i.status IN :statuses
+          AND i.severity IN :severities
+          AND i.createdAt <= :cursorAt
+          AND (i.createdAt < :cursorAt OR i.id < :cursorId)
+        ORDER BY i.createdAt DESC, i.id DESC
+    """)
+    List<Incident> findPageByVehicle(@Param("vehicleId") Long vehicleId,
+                                     @Param("statuses") List<IncidentStatus> statuses,
+                                     @Param("severities") List<IncidentSeverity> severities,
+                                     @Param("cursorAt") LocalDateTime cursorAt,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+
+    @Query("""
+        SELECT i FROM Incident i
+        WHERE i.mission.id = :missionId
+          AND i.status IN :statuses
+          AND i.severity IN :severities
+          AND i.createdAt <= :cursorAt
+          AND (i.createdAt < :cursorAt OR i.id < :cursorId)
+        ORDER BY i.createdAt DESC, i.id DESC
+    """)
+    List<Incident> findPageByMission(@Param("missionId") Long missionId,
+                                     @Param("statuses") List<IncidentStatus> statuses,
+                                     @Param("severities") List<IncidentSeverity> severities,
+                                     @Param("cursorAt") LocalDateTime cursorAt,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+
+    @Query("""
+        SELECT i FROM Incident i
+        WHERE i.reportedByUserId = :userId
+          AND i.status IN :statuses
+          AND i.severity IN :severities
+          AND i.createdAt <= :cursorAt
+          AND (i.createdAt < :cursorAt OR i.id < :cursorId)
+        ORDER BY i.createdAt DESC, i.id DESC
+    """)
+    List<Incident> findPageByReporter(@Param("userId") Long userId,
+                                      @Param("statuses") List<IncidentStatus> statuses,
+                                      @Param("severities") List<IncidentSeverity> severities,
+                                      @Param("cursorAt") LocalDateTime cursorAt,
+                                      @Param("cursorId") Long cursorId,
+                                      Pageable pageable);
+
     Optional<Incident> findByVehicleEventId(Long vehicleEventId);
 
     boolean existsByVehicleEventId(Long vehicleEventId);
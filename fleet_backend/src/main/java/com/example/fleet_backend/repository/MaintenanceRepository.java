@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +35,25 @@ public interface MaintenanceRepository extends JpaRepository<Maintenance, Long>
             LocalDateTime end
     );
 
+    // Échéance kilométrique : dueMileage, distinct du kilométrage relevé lors de l'intervention.
+    @Query("""
+        SELECT m FROM Maintenance m
+        WHERE m.status = :status
+          AND m.dueMileage IS NOT NULL
+          AND m.vehicle.mileage >= m.dueMileage
+    """)
+    List<Maintenance> findMileageDue(@Param("status") MaintenanceStatus status);
+
+    @Query("""
+        SELECT m FROM Maintenance m
+        WHERE m.status = :status
+          AND m.vehicle.id IN :vehicleIds
+          AND m.dueMileage IS NOT NULL
+          AND m.vehicle.mileage >= m.dueMileage
+    """)
+    List<Maintenance> findMileageDueForVehicles(@Param("status") MaintenanceStatus status,
+                                                @Param("vehicleIds") Collection<Long> vehicleIds);
+
     boolean existsByIncidentId(Long incidentId);
 
     Optional<Maintenance> findFirstByIncidentIdOrderByCreatedAtDesc(Long incidentId);
@@ -1,7 +1,10 @@
 package com.example.fleet_backend.repository;
 
 import com.example.fleet_backend.model.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,6 +14,21 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     List<Notification> findByRecipientIdOrderByCreatedAtDesc(Long recipientId);
 
+    // Pagination par curseur (createdAt, id) décroissants ; readStates = [false] pour les seules non lues.
+    @Query("""
+        SELECT n FROM Notification n
+        WHERE n.recipient.id = :recipientId
+          AND n.read IN :readStates
+          AND n.createdAt <= :cursorAt
+          AND (n.createdAt < :cursorAt OR n.id < :cursorId)
+        ORDER BY n.createdAt DESC, n.id DESC
+    """)
+    List<Notification> findPageByRecipient(@Param("recipientId") Long recipientId,
+                                           @Param("readStates") List<Boolean> readStates,
+                                           @Param("cursorAt") LocalDateTime cursorAt,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
+
     long countByRecipientIdAndReadFalse(Long recipientId);
 
     Optional<Notification> findByIdAndRecipientId(Long id, Long recipientId);
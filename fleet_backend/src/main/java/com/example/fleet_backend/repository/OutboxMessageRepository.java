@@ -0,0 +1,28 @@
+package com.example.fleet_backend.repository;
+
+import com.example.fleet_backend.model.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    @Query("select m from OutboxMessage m where m.id > :afterId order by m.id asc")
+    List<OutboxMessage> findAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select m from OutboxMessage m where m.id in :ids order by m.id asc")
+    List<OutboxMessage> findByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select coalesce(max(m.id), 0) from OutboxMessage m")
+    long findMaxId();
+
+    @Modifying
+    @Query("delete from OutboxMessage m where m.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
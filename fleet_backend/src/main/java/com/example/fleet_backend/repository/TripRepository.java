@@ -0,0 +1,49 @@
+package com.example.fleet_backend.repository;
+
+import com.example.fleet_backend.model.Trip;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface TripRepository extends JpaRepository<Trip, Long> {
+
+    // Verrou de ligne : deux ingestions concurrentes d'un même véhicule font avancer le segment l'une après l'autre.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT t FROM Trip t
+        WHERE t.vehicleId = :vehicleId
+          AND t.status = com.example.fleet_backend.model.Trip.Status.OPEN
+        ORDER BY t.startedAt DESC, t.id DESC
+    """)
+    List<Trip> findOpenForUpdate(@Param("vehicleId") Long vehicleId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT t FROM Trip t
+        WHERE t.status = com.example.fleet_backend.model.Trip.Status.OPEN
+          AND t.kind = com.example.fleet_backend.model.Trip.Kind.TRIP
+          AND t.lastPointAt < :before
+        ORDER BY t.lastPointAt ASC
+    """)
+    List<Trip> findStaleTripsForUpdate(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Query("""
+        SELECT t FROM Trip t
+        WHERE t.vehicleId = :vehicleId
+          AND t.kind IN :kinds
+          AND t.startedAt >= :from
+          AND t.startedAt < :to
+        ORDER BY t.startedAt ASC, t.id ASC
+    """)
+    List<Trip> findStartedBetween(@Param("vehicleId") Long vehicleId,
+                                  @Param("kinds") Collection<Trip.Kind> kinds,
+                                  @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+}
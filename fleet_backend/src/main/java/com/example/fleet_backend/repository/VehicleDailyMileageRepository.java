@@ -0,0 +1,12 @@
+package com.example.fleet_backend.repository;
+
+import com.example.fleet_backend.model.VehicleDailyMileage;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface VehicleDailyMileageRepository extends JpaRepository<VehicleDailyMileage, Long> {
+
+    List<VehicleDailyMileage> findByVehicleIdAndDayBetweenOrderByDayAsc(Long vehicleId, LocalDate from, LocalDate to);
+}
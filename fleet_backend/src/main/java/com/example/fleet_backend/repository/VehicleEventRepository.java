@@ -4,7 +4,10 @@ import com.example.fleet_backend.model.EventSeverity;
 import com.example.fleet_backend.model.VehicleEvent;
 import com.example.fleet_backend.model.VehicleEventStatus;
 import com.example.fleet_backend.model.VehicleEventType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,6 +17,28 @@ public interface VehicleEventRepository extends JpaRepository<VehicleEvent, Long
 
     List<VehicleEvent> findByVehicleIdOrderByCreatedAtDesc(Long vehicleId);
 
+    List<VehicleEvent> findByVehicleIdAndSeverityInOrderByCreatedAtDescIdDesc(
+            Long vehicleId,
+            List<EventSeverity> severities
+    );
+
+    // Pagination par curseur (createdAt, id) décroissants, servie par l'index idx_vehicle_events_vehicle_created.
+    @Query("""
+        SELECT e FROM VehicleEvent e
+        WHERE e.vehicle.id = :vehicleId
+          AND e.severity IN :severities
+          AND e.status IN :statuses
+          AND e.createdAt <= :cursorAt
+          AND (e.createdAt < :cursorAt OR e.id < :cursorId)
+        ORDER BY e.createdAt DESC, e.id DESC
+    """)
+    List<VehicleEvent> findPageByVehicle(@Param("vehicleId") Long vehicleId,
+                                         @Param("severities") List<EventSeverity> severities,
+                                         @Param("statuses") List<VehicleEventStatus> statuses,
+                                         @Param("cursorAt") LocalDateTime cursorAt,
+                                         @Param("cursorId") Long cursorId,
+                                         Pageable pageable);
+
     List<VehicleEvent> findTop50ByOrderByCreatedAtDesc();
 
     Optional<VehicleEvent> findTopByVehicleIdAndEventTypeOrderByCreatedAtDesc(
@@ -32,6 +57,14 @@ public interface VehicleEventRepository extends JpaRepository<VehicleEvent, Long
             VehicleEventType eventType
     );
 
+    @Query("""
+        SELECT e.vehicle.id, e.missionId, e.eventType, e.severity, e.createdAt
+        FROM VehicleEvent e
+        WHERE e.createdAt > :since
+        ORDER BY e.createdAt ASC
+    """)
+    List<Object[]> findCooldownRowsSince(@Param("since") LocalDateTime since);
+
     List<VehicleEvent> findByVehicleIdAndCreatedAtAfterOrderByCreatedAtDesc(
             Long vehicleId,
             LocalDateTime createdAt
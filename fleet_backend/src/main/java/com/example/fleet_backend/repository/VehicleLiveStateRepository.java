@@ -3,8 +3,12 @@ package com.example.fleet_backend.repository;
 import com.example.fleet_backend.model.VehicleLiveState;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface VehicleLiveStateRepository extends JpaRepository<VehicleLiveState, Long> {
     Optional<VehicleLiveState> findByVehicleId(Long vehicleId);
+
+    List<VehicleLiveState> findByVehicleIdIn(Collection<Long> vehicleIds);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.fleet_backend.repository;
 
 import com.example.fleet_backend.model.Vehicle;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -30,6 +31,22 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     @Query("SELECT COALESCE(SUM(v.mileage),0) FROM Vehicle v")
     Double sumMileage();
 
+    // Une seule lecture de la table pour les statistiques admin.
+    @Query("""
+        SELECT COUNT(v),
+               COALESCE(SUM(CASE WHEN v.status = :available THEN 1 ELSE 0 END), 0),
+               COALESCE(SUM(CASE WHEN v.status IN :inService THEN 1 ELSE 0 END), 0),
+               COALESCE(SUM(CASE WHEN v.status IN :out THEN 1 ELSE 0 END), 0),
+               COALESCE(SUM(CASE WHEN v.nextMaintenanceDate IS NOT NULL
+                                  AND v.nextMaintenanceDate <= :limit THEN 1 ELSE 0 END), 0),
+               COALESCE(SUM(v.mileage), 0)
+        FROM Vehicle v
+    """)
+    List<Object[]> aggregateAdminStats(@Param("available") Vehicle.VehicleStatus available,
+                                       @Param("inService") List<Vehicle.VehicleStatus> inService,
+                                       @Param("out") List<Vehicle.VehicleStatus> out,
+                                       @Param("limit") LocalDateTime limit);
+
     Optional<Vehicle> findByRegistrationNumber(String registrationNumber);
 
     Optional<Vehicle> findByVin(String vin);
@@ -53,4 +70,12 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     void deleteByOwnerId(Long ownerId);
 
     long countByOwnerIdAndStatus(Long ownerId, Vehicle.VehicleStatus status);
+
+    @Query("SELECT v.id, v.owner.id FROM Vehicle v")
+    List<Object[]> findVehicleOwnerRows();
+
+    // Correction manuelle seulement à la hausse : un formulaire périmé n'efface pas les incréments de l'odomètre.
+    @Modifying
+    @Query("UPDATE Vehicle v SET v.mileage = :mileage WHERE v.id = :id AND (v.mileage IS NULL OR v.mileage < :mileage)")
+    int raiseMileage(@Param("id") Long id, @Param("mileage") Double mileage);
 }
\ No newline at end of file
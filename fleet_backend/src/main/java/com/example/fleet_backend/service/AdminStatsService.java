@@ -7,6 +7,7 @@ import com.example.fleet_backend.repository.DriverRepository;
 import com.example.fleet_backend.repository.UserRepository;
 import com.example.fleet_backend.repository.VehicleRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,35 +27,42 @@ public class AdminStatsService {
         this.driverRepository = driverRepository;
     }
 
+    @Transactional(readOnly = true)
     public AdminStatsDTO getStats() {
         AdminStatsDTO dto = new AdminStatsDTO();
+        LocalDateTime now = LocalDateTime.now();
 
         dto.ownersCount = userRepository.countByRole_Name("ROLE_OWNER");
 
-        dto.vehiclesCount = vehicleRepository.count();
+        Object[] vehicles = vehicleRepository.aggregateAdminStats(
+                Vehicle.VehicleStatus.AVAILABLE,
+                List.of(
+                        Vehicle.VehicleStatus.IN_USE,
+                        Vehicle.VehicleStatus.UNDER_MAINTENANCE,
+                        Vehicle.VehicleStatus.RESERVED
+                ),
+                List.of(Vehicle.VehicleStatus.OUT_OF_SERVICE),
+                now.plusDays(7)
+        ).get(0);
 
-        dto.availableVehicles = vehicleRepository.countByStatus(Vehicle.VehicleStatus.AVAILABLE);
+        dto.vehiclesCount = asLong(vehicles[0]);
+        dto.availableVehicles = asLong(vehicles[1]);
+        dto.inServiceVehicles = asLong(vehicles[2]);
+        dto.outVehicles = asLong(vehicles[3]);
+        dto.vehiclesNeedingMaintenance = asLong(vehicles[4]);
+        dto.totalMileage = vehicles[5] != null ? ((Number) vehicles[5]).doubleValue() : 0;
 
-        dto.inServiceVehicles = vehicleRepository.countByStatusIn(List.of(
-                Vehicle.VehicleStatus.IN_USE,
-                Vehicle.VehicleStatus.UNDER_MAINTENANCE,
-                Vehicle.VehicleStatus.RESERVED
-        ));
+        Object[] drivers = driverRepository.aggregateAdminStats(Driver.DriverStatus.ACTIVE).get(0);
 
-        dto.outVehicles = vehicleRepository.countByStatusIn(List.of(
-                Vehicle.VehicleStatus.OUT_OF_SERVICE
-        ));
+        dto.driversCount = asLong(drivers[0]);
+        dto.activeDrivers = asLong(drivers[1]);
 
-        dto.driversCount = driverRepository.count();
-
-        dto.activeDrivers = driverRepository.countByStatus(Driver.DriverStatus.ACTIVE);
-
-        dto.vehiclesNeedingMaintenance =
-                vehicleRepository.countMaintenanceDueBefore(LocalDateTime.now().plusDays(7));
-
-        Double sum = vehicleRepository.sumMileage();
-        dto.totalMileage = (sum == null) ? 0 : sum;
+        dto.generatedAt = now;
 
         return dto;
     }
-}
\ No newline at end of file
+
+    private long asLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.fleet_backend.service;
+
+import com.example.fleet_backend.dto.AdminStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class AdminStatsSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminStatsSnapshotService.class);
+
+    private final AdminStatsService adminStatsService;
+    private final long minRefreshIntervalMs;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile AdminStatsDTO snapshot;
+
+    public AdminStatsSnapshotService(AdminStatsService adminStatsService,
+                                     @Value("${admin.stats.min-refresh-interval-ms:5000}") long minRefreshIntervalMs) {
+        this.adminStatsService = adminStatsService;
+        this.minRefreshIntervalMs = Math.max(0L, minRefreshIntervalMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh(LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("Admin stats warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    public AdminStatsDTO getStats(boolean forceRefresh) {
+        AdminStatsDTO current = snapshot;
+
+        if (current != null && !forceRefresh) {
+            return current;
+        }
+
+        // Un rafraîchissement forcé récent suffit : plusieurs admins ne relancent pas la même agrégation.
+        if (current != null && isYoungerThan(current, minRefreshIntervalMs)) {
+            return current;
+        }
+
+        return refresh(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${admin.stats.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        try {
+            refresh(LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("Admin stats refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private AdminStatsDTO refresh(LocalDateTime requestedAt) {
+        refreshLock.lock();
+
+        try {
+            AdminStatsDTO current = snapshot;
+
+            // Calculé par un autre thread pendant l'attente du verrou.
+            if (current != null && current.getGeneratedAt() != null && !current.getGeneratedAt().isBefore(requestedAt)) {
+                return current;
+            }
+
+            AdminStatsDTO fresh = adminStatsService.getStats();
+            snapshot = fresh;
+
+            return fresh;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean isYoungerThan(AdminStatsDTO stats, long ms) {
+        return stats.getGeneratedAt() != null
+                && Duration.between(stats.getGeneratedAt(), LocalDateTime.now()).toMillis() < ms;
+    }
+}
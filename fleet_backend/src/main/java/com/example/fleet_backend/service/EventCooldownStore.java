@@ -0,0 +1,142 @@
+package com.example.fleet_backend.service;
+
+import com.example.fleet_backend.model.EventSeverity;
+import com.example.fleet_backend.model.VehicleEvent;
+import com.example.fleet_backend.model.VehicleEventType;
+import com.example.fleet_backend.repository.VehicleEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class EventCooldownStore {
+
+    private static final Logger log = LoggerFactory.getLogger(EventCooldownStore.class);
+
+    // Doit rester supérieur à tous les cooldowns : au-delà, un événement ne bloque plus rien.
+    private static final long RETENTION_MINUTES = 30;
+
+    private final VehicleEventRepository vehicleEventRepository;
+    private final ConcurrentHashMap<Key, LastEvent> lastEvents = new ConcurrentHashMap<>();
+
+    private volatile boolean warmed;
+
+    public EventCooldownStore(VehicleEventRepository vehicleEventRepository) {
+        this.vehicleEventRepository = vehicleEventRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(RETENTION_MINUTES);
+
+        for (Object[] row : vehicleEventRepository.findCooldownRowsSince(since)) {
+            Key key = new Key((Long) row[0], (Long) row[1], (VehicleEventType) row[2]);
+            lastEvents.merge(key, new LastEvent((EventSeverity) row[3], (LocalDateTime) row[4]), EventCooldownStore::latest);
+        }
+
+        warmed = true;
+
+        log.info("Event cooldown store warmed with {} keys", lastEvents.size());
+    }
+
+    public boolean isInCooldown(Long vehicleId,
+                                Long missionId,
+                                VehicleEventType eventType,
+                                EventSeverity severity,
+                                LocalDateTime now,
+                                long cooldownMinutes) {
+        Optional<LastEvent> lastOpt = findLast(new Key(vehicleId, missionId, eventType));
+
+        if (lastOpt.isEmpty() || lastOpt.get().createdAt() == null) {
+            return false;
+        }
+
+        LastEvent last = lastOpt.get();
+
+        long minutes = Duration.between(last.createdAt(), now).toMinutes();
+        boolean sameSeverity = last.severity() == severity;
+
+        return sameSeverity && minutes < cooldownMinutes;
+    }
+
+    public void record(VehicleEvent event) {
+        if (event == null || event.getVehicle() == null || event.getVehicle().getId() == null) {
+            return;
+        }
+
+        Key key = new Key(event.getVehicle().getId(), event.getMissionId(), event.getEventType());
+        LastEvent recorded = new LastEvent(event.getSeverity(), event.getCreatedAt());
+        LastEvent previous = lastEvents.put(key, recorded);
+
+        // Visible tout de suite (un lot GPS crée plusieurs événements dans la même transaction),
+        // mais annulé si la transaction échoue.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        lastEvents.computeIfPresent(key, (k, current) -> current == recorded ? previous : current);
+                    }
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.cooldown.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(RETENTION_MINUTES);
+
+        lastEvents.entrySet().removeIf(entry ->
+                entry.getValue().createdAt() == null || entry.getValue().createdAt().isBefore(limit)
+        );
+    }
+
+    private Optional<LastEvent> findLast(Key key) {
+        LastEvent last = lastEvents.get(key);
+
+        if (last != null || warmed) {
+            return Optional.ofNullable(last);
+        }
+
+        Optional<VehicleEvent> lastOpt = key.missionId() != null
+                ? vehicleEventRepository.findTopByVehicleIdAndMissionIdAndEventTypeOrderByCreatedAtDesc(
+                        key.vehicleId(),
+                        key.missionId(),
+                        key.eventType()
+                )
+                : vehicleEventRepository.findTopByVehicleIdAndMissionIdIsNullAndEventTypeOrderByCreatedAtDesc(
+                        key.vehicleId(),
+                        key.eventType()
+                );
+
+        return lastOpt.map(event -> new LastEvent(event.getSeverity(), event.getCreatedAt()));
+    }
+
+    private static LastEvent latest(LastEvent existing, LastEvent candidate) {
+        if (existing.createdAt() == null) {
+            return candidate;
+        }
+
+        if (candidate.createdAt() == null) {
+            return existing;
+        }
+
+        return candidate.createdAt().isBefore(existing.createdAt()) ? existing : candidate;
+    }
+
+    private record Key(Long vehicleId, Long missionId, VehicleEventType eventType) {
+    }
+
+    private record LastEvent(EventSeverity severity, LocalDateTime createdAt) {
+    }
+}
@@ -1,14 +1,30 @@
 package com.example.fleet_backend.service;
 
+import com.example.fleet_backend.dto.CursorPage;
+import com.example.fleet_backend.dto.DailyMileageDTO;
+import com.example.fleet_backend.dto.GpsBulkIngestResultDTO;
 import com.example.fleet_backend.dto.GpsIncomingDTO;
 import com.example.fleet_backend.dto.GpsPointDTO;
+import com.example.fleet_backend.dto.GpsTrackResult;
+import com.example.fleet_backend.dto.TripDTO;
 import com.example.fleet_backend.dto.VehicleLiveStatusDTO;
+import com.example.fleet_backend.service.gps.GpsBatchIngestionService;
+import com.example.fleet_backend.service.gps.GpsBulkIngestionService;
+import com.example.fleet_backend.service.gps.GpsExportFormat;
+import com.example.fleet_backend.service.gps.GpsHistoryStreamService;
 import com.example.fleet_backend.service.gps.GpsIngestionService;
 import com.example.fleet_backend.service.gps.GpsQueryService;
 import com.example.fleet_backend.service.gps.LiveStateService;
+import com.example.fleet_backend.service.gps.OdometerService;
+import com.example.fleet_backend.service.gps.TrackSimplificationService;
+import com.example.fleet_backend.service.gps.TripSegmentationService;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -19,32 +35,109 @@ public class GpsService {
     private final GpsIngestionService gpsIngestionService;
     private final GpsQueryService gpsQueryService;
     private final LiveStateService liveStateService;
+    private final GpsBatchIngestionService gpsBatchIngestionService;
+    private final GpsBulkIngestionService gpsBulkIngestionService;
+    private final TrackSimplificationService trackSimplificationService;
+    private final GpsHistoryStreamService gpsHistoryStreamService;
+    private final TripSegmentationService tripSegmentationService;
+    private final OdometerService odometerService;
 
     public GpsService(GpsIngestionService gpsIngestionService,
                       GpsQueryService gpsQueryService,
-                      LiveStateService liveStateService) {
+                      LiveStateService liveStateService,
+                      GpsBatchIngestionService gpsBatchIngestionService,
+                      GpsBulkIngestionService gpsBulkIngestionService,
+                      TrackSimplificationService trackSimplificationService,
+                      GpsHistoryStreamService gpsHistoryStreamService,
+                      TripSegmentationService tripSegmentationService,
+                      OdometerService odometerService) {
         this.gpsIngestionService = gpsIngestionService;
         this.gpsQueryService = gpsQueryService;
         this.liveStateService = liveStateService;
+        this.gpsBatchIngestionService = gpsBatchIngestionService;
+        this.gpsBulkIngestionService = gpsBulkIngestionService;
+        this.trackSimplificationService = trackSimplificationService;
+        this.gpsHistoryStreamService = gpsHistoryStreamService;
+        this.tripSegmentationService = tripSegmentationService;
+        this.odometerService = odometerService;
     }
 
     public void processIncomingGps(GpsIncomingDTO dto) {
+        if (gpsBatchIngestionService.isEnabled()) {
+            gpsBatchIngestionService.submit(dto);
+            return;
+        }
+
         gpsIngestionService.processIncomingGps(dto);
     }
 
+    public GpsBulkIngestResultDTO processIncomingGpsBulk(InputStream body) throws IOException {
+        return gpsBulkIngestionService.ingest(body);
+    }
+
     public Optional<GpsPointDTO> getLastPositionSecured(Long vehicleId, Authentication auth) {
         return gpsQueryService.getLastPositionSecured(vehicleId, auth);
     }
 
-    public List<GpsPointDTO> getHistorySecured(Long vehicleId, Authentication auth) {
-        return gpsQueryService.getHistorySecured(vehicleId, auth);
+    public GpsTrackResult getHistorySecured(Long vehicleId,
+                                            Integer zoom,
+                                            Double toleranceMeters,
+                                            Authentication auth) {
+        return trackSimplificationService.simplify(
+                gpsQueryService.getHistorySecured(vehicleId, auth),
+                zoom,
+                toleranceMeters
+        );
+    }
+
+    public GpsTrackResult getHistoryRangeSecured(Long vehicleId,
+                                                 LocalDateTime from,
+                                                 LocalDateTime to,
+                                                 Integer maxPoints,
+                                                 Integer zoom,
+                                                 Double toleranceMeters,
+                                                 Authentication auth) {
+        return trackSimplificationService.simplify(
+                gpsQueryService.getHistoryRangeSecured(vehicleId, from, to, maxPoints, auth),
+                zoom,
+                toleranceMeters
+        );
     }
 
-    public List<GpsPointDTO> getHistoryRangeSecured(Long vehicleId,
-                                                    LocalDateTime from,
-                                                    LocalDateTime to,
-                                                    Authentication auth) {
-        return gpsQueryService.getHistoryRangeSecured(vehicleId, from, to, auth);
+    public CursorPage<GpsPointDTO> getHistoryPageSecured(Long vehicleId,
+                                                         LocalDateTime from,
+                                                         LocalDateTime to,
+                                                         String cursor,
+                                                         Integer limit,
+                                                         Authentication auth) {
+        return gpsQueryService.getHistoryPageSecured(vehicleId, from, to, cursor, limit, auth);
+    }
+
+    // Contrôle d'accès fait ici, sur le thread de la requête ; l'écriture se fait ensuite en asynchrone.
+    public StreamingResponseBody exportHistorySecured(Long vehicleId,
+                                                      LocalDateTime from,
+                                                      LocalDateTime to,
+                                                      GpsExportFormat format,
+                                                      Authentication auth) {
+        gpsQueryService.ensureAccessToVehicle(vehicleId, auth);
+        return out -> gpsHistoryStreamService.export(vehicleId, from, to, format, out);
+    }
+
+    public List<TripDTO> getTripsSecured(Long vehicleId,
+                                         LocalDateTime from,
+                                         LocalDateTime to,
+                                         boolean includeStops,
+                                         Authentication auth) {
+        gpsQueryService.ensureAccessToVehicle(vehicleId, auth);
+        return tripSegmentationService.getTrips(vehicleId, from, to, includeStops);
+    }
+
+    public List<DailyMileageDTO> getDailyMileageSecured(Long vehicleId,
+                                                        LocalDate from,
+                                                        LocalDate to,
+                                                        Authentication auth) {
+        gpsQueryService.ensureAccessToVehicle(vehicleId, auth);
+        return odometerService.getDailyMileage(vehicleId, from, to);
     }
 
     public List<VehicleLiveStatusDTO> getLiveFleetSecured(Authentication auth) {
@@ -55,11 +148,18 @@ public class GpsService {
         return gpsQueryService.getMissionLiveSecured(missionId, auth);
     }
 
-    public List<GpsPointDTO> getMissionHistorySecured(Long missionId,
-                                                      LocalDateTime from,
-                                                      LocalDateTime to,
-                                                      Authentication auth) {
-        return gpsQueryService.getMissionHistorySecured(missionId, from, to, auth);
+    public GpsTrackResult getMissionHistorySecured(Long missionId,
+                                                   LocalDateTime from,
+                                                   LocalDateTime to,
+                                                   Integer maxPoints,
+                                                   Integer zoom,
+                                                   Double toleranceMeters,
+                                                   Authentication auth) {
+        return trackSimplificationService.simplify(
+                gpsQueryService.getMissionHistorySecured(missionId, from, to, maxPoints, auth),
+                zoom,
+                toleranceMeters
+        );
     }
 
     public void clearLiveMissionContext(Long vehicleId) {
@@ -1,15 +1,18 @@
 package com.example.fleet_backend.service;
 
+import com.example.fleet_backend.dto.CursorPage;
 import com.example.fleet_backend.dto.IncidentCreateRequest;
 import com.example.fleet_backend.dto.IncidentDTO;
 import com.example.fleet_backend.dto.IncidentFromEventRequest;
 import com.example.fleet_backend.dto.IncidentHistoryDTO;
 import com.example.fleet_backend.dto.IncidentUpdateStatusRequest;
+import com.example.fleet_backend.dto.PageCursor;
 import com.example.fleet_backend.model.*;
 import com.example.fleet_backend.repository.*;
 import com.example.fleet_backend.security.AuthUtil;
 import com.example.fleet_backend.service.websocket.IncidentWebSocketPublisher;
-import com.example.fleet_backend.websocket.DashboardWebSocketPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -36,7 +39,6 @@ public class IncidentService {
     private final IncidentPhotoRepository incidentPhotoRepository;
     private final IncidentHistoryRepository incidentHistoryRepository;
     private final VehicleStatusService vehicleStatusService;
-    private final DashboardWebSocketPublisher dashboardWebSocketPublisher;
 
     public IncidentService(
             IncidentRepository incidentRepository,
@@ -47,8 +49,7 @@ public class IncidentService {
             IncidentWebSocketPublisher incidentWebSocketPublisher,
             IncidentPhotoRepository incidentPhotoRepository,
             IncidentHistoryRepository incidentHistoryRepository,
-            VehicleStatusService vehicleStatusService,
-            DashboardWebSocketPublisher dashboardWebSocketPublisher
+            VehicleStatusService vehicleStatusService
     ) {
         this.incidentRepository = incidentRepository;
         this.vehicleRepository = vehicleRepository;
@@ -59,7 +60,6 @@ public class IncidentService {
         this.incidentPhotoRepository = incidentPhotoRepository;
         this.incidentHistoryRepository = incidentHistoryRepository;
         this.vehicleStatusService = vehicleStatusService;
-        this.dashboardWebSocketPublisher = dashboardWebSocketPublisher;
     }
 
     @Transactional
@@ -129,7 +129,6 @@ public class IncidentService {
         IncidentDTO dto = toDTO(saved);
 
         incidentWebSocketPublisher.publishIncident(dto);
-        publishDashboard(saved);
 
         return dto;
     }
@@ -172,7 +171,6 @@ public class IncidentService {
         IncidentDTO dto = toDTO(incident);
 
         incidentWebSocketPublisher.publishIncident(dto);
-        publishDashboard(incident);
 
         return dto;
     }
@@ -249,7 +247,6 @@ public class IncidentService {
         IncidentDTO dto = toDTO(saved);
 
         incidentWebSocketPublisher.publishIncident(dto);
-        publishDashboard(saved);
 
         return dto;
     }
@@ -314,6 +311,97 @@ public class IncidentService {
                 .toList();
     }
 
+    // ===== Pagination par curseur : mêmes contrôles d'accès que les listes ci-dessus =====
+
+    @Transactional(readOnly = true)
+    public CursorPage<IncidentDTO> getMyIncidentsPage(List<IncidentStatus> statuses,
+                                                      List<IncidentSeverity> severities,
+                                                      String cursor,
+                                                      Integer limit,
+                                                      Authentication auth) {
+        Long userId = AuthUtil.userId(auth);
+
+        if (userId == null) {
+            throw new RuntimeException("Utilisateur non authentifié");
+        }
+
+        PageCursor position = PageCursor.decode(cursor);
+        int size = CursorPage.normalizeLimit(limit);
+
+        return toPage(incidentRepository.findPageByReporter(
+                userId,
+                statusesOrAll(statuses),
+                severitiesOrAll(severities),
+                position.createdAt(),
+                position.id(),
+                pageRequest(size)
+        ), size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<IncidentDTO> getIncidentsByVehiclePage(Long vehicleId,
+                                                             List<IncidentStatus> statuses,
+                                                             List<IncidentSeverity> severities,
+                                                             String cursor,
+                                                             Integer limit) {
+        vehicleAccessService.assertCanAccessVehicle(vehicleId);
+
+        PageCursor position = PageCursor.decode(cursor);
+        int size = CursorPage.normalizeLimit(limit);
+
+        return toPage(incidentRepository.findPageByVehicle(
+                vehicleId,
+                statusesOrAll(statuses),
+                severitiesOrAll(severities),
+                position.createdAt(),
+                position.id(),
+                pageRequest(size)
+        ), size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<IncidentDTO> getIncidentsByMissionPage(Long missionId,
+                                                             List<IncidentStatus> statuses,
+                                                             List<IncidentSeverity> severities,
+                                                             String cursor,
+                                                             Integer limit) {
+        Mission mission = missionRepository.findById(missionId)
+                .orElseThrow(() -> new RuntimeException("Mission introuvable"));
+
+        if (mission.getVehicle() != null) {
+            vehicleAccessService.assertCanAccessVehicle(mission.getVehicle().getId());
+        }
+
+        PageCursor position = PageCursor.decode(cursor);
+        int size = CursorPage.normalizeLimit(limit);
+
+        return toPage(incidentRepository.findPageByMission(
+                missionId,
+                statusesOrAll(statuses),
+                severitiesOrAll(severities),
+                position.createdAt(),
+                position.id(),
+                pageRequest(size)
+        ), size);
+    }
+
+    private CursorPage<IncidentDTO> toPage(List<Incident> rows, int size) {
+        return CursorPage.of(rows, size, this::toDTO, incident -> new PageCursor(incident.getCreatedAt(), incident.getId()));
+    }
+
+    // Une ligne de plus que la page : elle signale seulement l'existence d'une page suivante.
+    private Pageable pageRequest(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    private List<IncidentStatus> statusesOrAll(List<IncidentStatus> statuses) {
+        return statuses == null || statuses.isEmpty() ? List.of(IncidentStatus.values()) : statuses;
+    }
+
+    private List<IncidentSeverity> severitiesOrAll(List<IncidentSeverity> severities) {
+        return severities == null || severities.isEmpty() ? List.of(IncidentSeverity.values()) : severities;
+    }
+
     @Transactional
     public IncidentDTO updateStatus(Long id, IncidentUpdateStatusRequest request, Authentication auth) {
         Incident incident = incidentRepository.findById(id)
@@ -363,23 +451,10 @@ public class IncidentService {
         IncidentDTO dto = toDTO(saved);
 
         incidentWebSocketPublisher.publishIncident(dto);
-        publishDashboard(saved);
 
         return dto;
     }
 
-    private void publishDashboard(Incident incident) {
-        if (
-                incident != null &&
-                        incident.getVehicle() != null &&
-                        incident.getVehicle().getOwner() != null
-        ) {
-            dashboardWebSocketPublisher.publishOwnerKpi(
-                    incident.getVehicle().getOwner().getId()
-            );
-        }
-    }
-
     private void assertCanConfirmEventAsIncident(VehicleEvent event, Authentication auth) {
         if (AuthUtil.isAdmin(auth)) return;
 
@@ -0,0 +1,74 @@
+package com.example.fleet_backend.service;
+
+/**
+ * Largest-Triangle-Three-Buckets : réduit une série (x croissant) à {@code threshold} points en
+ * gardant, dans chaque intervalle, celui qui forme le plus grand triangle avec le point retenu
+ * précédemment et la moyenne de l'intervalle suivant ; pics et creux survivent à la réduction.
+ */
+public final class LttbDownsampler {
+
+    private LttbDownsampler() {
+    }
+
+    // Indices retenus, croissants ; premier et dernier points toujours inclus.
+    public static int[] select(double[] x, double[] y, int length, int threshold) {
+        if (threshold >= length || threshold < 3) {
+            int[] all = new int[length];
+
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        int count = 0;
+
+        double every = (double) (length - 2) / (threshold - 2);
+        int a = 0;
+
+        selected[count++] = a;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Moyenne de l'intervalle suivant (dernier point pour le dernier intervalle).
+            int averageStart = (int) Math.floor((bucket + 1) * every) + 1;
+            int averageEnd = Math.min((int) Math.floor((bucket + 2) * every) + 1, length);
+
+            double averageX = 0;
+            double averageY = 0;
+
+            for (int i = averageStart; i < averageEnd; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+
+            int averageLength = averageEnd - averageStart;
+            averageX /= averageLength;
+            averageY /= averageLength;
+
+            int rangeStart = (int) Math.floor(bucket * every) + 1;
+            int rangeEnd = (int) Math.floor((bucket + 1) * every) + 1;
+
+            double ax = x[a];
+            double ay = y[a];
+            double maxArea = -1;
+            int next = rangeStart;
+
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double area = Math.abs((ax - averageX) * (y[i] - ay) - (ax - x[i]) * (averageY - ay));
+
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = i;
+                }
+            }
+
+            selected[count++] = next;
+            a = next;
+        }
+
+        selected[count] = length - 1;
+        return selected;
+    }
+}
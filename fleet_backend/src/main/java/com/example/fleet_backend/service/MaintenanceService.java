@@ -9,12 +9,13 @@ import com.example.fleet_backend.repository.MaintenanceRepository;
 import com.example.fleet_backend.repository.MissionRepository;
 import com.example.fleet_backend.repository.VehicleRepository;
 import com.example.fleet_backend.security.AuthUtil;
-import com.example.fleet_backend.websocket.DashboardWebSocketPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -27,7 +28,6 @@ public class MaintenanceService {
     private final VehicleStatusService vehicleStatusService;
     private final MissionRepository missionRepository;
     private final ObdResolutionService obdResolutionService;
-    private final DashboardWebSocketPublisher dashboardWebSocketPublisher;
 
     public MaintenanceService(
             MaintenanceRepository maintenanceRepository,
@@ -36,8 +36,7 @@ public class MaintenanceService {
             IncidentRepository incidentRepository,
             VehicleStatusService vehicleStatusService,
             MissionRepository missionRepository,
-            ObdResolutionService obdResolutionService,
-            DashboardWebSocketPublisher dashboardWebSocketPublisher
+            ObdResolutionService obdResolutionService
     ) {
         this.maintenanceRepository = maintenanceRepository;
         this.vehicleRepository = vehicleRepository;
@@ -46,7 +45,6 @@ public class MaintenanceService {
         this.vehicleStatusService = vehicleStatusService;
         this.missionRepository = missionRepository;
         this.obdResolutionService = obdResolutionService;
-        this.dashboardWebSocketPublisher = dashboardWebSocketPublisher;
     }
 
     @Transactional
@@ -149,6 +147,7 @@ public class MaintenanceService {
         maintenance.setMaintenanceDate(request.getMaintenanceDate());
         maintenance.setPlannedDate(request.getPlannedDate());
         maintenance.setMileage(request.getMileage());
+        maintenance.setDueMileage(request.getDueMileage());
         maintenance.setCost(request.getCost());
 
         maintenance.setCreatedByUserId(AuthUtil.userId(auth));
@@ -206,8 +205,6 @@ public class MaintenanceService {
             vehicleStatusService.recalculateVehicleStatus(saved.getVehicle().getId());
         }
 
-        publishDashboard(saved);
-
         return toDTO(saved);
     }
 
@@ -260,8 +257,6 @@ public class MaintenanceService {
 
         vehicleStatusService.recalculateVehicleStatus(vehicle.getId());
 
-        publishDashboard(saved);
-
         return toDTO(saved);
     }
 
@@ -338,8 +333,6 @@ public class MaintenanceService {
             vehicleStatusService.recalculateVehicleStatus(vehicle.getId());
         }
 
-        publishDashboard(saved);
-
         return toDTO(saved);
     }
 
@@ -368,8 +361,6 @@ public class MaintenanceService {
             vehicleStatusService.recalculateVehicleStatus(vehicle.getId());
         }
 
-        publishDashboard(saved);
-
         return toDTO(saved);
     }
 
@@ -387,12 +378,33 @@ public class MaintenanceService {
     public void markOverdueMaintenances() {
         LocalDateTime now = LocalDateTime.now();
 
-        List<Maintenance> overdueMaintenances =
+        List<Maintenance> overdueMaintenances = new ArrayList<>(
                 maintenanceRepository.findByStatusAndPlannedDateBefore(
                         MaintenanceStatus.PLANNED,
                         now
-                );
+                )
+        );
+
+        for (Maintenance maintenance : maintenanceRepository.findMileageDue(MaintenanceStatus.PLANNED)) {
+            if (!overdueMaintenances.contains(maintenance)) {
+                overdueMaintenances.add(maintenance);
+            }
+        }
+
+        markOverdue(overdueMaintenances);
+    }
+
+    // Maintenances planifiées dont le kilométrage cible est atteint, limitées aux véhicules qui viennent de rouler.
+    @Transactional
+    public void markMileageDueMaintenances(Collection<Long> vehicleIds) {
+        if (vehicleIds == null || vehicleIds.isEmpty()) {
+            return;
+        }
 
+        markOverdue(maintenanceRepository.findMileageDueForVehicles(MaintenanceStatus.PLANNED, vehicleIds));
+    }
+
+    private void markOverdue(List<Maintenance> overdueMaintenances) {
         if (overdueMaintenances.isEmpty()) {
             return;
         }
@@ -406,23 +418,10 @@ public class MaintenanceService {
         for (Maintenance maintenance : overdueMaintenances) {
             if (maintenance.getVehicle() != null) {
                 vehicleStatusService.recalculateVehicleStatus(maintenance.getVehicle().getId());
-                publishDashboard(maintenance);
             }
         }
     }
 
-    private void publishDashboard(Maintenance maintenance) {
-        if (
-                maintenance != null &&
-                        maintenance.getVehicle() != null &&
-                        maintenance.getVehicle().getOwner() != null
-        ) {
-            dashboardWebSocketPublisher.publishOwnerKpi(
-                    maintenance.getVehicle().getOwner().getId()
-            );
-        }
-    }
-
     private void applyIncidentMaintenanceRules(Maintenance maintenance, Incident incident) {
         if (incident.getType() == IncidentType.VEHICLE_BREAKDOWN) {
             maintenance.setType(MaintenanceType.REPAIR);
@@ -541,6 +540,7 @@ public class MaintenanceService {
                 maintenance.getPlannedDate(),
                 maintenance.getCompletedAt(),
                 maintenance.getMileage(),
+                maintenance.getDueMileage(),
                 maintenance.getCost(),
                 maintenance.getCreatedByUserId(),
                 maintenance.getCreatedByEmail(),
@@ -257,6 +257,7 @@ public class MaintenanceWorkOrderService {
                 maintenance.getPlannedDate(),
                 maintenance.getCompletedAt(),
                 maintenance.getMileage(),
+                maintenance.getDueMileage(),
                 maintenance.getCost(),
                 maintenance.getCreatedByUserId(),
                 maintenance.getCreatedByEmail(),
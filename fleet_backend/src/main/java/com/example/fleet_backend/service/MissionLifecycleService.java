@@ -11,9 +11,10 @@ import com.example.fleet_backend.model.VehicleLiveState;
 import com.example.fleet_backend.repository.DriverRepository;
 import com.example.fleet_backend.repository.MaintenanceRepository;
 import com.example.fleet_backend.repository.MissionRepository;
-import com.example.fleet_backend.repository.VehicleLiveStateRepository;
 import com.example.fleet_backend.repository.VehicleRepository;
 import com.example.fleet_backend.security.AuthUtil;
+import com.example.fleet_backend.service.gps.LiveStateStore;
+import com.example.fleet_backend.service.gps.MissionTrackingService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.security.access.AccessDeniedException;
@@ -35,27 +36,30 @@ public class MissionLifecycleService {
     private final MissionRepository missionRepository;
     private final DriverRepository driverRepository;
     private final VehicleRepository vehicleRepository;
-    private final VehicleLiveStateRepository vehicleLiveStateRepository;
+    private final LiveStateStore liveStateStore;
     private final MaintenanceRepository maintenanceRepository;
     private final ObjectMapper objectMapper;
     private final PostMissionDecisionService postMissionDecisionService;
+    private final MissionTrackingService missionTrackingService;
 
     public MissionLifecycleService(
             MissionRepository missionRepository,
             DriverRepository driverRepository,
             VehicleRepository vehicleRepository,
-            VehicleLiveStateRepository vehicleLiveStateRepository,
+            LiveStateStore liveStateStore,
             MaintenanceRepository maintenanceRepository,
             ObjectMapper objectMapper,
-            PostMissionDecisionService postMissionDecisionService
+            PostMissionDecisionService postMissionDecisionService,
+            MissionTrackingService missionTrackingService
     ) {
         this.missionRepository = missionRepository;
         this.driverRepository = driverRepository;
         this.vehicleRepository = vehicleRepository;
-        this.vehicleLiveStateRepository = vehicleLiveStateRepository;
+        this.liveStateStore = liveStateStore;
         this.maintenanceRepository = maintenanceRepository;
         this.objectMapper = objectMapper;
         this.postMissionDecisionService = postMissionDecisionService;
+        this.missionTrackingService = missionTrackingService;
     }
 
     public Mission startMission(Mission mission, Authentication auth) {
@@ -152,6 +156,8 @@ public class MissionLifecycleService {
         vehicleRepository.save(vehicle);
         driverRepository.save(driver);
 
+        missionTrackingService.invalidate(managedMission);
+
         return missionRepository.save(managedMission);
     }
 
@@ -178,8 +184,8 @@ public class MissionLifecycleService {
             throw new IllegalArgumentException("Mission vehicle is missing");
         }
 
-        VehicleLiveState liveState = vehicleLiveStateRepository
-                .findByVehicleId(managedMission.getVehicle().getId())
+        VehicleLiveState liveState = liveStateStore
+                .find(managedMission.getVehicle().getId())
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Live GPS position not found for this vehicle"
                 ));
@@ -229,6 +235,8 @@ public class MissionLifecycleService {
 
         managedMission.setLateAlertSent(false);
 
+        missionTrackingService.invalidate(managedMission);
+
         Mission saved = missionRepository.save(managedMission);
 
         postMissionDecisionService.handleAfterMissionCompleted(saved);
@@ -261,6 +269,8 @@ public class MissionLifecycleService {
             driverRepository.save(managedMission.getDriver());
         }
 
+        missionTrackingService.invalidate(managedMission);
+
         Mission saved = missionRepository.save(managedMission);
 
         postMissionDecisionService.handleNextMissionCancelled(saved);
@@ -298,6 +308,8 @@ public class MissionLifecycleService {
 
         managedMission.setLateAlertSent(false);
 
+        missionTrackingService.invalidate(managedMission);
+
         Mission saved = missionRepository.save(managedMission);
 
         postMissionDecisionService.handleAfterMissionCompleted(saved);
@@ -1,12 +1,15 @@
 package com.example.fleet_backend.service;
 
+import com.example.fleet_backend.dto.CursorPage;
 import com.example.fleet_backend.dto.NotificationDTO;
+import com.example.fleet_backend.dto.PageCursor;
 import com.example.fleet_backend.exception.ResourceNotFoundException;
 import com.example.fleet_backend.model.Notification;
 import com.example.fleet_backend.model.User;
 import com.example.fleet_backend.repository.NotificationRepository;
 import com.example.fleet_backend.repository.UserRepository;
 import com.example.fleet_backend.security.AuthUtil;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -141,6 +144,25 @@ public class NotificationService {
                 .collect(Collectors.toList());
     }
 
+    public CursorPage<NotificationDTO> myNotificationsPage(Authentication auth,
+                                                           boolean unreadOnly,
+                                                           String cursor,
+                                                           Integer limit) {
+        Long userId = AuthUtil.userId(auth);
+        PageCursor position = PageCursor.decode(cursor);
+        int size = CursorPage.normalizeLimit(limit);
+
+        List<Notification> rows = notificationRepository.findPageByRecipient(
+                userId,
+                unreadOnly ? List.of(false) : List.of(false, true),
+                position.createdAt(),
+                position.id(),
+                PageRequest.of(0, size + 1)
+        );
+
+        return CursorPage.of(rows, size, NotificationDTO::new, n -> new PageCursor(n.getCreatedAt(), n.getId()));
+    }
+
     public long myUnreadCount(Authentication auth) {
         Long userId = AuthUtil.userId(auth);
         return notificationRepository.countByRecipientIdAndReadFalse(userId);
@@ -5,7 +5,7 @@ import com.example.fleet_backend.dto.VehicleHealthSummaryDTO;
 import com.example.fleet_backend.exception.ResourceNotFoundException;
 import com.example.fleet_backend.model.Vehicle;
 import com.example.fleet_backend.model.VehicleLiveState;
-import com.example.fleet_backend.repository.VehicleLiveStateRepository;
+import com.example.fleet_backend.service.gps.LiveStateStore;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,14 +14,14 @@ import java.util.List;
 @Service
 public class ObdAlertService {
 
-    private final VehicleLiveStateRepository vehicleLiveStateRepository;
+    private final LiveStateStore liveStateStore;
     private final ObdAnalysisService obdAnalysisService;
     private final VehicleAccessService vehicleAccessService;
 
-    public ObdAlertService(VehicleLiveStateRepository vehicleLiveStateRepository,
+    public ObdAlertService(LiveStateStore liveStateStore,
                            ObdAnalysisService obdAnalysisService,
                            VehicleAccessService vehicleAccessService) {
-        this.vehicleLiveStateRepository = vehicleLiveStateRepository;
+        this.liveStateStore = liveStateStore;
         this.obdAnalysisService = obdAnalysisService;
         this.vehicleAccessService = vehicleAccessService;
     }
@@ -30,7 +30,7 @@ public class ObdAlertService {
     public VehicleHealthSummaryDTO getVehicleSummary(Long vehicleId) {
         Vehicle vehicle = vehicleAccessService.getAuthorizedVehicle(vehicleId);
 
-        VehicleLiveState liveState = vehicleLiveStateRepository.findByVehicleId(vehicleId)
+        VehicleLiveState liveState = liveStateStore.find(vehicleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Live state not found for vehicle " + vehicleId));
 
         List<ObdAlertDTO> alerts = getAlertsFromLiveState(liveState);
@@ -74,7 +74,7 @@ public class ObdAlertService {
     public List<ObdAlertDTO> getVehicleAlerts(Long vehicleId) {
         vehicleAccessService.getAuthorizedVehicle(vehicleId);
 
-        VehicleLiveState liveState = vehicleLiveStateRepository.findByVehicleId(vehicleId)
+        VehicleLiveState liveState = liveStateStore.find(vehicleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Live state not found for vehicle " + vehicleId));
 
         return getAlertsFromLiveState(liveState);
@@ -9,12 +9,12 @@ import com.example.fleet_backend.model.VehicleEvent;
 import com.example.fleet_backend.model.VehicleEventType;
 import com.example.fleet_backend.model.VehicleHealthState;
 import com.example.fleet_backend.repository.VehicleEventRepository;
+import com.example.fleet_backend.service.events.DomainEventBus;
+import com.example.fleet_backend.service.events.VehicleEventRecorded;
 import com.example.fleet_backend.service.websocket.GpsWebSocketPublisher;
-import com.example.fleet_backend.websocket.DashboardWebSocketPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -27,25 +27,22 @@ public class ObdEventService {
 
     private final VehicleEventRepository eventRepository;
     private final ObdAnalysisService obdAnalysisService;
-    private final NotificationService notificationService;
+    private final EventCooldownStore eventCooldownStore;
+    private final DomainEventBus domainEventBus;
     private final GpsWebSocketPublisher gpsWebSocketPublisher;
-    private final PredictiveAnalysisService predictiveAnalysisService;
-    private final DashboardWebSocketPublisher dashboardWebSocketPublisher;
 
     public ObdEventService(
             VehicleEventRepository eventRepository,
             ObdAnalysisService obdAnalysisService,
-            NotificationService notificationService,
-            GpsWebSocketPublisher gpsWebSocketPublisher,
-            PredictiveAnalysisService predictiveAnalysisService,
-            DashboardWebSocketPublisher dashboardWebSocketPublisher
+            EventCooldownStore eventCooldownStore,
+            DomainEventBus domainEventBus,
+            GpsWebSocketPublisher gpsWebSocketPublisher
     ) {
         this.eventRepository = eventRepository;
         this.obdAnalysisService = obdAnalysisService;
-        this.notificationService = notificationService;
+        this.eventCooldownStore = eventCooldownStore;
+        this.domainEventBus = domainEventBus;
         this.gpsWebSocketPublisher = gpsWebSocketPublisher;
-        this.predictiveAnalysisService = predictiveAnalysisService;
-        this.dashboardWebSocketPublisher = dashboardWebSocketPublisher;
     }
 
     public void generateEvents(
@@ -155,21 +152,15 @@ public class ObdEventService {
 
         LocalDateTime now = LocalDateTime.now();
 
-        Optional<VehicleEvent> lastOpt = findLastSimilarEvent(
+        if (eventCooldownStore.isInCooldown(
                 vehicle.getId(),
                 gpsData.getMissionId(),
-                eventType
-        );
-
-        if (lastOpt.isPresent()) {
-            VehicleEvent last = lastOpt.get();
-
-            boolean sameSeverity = last.getSeverity() == severity;
-            long minutes = Duration.between(last.getCreatedAt(), now).toMinutes();
-
-            if (sameSeverity && minutes < OBD_EVENT_COOLDOWN_MINUTES) {
-                return;
-            }
+                eventType,
+                severity,
+                now,
+                OBD_EVENT_COOLDOWN_MINUTES
+        )) {
+            return;
         }
 
         VehicleEvent event = new VehicleEvent();
@@ -185,45 +176,19 @@ public class ObdEventService {
         event.setAcknowledged(false);
 
         VehicleEvent saved = eventRepository.save(event);
+        eventCooldownStore.record(saved);
 
-        publishDashboardKpi(saved);
-
-        runPredictiveAnalysisSafely(vehicle.getId());
+        VehicleEventDTO dto = toDto(saved);
 
-        gpsWebSocketPublisher.publishEvent(toDto(saved));
+        gpsWebSocketPublisher.publishEvent(dto);
 
-        notifyOwnerIfCritical(saved);
-    }
-
-    private void publishDashboardKpi(VehicleEvent event) {
-        if (
-                event != null &&
-                        event.getVehicle() != null &&
-                        event.getVehicle().getOwner() != null
-        ) {
-            dashboardWebSocketPublisher.publishOwnerKpi(
-                    event.getVehicle().getOwner().getId()
-            );
-        }
-    }
-
-    private Optional<VehicleEvent> findLastSimilarEvent(
-            Long vehicleId,
-            Long missionId,
-            VehicleEventType eventType
-    ) {
-        if (missionId != null) {
-            return eventRepository.findTopByVehicleIdAndMissionIdAndEventTypeOrderByCreatedAtDesc(
-                    vehicleId,
-                    missionId,
-                    eventType
-            );
-        }
-
-        return eventRepository.findTopByVehicleIdAndMissionIdIsNullAndEventTypeOrderByCreatedAtDesc(
-                vehicleId,
-                eventType
-        );
+        domainEventBus.publish(new VehicleEventRecorded(
+                vehicle.getId(),
+                vehicle.getOwner() != null ? vehicle.getOwner().getId() : null,
+                vehicle.getRegistrationNumber(),
+                dto,
+                saved.getSeverity() == EventSeverity.CRITICAL
+        ));
     }
 
     private VehicleEventType mapAlertCodeToEventType(String code) {
@@ -262,40 +227,6 @@ public class ObdEventService {
         return EventSeverity.INFO;
     }
 
-    private void notifyOwnerIfCritical(VehicleEvent event) {
-        if (event == null || event.getVehicle() == null) {
-            return;
-        }
-
-        if (event.getSeverity() != EventSeverity.CRITICAL) {
-            return;
-        }
-
-        if (event.getVehicle().getOwner() == null) {
-            return;
-        }
-
-        notificationService.createVehicleProblemNotification(
-                event.getVehicle().getOwner().getId(),
-                event.getVehicle().getId(),
-                event.getVehicle().getRegistrationNumber(),
-                event.getMissionId()
-        );
-    }
-
-    private void runPredictiveAnalysisSafely(Long vehicleId) {
-        if (vehicleId == null) {
-            return;
-        }
-
-        try {
-            predictiveAnalysisService.analyzeVehicle(vehicleId);
-        } catch (Exception e) {
-            System.err.println("Predictive analysis failed for vehicle "
-                    + vehicleId + ": " + e.getMessage());
-        }
-    }
-
     private VehicleEventDTO toDto(VehicleEvent event) {
         return new VehicleEventDTO(
                 event.getId(),
@@ -1,77 +1,418 @@
 package com.example.fleet_backend.service;
 
 import com.example.fleet_backend.dto.ObdHistoryDTO;
-import com.example.fleet_backend.model.GpsData;
-import com.example.fleet_backend.repository.GpsDataRepository;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import com.example.fleet_backend.service.gps.archive.GpsArchiveRecord;
+import com.example.fleet_backend.service.gps.archive.GpsArchiveStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 @Service
 public class ObdHistoryService {
 
-    private static final int MAX_HISTORY_POINTS = 100;
+    private static final String OBD_ROWS = """
+            from gps_data
+            where vehicle_id = ?
+              and "timestamp" >= ?
+              and "timestamp" <= ?
+              and (engine_rpm is not null
+                   or fuel_level is not null
+                   or engine_temperature is not null
+                   or battery_voltage is not null
+                   or engine_load is not null
+                   or check_engine_on is not null)
+            """;
+
+    // Seules les lignes portant une mesure OBD sont lues, dans l'ordre chronologique.
+    private static final String SELECT_SQL = """
+            select id, "timestamp", engine_rpm, fuel_level, engine_temperature,
+                   battery_voltage, engine_load, check_engine_on
+            """ + OBD_ROWS + " order by \"timestamp\", id";
+
+    private static final String COUNT_SQL = "select count(*) " + OBD_ROWS;
 
-    private final GpsDataRepository gpsDataRepository;
     private final VehicleAccessService vehicleAccessService;
+    private final GpsArchiveStore gpsArchiveStore;
+    private final JdbcTemplate cursorJdbcTemplate;
+
+    @Value("${obd.history.default-points:500}")
+    private int defaultPoints;
+
+    @Value("${obd.history.max-points:5000}")
+    private int maxPoints;
+
+    // Au-delà, la plage est lue en buckets de temps fixes réduits à la volée (premier, dernier, extrêmes).
+    @Value("${obd.history.max-buffered-rows:100000}")
+    private int maxBufferedRows;
 
-    public ObdHistoryService(GpsDataRepository gpsDataRepository,
-                             VehicleAccessService vehicleAccessService) {
-        this.gpsDataRepository = gpsDataRepository;
+    public ObdHistoryService(VehicleAccessService vehicleAccessService,
+                             GpsArchiveStore gpsArchiveStore,
+                             DataSource dataSource,
+                             @Value("${gps.export.fetch-size:1000}") int fetchSize) {
         this.vehicleAccessService = vehicleAccessService;
+        this.gpsArchiveStore = gpsArchiveStore;
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(Math.max(1, fetchSize));
     }
 
+    /*
+     * La plage est lue en un passage dans des tableaux primitifs, puis réduite signal par signal
+     * (LTTB) ; les lignes retenues pour au moins un signal sont renvoyées complètes. Une plage plus
+     * volumineuse que max-buffered-rows est pré-réduite par buckets de temps pendant la lecture.
+     */
     @Transactional(readOnly = true)
-    public List<ObdHistoryDTO> getVehicleHistory(Long vehicleId, LocalDateTime from, LocalDateTime to) {
+    public List<ObdHistoryDTO> getVehicleHistory(Long vehicleId,
+                                                 LocalDateTime from,
+                                                 LocalDateTime to,
+                                                 Integer points) {
         vehicleAccessService.getAuthorizedVehicle(vehicleId);
 
         LocalDateTime safeTo = to != null ? to : LocalDateTime.now();
         LocalDateTime safeFrom = from != null ? from : safeTo.minusHours(1);
 
-        Pageable limit = PageRequest.of(0, MAX_HISTORY_POINTS);
+        int target = points != null && points > 0
+                ? Math.min(points, maxPoints)
+                : defaultPoints;
 
-        List<GpsData> data = gpsDataRepository
-                .findByVehicleIdAndTimestampBetweenOrderByTimestampDesc(
-                        vehicleId,
-                        safeFrom,
-                        safeTo,
-                        limit
-                )
-                .stream()
-                .filter(this::hasObdData)
-                .sorted(Comparator.comparing(GpsData::getTimestamp))
-                .toList();
-
-        return data.stream()
-                .map(this::toDTO)
-                .toList();
+        long rows = cursorJdbcTemplate.queryForObject(
+                COUNT_SQL,
+                Long.class,
+                vehicleId,
+                Timestamp.valueOf(safeFrom),
+                Timestamp.valueOf(safeTo)
+        ) + gpsArchiveStore.countPoints(vehicleId, safeFrom, safeTo);
+
+        ObdSeries series = rows > maxBufferedRows
+                ? new ObdSeries(toMicros(safeFrom), toMicros(safeTo), Math.max(1, maxBufferedRows / ObdSeries.ROWS_PER_BUCKET))
+                : new ObdSeries();
+
+        // Lignes archivées fusionnées dans l'ordre avec celles de la base.
+        Iterator<GpsArchiveRecord> archived = gpsArchiveStore.records(vehicleId, safeFrom, safeTo, false);
+        GpsArchiveRecord[] nextArchived = {nextWithObd(archived)};
+
+        cursorJdbcTemplate.query(
+                SELECT_SQL,
+                (PreparedStatement ps) -> {
+                    ps.setLong(1, vehicleId);
+                    ps.setTimestamp(2, Timestamp.valueOf(safeFrom));
+                    ps.setTimestamp(3, Timestamp.valueOf(safeTo));
+                },
+                (ResultSet rs) -> {
+                    long id = rs.getLong("id");
+                    long micros = toMicros(rs.getTimestamp("timestamp").toLocalDateTime());
+
+                    while (nextArchived[0] != null && isBefore(nextArchived[0], micros, id)) {
+                        series.add(nextArchived[0]);
+                        nextArchived[0] = nextWithObd(archived);
+                    }
+
+                    series.add(rs, id, micros);
+                }
+        );
+
+        while (nextArchived[0] != null) {
+            series.add(nextArchived[0]);
+            nextArchived[0] = nextWithObd(archived);
+        }
+
+        return series.downsample(vehicleId, target);
+    }
+
+    private GpsArchiveRecord nextWithObd(Iterator<GpsArchiveRecord> records) {
+        while (records.hasNext()) {
+            GpsArchiveRecord record = records.next();
+
+            if (record.engineRpm() != null
+                    || record.fuelLevel() != null
+                    || record.engineTemperature() != null
+                    || record.batteryVoltage() != null
+                    || record.engineLoad() != null
+                    || record.checkEngineOn() != null) {
+                return record;
+            }
+        }
+
+        return null;
+    }
+
+    private boolean isBefore(GpsArchiveRecord record, long micros, long id) {
+        long recordMicros = toMicros(record.timestamp());
+        return recordMicros < micros || (recordMicros == micros && record.id() < id);
     }
 
-    private boolean hasObdData(GpsData gps) {
-        return gps.getEngineRpm() != null
-                || gps.getFuelLevel() != null
-                || gps.getEngineTemperature() != null
-                || gps.getBatteryVoltage() != null
-                || gps.getEngineLoad() != null
-                || gps.getCheckEngineOn() != null;
+    private static long toMicros(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000;
     }
 
-    private ObdHistoryDTO toDTO(GpsData gps) {
-        return new ObdHistoryDTO(
-                gps.getId(),
-                gps.getVehicle().getId(),
-                gps.getEngineRpm(),
-                gps.getFuelLevel(),
-                gps.getEngineTemperature(),
-                gps.getBatteryVoltage(),
-                gps.getEngineLoad(),
-                gps.getCheckEngineOn(),
-                gps.getTimestamp()
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000,
+                ZoneOffset.UTC
         );
     }
-}
\ No newline at end of file
+
+    // Colonnes OBD en tableaux primitifs ; NaN (ou -1 pour le voyant) pour une mesure absente.
+    private static final class ObdSeries {
+
+        private static final int RPM = 0;
+        private static final int FUEL = 1;
+        private static final int TEMPERATURE = 2;
+        private static final int BATTERY = 3;
+        private static final int LOAD = 4;
+        private static final int SIGNALS = 5;
+
+        // Lignes gardées au plus par bucket : première, dernière, minimum et maximum de chaque signal.
+        private static final int ROWS_PER_BUCKET = 2 + 2 * SIGNALS;
+
+        private long[] ids = new long[1024];
+        private long[] micros = new long[1024];
+        private double[][] values = new double[SIGNALS][1024];
+        private byte[] checkEngine = new byte[1024];
+        private int size;
+
+        private final long originMicros;
+        private final double bucketMicros;
+        private final int buckets;
+        private int bucket = -1;
+        private int bucketStart;
+
+        ObdSeries() {
+            this(0, 0, 0);
+        }
+
+        ObdSeries(long fromMicros, long toMicros, int buckets) {
+            this.originMicros = fromMicros;
+            this.buckets = buckets;
+            this.bucketMicros = buckets > 0 ? Math.max(1d, (double) (toMicros - fromMicros + 1) / buckets) : 0;
+        }
+
+        void add(ResultSet rs, long id, long timestampMicros) throws SQLException {
+            int row = next(id, timestampMicros);
+
+            values[RPM][row] = nullable(rs.getObject("engine_rpm", Integer.class));
+            values[FUEL][row] = nullable(rs.getObject("fuel_level", Double.class));
+            values[TEMPERATURE][row] = nullable(rs.getObject("engine_temperature", Double.class));
+            values[BATTERY][row] = nullable(rs.getObject("battery_voltage", Double.class));
+            values[LOAD][row] = nullable(rs.getObject("engine_load", Double.class));
+            checkEngine[row] = flag(rs.getObject("check_engine_on", Boolean.class));
+        }
+
+        void add(GpsArchiveRecord record) {
+            int row = next(record.id(), toMicros(record.timestamp()));
+
+            values[RPM][row] = nullable(record.engineRpm());
+            values[FUEL][row] = nullable(record.fuelLevel());
+            values[TEMPERATURE][row] = nullable(record.engineTemperature());
+            values[BATTERY][row] = nullable(record.batteryVoltage());
+            values[LOAD][row] = nullable(record.engineLoad());
+            checkEngine[row] = flag(record.checkEngineOn());
+        }
+
+        List<ObdHistoryDTO> downsample(Long vehicleId, int target) {
+            compact(bucketStart);
+
+            boolean[] keep = new boolean[size];
+
+            if (size <= target) {
+                Arrays.fill(keep, true);
+                return toDtos(vehicleId, keep);
+            }
+
+            int signalsWithData = 0;
+
+            for (int signal = 0; signal < SIGNALS; signal++) {
+                if (hasData(signal)) {
+                    signalsWithData++;
+                }
+            }
+
+            // Budget partagé : au plus target lignes, chaque signal garde ses propres extrêmes.
+            int budget = target / Math.max(1, signalsWithData);
+
+            // Moins de 3 points par signal : LTTB n'a plus de sens, lignes réparties uniformément.
+            if (budget < 3) {
+                for (int i = 0; i < target; i++) {
+                    keep[target == 1 ? 0 : (int) ((long) i * (size - 1) / (target - 1))] = true;
+                }
+
+                return toDtos(vehicleId, keep);
+            }
+
+            double[] x = new double[size];
+            double[] y = new double[size];
+
+            for (int signal = 0; signal < SIGNALS; signal++) {
+                int[] rows = new int[size];
+                int length = 0;
+
+                for (int row = 0; row < size; row++) {
+                    double value = values[signal][row];
+
+                    if (!Double.isNaN(value)) {
+                        rows[length] = row;
+                        x[length] = (micros[row] - micros[0]) / 1_000_000d;
+                        y[length] = value;
+                        length++;
+                    }
+                }
+
+                if (length == 0) {
+                    continue;
+                }
+
+                for (int selected : LttbDownsampler.select(x, y, length, budget)) {
+                    keep[rows[selected]] = true;
+                }
+            }
+
+            return toDtos(vehicleId, keep);
+        }
+
+        private List<ObdHistoryDTO> toDtos(Long vehicleId, boolean[] keep) {
+            List<ObdHistoryDTO> result = new ArrayList<>();
+
+            for (int row = 0; row < size; row++) {
+                if (!keep[row]) {
+                    continue;
+                }
+
+                double rpm = values[RPM][row];
+
+                result.add(new ObdHistoryDTO(
+                        ids[row],
+                        vehicleId,
+                        Double.isNaN(rpm) ? null : (int) rpm,
+                        boxed(values[FUEL][row]),
+                        boxed(values[TEMPERATURE][row]),
+                        boxed(values[BATTERY][row]),
+                        boxed(values[LOAD][row]),
+                        checkEngine[row] < 0 ? null : checkEngine[row] == 1,
+                        fromMicros(micros[row])
+                ));
+            }
+
+            return result;
+        }
+
+        private boolean hasData(int signal) {
+            for (int row = 0; row < size; row++) {
+                if (!Double.isNaN(values[signal][row])) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private int next(long id, long timestampMicros) {
+            if (buckets > 0) {
+                int current = (int) Math.min(buckets - 1, Math.max(0, (long) ((timestampMicros - originMicros) / bucketMicros)));
+
+                if (current != bucket) {
+                    compact(bucketStart);
+                    bucket = current;
+                    bucketStart = size;
+                }
+            }
+
+            if (size == ids.length) {
+                int capacity = size * 2;
+
+                ids = Arrays.copyOf(ids, capacity);
+                micros = Arrays.copyOf(micros, capacity);
+                checkEngine = Arrays.copyOf(checkEngine, capacity);
+
+                for (int signal = 0; signal < SIGNALS; signal++) {
+                    values[signal] = Arrays.copyOf(values[signal], capacity);
+                }
+            }
+
+            ids[size] = id;
+            micros[size] = timestampMicros;
+            return size++;
+        }
+
+        // Ne garde, parmi les lignes [start, size), que la première, la dernière et les extrêmes de chaque signal.
+        private void compact(int start) {
+            if (buckets == 0 || size - start <= ROWS_PER_BUCKET) {
+                return;
+            }
+
+            boolean[] keep = new boolean[size - start];
+            keep[0] = true;
+            keep[keep.length - 1] = true;
+
+            for (int signal = 0; signal < SIGNALS; signal++) {
+                int min = -1;
+                int max = -1;
+
+                for (int row = start; row < size; row++) {
+                    double value = values[signal][row];
+
+                    if (Double.isNaN(value)) {
+                        continue;
+                    }
+
+                    if (min < 0 || value < values[signal][min]) {
+                        min = row;
+                    }
+
+                    if (max < 0 || value > values[signal][max]) {
+                        max = row;
+                    }
+                }
+
+                if (min >= 0) {
+                    keep[min - start] = true;
+                    keep[max - start] = true;
+                }
+            }
+
+            int write = start;
+
+            for (int row = start; row < size; row++) {
+                if (!keep[row - start]) {
+                    continue;
+                }
+
+                ids[write] = ids[row];
+                micros[write] = micros[row];
+                checkEngine[write] = checkEngine[row];
+
+                for (int signal = 0; signal < SIGNALS; signal++) {
+                    values[signal][write] = values[signal][row];
+                }
+
+                write++;
+            }
+
+            size = write;
+        }
+
+        private static double nullable(Number value) {
+            return value != null ? value.doubleValue() : Double.NaN;
+        }
+
+        private static Double boxed(double value) {
+            return Double.isNaN(value) ? null : value;
+        }
+
+        private static byte flag(Boolean value) {
+            return value == null ? -1 : (byte) (value ? 1 : 0);
+        }
+    }
+}
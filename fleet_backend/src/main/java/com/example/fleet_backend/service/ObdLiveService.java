@@ -4,21 +4,21 @@ import com.example.fleet_backend.dto.VehicleObdLiveDTO;
 import com.example.fleet_backend.exception.ResourceNotFoundException;
 import com.example.fleet_backend.model.Vehicle;
 import com.example.fleet_backend.model.VehicleLiveState;
-import com.example.fleet_backend.repository.VehicleLiveStateRepository;
+import com.example.fleet_backend.service.gps.LiveStateStore;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ObdLiveService {
 
-    private final VehicleLiveStateRepository vehicleLiveStateRepository;
+    private final LiveStateStore liveStateStore;
     private final VehicleAccessService vehicleAccessService;
     private final ObdAnalysisService obdAnalysisService;
 
-    public ObdLiveService(VehicleLiveStateRepository vehicleLiveStateRepository,
+    public ObdLiveService(LiveStateStore liveStateStore,
                           VehicleAccessService vehicleAccessService,
                           ObdAnalysisService obdAnalysisService) {
-        this.vehicleLiveStateRepository = vehicleLiveStateRepository;
+        this.liveStateStore = liveStateStore;
         this.vehicleAccessService = vehicleAccessService;
         this.obdAnalysisService = obdAnalysisService;
     }
@@ -27,7 +27,7 @@ public class ObdLiveService {
     public VehicleObdLiveDTO getVehicleObdLive(Long vehicleId) {
         Vehicle vehicle = vehicleAccessService.getAuthorizedVehicle(vehicleId);
 
-        VehicleLiveState liveState = vehicleLiveStateRepository.findByVehicleId(vehicleId)
+        VehicleLiveState liveState = liveStateStore.find(vehicleId)
                 .orElseThrow(() -> new ResourceNotFoundException("Live OBD state not found for vehicle " + vehicleId));
 
         VehicleObdLiveDTO dto = new VehicleObdLiveDTO();
@@ -2,7 +2,7 @@ package com.example.fleet_backend.service;
 
 import com.example.fleet_backend.model.*;
 import com.example.fleet_backend.repository.VehicleEventRepository;
-import com.example.fleet_backend.repository.VehicleLiveStateRepository;
+import com.example.fleet_backend.service.gps.LiveStateStore;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,14 +12,14 @@ import java.util.List;
 @Service
 public class ObdResolutionService {
 
-    private final VehicleLiveStateRepository vehicleLiveStateRepository;
+    private final LiveStateStore liveStateStore;
     private final VehicleEventRepository vehicleEventRepository;
 
     public ObdResolutionService(
-            VehicleLiveStateRepository vehicleLiveStateRepository,
+            LiveStateStore liveStateStore,
             VehicleEventRepository vehicleEventRepository
     ) {
-        this.vehicleLiveStateRepository = vehicleLiveStateRepository;
+        this.liveStateStore = liveStateStore;
         this.vehicleEventRepository = vehicleEventRepository;
     }
 
@@ -89,7 +89,7 @@ public class ObdResolutionService {
             return;
         }
 
-        vehicleLiveStateRepository.findByVehicleId(vehicleId).ifPresent(liveState -> {
+        liveStateStore.updateIfPresent(vehicleId, liveState -> {
 
             switch (type) {
                 case OBD_LOW_FUEL -> {
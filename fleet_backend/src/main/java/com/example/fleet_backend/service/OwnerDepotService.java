@@ -5,6 +5,8 @@ import com.example.fleet_backend.dto.DepotVehicleDTO;
 import com.example.fleet_backend.dto.OwnerDepotDTO;
 import com.example.fleet_backend.model.*;
 import com.example.fleet_backend.repository.*;
+import com.example.fleet_backend.service.gps.LastGpsPoint;
+import com.example.fleet_backend.service.gps.LastGpsPointStore;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
@@ -17,20 +19,20 @@ public class OwnerDepotService {
     private final OwnerDepotRepository ownerDepotRepository;
     private final UserRepository userRepository;
     private final VehicleRepository vehicleRepository;
-    private final GpsDataRepository gpsDataRepository;
+    private final LastGpsPointStore lastGpsPointStore;
     private final MissionRepository missionRepository;
 
     public OwnerDepotService(
             OwnerDepotRepository ownerDepotRepository,
             UserRepository userRepository,
             VehicleRepository vehicleRepository,
-            GpsDataRepository gpsDataRepository,
+            LastGpsPointStore lastGpsPointStore,
             MissionRepository missionRepository
     ) {
         this.ownerDepotRepository = ownerDepotRepository;
         this.userRepository = userRepository;
         this.vehicleRepository = vehicleRepository;
-        this.gpsDataRepository = gpsDataRepository;
+        this.lastGpsPointStore = lastGpsPointStore;
         this.missionRepository = missionRepository;
     }
 
@@ -103,8 +105,8 @@ public class OwnerDepotService {
             dto.setVehicleId(vehicle.getId());
             dto.setPlateNumber(vehicle.getRegistrationNumber());
 
-            GpsData gps = gpsDataRepository
-                    .findTopByVehicleIdOrderByTimestampDesc(vehicle.getId())
+            LastGpsPoint gps = lastGpsPointStore.find(vehicle.getId())
+                    .filter(LastGpsPoint::hasPosition)
                     .orElse(null);
 
             if (gps == null) {
@@ -6,6 +6,7 @@ import com.example.fleet_backend.model.Mission;
 import com.example.fleet_backend.model.RouteCheckStatus;
 import com.example.fleet_backend.model.RouteRiskLevel;
 import com.example.fleet_backend.repository.MissionRepository;
+import com.example.fleet_backend.service.gps.MissionTrackingService;
 import com.example.fleet_backend.service.websocket.RouteCheckWebSocketPublisher;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -25,17 +26,20 @@ public class RouteVerificationService {
     private final MissionAccessService missionAccessService;
     private final RouteCheckWebSocketPublisher publisher;
     private final ObjectMapper objectMapper;
+    private final MissionTrackingService missionTrackingService;
 
     public RouteVerificationService(
             MissionRepository missionRepository,
             MissionAccessService missionAccessService,
             RouteCheckWebSocketPublisher publisher,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            MissionTrackingService missionTrackingService
     ) {
         this.missionRepository = missionRepository;
         this.missionAccessService = missionAccessService;
         this.publisher = publisher;
         this.objectMapper = objectMapper;
+        this.missionTrackingService = missionTrackingService;
     }
 
     public RouteCheckResultDTO checkRoute(Long missionId, Authentication auth) {
@@ -159,6 +163,10 @@ public class RouteVerificationService {
 
         Mission saved = missionRepository.save(mission);
 
+        if (saved.getStatus() == Mission.MissionStatus.IN_PROGRESS) {
+            missionTrackingService.invalidate(saved);
+        }
+
         RouteCheckResultDTO dto = new RouteCheckResultDTO();
 
         dto.setMissionId(saved.getId());
@@ -7,6 +7,8 @@ import com.example.fleet_backend.dto.SmartAssignmentRequest;
 import com.example.fleet_backend.model.*;
 import com.example.fleet_backend.repository.*;
 import com.example.fleet_backend.security.AuthUtil;
+import com.example.fleet_backend.service.gps.LastGpsPoint;
+import com.example.fleet_backend.service.gps.LastGpsPointStore;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,7 +25,7 @@ public class SmartDispatchService {
 
     private final VehicleRepository vehicleRepository;
     private final DriverRepository driverRepository;
-    private final GpsDataRepository gpsDataRepository;
+    private final LastGpsPointStore lastGpsPointStore;
     private final MissionRepository missionRepository;
     private final IncidentRepository incidentRepository;
     private final MaintenanceRepository maintenanceRepository;
@@ -31,14 +33,14 @@ public class SmartDispatchService {
     public SmartDispatchService(
             VehicleRepository vehicleRepository,
             DriverRepository driverRepository,
-            GpsDataRepository gpsDataRepository,
+            LastGpsPointStore lastGpsPointStore,
             MissionRepository missionRepository,
             IncidentRepository incidentRepository,
             MaintenanceRepository maintenanceRepository
     ) {
         this.vehicleRepository = vehicleRepository;
         this.driverRepository = driverRepository;
-        this.gpsDataRepository = gpsDataRepository;
+        this.lastGpsPointStore = lastGpsPointStore;
         this.missionRepository = missionRepository;
         this.incidentRepository = incidentRepository;
         this.maintenanceRepository = maintenanceRepository;
@@ -238,8 +240,8 @@ public class SmartDispatchService {
         Double vehicleLat = vehicle.getCurrentLatitude();
         Double vehicleLng = vehicle.getCurrentLongitude();
 
-        Optional<GpsData> gpsOpt =
-                gpsDataRepository.findTopByVehicleIdOrderByTimestampDesc(vehicle.getId());
+        Optional<GpsData> gpsOpt = lastGpsPointStore.find(vehicle.getId())
+                .map(LastGpsPoint::toGpsData);
 
         if (gpsOpt.isPresent()) {
             GpsData lastGps = gpsOpt.get();
@@ -1,17 +1,20 @@
 package com.example.fleet_backend.service;
 
+import com.example.fleet_backend.dto.CursorPage;
+import com.example.fleet_backend.dto.PageCursor;
 import com.example.fleet_backend.dto.VehicleEventDTO;
 import com.example.fleet_backend.model.*;
 import com.example.fleet_backend.repository.VehicleEventRepository;
+import com.example.fleet_backend.service.events.DomainEventBus;
+import com.example.fleet_backend.service.events.VehicleEventRecorded;
 import com.example.fleet_backend.service.websocket.GpsWebSocketPublisher;
-import com.example.fleet_backend.websocket.DashboardWebSocketPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 @Service
 @Transactional
@@ -21,24 +24,24 @@ public class VehicleEventService {
     private static final long EVENT_COOLDOWN_MINUTES = 10;
     private static final long STOP_LONG_MINUTES = 2;
 
+    // Seules les alertes sont exposées par défaut dans l'historique d'un véhicule.
+    private static final List<EventSeverity> ALERT_SEVERITIES = List.of(EventSeverity.CRITICAL, EventSeverity.WARNING);
+
     private final VehicleEventRepository vehicleEventRepository;
+    private final EventCooldownStore eventCooldownStore;
+    private final DomainEventBus domainEventBus;
     private final GpsWebSocketPublisher gpsWebSocketPublisher;
-    private final PredictiveAnalysisService predictiveAnalysisService;
-    private final NotificationService notificationService;
-    private final DashboardWebSocketPublisher dashboardWebSocketPublisher;
 
     public VehicleEventService(
             VehicleEventRepository vehicleEventRepository,
-            GpsWebSocketPublisher gpsWebSocketPublisher,
-            PredictiveAnalysisService predictiveAnalysisService,
-            NotificationService notificationService,
-            DashboardWebSocketPublisher dashboardWebSocketPublisher
+            EventCooldownStore eventCooldownStore,
+            DomainEventBus domainEventBus,
+            GpsWebSocketPublisher gpsWebSocketPublisher
     ) {
         this.vehicleEventRepository = vehicleEventRepository;
+        this.eventCooldownStore = eventCooldownStore;
+        this.domainEventBus = domainEventBus;
         this.gpsWebSocketPublisher = gpsWebSocketPublisher;
-        this.predictiveAnalysisService = predictiveAnalysisService;
-        this.notificationService = notificationService;
-        this.dashboardWebSocketPublisher = dashboardWebSocketPublisher;
     }
 
     public void analyzeAndCreateEvents(
@@ -205,34 +208,15 @@ public class VehicleEventService {
 
         LocalDateTime now = LocalDateTime.now();
 
-        Optional<VehicleEvent> lastOpt;
-
-        if (missionId != null) {
-            lastOpt = vehicleEventRepository
-                    .findTopByVehicleIdAndMissionIdAndEventTypeOrderByCreatedAtDesc(
-                            vehicle.getId(),
-                            missionId,
-                            eventType
-                    );
-        } else {
-            lastOpt = vehicleEventRepository
-                    .findTopByVehicleIdAndMissionIdIsNullAndEventTypeOrderByCreatedAtDesc(
-                            vehicle.getId(),
-                            eventType
-                    );
-        }
-
-        if (lastOpt.isPresent()) {
-            VehicleEvent last = lastOpt.get();
-
-            if (last.getCreatedAt() != null) {
-                long minutes = Duration.between(last.getCreatedAt(), now).toMinutes();
-                boolean sameSeverity = last.getSeverity() == severity;
-
-                if (sameSeverity && minutes < EVENT_COOLDOWN_MINUTES) {
-                    return;
-                }
-            }
+        if (eventCooldownStore.isInCooldown(
+                vehicle.getId(),
+                missionId,
+                eventType,
+                severity,
+                now,
+                EVENT_COOLDOWN_MINUTES
+        )) {
+            return;
         }
 
         VehicleEvent event = new VehicleEvent();
@@ -248,50 +232,21 @@ public class VehicleEventService {
         event.setAcknowledged(false);
 
         VehicleEvent saved = vehicleEventRepository.save(event);
+        eventCooldownStore.record(saved);
 
-        publishDashboardKpi(saved);
-
-        gpsWebSocketPublisher.publishEvent(toDto(saved));
-
-        notifyOwnerSafely(saved);
-        runPredictiveAnalysisSafely(vehicle.getId());
-    }
+        VehicleEventDTO dto = toDto(saved);
 
-    private void publishDashboardKpi(VehicleEvent event) {
-        if (
-                event != null &&
-                        event.getVehicle() != null &&
-                        event.getVehicle().getOwner() != null
-        ) {
-            dashboardWebSocketPublisher.publishOwnerKpi(
-                    event.getVehicle().getOwner().getId()
-            );
-        }
-    }
+        // Message écrit dans l'outbox, donc dans cette transaction.
+        gpsWebSocketPublisher.publishEvent(dto);
 
-    private void notifyOwnerSafely(VehicleEvent event) {
-        try {
-            notifyOwnerForGpsProblem(event);
-        } catch (Exception e) {
-            System.err.println("Notification failed for event "
-                    + event.getId() + ": " + e.getMessage());
-        }
-    }
-
-    private void notifyOwnerForGpsProblem(VehicleEvent event) {
-        if (event == null || event.getVehicle() == null) return;
-
-        Vehicle vehicle = event.getVehicle();
-
-        if (vehicle.getOwner() == null) return;
-        if (!shouldNotifyOwner(event)) return;
-
-        notificationService.createVehicleProblemNotification(
-                vehicle.getOwner().getId(),
+        // KPI, notification et analyse prédictive tournent après commit, hors ingestion GPS.
+        domainEventBus.publish(new VehicleEventRecorded(
                 vehicle.getId(),
+                vehicle.getOwner() != null ? vehicle.getOwner().getId() : null,
                 vehicle.getRegistrationNumber(),
-                event.getMissionId()
-        );
+                dto,
+                shouldNotifyOwner(saved)
+        ));
     }
 
     private boolean shouldNotifyOwner(VehicleEvent event) {
@@ -314,17 +269,6 @@ public class VehicleEventService {
                 || event.getEventType() == VehicleEventType.ENGINE_OFF);
     }
 
-    private void runPredictiveAnalysisSafely(Long vehicleId) {
-        if (vehicleId == null) return;
-
-        try {
-            predictiveAnalysisService.analyzeVehicle(vehicleId);
-        } catch (Exception e) {
-            System.err.println("Predictive analysis failed for vehicle "
-                    + vehicleId + ": " + e.getMessage());
-        }
-    }
-
     public List<VehicleEventDTO> getLatestEvents() {
         return vehicleEventRepository.findTop50ByOrderByCreatedAtDesc()
                 .stream()
@@ -334,15 +278,35 @@ public class VehicleEventService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     public List<VehicleEventDTO> getVehicleEvents(Long vehicleId) {
-        return vehicleEventRepository.findByVehicleIdOrderByCreatedAtDesc(vehicleId)
+        return vehicleEventRepository.findByVehicleIdAndSeverityInOrderByCreatedAtDescIdDesc(vehicleId, ALERT_SEVERITIES)
                 .stream()
-                .filter(event -> event.getSeverity() == EventSeverity.CRITICAL
-                        || event.getSeverity() == EventSeverity.WARNING)
                 .map(this::toDto)
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<VehicleEventDTO> getVehicleEventsPage(Long vehicleId,
+                                                            List<EventSeverity> severities,
+                                                            List<VehicleEventStatus> statuses,
+                                                            String cursor,
+                                                            Integer limit) {
+        PageCursor position = PageCursor.decode(cursor);
+        int size = CursorPage.normalizeLimit(limit);
+
+        List<VehicleEvent> rows = vehicleEventRepository.findPageByVehicle(
+                vehicleId,
+                severities == null || severities.isEmpty() ? ALERT_SEVERITIES : severities,
+                statuses == null || statuses.isEmpty() ? List.of(VehicleEventStatus.values()) : statuses,
+                position.createdAt(),
+                position.id(),
+                PageRequest.of(0, size + 1)
+        );
+
+        return CursorPage.of(rows, size, this::toDto, event -> new PageCursor(event.getCreatedAt(), event.getId()));
+    }
+
     public void createObdEventIfAllowed(
             Vehicle vehicle,
             Long missionId,
@@ -200,6 +200,10 @@ public class VehicleService {
 
         Vehicle saved = vehicleRepository.save(v);
 
+        if (dto.getMileage() != null && vehicleRepository.raiseMileage(saved.getId(), dto.getMileage()) > 0) {
+            saved.setMileage(dto.getMileage());
+        }
+
         publishDashboard(saved);
 
         return new VehicleDTO(saved);
@@ -303,7 +307,10 @@ public class VehicleService {
             v.setStatus(Vehicle.VehicleStatus.AVAILABLE);
         }
 
-        v.setMileage(dto.getMileage());
+        if (createMode) {
+            v.setMileage(dto.getMileage());
+        }
+
         v.setLastMaintenanceDate(dto.getLastMaintenanceDate());
         v.setNextMaintenanceDate(dto.getNextMaintenanceDate());
 
@@ -0,0 +1,11 @@
+package com.example.fleet_backend.service.events;
+
+/**
+ * Fait métier émis après une écriture ; les abonnés le traitent hors de la transaction d'origine.
+ */
+public interface DomainEvent {
+
+    Long vehicleId();
+
+    Long ownerId();
+}
@@ -0,0 +1,211 @@
+package com.example.fleet_backend.service.events;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class DomainEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(DomainEventBus.class);
+
+    private final List<Lane> lanes = new ArrayList<>();
+
+    public DomainEventBus(List<DomainEventSubscriber> subscribers) {
+        for (DomainEventSubscriber subscriber : subscribers) {
+            lanes.add(new Lane(subscriber));
+        }
+    }
+
+    public void publish(DomainEvent event) {
+        if (event == null || lanes.isEmpty()) {
+            return;
+        }
+
+        // Les abonnés ne voient que des écritures validées, et jamais sur le thread de la transaction.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+            return;
+        }
+
+        dispatch(event);
+    }
+
+    public List<SubscriberStats> getStats() {
+        List<SubscriberStats> stats = new ArrayList<>(lanes.size());
+
+        for (Lane lane : lanes) {
+            stats.add(lane.stats());
+        }
+
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${events.bus.metrics-log-interval-ms:30000}")
+    public void logQueueDepths() {
+        for (Lane lane : lanes) {
+            SubscriberStats stats = lane.stats();
+
+            if (stats.queueDepth() > 0 || stats.rejected() > 0 || stats.failed() > 0) {
+                log.info("Event bus {}: depth={} submitted={} coalesced={} rejected={} failed={}",
+                        stats.name(),
+                        stats.queueDepth(),
+                        stats.submitted(),
+                        stats.coalesced(),
+                        stats.rejected(),
+                        stats.failed());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Lane lane : lanes) {
+            lane.executor.shutdown();
+        }
+
+        for (Lane lane : lanes) {
+            try {
+                if (!lane.executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    lane.executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                lane.executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void dispatch(DomainEvent event) {
+        for (Lane lane : lanes) {
+            try {
+                if (lane.subscriber.supports(event)) {
+                    lane.submit(event);
+                }
+            } catch (Exception e) {
+                log.warn("Event bus {}: dispatch of {} failed: {}",
+                        lane.subscriber.name(), event.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    public record SubscriberStats(String name,
+                                  int queueDepth,
+                                  long submitted,
+                                  long coalesced,
+                                  long rejected,
+                                  long failed) {
+    }
+
+    private final class Lane {
+
+        private final DomainEventSubscriber subscriber;
+        private final ThreadPoolExecutor executor;
+        private final Set<Object> pendingKeys = ConcurrentHashMap.newKeySet();
+
+        private final AtomicLong submitted = new AtomicLong();
+        private final AtomicLong coalesced = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        private Lane(DomainEventSubscriber subscriber) {
+            this.subscriber = subscriber;
+
+            int threads = Math.max(1, subscriber.threads());
+            String prefix = "events-" + subscriber.name() + "-";
+            AtomicLong threadCount = new AtomicLong();
+
+            this.executor = new ThreadPoolExecutor(
+                    threads,
+                    threads,
+                    0L,
+                    TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, subscriber.queueCapacity())),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, prefix + threadCount.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy()
+            );
+        }
+
+        private void submit(DomainEvent event) {
+            Object key = subscriber.coalescingKey(event);
+
+            if (key != null && !pendingKeys.add(key)) {
+                coalesced.incrementAndGet();
+                return;
+            }
+
+            Runnable task = () -> run(event, key);
+
+            if (enqueue(task)) {
+                submitted.incrementAndGet();
+                return;
+            }
+
+            if (key != null) {
+                pendingKeys.remove(key);
+            }
+
+            rejected.incrementAndGet();
+            log.warn("Event bus {} is full, {} for vehicle {} dropped",
+                    subscriber.name(), event.getClass().getSimpleName(), event.vehicleId());
+        }
+
+        private boolean enqueue(Runnable task) {
+            try {
+                executor.execute(task);
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+
+        private void run(DomainEvent event, Object key) {
+            // Libérée avant le traitement : un événement arrivé pendant celui-ci sera retraité.
+            if (key != null) {
+                pendingKeys.remove(key);
+            }
+
+            try {
+                subscriber.handle(event);
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.warn("Event bus {}: {} for vehicle {} failed: {}",
+                        subscriber.name(), event.getClass().getSimpleName(), event.vehicleId(), e.getMessage());
+            }
+        }
+
+        private SubscriberStats stats() {
+            return new SubscriberStats(
+                    subscriber.name(),
+                    executor.getQueue().size(),
+                    submitted.get(),
+                    coalesced.get(),
+                    rejected.get(),
+                    failed.get()
+            );
+        }
+    }
+}
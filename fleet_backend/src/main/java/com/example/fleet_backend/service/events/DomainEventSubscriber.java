@@ -0,0 +1,23 @@
+package com.example.fleet_backend.service.events;
+
+/**
+ * Abonné du {@link DomainEventBus}. Chaque abonné dispose de son propre exécuteur borné : file pleine,
+ * l'événement est compté puis abandonné, l'émetteur (thread qui valide la transaction) n'attend jamais.
+ */
+public interface DomainEventSubscriber {
+
+    String name();
+
+    boolean supports(DomainEvent event);
+
+    void handle(DomainEvent event);
+
+    int threads();
+
+    int queueCapacity();
+
+    // Clé de regroupement : un seul traitement en attente par clé, le suivant relit l'état à jour.
+    default Object coalescingKey(DomainEvent event) {
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.fleet_backend.service.events;
+
+import com.example.fleet_backend.service.NotificationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class OwnerNotificationEventSubscriber implements DomainEventSubscriber {
+
+    private final NotificationService notificationService;
+
+    @Value("${events.bus.notifications.threads:1}")
+    private int threads;
+
+    // File large : une notification abandonnée ne se rattrape pas (comptée dans rejected), mais
+    // l'émetteur est le thread qui valide l'ingestion et ne doit jamais attendre.
+    @Value("${events.bus.notifications.queue-capacity:10000}")
+    private int queueCapacity;
+
+    public OwnerNotificationEventSubscriber(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @Override
+    public String name() {
+        return "notifications";
+    }
+
+    @Override
+    public boolean supports(DomainEvent event) {
+        return event instanceof VehicleEventRecorded recorded
+                && recorded.notifyOwner()
+                && recorded.ownerId() != null;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        VehicleEventRecorded recorded = (VehicleEventRecorded) event;
+
+        notificationService.createVehicleProblemNotification(
+                recorded.ownerId(),
+                recorded.vehicleId(),
+                recorded.registrationNumber(),
+                recorded.event().getMissionId()
+        );
+    }
+
+    @Override
+    public int threads() {
+        return threads;
+    }
+
+    @Override
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+}
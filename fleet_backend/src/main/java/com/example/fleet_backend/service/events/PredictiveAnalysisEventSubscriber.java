@@ -0,0 +1,52 @@
+package com.example.fleet_backend.service.events;
+
+import com.example.fleet_backend.service.PredictiveAnalysisService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PredictiveAnalysisEventSubscriber implements DomainEventSubscriber {
+
+    private final PredictiveAnalysisService predictiveAnalysisService;
+
+    @Value("${events.bus.predictive.threads:1}")
+    private int threads;
+
+    @Value("${events.bus.predictive.queue-capacity:500}")
+    private int queueCapacity;
+
+    public PredictiveAnalysisEventSubscriber(PredictiveAnalysisService predictiveAnalysisService) {
+        this.predictiveAnalysisService = predictiveAnalysisService;
+    }
+
+    @Override
+    public String name() {
+        return "predictive";
+    }
+
+    @Override
+    public boolean supports(DomainEvent event) {
+        return event instanceof VehicleEventRecorded && event.vehicleId() != null;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        predictiveAnalysisService.analyzeVehicle(event.vehicleId());
+    }
+
+    @Override
+    public int threads() {
+        return threads;
+    }
+
+    @Override
+    public int queueCapacity() {
+        return queueCapacity;
+    }
+
+    @Override
+    public Object coalescingKey(DomainEvent event) {
+        // L'analyse relit tout l'historique du véhicule : une seule en attente par véhicule suffit.
+        return event.vehicleId();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.fleet_backend.service.events;
+
+import com.example.fleet_backend.dto.VehicleEventDTO;
+
+public record VehicleEventRecorded(Long vehicleId,
+                                   Long ownerId,
+                                   String registrationNumber,
+                                   VehicleEventDTO event,
+                                   boolean notifyOwner) implements DomainEvent {
+}
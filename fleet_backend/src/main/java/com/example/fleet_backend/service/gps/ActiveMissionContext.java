@@ -15,6 +15,7 @@ public class ActiveMissionContext {
     private final Long driverId;
     private final String driverName;
     private final List<MissionRoutePointDTO> missionRoute;
+    private final CompiledRoute compiledRoute;
 
     public ActiveMissionContext(Mission mission,
                                 boolean missionActive,
@@ -22,7 +23,8 @@ public class ActiveMissionContext {
                                 String missionStatus,
                                 Long driverId,
                                 String driverName,
-                                List<MissionRoutePointDTO> missionRoute) {
+                                List<MissionRoutePointDTO> missionRoute,
+                                CompiledRoute compiledRoute) {
         this.mission = mission;
         this.missionActive = missionActive;
         this.missionId = missionId;
@@ -30,6 +32,7 @@ public class ActiveMissionContext {
         this.driverId = driverId;
         this.driverName = driverName;
         this.missionRoute = missionRoute != null ? missionRoute : Collections.emptyList();
+        this.compiledRoute = compiledRoute != null ? compiledRoute : CompiledRoute.empty();
     }
 
     public static ActiveMissionContext empty() {
@@ -40,7 +43,8 @@ public class ActiveMissionContext {
                 null,
                 null,
                 null,
-                Collections.emptyList()
+                Collections.emptyList(),
+                CompiledRoute.empty()
         );
     }
 
@@ -71,4 +75,8 @@ public class ActiveMissionContext {
     public List<MissionRoutePointDTO> getMissionRoute() {
         return missionRoute;
     }
+
+    public CompiledRoute getCompiledRoute() {
+        return compiledRoute;
+    }
 }
\ No newline at end of file
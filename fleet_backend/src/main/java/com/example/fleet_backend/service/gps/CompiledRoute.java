@@ -0,0 +1,510 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.dto.MissionRoutePointDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route de mission compilée une seule fois : coordonnées en tableaux primitifs
+ * et grille uniforme (en degrés) des segments, pour ne tester que les segments
+ * proches d'un point GPS.
+ *
+ * Les distances restent calculées avec la même formule que le parcours
+ * linéaire historique ; la grille ne sert qu'à écarter des segments dont on
+ * sait qu'ils sont plus loin que le rayon recherché.
+ */
+public final class CompiledRoute {
+
+    static final double METERS_PER_DEGREE = 111_320.0;
+
+    private static final CompiledRoute EMPTY = new CompiledRoute(
+            0, new double[0], new double[0], new double[0], new double[0], new int[0], new double[]{0},
+            Double.NaN, Double.NaN, 0, 0, 0, 1, 0, 0, new long[0], new int[0], new int[0], new int[0]
+    );
+
+    private static final int MAX_CELLS_PER_SEGMENT = 64;
+    private static final int MAX_RADIUS_EXPANSIONS = 8;
+    private static final double MAX_INDEXED_ABS_LATITUDE = 89.0;
+    private static final double DEGREE_EPSILON = 1e-7;
+
+    private final int pointCount;
+
+    private final double[] latitudes;
+    private final double[] latitudesMeters;
+    private final double[] longitudes;
+    private final double[] longitudesMeters;
+
+    // Indice du premier point de chaque segment dont les deux extrémités sont valides.
+    private final int[] segmentStarts;
+
+    // Distance le long de la route au début de chaque segment ; la dernière case vaut la longueur totale.
+    private final double[] segmentCumulativeMeters;
+
+    private final double lastLatitude;
+    private final double lastLongitude;
+
+    private final double minLatitude;
+    private final double minLongitude;
+    private final double maxAbsLatitude;
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+
+    private final long[] cellKeys;
+    private final int[] cellOffsets;
+    private final int[] cellSegments;
+    private final int[] oversizedSegments;
+
+    private CompiledRoute(int pointCount,
+                          double[] latitudes,
+                          double[] latitudesMeters,
+                          double[] longitudes,
+                          double[] longitudesMeters,
+                          int[] segmentStarts,
+                          double[] segmentCumulativeMeters,
+                          double lastLatitude,
+                          double lastLongitude,
+                          double minLatitude,
+                          double minLongitude,
+                          double maxAbsLatitude,
+                          double cellDegrees,
+                          int rows,
+                          int columns,
+                          long[] cellKeys,
+                          int[] cellOffsets,
+                          int[] cellSegments,
+                          int[] oversizedSegments) {
+        this.pointCount = pointCount;
+        this.latitudes = latitudes;
+        this.latitudesMeters = latitudesMeters;
+        this.longitudes = longitudes;
+        this.longitudesMeters = longitudesMeters;
+        this.segmentStarts = segmentStarts;
+        this.segmentCumulativeMeters = segmentCumulativeMeters;
+        this.lastLatitude = lastLatitude;
+        this.lastLongitude = lastLongitude;
+        this.minLatitude = minLatitude;
+        this.minLongitude = minLongitude;
+        this.maxAbsLatitude = maxAbsLatitude;
+        this.cellDegrees = cellDegrees;
+        this.rows = rows;
+        this.columns = columns;
+        this.cellKeys = cellKeys;
+        this.cellOffsets = cellOffsets;
+        this.cellSegments = cellSegments;
+        this.oversizedSegments = oversizedSegments;
+    }
+
+    public static CompiledRoute empty() {
+        return EMPTY;
+    }
+
+    public static CompiledRoute compile(List<MissionRoutePointDTO> route, double cellSizeMeters) {
+        if (route == null || route.isEmpty()) {
+            return EMPTY;
+        }
+
+        int n = route.size();
+
+        double[] latitudes = new double[n];
+        double[] latitudesMeters = new double[n];
+        double[] longitudes = new double[n];
+        double[] longitudesMeters = new double[n];
+        boolean[] valid = new boolean[n];
+
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        double minLng = Double.POSITIVE_INFINITY;
+        double maxLng = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < n; i++) {
+            MissionRoutePointDTO point = route.get(i);
+
+            if (point == null || point.getLatitude() == null || point.getLongitude() == null) {
+                latitudes[i] = Double.NaN;
+                longitudes[i] = Double.NaN;
+                continue;
+            }
+
+            double lat = point.getLatitude();
+            double lng = point.getLongitude();
+
+            valid[i] = true;
+            latitudes[i] = lat;
+            longitudes[i] = lng;
+            latitudesMeters[i] = lat * METERS_PER_DEGREE;
+            longitudesMeters[i] = lng * METERS_PER_DEGREE;
+
+            minLat = Math.min(minLat, lat);
+            maxLat = Math.max(maxLat, lat);
+            minLng = Math.min(minLng, lng);
+            maxLng = Math.max(maxLng, lng);
+        }
+
+        int segmentCount = 0;
+        int[] segmentStarts = new int[Math.max(0, n - 1)];
+
+        for (int i = 0; i < n - 1; i++) {
+            if (valid[i] && valid[i + 1]) {
+                segmentStarts[segmentCount++] = i;
+            }
+        }
+
+        segmentStarts = Arrays.copyOf(segmentStarts, segmentCount);
+
+        double[] segmentCumulativeMeters = new double[segmentCount + 1];
+
+        for (int s = 0; s < segmentCount; s++) {
+            int a = segmentStarts[s];
+            segmentCumulativeMeters[s + 1] = segmentCumulativeMeters[s]
+                    + segmentLengthMeters(latitudes[a], longitudes[a], latitudes[a + 1], longitudes[a + 1]);
+        }
+
+        double lastLatitude = valid[n - 1] ? latitudes[n - 1] : Double.NaN;
+        double lastLongitude = valid[n - 1] ? longitudes[n - 1] : Double.NaN;
+
+        if (segmentCount == 0) {
+            return new CompiledRoute(n, latitudes, latitudesMeters, longitudes, longitudesMeters, segmentStarts,
+                    segmentCumulativeMeters, lastLatitude, lastLongitude, 0, 0, 0, 1, 0, 0,
+                    new long[0], new int[0], new int[0], new int[0]);
+        }
+
+        double cellDegrees = Math.max(cellSizeMeters, 1.0) / METERS_PER_DEGREE;
+        int rows = (int) Math.min(Integer.MAX_VALUE, Math.floor((maxLat - minLat) / cellDegrees) + 1);
+        int columns = (int) Math.min(Integer.MAX_VALUE, Math.floor((maxLng - minLng) / cellDegrees) + 1);
+
+        Map<Long, List<Integer>> cells = new HashMap<>();
+        List<Integer> oversized = new ArrayList<>();
+
+        for (int s = 0; s < segmentCount; s++) {
+            int a = segmentStarts[s];
+            int b = a + 1;
+
+            int rowFrom = cellIndex(Math.min(latitudes[a], latitudes[b]), minLat, cellDegrees);
+            int rowTo = cellIndex(Math.max(latitudes[a], latitudes[b]), minLat, cellDegrees);
+            int colFrom = cellIndex(Math.min(longitudes[a], longitudes[b]), minLng, cellDegrees);
+            int colTo = cellIndex(Math.max(longitudes[a], longitudes[b]), minLng, cellDegrees);
+
+            long covered = (long) (rowTo - rowFrom + 1) * (colTo - colFrom + 1);
+
+            if (covered > MAX_CELLS_PER_SEGMENT) {
+                oversized.add(s);
+                continue;
+            }
+
+            for (int row = rowFrom; row <= rowTo; row++) {
+                for (int col = colFrom; col <= colTo; col++) {
+                    cells.computeIfAbsent(cellKey(row, col), key -> new ArrayList<>()).add(s);
+                }
+            }
+        }
+
+        long[] cellKeys = new long[cells.size()];
+        int k = 0;
+        for (Long key : cells.keySet()) {
+            cellKeys[k++] = key;
+        }
+        Arrays.sort(cellKeys);
+
+        int[] cellOffsets = new int[cellKeys.length + 1];
+        int total = 0;
+        for (int i = 0; i < cellKeys.length; i++) {
+            cellOffsets[i] = total;
+            total += cells.get(cellKeys[i]).size();
+        }
+        cellOffsets[cellKeys.length] = total;
+
+        int[] cellSegments = new int[total];
+        for (int i = 0; i < cellKeys.length; i++) {
+            int offset = cellOffsets[i];
+            for (Integer segment : cells.get(cellKeys[i])) {
+                cellSegments[offset++] = segment;
+            }
+        }
+
+        int[] oversizedSegments = oversized.stream().mapToInt(Integer::intValue).toArray();
+
+        return new CompiledRoute(n, latitudes, latitudesMeters, longitudes, longitudesMeters, segmentStarts,
+                segmentCumulativeMeters, lastLatitude, lastLongitude,
+                minLat, minLng, Math.max(Math.abs(minLat), Math.abs(maxLat)),
+                cellDegrees, rows, columns,
+                cellKeys, cellOffsets, cellSegments, oversizedSegments);
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public boolean isEmpty() {
+        return pointCount == 0;
+    }
+
+    public int getSegmentCount() {
+        return segmentStarts.length;
+    }
+
+    public double getTotalMeters() {
+        return segmentCumulativeMeters[segmentStarts.length];
+    }
+
+    public boolean hasLastPoint() {
+        return !Double.isNaN(lastLatitude);
+    }
+
+    public double getLastLatitude() {
+        return lastLatitude;
+    }
+
+    public double getLastLongitude() {
+        return lastLongitude;
+    }
+
+    public double minimumDistanceMeters(double lat, double lng) {
+        if (segmentStarts.length == 0) {
+            return Double.MAX_VALUE;
+        }
+
+        return nearest(lat, lng, new int[1]);
+    }
+
+    public Match nearestSegment(double lat, double lng) {
+        if (segmentStarts.length == 0) {
+            return null;
+        }
+
+        int[] best = new int[1];
+        double distance = nearest(lat, lng, best);
+
+        return match(best[0], distance, lat, lng);
+    }
+
+    public Match nearestSegmentBetween(double lat, double lng, int fromSegment, int toSegment) {
+        int from = Math.max(0, fromSegment);
+        int to = Math.min(segmentStarts.length - 1, toSegment);
+
+        if (from > to) {
+            return null;
+        }
+
+        int best = from;
+        double min = Double.MAX_VALUE;
+
+        for (int segment = from; segment <= to; segment++) {
+            double distance = segmentDistance(segment, lat, lng);
+            if (distance < min) {
+                min = distance;
+                best = segment;
+            }
+        }
+
+        return match(best, min, lat, lng);
+    }
+
+    private double nearest(double lat, double lng, int[] best) {
+        double radius = cellDegrees * METERS_PER_DEGREE;
+
+        for (int attempt = 0; attempt < MAX_RADIUS_EXPANSIONS; attempt++) {
+            double distance = indexedMinimum(lat, lng, radius, best);
+
+            if (Double.isNaN(distance)) {
+                return scanAll(lat, lng, best);
+            }
+
+            // Tout segment à moins de radius est candidat : le minimum trouvé est alors exact.
+            if (distance <= radius) {
+                return distance;
+            }
+
+            radius *= 4;
+        }
+
+        return scanAll(lat, lng, best);
+    }
+
+    /**
+     * Renvoie le minimum exact si au moins un segment est à moins de {@code radiusMeters},
+     * sinon une valeur strictement supérieure à {@code radiusMeters}.
+     */
+    public double minimumDistanceWithin(double lat, double lng, double radiusMeters) {
+        if (segmentStarts.length == 0) {
+            return Double.MAX_VALUE;
+        }
+
+        int[] best = new int[1];
+        double distance = indexedMinimum(lat, lng, radiusMeters, best);
+
+        return Double.isNaN(distance) ? scanAll(lat, lng, best) : distance;
+    }
+
+    // NaN quand la grille n'apporte rien (pôles, zone trop large) : l'appelant parcourt tout.
+    private double indexedMinimum(double lat, double lng, double radiusMeters, int[] best) {
+        double maxAbs = Math.max(maxAbsLatitude, Math.abs(lat));
+
+        if (Double.isNaN(lat) || Double.isNaN(lng) || maxAbs > MAX_INDEXED_ABS_LATITUDE) {
+            return Double.NaN;
+        }
+
+        // |lat moyenne d'un segment| <= maxAbs, donc cos(maxAbs) minore l'échelle des longitudes.
+        double cosMin = Math.cos(Math.toRadians(maxAbs));
+        double dLat = radiusMeters / METERS_PER_DEGREE + DEGREE_EPSILON;
+        double dLng = radiusMeters / (METERS_PER_DEGREE * cosMin) + DEGREE_EPSILON;
+
+        double min = Double.MAX_VALUE;
+
+        for (int segment : oversizedSegments) {
+            double distance = segmentDistance(segment, lat, lng);
+            if (distance < min) {
+                min = distance;
+                best[0] = segment;
+            }
+        }
+
+        if (dLat < 0) {
+            return min;
+        }
+
+        double rowFromRaw = Math.floor((lat - dLat - minLatitude) / cellDegrees);
+        double rowToRaw = Math.floor((lat + dLat - minLatitude) / cellDegrees);
+        double colFromRaw = Math.floor((lng - dLng - minLongitude) / cellDegrees);
+        double colToRaw = Math.floor((lng + dLng - minLongitude) / cellDegrees);
+
+        if (rowToRaw < 0 || colToRaw < 0 || rowFromRaw >= rows || colFromRaw >= columns) {
+            return min;
+        }
+
+        int rowFrom = (int) Math.max(0, rowFromRaw);
+        int rowTo = (int) Math.min(rows - 1, rowToRaw);
+        int colFrom = (int) Math.max(0, colFromRaw);
+        int colTo = (int) Math.min(columns - 1, colToRaw);
+
+        long queriedCells = (long) (rowTo - rowFrom + 1) * (colTo - colFrom + 1);
+
+        if (queriedCells > cellKeys.length) {
+            return Double.NaN;
+        }
+
+        for (int row = rowFrom; row <= rowTo; row++) {
+            for (int col = colFrom; col <= colTo; col++) {
+                int index = Arrays.binarySearch(cellKeys, cellKey(row, col));
+
+                if (index < 0) {
+                    continue;
+                }
+
+                for (int i = cellOffsets[index]; i < cellOffsets[index + 1]; i++) {
+                    double distance = segmentDistance(cellSegments[i], lat, lng);
+                    if (distance < min) {
+                        min = distance;
+                        best[0] = cellSegments[i];
+                    }
+                }
+            }
+        }
+
+        return min;
+    }
+
+    private double scanAll(double lat, double lng, int[] best) {
+        double min = Double.MAX_VALUE;
+
+        for (int segment = 0; segment < segmentStarts.length; segment++) {
+            double distance = segmentDistance(segment, lat, lng);
+            if (distance < min) {
+                min = distance;
+                best[0] = segment;
+            }
+        }
+
+        return min;
+    }
+
+    private double segmentDistance(int segment, double pLat, double pLng) {
+        int a = segmentStarts[segment];
+        int b = a + 1;
+
+        double meanLat = Math.toRadians((latitudes[a] + latitudes[b] + pLat) / 3.0);
+        double cos = Math.cos(meanLat);
+
+        double px = pLng * METERS_PER_DEGREE * cos;
+        double py = pLat * METERS_PER_DEGREE;
+
+        double ax = longitudesMeters[a] * cos;
+        double ay = latitudesMeters[a];
+
+        double bx = longitudesMeters[b] * cos;
+        double by = latitudesMeters[b];
+
+        return distancePointToSegment(px, py, ax, ay, bx, by);
+    }
+
+    private Match match(int segment, double distanceMeters, double lat, double lng) {
+        int a = segmentStarts[segment];
+        int b = a + 1;
+
+        double cos = Math.cos(Math.toRadians((latitudes[a] + latitudes[b]) / 2.0));
+
+        double abx = (longitudes[b] - longitudes[a]) * METERS_PER_DEGREE * cos;
+        double aby = latitudesMeters[b] - latitudesMeters[a];
+        double apx = (lng - longitudes[a]) * METERS_PER_DEGREE * cos;
+        double apy = lat * METERS_PER_DEGREE - latitudesMeters[a];
+
+        double abSquared = abx * abx + aby * aby;
+        double t = abSquared == 0 ? 0 : Math.max(0, Math.min(1, (apx * abx + apy * aby) / abSquared));
+
+        double segmentLength = segmentCumulativeMeters[segment + 1] - segmentCumulativeMeters[segment];
+
+        return new Match(segment, distanceMeters, segmentCumulativeMeters[segment] + t * segmentLength);
+    }
+
+    private static double segmentLengthMeters(double aLat, double aLng, double bLat, double bLng) {
+        double cos = Math.cos(Math.toRadians((aLat + bLat) / 2.0));
+        double dx = (bLng - aLng) * METERS_PER_DEGREE * cos;
+        double dy = (bLat - aLat) * METERS_PER_DEGREE;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    static double distancePointToSegment(double px, double py,
+                                         double ax, double ay,
+                                         double bx, double by) {
+        double abx = bx - ax;
+        double aby = by - ay;
+
+        double apx = px - ax;
+        double apy = py - ay;
+
+        double abSquared = abx * abx + aby * aby;
+
+        if (abSquared == 0) {
+            return euclideanDistance(px, py, ax, ay);
+        }
+
+        double t = (apx * abx + apy * aby) / abSquared;
+        t = Math.max(0, Math.min(1, t));
+
+        double closestX = ax + t * abx;
+        double closestY = ay + t * aby;
+
+        return euclideanDistance(px, py, closestX, closestY);
+    }
+
+    private static double euclideanDistance(double x1, double y1, double x2, double y2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static int cellIndex(double value, double origin, double cellDegrees) {
+        return (int) Math.floor((value - origin) / cellDegrees);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    public record Match(int segment, double distanceMeters, double travelledMeters) {
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.dto.GpsIncomingDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class GpsBatchIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(GpsBatchIngestionService.class);
+
+    private final GpsIngestionService gpsIngestionService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final BlockingQueue<GpsIncomingDTO> queue;
+
+    private final AtomicLong receivedPoints = new AtomicLong();
+    private final AtomicLong persistedPoints = new AtomicLong();
+    private final AtomicLong rejectedPoints = new AtomicLong();
+    private final AtomicLong flushedBatches = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public GpsBatchIngestionService(GpsIngestionService gpsIngestionService,
+                                    @Value("${gps.ingestion.batch.enabled:false}") boolean enabled,
+                                    @Value("${gps.ingestion.batch.size:500}") int batchSize,
+                                    @Value("${gps.ingestion.batch.linger-ms:200}") long lingerMillis,
+                                    @Value("${gps.ingestion.batch.queue-capacity:20000}") int queueCapacity) {
+        this.gpsIngestionService = gpsIngestionService;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerMillis = Math.max(0, lingerMillis);
+        this.queue = new ArrayBlockingQueue<>(Math.max(this.batchSize, queueCapacity));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        running = true;
+        flusher = new Thread(this::runFlushLoop, "gps-batch-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+
+        if (flusher != null) {
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<GpsIncomingDTO> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+
+        for (int i = 0; i < remaining.size(); i += batchSize) {
+            flush(remaining.subList(i, Math.min(remaining.size(), i + batchSize)));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void submit(GpsIncomingDTO dto) {
+        if (dto == null) {
+            throw new IllegalArgumentException("GPS payload is required");
+        }
+
+        if (!queue.offer(dto)) {
+            rejectedPoints.incrementAndGet();
+            throw new IllegalStateException("GPS ingestion queue is full");
+        }
+
+        receivedPoints.incrementAndGet();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getReceivedPoints() {
+        return receivedPoints.get();
+    }
+
+    public long getPersistedPoints() {
+        return persistedPoints.get();
+    }
+
+    public long getRejectedPoints() {
+        return rejectedPoints.get();
+    }
+
+    public long getFlushedBatches() {
+        return flushedBatches.get();
+    }
+
+    public double getAverageFlushMillis() {
+        long batches = flushedBatches.get();
+        return batches == 0 ? 0.0 : flushNanos.get() / 1_000_000.0 / batches;
+    }
+
+    private void runFlushLoop() {
+        List<GpsIncomingDTO> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                GpsIncomingDTO first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+
+                while (batch.size() < batchSize) {
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        queue.drainTo(batch, batchSize - batch.size());
+                        break;
+                    }
+
+                    GpsIncomingDTO next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Points déjà retirés de la file : stop() ne les verrait pas, ils partent avant d'arrêter ou de reprendre.
+                flush(batch);
+                batch.clear();
+
+                if (!running) {
+                    break;
+                }
+            }
+        }
+    }
+
+    public int ingestNow(List<GpsIncomingDTO> batch) {
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        receivedPoints.addAndGet(batch.size());
+        return flush(batch);
+    }
+
+    private int flush(List<GpsIncomingDTO> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        int persisted;
+
+        try {
+            persisted = gpsIngestionService.processBatch(batch);
+        } catch (Exception e) {
+            log.warn("GPS batch of {} points failed, falling back to single-point ingestion: {}",
+                    batch.size(), e.getMessage());
+            persisted = flushOneByOne(batch);
+        }
+
+        long elapsed = System.nanoTime() - start;
+
+        persistedPoints.addAndGet(persisted);
+        rejectedPoints.addAndGet(batch.size() - persisted);
+        flushedBatches.incrementAndGet();
+        flushNanos.addAndGet(elapsed);
+
+        if (log.isDebugEnabled()) {
+            double millis = elapsed / 1_000_000.0;
+            log.debug("GPS batch flushed: {} points ({} persisted) in {} ms, {} points/s, queue={}",
+                    batch.size(),
+                    persisted,
+                    String.format("%.1f", millis),
+                    millis > 0 ? Math.round(batch.size() * 1000.0 / millis) : batch.size(),
+                    queue.size());
+        }
+
+        return persisted;
+    }
+
+    private int flushOneByOne(List<GpsIncomingDTO> batch) {
+        int persisted = 0;
+
+        for (GpsIncomingDTO dto : batch) {
+            try {
+                gpsIngestionService.processIncomingGps(dto);
+                persisted++;
+            } catch (Exception e) {
+                log.warn("GPS point rejected for vehicle {}: {}", dto.getVehicleId(), e.getMessage());
+            }
+        }
+
+        return persisted;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.model.GpsData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+@Component
+public class GpsBatchWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO gps_data (
+                latitude, longitude, speed, engine_on, timestamp,
+                route_id, route_source, vehicle_id, mission_id,
+                engine_rpm, fuel_level, engine_temperature, battery_voltage, engine_load, check_engine_on
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int jdbcBatchSize;
+
+    public GpsBatchWriter(JdbcTemplate jdbcTemplate,
+                          @Value("${gps.ingestion.batch.jdbc-batch-size:500}") int jdbcBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jdbcBatchSize = Math.max(1, jdbcBatchSize);
+    }
+
+    public void insertAll(List<GpsData> points) {
+        if (points == null || points.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, points, jdbcBatchSize, this::bind);
+    }
+
+    private void bind(PreparedStatement ps, GpsData gps) throws SQLException {
+        ps.setDouble(1, gps.getLatitude());
+        ps.setDouble(2, gps.getLongitude());
+        ps.setDouble(3, gps.getSpeed());
+        ps.setBoolean(4, gps.isEngineOn());
+        ps.setTimestamp(5, Timestamp.valueOf(gps.getTimestamp()));
+        ps.setObject(6, gps.getRouteId(), Types.VARCHAR);
+        ps.setObject(7, gps.getRouteSource(), Types.VARCHAR);
+        ps.setLong(8, gps.getVehicle().getId());
+        ps.setObject(9, gps.getMissionId(), Types.BIGINT);
+        ps.setObject(10, gps.getEngineRpm(), Types.INTEGER);
+        ps.setObject(11, gps.getFuelLevel(), Types.DOUBLE);
+        ps.setObject(12, gps.getEngineTemperature(), Types.DOUBLE);
+        ps.setObject(13, gps.getBatteryVoltage(), Types.DOUBLE);
+        ps.setObject(14, gps.getEngineLoad(), Types.DOUBLE);
+        ps.setObject(15, gps.getCheckEngineOn(), Types.BOOLEAN);
+    }
+}
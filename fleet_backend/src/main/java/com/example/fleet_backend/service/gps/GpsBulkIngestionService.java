@@ -0,0 +1,126 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.dto.GpsBulkIngestResultDTO;
+import com.example.fleet_backend.dto.GpsIncomingDTO;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class GpsBulkIngestionService {
+
+    private final ObjectMapper objectMapper;
+    private final GpsValidationService gpsValidationService;
+    private final GpsBatchIngestionService gpsBatchIngestionService;
+    private final int chunkSize;
+    private final long maxItems;
+
+    public GpsBulkIngestionService(ObjectMapper objectMapper,
+                                   GpsValidationService gpsValidationService,
+                                   GpsBatchIngestionService gpsBatchIngestionService,
+                                   @Value("${gps.ingestion.bulk.chunk-size:500}") int chunkSize,
+                                   @Value("${gps.ingestion.bulk.max-items:100000}") long maxItems) {
+        this.objectMapper = objectMapper;
+        this.gpsValidationService = gpsValidationService;
+        this.gpsBatchIngestionService = gpsBatchIngestionService;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxItems = Math.max(1, maxItems);
+    }
+
+    public GpsBulkIngestResultDTO ingest(InputStream body) throws IOException {
+        GpsBulkIngestResultDTO result = new GpsBulkIngestResultDTO();
+        result.setQueued(gpsBatchIngestionService.isEnabled());
+
+        List<GpsIncomingDTO> chunk = new ArrayList<>(chunkSize);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+
+            long index = 0;
+
+            while (token != null && token != JsonToken.END_ARRAY) {
+                if (index >= maxItems) {
+                    result.addError("Too many GPS points in one request (max " + maxItems + "), remaining points ignored");
+                    break;
+                }
+
+                index++;
+                result.incrementReceived();
+
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    result.addRejected(index, "JSON object expected");
+                    token = parser.nextToken();
+                    continue;
+                }
+
+                JsonNode node = parser.readValueAsTree();
+                token = parser.nextToken();
+
+                GpsIncomingDTO dto;
+                try {
+                    dto = objectMapper.treeToValue(node, GpsIncomingDTO.class);
+                    gpsValidationService.validateIncoming(dto);
+                } catch (JsonProcessingException e) {
+                    result.addRejected(index, e.getOriginalMessage());
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    result.addRejected(index, e.getMessage());
+                    continue;
+                }
+
+                if (result.isQueued()) {
+                    enqueue(dto, index, result);
+                    continue;
+                }
+
+                chunk.add(dto);
+
+                if (chunk.size() >= chunkSize) {
+                    flushChunk(chunk, result);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            result.addError("Malformed GPS payload after item #" + result.getReceived() + ": " + e.getOriginalMessage());
+        }
+
+        flushChunk(chunk, result);
+
+        return result;
+    }
+
+    private void enqueue(GpsIncomingDTO dto, long index, GpsBulkIngestResultDTO result) {
+        try {
+            gpsBatchIngestionService.submit(dto);
+            result.addAccepted(1);
+        } catch (IllegalStateException e) {
+            result.addRejected(index, e.getMessage());
+        }
+    }
+
+    private void flushChunk(List<GpsIncomingDTO> chunk, GpsBulkIngestResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        int persisted = gpsBatchIngestionService.ingestNow(chunk);
+
+        result.addAccepted(persisted);
+        result.addRejectedCount(chunk.size() - persisted, "vehicle not found or processing failed");
+
+        chunk.clear();
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.dto.GpsPointDTO;
+import com.example.fleet_backend.service.gps.archive.GpsArchiveStore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lecture de l'historique GPS par curseur JDBC, ligne à ligne, sans entités ni contexte de
+ * persistance : l'export écrit chaque point dès sa lecture, à mémoire constante. Les points déjà
+ * archivés ({@link GpsArchiveStore}) sont fusionnés dans l'ordre avec les lignes de la base.
+ */
+@Service
+public class GpsHistoryStreamService {
+
+    private static final String SELECT_SQL = """
+            select id, vehicle_id, mission_id, latitude, longitude, speed, engine_on,
+                   "timestamp", route_id, route_source
+            from gps_data
+            where vehicle_id = ?
+              and "timestamp" >= ?
+              and "timestamp" <= ?
+            """;
+
+    private static final String CSV_HEADER =
+            "id,vehicleId,missionId,latitude,longitude,speed,engineOn,timestamp,routeId,routeSource\n";
+
+    // Bornes par défaut d'un export sans plage.
+    private static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final Comparator<GpsPointDTO> POINT_ORDER =
+            Comparator.comparing(GpsPointDTO::getTimestamp).thenComparing(GpsPointDTO::getId);
+
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final GpsArchiveStore gpsArchiveStore;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter pointWriter;
+    private final ObjectMapper objectMapper;
+    private final int flushRows;
+
+    public GpsHistoryStreamService(DataSource dataSource,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   GpsArchiveStore gpsArchiveStore,
+                                   @Value("${gps.export.fetch-size:1000}") int fetchSize,
+                                   @Value("${gps.export.flush-rows:1000}") int flushRows) {
+        // PostgreSQL n'ouvre un curseur (fetch size) qu'à l'intérieur d'une transaction.
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(Math.max(1, fetchSize));
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.objectMapper = objectMapper;
+        this.gpsArchiveStore = gpsArchiveStore;
+        this.pointWriter = objectMapper.writerFor(GpsPointDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushRows = Math.max(1, flushRows);
+    }
+
+    public void forEach(Long vehicleId,
+                        LocalDateTime from,
+                        LocalDateTime to,
+                        boolean descending,
+                        Consumer<GpsPointDTO> consumer) {
+        String sql = SELECT_SQL + (descending
+                ? " order by \"timestamp\" desc, id desc"
+                : " order by \"timestamp\" asc, id asc");
+
+        LocalDateTime start = from != null ? from : MIN_TIMESTAMP;
+        LocalDateTime end = to != null ? to : MAX_TIMESTAMP;
+        Comparator<GpsPointDTO> order = descending ? POINT_ORDER.reversed() : POINT_ORDER;
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Iterator<GpsPointDTO> archived = gpsArchiveStore.points(vehicleId, start, end, descending);
+            GpsPointDTO[] nextArchived = {archived.hasNext() ? archived.next() : null};
+
+            cursorJdbcTemplate.query(
+                    sql,
+                    (PreparedStatement ps) -> {
+                        ps.setLong(1, vehicleId);
+                        ps.setTimestamp(2, Timestamp.valueOf(start));
+                        ps.setTimestamp(3, Timestamp.valueOf(end));
+                    },
+                    (ResultSet rs) -> {
+                        GpsPointDTO point = toPoint(rs);
+
+                        while (nextArchived[0] != null && order.compare(nextArchived[0], point) < 0) {
+                            consumer.accept(nextArchived[0]);
+                            nextArchived[0] = archived.hasNext() ? archived.next() : null;
+                        }
+
+                        consumer.accept(point);
+                    }
+            );
+
+            while (nextArchived[0] != null) {
+                consumer.accept(nextArchived[0]);
+                nextArchived[0] = archived.hasNext() ? archived.next() : null;
+            }
+        });
+    }
+
+    public List<GpsPointDTO> findAll(Long vehicleId, LocalDateTime from, LocalDateTime to, boolean descending) {
+        List<GpsPointDTO> points = new ArrayList<>();
+        forEach(vehicleId, from, to, descending, points::add);
+        return points;
+    }
+
+    public void export(Long vehicleId,
+                       LocalDateTime from,
+                       LocalDateTime to,
+                       GpsExportFormat format,
+                       OutputStream out) throws IOException {
+        try {
+            switch (format) {
+                case CSV -> exportCsv(vehicleId, from, to, out);
+                case JSON -> exportJson(vehicleId, from, to, out, true);
+                case NDJSON -> exportJson(vehicleId, from, to, out, false);
+            }
+        } catch (UncheckedIOException e) {
+            // Client déconnecté en cours d'export : le curseur est fermé avec la transaction.
+            throw e.getCause();
+        }
+    }
+
+    private void exportJson(Long vehicleId,
+                            LocalDateTime from,
+                            LocalDateTime to,
+                            OutputStream out,
+                            boolean array) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // Pas de fermeture implicite : un export interrompu ne doit pas ressembler à un document complet.
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.setRootValueSeparator(null);
+
+            if (array) {
+                generator.writeStartArray();
+            }
+
+            // Premier octet envoyé avant la fin de la requête.
+            generator.flush();
+
+            long[] written = {0};
+
+            forEach(vehicleId, from, to, false, point -> {
+                try {
+                    pointWriter.writeValue(generator, point);
+
+                    if (!array) {
+                        generator.writeRaw('\n');
+                    }
+
+                    if (++written[0] % flushRows == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            if (array) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    private void exportCsv(Long vehicleId, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        writer.write(CSV_HEADER);
+        writer.flush();
+
+        long[] written = {0};
+        StringBuilder line = new StringBuilder(160);
+
+        forEach(vehicleId, from, to, false, point -> {
+            try {
+                line.setLength(0);
+                line.append(point.getId()).append(',')
+                        .append(point.getVehicleId()).append(',')
+                        .append(point.getMissionId() != null ? point.getMissionId() : "").append(',')
+                        .append(point.getLatitude()).append(',')
+                        .append(point.getLongitude()).append(',')
+                        .append(point.getSpeed()).append(',')
+                        .append(point.isEngineOn()).append(',')
+                        .append(point.getTimestamp()).append(',');
+                appendCsvText(line, point.getRouteId());
+                line.append(',');
+                appendCsvText(line, point.getRouteSource());
+                line.append('\n');
+
+                writer.append(line);
+
+                if (++written[0] % flushRows == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        writer.flush();
+    }
+
+    private void appendCsvText(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            line.append(value);
+            return;
+        }
+
+        line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private GpsPointDTO toPoint(ResultSet rs) throws SQLException {
+        long missionId = rs.getLong("mission_id");
+        Long mission = rs.wasNull() ? null : missionId;
+
+        return new GpsPointDTO(
+                rs.getLong("id"),
+                rs.getLong("vehicle_id"),
+                mission,
+                rs.getDouble("latitude"),
+                rs.getDouble("longitude"),
+                rs.getDouble("speed"),
+                rs.getBoolean("engine_on"),
+                rs.getTimestamp("timestamp").toLocalDateTime(),
+                rs.getString("route_id"),
+                rs.getString("route_source")
+        );
+    }
+}
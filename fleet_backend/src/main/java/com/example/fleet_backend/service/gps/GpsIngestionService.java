@@ -3,6 +3,7 @@ package com.example.fleet_backend.service.gps;
 import com.example.fleet_backend.dto.GpsIncomingDTO;
 import com.example.fleet_backend.exception.ResourceNotFoundException;
 import com.example.fleet_backend.model.GpsData;
+import com.example.fleet_backend.model.LiveStatus;
 import com.example.fleet_backend.model.Vehicle;
 import com.example.fleet_backend.repository.GpsDataRepository;
 import com.example.fleet_backend.repository.VehicleRepository;
@@ -12,15 +13,26 @@ import com.example.fleet_backend.service.ReturnDepotService;
 import com.example.fleet_backend.service.VehicleEventService;
 import com.example.fleet_backend.service.VehicleHealthStateService;
 import com.example.fleet_backend.service.websocket.GpsWebSocketPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
 public class GpsIngestionService {
 
+    private static final Logger log = LoggerFactory.getLogger(GpsIngestionService.class);
+
     private final GpsValidationService gpsValidationService;
     private final VehicleRepository vehicleRepository;
     private final GpsDataRepository gpsDataRepository;
@@ -33,6 +45,11 @@ public class GpsIngestionService {
     private final MissionService missionService;
     private final ReturnDepotService returnDepotService;
     private final GpsWebSocketPublisher gpsWebSocketPublisher;
+    private final GpsBatchWriter gpsBatchWriter;
+    private final LastGpsPointStore lastGpsPointStore;
+    private final GpsRollupService gpsRollupService;
+    private final TripSegmentationService tripSegmentationService;
+    private final OdometerService odometerService;
 
     public GpsIngestionService(
             GpsValidationService gpsValidationService,
@@ -46,7 +63,12 @@ public class GpsIngestionService {
             VehicleHealthStateService vehicleHealthStateService,
             MissionService missionService,
             ReturnDepotService returnDepotService,
-            GpsWebSocketPublisher gpsWebSocketPublisher
+            GpsWebSocketPublisher gpsWebSocketPublisher,
+            GpsBatchWriter gpsBatchWriter,
+            LastGpsPointStore lastGpsPointStore,
+            GpsRollupService gpsRollupService,
+            TripSegmentationService tripSegmentationService,
+            OdometerService odometerService
     ) {
         this.gpsValidationService = gpsValidationService;
         this.vehicleRepository = vehicleRepository;
@@ -60,6 +82,11 @@ public class GpsIngestionService {
         this.missionService = missionService;
         this.returnDepotService = returnDepotService;
         this.gpsWebSocketPublisher = gpsWebSocketPublisher;
+        this.gpsBatchWriter = gpsBatchWriter;
+        this.lastGpsPointStore = lastGpsPointStore;
+        this.gpsRollupService = gpsRollupService;
+        this.tripSegmentationService = tripSegmentationService;
+        this.odometerService = odometerService;
     }
 
     public void processIncomingGps(GpsIncomingDTO dto) {
@@ -73,12 +100,14 @@ public class GpsIngestionService {
         ActiveMissionContext context =
                 missionTrackingService.getActiveMissionContext(vehicle);
 
-        GpsData previousGps = gpsDataRepository
-                .findTopByVehicleIdOrderByTimestampDesc(vehicle.getId())
-                .orElse(null);
+        GpsData previousGps = lastGpsPointStore.findPreviousGps(vehicle.getId());
 
         GpsData gpsData = buildGpsData(vehicle, dto, context);
         gpsDataRepository.save(gpsData);
+        gpsRollupService.record(List.of(gpsData));
+        tripSegmentationService.record(List.of(gpsData));
+        odometerService.record(List.of(gpsData));
+        lastGpsPointStore.recordAfterCommit(vehicle.getId(), gpsData);
 
         updateVehicleCurrentLocation(vehicle, gpsData);
 
@@ -88,11 +117,7 @@ public class GpsIngestionService {
                 gpsData.getLongitude()
         );
 
-        GpsStatusResult statusResult = gpsStatusService.evaluate(
-                gpsData,
-                context.isMissionActive(),
-                context.getMissionRoute()
-        );
+        GpsStatusResult statusResult = gpsStatusService.evaluate(gpsData, context);
 
         String obdStatus = gpsStatusService.computeObdStatus(gpsData);
 
@@ -107,6 +132,7 @@ public class GpsIngestionService {
                 gpsData,
                 statusResult.getLiveStatus(),
                 context,
+                statusResult.getRouteProgress(),
                 obdStatus,
                 healthDecision.state(),
                 healthDecision.reason()
@@ -157,6 +183,161 @@ public class GpsIngestionService {
         );
     }
 
+    public int processBatch(List<GpsIncomingDTO> batch) {
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<GpsIncomingDTO> validPoints = new ArrayList<>(batch.size());
+        Set<Long> vehicleIds = new LinkedHashSet<>();
+
+        for (GpsIncomingDTO dto : batch) {
+            try {
+                gpsValidationService.validateIncoming(dto);
+                validPoints.add(dto);
+                vehicleIds.add(dto.getVehicleId());
+            } catch (IllegalArgumentException e) {
+                log.warn("GPS point rejected for vehicle {}: {}", dto != null ? dto.getVehicleId() : null, e.getMessage());
+            }
+        }
+
+        Map<Long, Vehicle> vehicles = new HashMap<>();
+        for (Vehicle vehicle : vehicleRepository.findAllById(vehicleIds)) {
+            vehicles.put(vehicle.getId(), vehicle);
+        }
+
+        Map<Long, ActiveMissionContext> contexts = new HashMap<>();
+        Map<Long, GpsData> previousByVehicle = new HashMap<>();
+        Map<Long, PendingLiveUpdate> pendingLiveUpdates = new LinkedHashMap<>();
+        List<GpsData> persisted = new ArrayList<>(validPoints.size());
+
+        for (GpsIncomingDTO dto : validPoints) {
+            Vehicle vehicle = vehicles.get(dto.getVehicleId());
+
+            if (vehicle == null) {
+                log.warn("GPS point rejected: vehicle {} not found", dto.getVehicleId());
+                continue;
+            }
+
+            ActiveMissionContext context = contexts.computeIfAbsent(
+                    vehicle.getId(),
+                    id -> missionTrackingService.getActiveMissionContext(vehicle)
+            );
+
+            GpsData previousGps = previousByVehicle.containsKey(vehicle.getId())
+                    ? previousByVehicle.get(vehicle.getId())
+                    : lastGpsPointStore.findPreviousGps(vehicle.getId());
+
+            GpsData gpsData = buildGpsData(vehicle, dto, context);
+            persisted.add(gpsData);
+            previousByVehicle.put(vehicle.getId(), gpsData);
+
+            applyVehicleCurrentLocation(vehicle, gpsData);
+
+            returnDepotService.checkArrival(
+                    vehicle.getId(),
+                    gpsData.getLatitude(),
+                    gpsData.getLongitude()
+            );
+
+            GpsStatusResult statusResult = gpsStatusService.evaluate(gpsData, context);
+
+            String obdStatus = gpsStatusService.computeObdStatus(gpsData);
+
+            VehicleHealthStateService.VehicleHealthDecision healthDecision =
+                    vehicleHealthStateService.evaluate(
+                            gpsData,
+                            context.isMissionActive()
+                    );
+
+            PendingLiveUpdate liveUpdate = new PendingLiveUpdate(
+                    vehicle,
+                    gpsData,
+                    statusResult.getLiveStatus(),
+                    context,
+                    statusResult.getRouteProgress(),
+                    obdStatus,
+                    healthDecision
+            );
+
+            boolean missionJustCompleted =
+                    statusResult.isMissionCompleted()
+                            && context.isMissionActive()
+                            && context.getMission() != null;
+
+            if (missionJustCompleted) {
+                pendingLiveUpdates.remove(vehicle.getId());
+                applyLiveState(liveUpdate);
+
+                Long completedMissionId = context.getMissionId();
+
+                missionService.completeMissionFromGps(context.getMission());
+                contexts.remove(vehicle.getId());
+
+                gpsWebSocketPublisher.publishMissionCompleted(
+                        vehicle,
+                        gpsData,
+                        completedMissionId
+                );
+
+                continue;
+            }
+
+            pendingLiveUpdates.put(vehicle.getId(), liveUpdate);
+
+            vehicleEventService.analyzeAndCreateEvents(
+                    vehicle,
+                    previousGps,
+                    gpsData,
+                    context.isMissionActive(),
+                    context.getMissionId(),
+                    statusResult.isOffRoute(),
+                    false
+            );
+
+            if (shouldAnalyzeObd(previousGps, gpsData)) {
+                obdEventService.generateEvents(
+                        gpsData,
+                        healthDecision.state(),
+                        healthDecision.reason()
+                );
+            }
+        }
+
+        gpsBatchWriter.insertAll(persisted);
+        gpsRollupService.record(persisted);
+        tripSegmentationService.record(persisted);
+        odometerService.record(persisted);
+        lastGpsPointStore.recordAllAfterCommit(previousByVehicle.values());
+        vehicleRepository.saveAll(vehicles.values());
+
+        for (PendingLiveUpdate liveUpdate : pendingLiveUpdates.values()) {
+            applyLiveState(liveUpdate);
+
+            gpsWebSocketPublisher.publishLiveUpdate(
+                    liveUpdate.vehicle(),
+                    liveUpdate.gpsData(),
+                    liveUpdate.liveStatus(),
+                    liveUpdate.context()
+            );
+        }
+
+        return persisted.size();
+    }
+
+    private void applyLiveState(PendingLiveUpdate liveUpdate) {
+        liveStateService.updateLiveState(
+                liveUpdate.vehicle(),
+                liveUpdate.gpsData(),
+                liveUpdate.liveStatus(),
+                liveUpdate.context(),
+                liveUpdate.routeProgress(),
+                liveUpdate.obdStatus(),
+                liveUpdate.healthDecision().state(),
+                liveUpdate.healthDecision().reason()
+        );
+    }
+
     private GpsData buildGpsData(
             Vehicle vehicle,
             GpsIncomingDTO dto,
@@ -193,6 +374,16 @@ public class GpsIngestionService {
             return;
         }
 
+        applyVehicleCurrentLocation(vehicle, gpsData);
+
+        vehicleRepository.save(vehicle);
+    }
+
+    private void applyVehicleCurrentLocation(Vehicle vehicle, GpsData gpsData) {
+        if (vehicle == null || gpsData == null) {
+            return;
+        }
+
         if (gpsData.getLatitude() != null && gpsData.getLongitude() != null) {
             vehicle.setCurrentLatitude(gpsData.getLatitude());
             vehicle.setCurrentLongitude(gpsData.getLongitude());
@@ -201,8 +392,6 @@ public class GpsIngestionService {
         if (gpsData.getFuelLevel() != null) {
             vehicle.setLastFuelLevel(gpsData.getFuelLevel());
         }
-
-        vehicleRepository.save(vehicle);
     }
 
     private boolean shouldAnalyzeObd(GpsData previous, GpsData current) {
@@ -246,4 +435,15 @@ public class GpsIngestionService {
 
         return routeSource.trim().toUpperCase();
     }
-}
\ No newline at end of file
+
+    private record PendingLiveUpdate(
+            Vehicle vehicle,
+            GpsData gpsData,
+            LiveStatus liveStatus,
+            ActiveMissionContext context,
+            RouteProgress routeProgress,
+            String obdStatus,
+            VehicleHealthStateService.VehicleHealthDecision healthDecision
+    ) {
+    }
+}
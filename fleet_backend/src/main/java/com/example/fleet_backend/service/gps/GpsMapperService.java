@@ -1,9 +1,11 @@
 package com.example.fleet_backend.service.gps;
 
 import com.example.fleet_backend.dto.GpsPointDTO;
+import com.example.fleet_backend.dto.GpsRollupPointDTO;
 import com.example.fleet_backend.dto.MissionRoutePointDTO;
 import com.example.fleet_backend.dto.VehicleLiveStatusDTO;
 import com.example.fleet_backend.model.GpsData;
+import com.example.fleet_backend.model.GpsRollup;
 import com.example.fleet_backend.model.LiveStatus;
 import com.example.fleet_backend.model.Vehicle;
 import com.example.fleet_backend.model.VehicleLiveState;
@@ -29,11 +31,43 @@ public class GpsMapperService {
         );
     }
 
+    public GpsRollupPointDTO toGpsRollupPointDTO(GpsRollup rollup) {
+        GpsRollupPointDTO dto = new GpsRollupPointDTO(
+                rollup.getVehicleId(),
+                rollup.getLastMissionId(),
+                rollup.getLastLatitude(),
+                rollup.getLastLongitude(),
+                rollup.getLastSpeed(),
+                Boolean.TRUE.equals(rollup.getLastEngineOn()),
+                rollup.getLastTimestamp(),
+                rollup.getLastRouteId(),
+                rollup.getLastRouteSource()
+        );
+
+        dto.setResolutionSeconds(rollup.getResolutionSeconds());
+        dto.setBucketStart(rollup.getBucketStart());
+        dto.setPointCount(rollup.getPointCount());
+        dto.setAvgSpeed(average(rollup.getSpeedSum(), rollup.getPointCount()));
+        dto.setMaxSpeed(rollup.getMaxSpeed());
+        dto.setAvgEngineRpm(average(rollup.getRpmSum(), rollup.getRpmCount()));
+        dto.setMaxEngineRpm(rollup.getMaxRpm());
+        dto.setLastFuelLevel(rollup.getLastFuelLevel());
+        dto.setMinFuelLevel(rollup.getMinFuelLevel());
+        dto.setAvgEngineTemperature(average(rollup.getTemperatureSum(), rollup.getTemperatureCount()));
+        dto.setMaxEngineTemperature(rollup.getMaxTemperature());
+        dto.setAvgBatteryVoltage(average(rollup.getBatterySum(), rollup.getBatteryCount()));
+        dto.setMinBatteryVoltage(rollup.getMinBatteryVoltage());
+        dto.setAvgEngineLoad(average(rollup.getLoadSum(), rollup.getLoadCount()));
+        dto.setCheckEngineCount(rollup.getCheckEngineCount());
+
+        return dto;
+    }
+
     public VehicleLiveStatusDTO toVehicleLiveStatusDTO(Vehicle vehicle,
                                                        VehicleLiveState state,
                                                        boolean missionActive,
                                                        List<MissionRoutePointDTO> missionRoute) {
-        return new VehicleLiveStatusDTO(
+        VehicleLiveStatusDTO dto = new VehicleLiveStatusDTO(
                 vehicle.getId(),
                 resolveVehicleName(vehicle),
                 state.getLatitude(),
@@ -53,6 +87,11 @@ public class GpsMapperService {
                 state.getHealthState() != null ? state.getHealthState().name() : "UNKNOWN",
                 state.getHealthReason()
         );
+
+        dto.setRouteProgressPercent(state.getRouteProgressPercent());
+        dto.setRouteRemainingKm(state.getRouteRemainingKm());
+
+        return dto;
     }
 
     public VehicleLiveStatusDTO toNoDataVehicleLiveStatusDTO(Vehicle vehicle,
@@ -92,4 +131,8 @@ public class GpsMapperService {
         String joined = (brand + " " + model + " " + registration).trim();
         return joined.isBlank() ? "Vehicle #" + vehicle.getId() : joined;
     }
-}
\ No newline at end of file
+
+    private Double average(Double sum, Long count) {
+        return sum != null && count != null && count > 0 ? sum / count : null;
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.fleet_backend.service.gps;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Partitionnement mensuel de {@code gps_data} (PostgreSQL, partitionnement déclaratif).
+ *
+ * <p>La conversion de la table existante est une migration lancée par l'exploitant
+ * ({@code db/gps_data_partitioning.sql}) : elle pose un verrou exclusif sur tout l'historique et
+ * n'a pas sa place au démarrage. Une fois la table partitionnée, ce composant crée les partitions
+ * mensuelles à l'avance et applique la rétention en détachant ou supprimant des partitions entières.</p>
+ */
+@Component
+public class GpsPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(GpsPartitionManager.class);
+
+    // Verrou consultatif PostgreSQL : une seule instance fait évoluer le schéma à la fois.
+    private static final long PARTITION_LOCK_KEY = 0x0F1EE70B1L;
+
+    private static final String TABLE = "gps_data";
+    private static final String DEFAULT_PARTITION = "gps_data_default";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\((.+?)\\) TO \\((.+?)\\)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gps.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gps.partitions.premake-months:2}")
+    private int premakeMonths;
+
+    // 0 : pas de rétention.
+    @Value("${gps.partitions.retention-months:12}")
+    private int retentionMonths;
+
+    // drop : suppression ; detach : la partition devient une table autonome, à archiver.
+    @Value("${gps.partitions.retention-mode:drop}")
+    private String retentionMode;
+
+    public GpsPartitionManager(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+
+        if (!isPartitioned()) {
+            log.warn("gps_data is not partitioned: run db/gps_data_partitioning.sql to enable monthly partitions");
+            return;
+        }
+
+        maintain();
+    }
+
+    @Scheduled(cron = "${gps.partitions.maintenance-cron:0 15 * * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                lock();
+
+                if (isPartitioned()) {
+                    ensureDefaultPartition();
+                }
+            });
+        } catch (Exception e) {
+            log.warn("gps_data default partition creation failed: {}", e.getMessage());
+            return;
+        }
+
+        createUpcomingPartitions();
+
+        if (retentionMonths <= 0) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                lock();
+
+                if (isPartitioned()) {
+                    applyRetention();
+                }
+            });
+        } catch (Exception e) {
+            log.warn("gps_data retention failed: {}", e.getMessage());
+        }
+    }
+
+    private void lock() {
+        jdbcTemplate.queryForObject("select pg_advisory_xact_lock(?)::text", String.class, PARTITION_LOCK_KEY);
+    }
+
+    private String relkind() {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "select c.relkind::text from pg_class c where c.oid = to_regclass(?)",
+                String.class,
+                TABLE
+        );
+
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+
+    private boolean isPartitioned() {
+        return "p".equals(relkind());
+    }
+
+    private void ensureDefaultPartition() {
+        // Filet de sécurité pour les horodatages hors des partitions créées (horloge de boîtier déréglée).
+        jdbcTemplate.execute("create table if not exists " + DEFAULT_PARTITION + " partition of gps_data default");
+    }
+
+    // Une transaction par mois : un mois en échec n'empêche ni les suivants ni la rétention.
+    private void createUpcomingPartitions() {
+        LocalDateTime month = monthStart(LocalDate.now());
+
+        for (int i = 0; i <= Math.max(0, premakeMonths); i++) {
+            LocalDateTime from = month.plusMonths(i);
+            LocalDateTime to = from.plusMonths(1);
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    lock();
+
+                    if (isPartitioned() && !overlaps(partitions(), from, to)) {
+                        createPartition(from, to);
+                    }
+                });
+            } catch (Exception e) {
+                log.warn("gps_data partition for {} could not be created: {}", from.format(PARTITION_SUFFIX), e.getMessage());
+            }
+        }
+    }
+
+    private void createPartition(LocalDateTime from, LocalDateTime to) {
+        String name = TABLE + "_p" + from.format(PARTITION_SUFFIX);
+        String bounds = "for values from ('" + Timestamp.valueOf(from) + "') to ('" + Timestamp.valueOf(to) + "')";
+
+        boolean strayRows = hasDefaultPartition() && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists (select 1 from " + DEFAULT_PARTITION + " where \"timestamp\" >= ? and \"timestamp\" < ?)",
+                Boolean.class,
+                Timestamp.valueOf(from),
+                Timestamp.valueOf(to)
+        ));
+
+        if (!strayRows) {
+            jdbcTemplate.execute("create table " + name + " partition of gps_data " + bounds);
+            log.info("gps_data partition {} created", name);
+            return;
+        }
+
+        // Points en avance (horloge de boîtier) tombés dans la partition par défaut : déplacés avant le rattachement,
+        // sans quoi PostgreSQL refuse de créer la partition.
+        jdbcTemplate.execute("create table " + name + " (like gps_data including defaults)");
+
+        int moved = jdbcTemplate.update(
+                "with moved as (delete from " + DEFAULT_PARTITION + " where \"timestamp\" >= ? and \"timestamp\" < ? returning *) "
+                        + "insert into " + name + " select * from moved",
+                Timestamp.valueOf(from),
+                Timestamp.valueOf(to)
+        );
+
+        jdbcTemplate.execute("alter table gps_data attach partition " + name + " " + bounds);
+
+        log.info("gps_data partition {} created, {} rows moved from {}", name, moved, DEFAULT_PARTITION);
+    }
+
+    private boolean hasDefaultPartition() {
+        return jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, DEFAULT_PARTITION);
+    }
+
+    private void applyRetention() {
+        LocalDateTime cutoff = monthStart(LocalDate.now()).minusMonths(retentionMonths);
+        boolean detach = "detach".equalsIgnoreCase(retentionMode);
+
+        for (Partition partition : partitions()) {
+            if (partition.isDefault() || partition.to() == null || partition.to().isAfter(cutoff)) {
+                continue;
+            }
+
+            jdbcTemplate.execute("alter table gps_data detach partition " + partition.name());
+
+            if (!detach) {
+                jdbcTemplate.execute("drop table " + partition.name());
+            }
+
+            log.info("gps_data partition {} (before {}) {}", partition.name(), partition.to(), detach ? "detached" : "dropped");
+        }
+    }
+
+    private List<Partition> partitions() {
+        return jdbcTemplate.query("""
+                        select c.relname::text, pg_get_expr(c.relpartbound, c.oid)
+                        from pg_inherits i
+                        join pg_class c on c.oid = i.inhrelid
+                        where i.inhparent = to_regclass('gps_data')
+                        """,
+                (rs, rowNum) -> parsePartition(rs.getString(1), rs.getString(2))
+        );
+    }
+
+    private Partition parsePartition(String name, String bound) {
+        if (bound == null || bound.equalsIgnoreCase("DEFAULT")) {
+            return new Partition(name, null, null, true);
+        }
+
+        Matcher matcher = RANGE_BOUND.matcher(bound);
+
+        if (!matcher.find()) {
+            return new Partition(name, null, null, false);
+        }
+
+        return new Partition(name, parseBound(matcher.group(1)), parseBound(matcher.group(2)), false);
+    }
+
+    // MINVALUE / MAXVALUE : borne ouverte.
+    private LocalDateTime parseBound(String value) {
+        String trimmed = value.trim();
+
+        if (!trimmed.startsWith("'")) {
+            return null;
+        }
+
+        return Timestamp.valueOf(trimmed.substring(1, trimmed.length() - 1)).toLocalDateTime();
+    }
+
+    private boolean overlaps(List<Partition> partitions, LocalDateTime from, LocalDateTime to) {
+        for (Partition partition : partitions) {
+            if (partition.isDefault()) {
+                continue;
+            }
+
+            boolean startsBefore = partition.from() == null || partition.from().isBefore(to);
+            boolean endsAfter = partition.to() == null || partition.to().isAfter(from);
+
+            if (startsBefore && endsAfter) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private LocalDateTime monthStart(LocalDate date) {
+        return date.withDayOfMonth(1).atStartOfDay();
+    }
+
+    private record Partition(String name, LocalDateTime from, LocalDateTime to, boolean isDefault) {
+    }
+}
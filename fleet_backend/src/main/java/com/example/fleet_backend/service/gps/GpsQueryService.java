@@ -1,19 +1,22 @@
 package com.example.fleet_backend.service.gps;
 
+import com.example.fleet_backend.dto.CursorPage;
 import com.example.fleet_backend.dto.GpsPointDTO;
 import com.example.fleet_backend.dto.MissionRoutePointDTO;
+import com.example.fleet_backend.dto.PageCursor;
 import com.example.fleet_backend.dto.VehicleLiveStatusDTO;
 import com.example.fleet_backend.exception.ResourceNotFoundException;
-import com.example.fleet_backend.model.GpsData;
+import com.example.fleet_backend.model.GpsRollup;
 import com.example.fleet_backend.model.Mission;
 import com.example.fleet_backend.model.Vehicle;
 import com.example.fleet_backend.model.VehicleLiveState;
 import com.example.fleet_backend.repository.GpsDataRepository;
 import com.example.fleet_backend.repository.MissionRepository;
-import com.example.fleet_backend.repository.VehicleLiveStateRepository;
 import com.example.fleet_backend.repository.VehicleRepository;
 import com.example.fleet_backend.security.AuthUtil;
 import com.example.fleet_backend.service.MissionService;
+import com.example.fleet_backend.service.gps.archive.GpsArchiveStore;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -22,6 +25,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,53 +34,132 @@ import java.util.Optional;
 @Transactional(readOnly = true)
 public class GpsQueryService {
 
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final Comparator<GpsPointDTO> NEWEST_FIRST =
+            Comparator.comparing(GpsPointDTO::getTimestamp).thenComparing(GpsPointDTO::getId).reversed();
+
     private final GpsDataRepository gpsDataRepository;
     private final VehicleRepository vehicleRepository;
-    private final VehicleLiveStateRepository vehicleLiveStateRepository;
+    private final LiveStateStore liveStateStore;
     private final MissionRepository missionRepository;
     private final MissionService missionService;
     private final RouteParsingService routeParsingService;
     private final GpsMapperService gpsMapperService;
+    private final GpsRollupService gpsRollupService;
+    private final GpsHistoryStreamService gpsHistoryStreamService;
+    private final GpsArchiveStore gpsArchiveStore;
 
     public GpsQueryService(GpsDataRepository gpsDataRepository,
                            VehicleRepository vehicleRepository,
-                           VehicleLiveStateRepository vehicleLiveStateRepository,
+                           LiveStateStore liveStateStore,
                            MissionRepository missionRepository,
                            MissionService missionService,
                            RouteParsingService routeParsingService,
-                           GpsMapperService gpsMapperService) {
+                           GpsMapperService gpsMapperService,
+                           GpsRollupService gpsRollupService,
+                           GpsHistoryStreamService gpsHistoryStreamService,
+                           GpsArchiveStore gpsArchiveStore) {
         this.gpsDataRepository = gpsDataRepository;
         this.vehicleRepository = vehicleRepository;
-        this.vehicleLiveStateRepository = vehicleLiveStateRepository;
+        this.liveStateStore = liveStateStore;
         this.missionRepository = missionRepository;
         this.missionService = missionService;
         this.routeParsingService = routeParsingService;
         this.gpsMapperService = gpsMapperService;
+        this.gpsRollupService = gpsRollupService;
+        this.gpsHistoryStreamService = gpsHistoryStreamService;
+        this.gpsArchiveStore = gpsArchiveStore;
     }
 
     public Optional<GpsPointDTO> getLastPositionSecured(Long vehicleId, Authentication auth) {
         ensureAccessToVehicle(vehicleId, auth);
-        return gpsDataRepository.findTopByVehicleIdOrderByTimestampDesc(vehicleId)
-                .map(gpsMapperService::toGpsPointDTO);
+        return gpsDataRepository.findLatestPoints(vehicleId, PageRequest.of(0, 1))
+                .stream()
+                .findFirst();
     }
 
     public List<GpsPointDTO> getHistorySecured(Long vehicleId, Authentication auth) {
         ensureAccessToVehicle(vehicleId, auth);
-        return gpsDataRepository.findByVehicleIdOrderByTimestampDesc(vehicleId)
-                .stream()
-                .map(gpsMapperService::toGpsPointDTO)
-                .toList();
+
+        // Projection par curseur : aucune entité GpsData chargée dans le contexte de persistance.
+        return gpsHistoryStreamService.findAll(vehicleId, null, null, true);
     }
 
     public List<GpsPointDTO> getHistoryRangeSecured(Long vehicleId,
                                                     LocalDateTime from,
                                                     LocalDateTime to,
+                                                    Integer maxPoints,
                                                     Authentication auth) {
         ensureAccessToVehicle(vehicleId, auth);
-        return gpsDataRepository.findByVehicleIdAndTimestampBetweenOrderByTimestampAsc(vehicleId, from, to)
-                .stream()
-                .map(gpsMapperService::toGpsPointDTO)
-                .toList();
+
+        Integer resolution = gpsRollupService.chooseResolution(vehicleId, from, to, maxPoints);
+
+        if (resolution != null) {
+            return gpsRollupService.findRollups(vehicleId, resolution, from, to)
+                    .stream()
+                    .map(gpsMapperService::toGpsRollupPointDTO)
+                    .map(GpsPointDTO.class::cast)
+                    .toList();
+        }
+
+        // Base et segments archivés.
+        return gpsHistoryStreamService.findAll(vehicleId, from, to, false);
+    }
+
+    // Points bruts du plus récent au plus ancien, page par page, sans OFFSET.
+    public CursorPage<GpsPointDTO> getHistoryPageSecured(Long vehicleId,
+                                                         LocalDateTime from,
+                                                         LocalDateTime to,
+                                                         String cursor,
+                                                         Integer limit,
+                                                         Authentication auth) {
+        ensureAccessToVehicle(vehicleId, auth);
+
+        PageCursor position = PageCursor.decode(cursor);
+        int size = CursorPage.normalizeLimit(limit);
+
+        LocalDateTime start = from != null ? from : HISTORY_START;
+        LocalDateTime end = to != null ? to : PageCursor.START.createdAt();
+
+        List<GpsPointDTO> points = new ArrayList<>(gpsDataRepository.findPageByVehicle(
+                vehicleId,
+                start,
+                end,
+                position.createdAt(),
+                position.id(),
+                PageRequest.of(0, size + 1)
+        ));
+
+        // Complément depuis les segments archivés situés avant le curseur.
+        LocalDateTime archiveEnd = end.isBefore(position.createdAt()) ? end : position.createdAt();
+        Iterator<GpsPointDTO> archived = gpsArchiveStore.points(vehicleId, start, archiveEnd, true);
+        int taken = 0;
+
+        while (taken <= size && archived.hasNext()) {
+            GpsPointDTO point = archived.next();
+
+            if (isBefore(point, position)) {
+                points.add(point);
+                taken++;
+            }
+        }
+
+        if (taken > 0) {
+            points.sort(NEWEST_FIRST);
+        }
+
+        return CursorPage.of(
+                points.size() > size + 1 ? points.subList(0, size + 1) : points,
+                size,
+                point -> point,
+                point -> new PageCursor(point.getTimestamp(), point.getId())
+        );
+    }
+
+    private boolean isBefore(GpsPointDTO point, PageCursor position) {
+        int byTime = point.getTimestamp().compareTo(position.createdAt());
+        return byTime < 0 || (byTime == 0 && point.getId() < position.id());
     }
 
     public List<VehicleLiveStatusDTO> getLiveFleetSecured(Authentication auth) {
@@ -83,7 +167,7 @@ public class GpsQueryService {
         List<VehicleLiveStatusDTO> result = new ArrayList<>();
 
         for (Vehicle vehicle : vehicles) {
-            Optional<VehicleLiveState> liveStateOpt = vehicleLiveStateRepository.findByVehicleId(vehicle.getId());
+            Optional<VehicleLiveState> liveStateOpt = liveStateStore.find(vehicle.getId());
             Optional<Mission> activeMissionOpt = missionRepository.findFirstByVehicleIdAndStatus(
                     vehicle.getId(),
                     Mission.MissionStatus.IN_PROGRESS
@@ -135,7 +219,7 @@ public class GpsQueryService {
 
         List<MissionRoutePointDTO> missionRoute = routeParsingService.parseMissionRoute(mission.getRouteJson());
 
-        Optional<VehicleLiveState> liveStateOpt = vehicleLiveStateRepository.findByVehicleId(vehicle.getId());
+        Optional<VehicleLiveState> liveStateOpt = liveStateStore.find(vehicle.getId());
 
         if (liveStateOpt.isPresent()) {
             VehicleLiveState liveState = liveStateOpt.get();
@@ -162,6 +246,7 @@ public class GpsQueryService {
     public List<GpsPointDTO> getMissionHistorySecured(Long missionId,
                                                       LocalDateTime from,
                                                       LocalDateTime to,
+                                                      Integer maxPoints,
                                                       Authentication auth) {
         Mission mission = missionService.getAuthorizedMission(missionId, auth);
 
@@ -187,13 +272,25 @@ public class GpsQueryService {
 
         String expectedMissionRouteId = "mission-" + mission.getId();
 
-        List<GpsData> rawPoints = gpsDataRepository.findByVehicleIdAndTimestampBetweenOrderByTimestampAsc(
+        Integer resolution = gpsRollupService.chooseResolution(
+                mission.getVehicle().getId(),
+                effectiveFrom,
+                effectiveTo,
+                maxPoints
+        );
+
+        if (resolution != null) {
+            return getMissionRollups(mission, resolution, effectiveFrom, effectiveTo, expectedMissionRouteId);
+        }
+
+        List<GpsPointDTO> rawPoints = gpsHistoryStreamService.findAll(
                 mission.getVehicle().getId(),
                 effectiveFrom,
-                effectiveTo
+                effectiveTo,
+                false
         );
 
-        List<GpsData> missionTaggedPoints = rawPoints.stream()
+        List<GpsPointDTO> missionTaggedPoints = rawPoints.stream()
                 .filter(this::isValidMissionGpsPoint)
                 .filter(gps -> "MISSION".equalsIgnoreCase(safe(gps.getRouteSource())))
                 .filter(gps -> {
@@ -203,25 +300,49 @@ public class GpsQueryService {
                 .toList();
 
         if (!missionTaggedPoints.isEmpty()) {
-            return missionTaggedPoints.stream()
-                    .map(gpsMapperService::toGpsPointDTO)
-                    .toList();
+            return missionTaggedPoints;
         }
 
         return rawPoints.stream()
                 .filter(this::isValidMissionGpsPoint)
-                .map(gpsMapperService::toGpsPointDTO)
                 .toList();
     }
 
-    private boolean isValidMissionGpsPoint(GpsData gps) {
+    // Même filtrage que les points bruts, appliqué au dernier point de chaque bucket.
+    private List<GpsPointDTO> getMissionRollups(Mission mission,
+                                                int resolution,
+                                                LocalDateTime from,
+                                                LocalDateTime to,
+                                                String expectedMissionRouteId) {
+        List<GpsRollup> rollups = gpsRollupService.findRollups(mission.getVehicle().getId(), resolution, from, to)
+                .stream()
+                .filter(rollup -> isValidCoordinate(rollup.getLastLatitude(), rollup.getLastLongitude()))
+                .toList();
+
+        List<GpsRollup> missionTagged = rollups.stream()
+                .filter(rollup -> "MISSION".equalsIgnoreCase(safe(rollup.getLastRouteSource())))
+                .filter(rollup -> {
+                    String routeId = safe(rollup.getLastRouteId());
+                    return routeId.isBlank() || expectedMissionRouteId.equals(routeId);
+                })
+                .toList();
+
+        return (missionTagged.isEmpty() ? rollups : missionTagged)
+                .stream()
+                .map(gpsMapperService::toGpsRollupPointDTO)
+                .map(GpsPointDTO.class::cast)
+                .toList();
+    }
+
+    private boolean isValidMissionGpsPoint(GpsPointDTO gps) {
         if (gps == null) {
             return false;
         }
 
-        Double lat = gps.getLatitude();
-        Double lng = gps.getLongitude();
+        return isValidCoordinate(gps.getLatitude(), gps.getLongitude());
+    }
 
+    private boolean isValidCoordinate(Double lat, Double lng) {
         return lat != null && lng != null
                 && lat >= -90 && lat <= 90
                 && lng >= -180 && lng <= 180;
@@ -253,7 +374,7 @@ public class GpsQueryService {
         throw new AccessDeniedException("Forbidden");
     }
 
-    private void ensureAccessToVehicle(Long vehicleId, Authentication auth) {
+    public void ensureAccessToVehicle(Long vehicleId, Authentication auth) {
         boolean allowed = getAuthorizedVehicles(auth).stream()
                 .anyMatch(v -> v.getId().equals(vehicleId));
 
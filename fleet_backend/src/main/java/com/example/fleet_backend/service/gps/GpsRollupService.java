@@ -0,0 +1,512 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.model.GpsData;
+import com.example.fleet_backend.model.GpsRollup;
+import com.example.fleet_backend.repository.GpsDataRepository;
+import com.example.fleet_backend.repository.GpsRollupRepository;
+import com.example.fleet_backend.service.gps.archive.GpsArchiveStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Paliers d'agrégation des points GPS (par défaut 1 min et 15 min).
+ *
+ * <p>Les paliers sont alimentés dans la transaction d'écriture des points bruts, par upsert
+ * additif. La lecture n'écrit jamais : un bucket dont l'effectif ne couvre pas les points bruts
+ * (historique antérieur, écriture concurrente) est recalculé à la volée depuis {@code gps_data},
+ * puis réécrit par une tâche planifiée.</p>
+ */
+@Service
+public class GpsRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(GpsRollupService.class);
+
+    private static final String COLUMNS = """
+            vehicle_id, resolution_seconds, bucket_start, point_count, first_timestamp,
+            last_timestamp, last_latitude, last_longitude, last_speed, last_engine_on,
+            last_route_id, last_route_source, last_mission_id, last_fuel_level,
+            speed_sum, max_speed, rpm_sum, rpm_count, max_rpm, min_fuel_level,
+            temperature_sum, temperature_count, max_temperature,
+            battery_sum, battery_count, min_battery_voltage,
+            load_sum, load_count, check_engine_count
+            """;
+
+    private static final List<String> LAST_COLUMNS = List.of(
+            "last_latitude", "last_longitude", "last_speed", "last_engine_on",
+            "last_route_id", "last_route_source", "last_mission_id", "last_fuel_level"
+    );
+
+    private static final List<String> SUM_COLUMNS = List.of(
+            "point_count", "speed_sum", "rpm_sum", "rpm_count", "temperature_sum", "temperature_count",
+            "battery_sum", "battery_count", "load_sum", "load_count", "check_engine_count"
+    );
+
+    private static final List<String> MAX_COLUMNS = List.of("max_speed", "max_rpm", "max_temperature");
+
+    private static final List<String> MIN_COLUMNS = List.of("first_timestamp", "min_fuel_level", "min_battery_voltage");
+
+    private static final String CONFLICT = " on conflict (vehicle_id, resolution_seconds, bucket_start) do update set ";
+
+    // Upsert additif : fusion d'un agrégat partiel dans le bucket existant.
+    private static final String MERGE_SQL = "insert into gps_rollups as r (" + COLUMNS + ") values ("
+            + String.join(", ", Collections.nCopies(29, "?")) + ")"
+            + CONFLICT + mergeAssignments();
+
+    // Agrégat d'une plage recalculé depuis les points bruts, un bucket par ligne.
+    private static final String AGGREGATE_SQL = """
+            select g.vehicle_id as vehicle_id, ? as resolution_seconds, b.bucket_start as bucket_start,
+                   count(*) as point_count, min(g."timestamp") as first_timestamp,
+                   max(g."timestamp") as last_timestamp,
+                   (array_agg(g.latitude order by g."timestamp" desc, g.id desc))[1] as last_latitude,
+                   (array_agg(g.longitude order by g."timestamp" desc, g.id desc))[1] as last_longitude,
+                   (array_agg(g.speed order by g."timestamp" desc, g.id desc))[1] as last_speed,
+                   (array_agg(g.engine_on order by g."timestamp" desc, g.id desc))[1] as last_engine_on,
+                   (array_agg(g.route_id order by g."timestamp" desc, g.id desc))[1] as last_route_id,
+                   (array_agg(g.route_source order by g."timestamp" desc, g.id desc))[1] as last_route_source,
+                   (array_agg(g.mission_id order by g."timestamp" desc, g.id desc))[1] as last_mission_id,
+                   (array_agg(g.fuel_level order by g."timestamp" desc, g.id desc))[1] as last_fuel_level,
+                   coalesce(sum(g.speed), 0) as speed_sum, max(g.speed) as max_speed,
+                   coalesce(sum(g.engine_rpm), 0) as rpm_sum, count(g.engine_rpm) as rpm_count,
+                   max(g.engine_rpm) as max_rpm, min(g.fuel_level) as min_fuel_level,
+                   coalesce(sum(g.engine_temperature), 0) as temperature_sum,
+                   count(g.engine_temperature) as temperature_count, max(g.engine_temperature) as max_temperature,
+                   coalesce(sum(g.battery_voltage), 0) as battery_sum, count(g.battery_voltage) as battery_count,
+                   min(g.battery_voltage) as min_battery_voltage,
+                   coalesce(sum(g.engine_load), 0) as load_sum, count(g.engine_load) as load_count,
+                   count(*) filter (where g.check_engine_on) as check_engine_count
+            from gps_data g
+            cross join lateral (select %s as bucket_start) b
+            where g.vehicle_id = ? and g."timestamp" >= ? and g."timestamp" < ?
+            group by g.vehicle_id, b.bucket_start
+            """.formatted(bucketExpression("g"));
+
+    // Recalcul depuis les points bruts : remplace les buckets de la plage.
+    private static final String REBUILD_SQL = "insert into gps_rollups as r (" + COLUMNS + ") "
+            + AGGREGATE_SQL + CONFLICT + replaceAssignments();
+
+    private static final String GAP_SQL = AGGREGATE_SQL + " order by bucket_start";
+
+    // Effectif brut par bucket : parcours de l'index (vehicle_id, timestamp), sans lecture des lignes agrégées.
+    private static final String RAW_COUNTS_SQL = """
+            select %s as bucket_start, count(*) as point_count
+            from gps_data g
+            where g.vehicle_id = ? and g."timestamp" >= ? and g."timestamp" < ?
+            group by 1
+            """.formatted(bucketExpression("g"));
+
+    // Au-delà, les plages incomplètes sont fusionnées en une seule lecture.
+    private static final int MAX_GAP_READS = 16;
+
+    private static final int MAX_PENDING_REPAIRS = 10_000;
+
+    private static final RowMapper<GpsRollup> ROLLUP_MAPPER = new BeanPropertyRowMapper<>(GpsRollup.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GpsRollupRepository gpsRollupRepository;
+    private final GpsDataRepository gpsDataRepository;
+    private final GpsArchiveStore gpsArchiveStore;
+    private final TransactionTemplate rebuildTransaction;
+
+    // Plages dont les buckets ne couvrent pas les points bruts, réparées hors requête de lecture.
+    private final Set<StaleRange> staleRanges = ConcurrentHashMap.newKeySet();
+
+    private final int[] resolutions;
+    private final int fineRetentionDays;
+
+    public GpsRollupService(JdbcTemplate jdbcTemplate,
+                            GpsRollupRepository gpsRollupRepository,
+                            GpsDataRepository gpsDataRepository,
+                            GpsArchiveStore gpsArchiveStore,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${gps.rollups.resolutions-seconds:60,900}") int[] resolutions,
+                            @Value("${gps.rollups.fine-retention-days:90}") int fineRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.gpsRollupRepository = gpsRollupRepository;
+        this.gpsDataRepository = gpsDataRepository;
+        this.gpsArchiveStore = gpsArchiveStore;
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.resolutions = Arrays.stream(resolutions).filter(r -> r > 0).distinct().sorted().toArray();
+        this.fineRetentionDays = fineRetentionDays;
+    }
+
+    // Appelé dans la transaction qui insère les points bruts.
+    public void record(List<GpsData> points) {
+        if (points == null || points.isEmpty() || resolutions.length == 0) {
+            return;
+        }
+
+        Map<BucketKey, Bucket> buckets = new LinkedHashMap<>();
+
+        for (GpsData gps : points) {
+            if (gps.getTimestamp() == null || gps.getVehicle() == null) {
+                continue;
+            }
+
+            for (int resolution : resolutions) {
+                BucketKey key = new BucketKey(gps.getVehicle().getId(), resolution, bucketStart(gps.getTimestamp(), resolution));
+                buckets.computeIfAbsent(key, k -> new Bucket()).add(gps);
+            }
+        }
+
+        // Ordre stable des upserts : deux lots concurrents ne se bloquent pas mutuellement.
+        List<Map.Entry<BucketKey, Bucket>> ordered = new ArrayList<>(buckets.entrySet());
+        ordered.sort(Map.Entry.comparingByKey());
+
+        if (ordered.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(MERGE_SQL, ordered, ordered.size(), (ps, entry) -> bind(ps, entry.getKey(), entry.getValue()));
+    }
+
+    /*
+     * Palier le plus fin dont le nombre de buckets tient dans maxPoints ; null si les points bruts
+     * suffisent ou si aucun palier n'est demandé.
+     */
+    public Integer chooseResolution(Long vehicleId, LocalDateTime from, LocalDateTime to, Integer maxPoints) {
+        if (maxPoints == null || maxPoints <= 0 || from == null || to == null || resolutions.length == 0) {
+            return null;
+        }
+
+        long points = gpsDataRepository.countByVehicleIdAndTimestampBetween(vehicleId, from, to)
+                + gpsArchiveStore.countPoints(vehicleId, from, to);
+
+        if (points <= maxPoints) {
+            return null;
+        }
+
+        long rangeSeconds = Math.max(1L, to.toEpochSecond(ZoneOffset.UTC) - from.toEpochSecond(ZoneOffset.UTC));
+        Integer coarsest = null;
+
+        for (int resolution : resolutions) {
+            if (!isRetained(resolution, from)) {
+                continue;
+            }
+
+            coarsest = resolution;
+
+            if (rangeSeconds / resolution + 1 <= maxPoints) {
+                return resolution;
+            }
+        }
+
+        return coarsest;
+    }
+
+    /*
+     * Lecture seule : les buckets dont l'effectif est inférieur aux points bruts (historique antérieur,
+     * écriture concurrente) sont recalculés à la volée sans écriture, puis réparés par repairStale().
+     */
+    public List<GpsRollup> findRollups(Long vehicleId, int resolution, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime alignedFrom = bucketStart(from, resolution);
+        LocalDateTime alignedTo = bucketStart(to, resolution).plusSeconds(resolution);
+
+        TreeMap<LocalDateTime, GpsRollup> buckets = new TreeMap<>();
+        for (GpsRollup rollup : gpsRollupRepository.findBuckets(vehicleId, resolution, alignedFrom, alignedTo)) {
+            buckets.put(rollup.getBucketStart(), rollup);
+        }
+
+        List<LocalDateTime> stale = new ArrayList<>();
+
+        jdbcTemplate.query(RAW_COUNTS_SQL, rs -> {
+            LocalDateTime start = rs.getTimestamp("bucket_start").toLocalDateTime();
+            GpsRollup rollup = buckets.get(start);
+
+            if (rollup == null || rollup.getPointCount() < rs.getLong("point_count")) {
+                stale.add(start);
+            }
+        }, resolution, resolution, vehicleId, Timestamp.valueOf(alignedFrom), Timestamp.valueOf(alignedTo));
+
+        if (stale.isEmpty()) {
+            return new ArrayList<>(buckets.values());
+        }
+
+        for (StaleRange range : gapRanges(vehicleId, resolution, stale)) {
+            jdbcTemplate.query(GAP_SQL, ROLLUP_MAPPER, resolution, resolution, resolution, vehicleId,
+                            Timestamp.valueOf(range.from()), Timestamp.valueOf(range.to()))
+                    .forEach(rollup -> buckets.put(rollup.getBucketStart(), rollup));
+
+            if (staleRanges.size() < MAX_PENDING_REPAIRS) {
+                staleRanges.add(range);
+            }
+        }
+
+        return new ArrayList<>(buckets.values());
+    }
+
+    public void rebuild(Long vehicleId, int resolution, LocalDateTime from, LocalDateTime to) {
+        Integer rows = rebuildTransaction.execute(status -> jdbcTemplate.update(
+                REBUILD_SQL,
+                resolution,
+                resolution,
+                resolution,
+                vehicleId,
+                Timestamp.valueOf(from),
+                Timestamp.valueOf(to)
+        ));
+
+        log.debug("GPS rollups {}s rebuilt for vehicle {} [{} - {}): {} buckets", resolution, vehicleId, from, to, rows);
+    }
+
+    // Réécrit les plages relevées incomplètes à la lecture, chacune dans sa transaction.
+    @Scheduled(fixedDelayString = "${gps.rollups.repair-interval-ms:60000}")
+    public void repairStale() {
+        if (staleRanges.isEmpty()) {
+            return;
+        }
+
+        List<StaleRange> ranges = new ArrayList<>(staleRanges);
+        ranges.forEach(staleRanges::remove);
+
+        for (StaleRange range : ranges) {
+            try {
+                rebuild(range.vehicleId(), range.resolution(), range.from(), range.to());
+            } catch (Exception e) {
+                log.warn("GPS rollups {}s repair failed for vehicle {} [{} - {}): {}",
+                        range.resolution(), range.vehicleId(), range.from(), range.to(), e.getMessage());
+            }
+        }
+    }
+
+    // Le palier le plus grossier est conservé ; les paliers fins suivent fine-retention-days.
+    @Scheduled(cron = "${gps.rollups.prune-cron:0 30 3 * * *}")
+    public void prune() {
+        if (fineRetentionDays <= 0 || resolutions.length < 2) {
+            return;
+        }
+
+        LocalDateTime before = LocalDateTime.now().minusDays(fineRetentionDays);
+
+        for (int i = 0; i < resolutions.length - 1; i++) {
+            int resolution = resolutions[i];
+
+            try {
+                Integer deleted = rebuildTransaction.execute(status -> gpsRollupRepository.deleteOlderThan(resolution, before));
+                log.info("GPS rollups {}s: {} buckets older than {} days pruned", resolution, deleted, fineRetentionDays);
+            } catch (Exception e) {
+                log.warn("GPS rollups {}s prune failed: {}", resolution, e.getMessage());
+            }
+        }
+    }
+
+    private boolean isRetained(int resolution, LocalDateTime from) {
+        return fineRetentionDays <= 0
+                || resolution == resolutions[resolutions.length - 1]
+                || !from.isBefore(LocalDateTime.now().minusDays(fineRetentionDays));
+    }
+
+    private static LocalDateTime bucketStart(LocalDateTime timestamp, int resolution) {
+        long epoch = timestamp.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epoch, resolution) * resolution, 0, ZoneOffset.UTC);
+    }
+
+    // Buckets incomplets consécutifs regroupés en plages [from, to).
+    private static List<StaleRange> gapRanges(Long vehicleId, int resolution, List<LocalDateTime> stale) {
+        Collections.sort(stale);
+
+        List<StaleRange> ranges = new ArrayList<>();
+        LocalDateTime from = stale.get(0);
+        LocalDateTime to = from.plusSeconds(resolution);
+
+        for (LocalDateTime start : stale.subList(1, stale.size())) {
+            if (!start.equals(to)) {
+                ranges.add(new StaleRange(vehicleId, resolution, from, to));
+                from = start;
+            }
+            to = start.plusSeconds(resolution);
+        }
+
+        ranges.add(new StaleRange(vehicleId, resolution, from, to));
+
+        if (ranges.size() > MAX_GAP_READS) {
+            return List.of(new StaleRange(vehicleId, resolution, ranges.get(0).from(), to));
+        }
+
+        return ranges;
+    }
+
+    private static String bucketExpression(String alias) {
+        return "timestamp 'epoch' + ((floor(extract(epoch from " + alias + ".\"timestamp\") / ?) * ?)::double precision)"
+                + " * interval '1 second'";
+    }
+
+    private void bind(PreparedStatement ps, BucketKey key, Bucket bucket) throws SQLException {
+        ps.setLong(1, key.vehicleId());
+        ps.setInt(2, key.resolution());
+        ps.setTimestamp(3, Timestamp.valueOf(key.start()));
+        ps.setLong(4, bucket.count);
+        ps.setTimestamp(5, Timestamp.valueOf(bucket.first));
+
+        GpsData last = bucket.last;
+        ps.setTimestamp(6, Timestamp.valueOf(last.getTimestamp()));
+        ps.setDouble(7, last.getLatitude());
+        ps.setDouble(8, last.getLongitude());
+        ps.setObject(9, last.getSpeed(), Types.DOUBLE);
+        ps.setObject(10, last.getEngineOn(), Types.BOOLEAN);
+        ps.setObject(11, last.getRouteId(), Types.VARCHAR);
+        ps.setObject(12, last.getRouteSource(), Types.VARCHAR);
+        ps.setObject(13, last.getMissionId(), Types.BIGINT);
+        ps.setObject(14, last.getFuelLevel(), Types.DOUBLE);
+
+        ps.setDouble(15, bucket.speedSum);
+        ps.setObject(16, bucket.maxSpeed, Types.DOUBLE);
+        ps.setDouble(17, bucket.rpmSum);
+        ps.setLong(18, bucket.rpmCount);
+        ps.setObject(19, bucket.maxRpm, Types.INTEGER);
+        ps.setObject(20, bucket.minFuelLevel, Types.DOUBLE);
+        ps.setDouble(21, bucket.temperatureSum);
+        ps.setLong(22, bucket.temperatureCount);
+        ps.setObject(23, bucket.maxTemperature, Types.DOUBLE);
+        ps.setDouble(24, bucket.batterySum);
+        ps.setLong(25, bucket.batteryCount);
+        ps.setObject(26, bucket.minBatteryVoltage, Types.DOUBLE);
+        ps.setDouble(27, bucket.loadSum);
+        ps.setLong(28, bucket.loadCount);
+        ps.setLong(29, bucket.checkEngineCount);
+    }
+
+    private static String mergeAssignments() {
+        List<String> assignments = new ArrayList<>();
+
+        // Les expressions lisent l'ancienne ligne (r) : l'ordre des affectations est sans effet.
+        for (String column : LAST_COLUMNS) {
+            assignments.add(column + " = case when excluded.last_timestamp >= r.last_timestamp then excluded."
+                    + column + " else r." + column + " end");
+        }
+
+        assignments.add("last_timestamp = greatest(r.last_timestamp, excluded.last_timestamp)");
+
+        SUM_COLUMNS.forEach(column -> assignments.add(column + " = r." + column + " + excluded." + column));
+        MAX_COLUMNS.forEach(column -> assignments.add(column + " = greatest(r." + column + ", excluded." + column + ")"));
+        MIN_COLUMNS.forEach(column -> assignments.add(column + " = least(r." + column + ", excluded." + column + ")"));
+
+        return String.join(", ", assignments);
+    }
+
+    private static String replaceAssignments() {
+        return Arrays.stream(COLUMNS.split(","))
+                .map(String::trim)
+                .filter(column -> !column.equals("vehicle_id")
+                        && !column.equals("resolution_seconds")
+                        && !column.equals("bucket_start"))
+                .map(column -> column + " = excluded." + column)
+                .collect(Collectors.joining(", "));
+    }
+
+    private record StaleRange(Long vehicleId, int resolution, LocalDateTime from, LocalDateTime to) {
+    }
+
+    private record BucketKey(Long vehicleId, int resolution, LocalDateTime start) implements Comparable<BucketKey> {
+
+        @Override
+        public int compareTo(BucketKey other) {
+            int byVehicle = vehicleId.compareTo(other.vehicleId);
+            if (byVehicle != 0) return byVehicle;
+
+            int byResolution = Integer.compare(resolution, other.resolution);
+            if (byResolution != 0) return byResolution;
+
+            return start.compareTo(other.start);
+        }
+    }
+
+    private static final class Bucket {
+
+        private long count;
+        private LocalDateTime first;
+        private GpsData last;
+
+        private double speedSum;
+        private Double maxSpeed;
+        private double rpmSum;
+        private long rpmCount;
+        private Integer maxRpm;
+        private Double minFuelLevel;
+        private double temperatureSum;
+        private long temperatureCount;
+        private Double maxTemperature;
+        private double batterySum;
+        private long batteryCount;
+        private Double minBatteryVoltage;
+        private double loadSum;
+        private long loadCount;
+        private long checkEngineCount;
+
+        private void add(GpsData gps) {
+            count++;
+
+            if (first == null || gps.getTimestamp().isBefore(first)) {
+                first = gps.getTimestamp();
+            }
+
+            if (last == null || !gps.getTimestamp().isBefore(last.getTimestamp())) {
+                last = gps;
+            }
+
+            if (gps.getSpeed() != null) {
+                speedSum += gps.getSpeed();
+                maxSpeed = maxSpeed == null ? gps.getSpeed() : Math.max(maxSpeed, gps.getSpeed());
+            }
+
+            if (gps.getEngineRpm() != null) {
+                rpmSum += gps.getEngineRpm();
+                rpmCount++;
+                maxRpm = maxRpm == null ? gps.getEngineRpm() : Math.max(maxRpm, gps.getEngineRpm());
+            }
+
+            if (gps.getFuelLevel() != null) {
+                minFuelLevel = minFuelLevel == null ? gps.getFuelLevel() : Math.min(minFuelLevel, gps.getFuelLevel());
+            }
+
+            if (gps.getEngineTemperature() != null) {
+                temperatureSum += gps.getEngineTemperature();
+                temperatureCount++;
+                maxTemperature = maxTemperature == null
+                        ? gps.getEngineTemperature()
+                        : Math.max(maxTemperature, gps.getEngineTemperature());
+            }
+
+            if (gps.getBatteryVoltage() != null) {
+                batterySum += gps.getBatteryVoltage();
+                batteryCount++;
+                minBatteryVoltage = minBatteryVoltage == null
+                        ? gps.getBatteryVoltage()
+                        : Math.min(minBatteryVoltage, gps.getBatteryVoltage());
+            }
+
+            if (gps.getEngineLoad() != null) {
+                loadSum += gps.getEngineLoad();
+                loadCount++;
+            }
+
+            if (Boolean.TRUE.equals(gps.getCheckEngineOn())) {
+                checkEngineCount++;
+            }
+        }
+    }
+}
@@ -7,11 +7,16 @@ public class GpsStatusResult {
     private final LiveStatus liveStatus;
     private final boolean offRoute;
     private final boolean missionCompleted;
+    private final RouteProgress routeProgress;
 
-    public GpsStatusResult(LiveStatus liveStatus, boolean offRoute, boolean missionCompleted) {
+    public GpsStatusResult(LiveStatus liveStatus,
+                           boolean offRoute,
+                           boolean missionCompleted,
+                           RouteProgress routeProgress) {
         this.liveStatus = liveStatus;
         this.offRoute = offRoute;
         this.missionCompleted = missionCompleted;
+        this.routeProgress = routeProgress;
     }
 
     public LiveStatus getLiveStatus() {
@@ -25,4 +30,8 @@ public class GpsStatusResult {
     public boolean isMissionCompleted() {
         return missionCompleted;
     }
+
+    public RouteProgress getRouteProgress() {
+        return routeProgress;
+    }
 }
\ No newline at end of file
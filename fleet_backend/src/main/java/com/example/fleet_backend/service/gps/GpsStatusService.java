@@ -1,6 +1,5 @@
 package com.example.fleet_backend.service.gps;
 
-import com.example.fleet_backend.dto.MissionRoutePointDTO;
 import com.example.fleet_backend.model.GpsData;
 import com.example.fleet_backend.model.LiveStatus;
 import com.example.fleet_backend.service.ObdAnalysisService;
@@ -9,37 +8,50 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
 public class GpsStatusService {
 
     private final double finishRadiusMeters;
     private final long offlineThresholdMinutes;
-    private final RouteDeviationService routeDeviationService;
+    private final RouteProgressService routeProgressService;
     private final ObdAnalysisService obdAnalysisService;
 
-    public GpsStatusService(RouteDeviationService routeDeviationService,
+    public GpsStatusService(RouteProgressService routeProgressService,
                             ObdAnalysisService obdAnalysisService,
                             @Value("${gps.finish-radius-meters:30}") double finishRadiusMeters,
                             @Value("${gps.offline-threshold-minutes:5}") long offlineThresholdMinutes) {
-        this.routeDeviationService = routeDeviationService;
+        this.routeProgressService = routeProgressService;
         this.obdAnalysisService = obdAnalysisService;
         this.finishRadiusMeters = finishRadiusMeters;
         this.offlineThresholdMinutes = offlineThresholdMinutes;
     }
 
-    public GpsStatusResult evaluate(GpsData gpsData,
-                                    boolean missionActive,
-                                    List<MissionRoutePointDTO> route) {
-        boolean offRoute = missionActive
-                && routeDeviationService.isOffRoute(gpsData.getLatitude(), gpsData.getLongitude(), route);
+    public GpsStatusResult evaluate(GpsData gpsData, ActiveMissionContext context) {
+        boolean missionActive = context != null && context.isMissionActive();
+        Long vehicleId = gpsData.getVehicle() != null ? gpsData.getVehicle().getId() : null;
+
+        RouteProgress routeProgress = null;
+
+        if (missionActive) {
+            routeProgress = routeProgressService.track(
+                    vehicleId,
+                    context.getMissionId(),
+                    context.getCompiledRoute(),
+                    gpsData.getLatitude(),
+                    gpsData.getLongitude()
+            );
+        } else {
+            routeProgressService.forget(vehicleId);
+        }
+
+        boolean offRoute = routeProgress != null && routeProgress.isOffRoute();
 
         boolean missionCompleted = missionActive
-                && isNearLastPoint(gpsData.getLatitude(), gpsData.getLongitude(), route);
+                && isNearLastPoint(gpsData.getLatitude(), gpsData.getLongitude(), context.getCompiledRoute());
 
         LiveStatus liveStatus = computeLiveStatus(gpsData, missionActive, offRoute, missionCompleted);
-        return new GpsStatusResult(liveStatus, offRoute, missionCompleted);
+        return new GpsStatusResult(liveStatus, offRoute, missionCompleted, routeProgress);
     }
 
     public String computeObdStatus(GpsData gpsData) {
@@ -68,11 +80,10 @@ public class GpsStatusService {
         return LiveStatus.MOVING;
     }
 
-    private boolean isNearLastPoint(Double lat, Double lng, List<MissionRoutePointDTO> route) {
+    private boolean isNearLastPoint(Double lat, Double lng, CompiledRoute route) {
         if (route == null || route.isEmpty() || lat == null || lng == null) return false;
-        MissionRoutePointDTO last = route.get(route.size() - 1);
-        if (last.getLatitude() == null || last.getLongitude() == null) return false;
-        return distanceMeters(lat, lng, last.getLatitude(), last.getLongitude()) <= finishRadiusMeters;
+        if (!route.hasLastPoint()) return false;
+        return distanceMeters(lat, lng, route.getLastLatitude(), route.getLastLongitude()) <= finishRadiusMeters;
     }
 
     private double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
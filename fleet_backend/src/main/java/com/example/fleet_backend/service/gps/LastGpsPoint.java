@@ -0,0 +1,144 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.model.GpsData;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+public final class LastGpsPoint {
+
+    private static final int NO_RPM = Integer.MIN_VALUE;
+    private static final byte NO_FLAG = -1;
+
+    private final long vehicleId;
+    private final long timestampMillis;
+    private final double latitude;
+    private final double longitude;
+    private final double speed;
+    private final boolean engineOn;
+    private final int engineRpm;
+    private final double fuelLevel;
+    private final double engineTemperature;
+    private final double batteryVoltage;
+    private final double engineLoad;
+    private final byte checkEngineOn;
+
+    private LastGpsPoint(long vehicleId,
+                         long timestampMillis,
+                         double latitude,
+                         double longitude,
+                         double speed,
+                         boolean engineOn,
+                         int engineRpm,
+                         double fuelLevel,
+                         double engineTemperature,
+                         double batteryVoltage,
+                         double engineLoad,
+                         byte checkEngineOn) {
+        this.vehicleId = vehicleId;
+        this.timestampMillis = timestampMillis;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.speed = speed;
+        this.engineOn = engineOn;
+        this.engineRpm = engineRpm;
+        this.fuelLevel = fuelLevel;
+        this.engineTemperature = engineTemperature;
+        this.batteryVoltage = batteryVoltage;
+        this.engineLoad = engineLoad;
+        this.checkEngineOn = checkEngineOn;
+    }
+
+    public static LastGpsPoint from(long vehicleId, GpsData gps) {
+        return new LastGpsPoint(
+                vehicleId,
+                toMillis(gps.getTimestamp()),
+                orNaN(gps.getLatitude()),
+                orNaN(gps.getLongitude()),
+                orNaN(gps.getSpeed()),
+                gps.isEngineOn(),
+                gps.getEngineRpm() != null ? gps.getEngineRpm() : NO_RPM,
+                orNaN(gps.getFuelLevel()),
+                orNaN(gps.getEngineTemperature()),
+                orNaN(gps.getBatteryVoltage()),
+                orNaN(gps.getEngineLoad()),
+                gps.getCheckEngineOn() == null ? NO_FLAG : (byte) (gps.getCheckEngineOn() ? 1 : 0)
+        );
+    }
+
+    public GpsData toGpsData() {
+        GpsData gps = new GpsData();
+
+        gps.setLatitude(orNull(latitude));
+        gps.setLongitude(orNull(longitude));
+        gps.setSpeed(orNull(speed));
+        gps.setEngineOn(engineOn);
+        gps.setTimestamp(getTimestamp());
+        gps.setEngineRpm(engineRpm != NO_RPM ? engineRpm : null);
+        gps.setFuelLevel(orNull(fuelLevel));
+        gps.setEngineTemperature(orNull(engineTemperature));
+        gps.setBatteryVoltage(orNull(batteryVoltage));
+        gps.setEngineLoad(orNull(engineLoad));
+        gps.setCheckEngineOn(checkEngineOn == NO_FLAG ? null : checkEngineOn == 1);
+
+        return gps;
+    }
+
+    public boolean isNewerOrSameAs(LastGpsPoint other) {
+        return other == null || timestampMillis >= other.timestampMillis;
+    }
+
+    public long getVehicleId() {
+        return vehicleId;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestampMillis == Long.MIN_VALUE
+                ? null
+                : LocalDateTime.ofEpochSecond(
+                        Math.floorDiv(timestampMillis, 1000L),
+                        (int) Math.floorMod(timestampMillis, 1000L) * 1_000_000,
+                        ZoneOffset.UTC
+                );
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public boolean isEngineOn() {
+        return engineOn;
+    }
+
+    public boolean hasPosition() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        if (timestamp == null) {
+            return Long.MIN_VALUE;
+        }
+
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1000L + timestamp.getNano() / 1_000_000;
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.model.GpsData;
+import com.example.fleet_backend.repository.GpsDataRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class LastGpsPointStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LastGpsPointStore.class);
+
+    private final GpsDataRepository gpsDataRepository;
+    private final ConcurrentHashMap<Long, LastGpsPoint> lastPoints = new ConcurrentHashMap<>();
+
+    private volatile boolean warmed;
+
+    public LastGpsPointStore(GpsDataRepository gpsDataRepository) {
+        this.gpsDataRepository = gpsDataRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+
+        for (GpsData gps : gpsDataRepository.findLatestPerVehicle()) {
+            if (gps.getVehicle() != null && gps.getVehicle().getId() != null) {
+                put(gps.getVehicle().getId(), gps);
+            }
+        }
+
+        warmed = true;
+
+        log.info("Last GPS point store warmed with {} vehicles in {} ms",
+                lastPoints.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    public Optional<LastGpsPoint> find(Long vehicleId) {
+        if (vehicleId == null) {
+            return Optional.empty();
+        }
+
+        LastGpsPoint point = lastPoints.get(vehicleId);
+
+        if (point != null || warmed) {
+            return Optional.ofNullable(point);
+        }
+
+        return gpsDataRepository.findTopByVehicleIdOrderByTimestampDesc(vehicleId)
+                .map(gps -> put(vehicleId, gps));
+    }
+
+    public GpsData findPreviousGps(Long vehicleId) {
+        return find(vehicleId).map(LastGpsPoint::toGpsData).orElse(null);
+    }
+
+    public void recordAfterCommit(Long vehicleId, GpsData gps) {
+        if (vehicleId == null || gps == null) {
+            return;
+        }
+
+        mergeAfterCommit(List.of(LastGpsPoint.from(vehicleId, gps)));
+    }
+
+    public void recordAllAfterCommit(Collection<GpsData> points) {
+        List<LastGpsPoint> snapshots = new ArrayList<>(points.size());
+
+        for (GpsData gps : points) {
+            if (gps != null && gps.getVehicle() != null && gps.getVehicle().getId() != null) {
+                snapshots.add(LastGpsPoint.from(gps.getVehicle().getId(), gps));
+            }
+        }
+
+        mergeAfterCommit(snapshots);
+    }
+
+    private void mergeAfterCommit(List<LastGpsPoint> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            snapshots.forEach(this::merge);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                snapshots.forEach(LastGpsPointStore.this::merge);
+            }
+        });
+    }
+
+    public void evict(Long vehicleId) {
+        if (vehicleId != null) {
+            lastPoints.remove(vehicleId);
+        }
+    }
+
+    private LastGpsPoint put(Long vehicleId, GpsData gps) {
+        LastGpsPoint point = LastGpsPoint.from(vehicleId, gps);
+        merge(point);
+        return point;
+    }
+
+    private void merge(LastGpsPoint point) {
+        lastPoints.merge(
+                point.getVehicleId(),
+                point,
+                (existing, candidate) -> candidate.isNewerOrSameAs(existing) ? candidate : existing
+        );
+    }
+}
@@ -5,75 +5,76 @@ import com.example.fleet_backend.model.LiveStatus;
 import com.example.fleet_backend.model.Vehicle;
 import com.example.fleet_backend.model.VehicleHealthState;
 import com.example.fleet_backend.model.VehicleLiveState;
-import com.example.fleet_backend.repository.VehicleLiveStateRepository;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 @Service
-@Transactional
 public class LiveStateService {
 
-    private final VehicleLiveStateRepository vehicleLiveStateRepository;
+    private final LiveStateStore liveStateStore;
 
-    public LiveStateService(VehicleLiveStateRepository vehicleLiveStateRepository) {
-        this.vehicleLiveStateRepository = vehicleLiveStateRepository;
+    public LiveStateService(LiveStateStore liveStateStore) {
+        this.liveStateStore = liveStateStore;
     }
 
-    public void updateLiveState(Vehicle vehicle,
-                                GpsData gpsData,
-                                LiveStatus liveStatus,
-                                ActiveMissionContext context,
-                                String obdStatus,
-                                VehicleHealthState healthState,
-                                String healthReason) {
-        VehicleLiveState state = vehicleLiveStateRepository.findByVehicleId(vehicle.getId())
-                .orElseGet(VehicleLiveState::new);
-
-        state.setVehicle(vehicle);
-
-        state.setLatitude(gpsData.getLatitude());
-        state.setLongitude(gpsData.getLongitude());
-        state.setSpeed(gpsData.getSpeed());
-        state.setEngineOn(gpsData.isEngineOn());
-        state.setLastTimestamp(gpsData.getTimestamp());
-        state.setLiveStatus(liveStatus);
-
-        state.setMissionId(context.getMissionId());
-        state.setMissionStatus(context.getMissionStatus());
-        state.setDriverId(context.getDriverId());
-        state.setDriverName(context.getDriverName());
-
-        state.setRouteId(gpsData.getRouteId());
-        state.setRouteSource(gpsData.getRouteSource());
-
-        state.setEngineRpm(gpsData.getEngineRpm());
-        state.setFuelLevel(gpsData.getFuelLevel());
-        state.setEngineTemperature(gpsData.getEngineTemperature());
-        state.setBatteryVoltage(gpsData.getBatteryVoltage());
-        state.setEngineLoad(gpsData.getEngineLoad());
-        state.setCheckEngineOn(gpsData.getCheckEngineOn());
-        state.setObdStatus(obdStatus);
-
-        state.setHealthState(healthState);
-        state.setHealthReason(healthReason);
-        state.setObdLastTimestamp(gpsData.getTimestamp());
+    public VehicleLiveState updateLiveState(Vehicle vehicle,
+                                            GpsData gpsData,
+                                            LiveStatus liveStatus,
+                                            ActiveMissionContext context,
+                                            RouteProgress routeProgress,
+                                            String obdStatus,
+                                            VehicleHealthState healthState,
+                                            String healthReason) {
+        return liveStateStore.upsert(vehicle.getId(), state -> {
+            state.setLatitude(gpsData.getLatitude());
+            state.setLongitude(gpsData.getLongitude());
+            state.setSpeed(gpsData.getSpeed());
+            state.setEngineOn(gpsData.isEngineOn());
+            state.setLastTimestamp(gpsData.getTimestamp());
+            state.setLiveStatus(liveStatus);
+
+            state.setMissionId(context.getMissionId());
+            state.setMissionStatus(context.getMissionStatus());
+            state.setDriverId(context.getDriverId());
+            state.setDriverName(context.getDriverName());
+
+            state.setRouteProgressPercent(routeProgress != null ? routeProgress.getPercentComplete() : null);
+            state.setRouteRemainingKm(routeProgress != null ? routeProgress.getRemainingKm() : null);
+
+            state.setRouteId(gpsData.getRouteId());
+            state.setRouteSource(gpsData.getRouteSource());
+
+            state.setEngineRpm(gpsData.getEngineRpm());
+            state.setFuelLevel(gpsData.getFuelLevel());
+            state.setEngineTemperature(gpsData.getEngineTemperature());
+            state.setBatteryVoltage(gpsData.getBatteryVoltage());
+            state.setEngineLoad(gpsData.getEngineLoad());
+            state.setCheckEngineOn(gpsData.getCheckEngineOn());
+            state.setObdStatus(obdStatus);
+
+            state.setHealthState(healthState);
+            state.setHealthReason(healthReason);
+            state.setObdLastTimestamp(gpsData.getTimestamp());
+        });
+    }
 
-        vehicleLiveStateRepository.save(state);
+    public Optional<VehicleLiveState> findLiveState(Long vehicleId) {
+        return liveStateStore.find(vehicleId);
     }
 
     public void clearLiveMissionContext(Long vehicleId) {
-        VehicleLiveState state = vehicleLiveStateRepository.findByVehicleId(vehicleId).orElse(null);
-        if (state == null) return;
-
-        state.setMissionId(null);
-        state.setMissionStatus(null);
-        state.setDriverId(null);
-        state.setDriverName(null);
-
-        if (state.getLiveStatus() == LiveStatus.MISSION_COMPLETED) {
-            state.setLiveStatus(state.isEngineOn() ? LiveStatus.STOPPED : LiveStatus.ENGINE_OFF);
-        }
-
-        vehicleLiveStateRepository.save(state);
+        liveStateStore.updateIfPresent(vehicleId, state -> {
+            state.setMissionId(null);
+            state.setMissionStatus(null);
+            state.setDriverId(null);
+            state.setDriverName(null);
+            state.setRouteProgressPercent(null);
+            state.setRouteRemainingKm(null);
+
+            if (state.getLiveStatus() == LiveStatus.MISSION_COMPLETED) {
+                state.setLiveStatus(state.isEngineOn() ? LiveStatus.STOPPED : LiveStatus.ENGINE_OFF);
+            }
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,331 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.model.Vehicle;
+import com.example.fleet_backend.model.VehicleLiveState;
+import com.example.fleet_backend.repository.VehicleLiveStateRepository;
+import com.example.fleet_backend.repository.VehicleRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+@Service
+public class LiveStateStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveStateStore.class);
+
+    private final VehicleLiveStateRepository vehicleLiveStateRepository;
+    private final VehicleRepository vehicleRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<Long, VehicleLiveState> states = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyVehicleIds = ConcurrentHashMap.newKeySet();
+    private final Object pendingKey = new Object();
+
+    // Date (ms) de la dernière lecture en base ou écriture locale, absents compris.
+    private final ConcurrentHashMap<Long, Long> refreshedAt = new ConcurrentHashMap<>();
+
+    // Au-delà, un état non modifié localement est relu en base : les points d'un véhicule peuvent être
+    // ingérés par une autre instance. 0 : jamais (instance unique).
+    private final long maxAgeMs;
+
+    private volatile boolean warmed;
+
+    public LiveStateStore(VehicleLiveStateRepository vehicleLiveStateRepository,
+                          VehicleRepository vehicleRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${gps.live-state.max-age-ms:10000}") long maxAgeMs) {
+        this.vehicleLiveStateRepository = vehicleLiveStateRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long now = System.currentTimeMillis();
+
+        for (VehicleLiveState row : vehicleLiveStateRepository.findAll()) {
+            if (row.getVehicle() != null && row.getVehicle().getId() != null) {
+                Long vehicleId = row.getVehicle().getId();
+                refreshedAt.putIfAbsent(vehicleId, now);
+                states.putIfAbsent(vehicleId, snapshotOf(row));
+            }
+        }
+
+        warmed = true;
+
+        log.info("Live state store warmed with {} vehicles", states.size());
+    }
+
+    public Optional<VehicleLiveState> find(Long vehicleId) {
+        if (vehicleId == null) {
+            return Optional.empty();
+        }
+
+        PendingMutations pending = currentPending(false);
+
+        if (pending != null && pending.staged.containsKey(vehicleId)) {
+            return Optional.of(pending.staged.get(vehicleId));
+        }
+
+        VehicleLiveState state = states.get(vehicleId);
+
+        if (!needsRefresh(vehicleId, state)) {
+            return Optional.ofNullable(state);
+        }
+
+        return loadFromDatabase(vehicleId);
+    }
+
+    public VehicleLiveState upsert(Long vehicleId, Consumer<VehicleLiveState> mutator) {
+        if (needsRefresh(vehicleId, states.get(vehicleId))) {
+            loadFromDatabase(vehicleId);
+        }
+
+        PendingMutations pending = currentPending(true);
+
+        if (pending == null) {
+            return apply(vehicleId, mutator, false);
+        }
+
+        VehicleLiveState next = mutated(find(vehicleId).orElse(null), mutator);
+        pending.stage(vehicleId, next, mutator, false);
+        return next;
+    }
+
+    public Optional<VehicleLiveState> updateIfPresent(Long vehicleId, Consumer<VehicleLiveState> mutator) {
+        Optional<VehicleLiveState> current = find(vehicleId);
+
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+
+        PendingMutations pending = currentPending(true);
+
+        if (pending == null) {
+            return Optional.ofNullable(apply(vehicleId, mutator, true));
+        }
+
+        VehicleLiveState next = mutated(current.get(), mutator);
+        pending.stage(vehicleId, next, mutator, true);
+        return Optional.of(next);
+    }
+
+    public int getDirtyCount() {
+        return dirtyVehicleIds.size();
+    }
+
+    @Scheduled(fixedDelayString = "${gps.live-state.flush-interval-ms:2000}")
+    public void flush() {
+        if (dirtyVehicleIds.isEmpty()) {
+            return;
+        }
+
+        List<Long> vehicleIds = new ArrayList<>(dirtyVehicleIds.size());
+        Iterator<Long> iterator = dirtyVehicleIds.iterator();
+
+        while (iterator.hasNext()) {
+            vehicleIds.add(iterator.next());
+            iterator.remove();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeRows(vehicleIds));
+        } catch (Exception e) {
+            log.warn("Live state bulk flush of {} vehicles failed, retrying one by one: {}",
+                    vehicleIds.size(), e.getMessage());
+
+            for (Long vehicleId : vehicleIds) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> writeRows(List.of(vehicleId)));
+                } catch (Exception single) {
+                    // Remis en file : l'état repartira au prochain passage.
+                    dirtyVehicleIds.add(vehicleId);
+                    log.warn("Live state flush failed for vehicle {}: {}", vehicleId, single.getMessage());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void writeRows(List<Long> vehicleIds) {
+        Map<Long, VehicleLiveState> rows = new HashMap<>();
+
+        for (VehicleLiveState row : vehicleLiveStateRepository.findByVehicleIdIn(vehicleIds)) {
+            rows.put(row.getVehicle().getId(), row);
+        }
+
+        List<VehicleLiveState> toSave = new ArrayList<>(vehicleIds.size());
+
+        for (Long vehicleId : vehicleIds) {
+            VehicleLiveState snapshot = states.get(vehicleId);
+            if (snapshot == null) {
+                continue;
+            }
+
+            VehicleLiveState row = rows.get(vehicleId);
+
+            if (row == null) {
+                row = new VehicleLiveState();
+                row.copyFrom(snapshot);
+                row.setVehicle(vehicleRepository.getReferenceById(vehicleId));
+            } else {
+                Vehicle managedVehicle = row.getVehicle();
+                row.copyFrom(snapshot);
+                row.setVehicle(managedVehicle);
+            }
+
+            toSave.add(row);
+        }
+
+        vehicleLiveStateRepository.saveAll(toSave);
+    }
+
+    private boolean needsRefresh(Long vehicleId, VehicleLiveState state) {
+        if (maxAgeMs <= 0) {
+            return state == null && !warmed;
+        }
+
+        // Modifications locales pas encore écrites : la mémoire est plus récente que la base.
+        if (dirtyVehicleIds.contains(vehicleId)) {
+            return false;
+        }
+
+        Long at = refreshedAt.get(vehicleId);
+
+        return at == null ? state == null || !warmed : System.currentTimeMillis() - at > maxAgeMs;
+    }
+
+    private Optional<VehicleLiveState> loadFromDatabase(Long vehicleId) {
+        Long before = refreshedAt.get(vehicleId);
+        VehicleLiveState snapshot = vehicleLiveStateRepository.findByVehicleId(vehicleId)
+                .map(this::snapshotOf)
+                .orElse(null);
+
+        VehicleLiveState result = states.compute(vehicleId, (id, current) -> {
+            // Écriture locale pendant la lecture, ou ligne plus ancienne que la mémoire : la mémoire est gardée.
+            if (dirtyVehicleIds.contains(id) || !Objects.equals(refreshedAt.get(id), before)) {
+                return current;
+            }
+
+            refreshedAt.put(id, System.currentTimeMillis());
+
+            if (snapshot == null || (current != null && isOlder(snapshot, current))) {
+                return current;
+            }
+
+            return snapshot;
+        });
+
+        return Optional.ofNullable(result);
+    }
+
+    private boolean isOlder(VehicleLiveState candidate, VehicleLiveState current) {
+        return candidate.getLastTimestamp() != null
+                && current.getLastTimestamp() != null
+                && candidate.getLastTimestamp().isBefore(current.getLastTimestamp());
+    }
+
+    private VehicleLiveState snapshotOf(VehicleLiveState row) {
+        return mutated(row, state -> {
+        });
+    }
+
+    // Les instantanés partagés ne gardent que des valeurs : pas de proxy Vehicle rattaché à une session close.
+    private VehicleLiveState mutated(VehicleLiveState current, Consumer<VehicleLiveState> mutator) {
+        VehicleLiveState next = new VehicleLiveState();
+
+        if (current != null) {
+            next.copyFrom(current);
+        }
+
+        mutator.accept(next);
+        next.setVehicle(null);
+        return next;
+    }
+
+    private VehicleLiveState apply(Long vehicleId, Consumer<VehicleLiveState> mutator, boolean presentOnly) {
+        VehicleLiveState updated = presentOnly
+                ? states.computeIfPresent(vehicleId, (id, current) -> touched(id, mutated(current, mutator)))
+                : states.compute(vehicleId, (id, current) -> touched(id, mutated(current, mutator)));
+
+        if (updated != null) {
+            dirtyVehicleIds.add(vehicleId);
+        }
+
+        return updated;
+    }
+
+    private VehicleLiveState touched(Long vehicleId, VehicleLiveState state) {
+        refreshedAt.put(vehicleId, System.currentTimeMillis());
+        return state;
+    }
+
+    // Mutations d'une transaction : visibles d'elle seule, rejouées sur l'état partagé après validation.
+    private PendingMutations currentPending(boolean create) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+
+        PendingMutations pending = (PendingMutations) TransactionSynchronizationManager.getResource(pendingKey);
+
+        if (pending != null || !create) {
+            return pending;
+        }
+
+        PendingMutations created = new PendingMutations();
+        TransactionSynchronizationManager.bindResource(pendingKey, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (Mutation mutation : created.mutations) {
+                    apply(mutation.vehicleId(), mutation.mutator(), mutation.presentOnly());
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+            }
+        });
+
+        return created;
+    }
+
+    private record Mutation(Long vehicleId, Consumer<VehicleLiveState> mutator, boolean presentOnly) {
+    }
+
+    private static final class PendingMutations {
+        private final Map<Long, VehicleLiveState> staged = new HashMap<>();
+        private final List<Mutation> mutations = new ArrayList<>();
+
+        void stage(Long vehicleId, VehicleLiveState state, Consumer<VehicleLiveState> mutator, boolean presentOnly) {
+            staged.put(vehicleId, state);
+            mutations.add(new Mutation(vehicleId, mutator, presentOnly));
+        }
+    }
+}
@@ -3,21 +3,42 @@ package com.example.fleet_backend.service.gps;
 import com.example.fleet_backend.model.Mission;
 import com.example.fleet_backend.model.Vehicle;
 import com.example.fleet_backend.repository.MissionRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class MissionTrackingService {
 
     private final MissionRepository missionRepository;
     private final RouteParsingService routeParsingService;
+    private final RouteDeviationService routeDeviationService;
+    private final long contextMaxAgeMs;
+
+    // Contexte mission actif par véhicule (vide compris), route déjà parsée et indexée.
+    private final ConcurrentHashMap<Long, CachedContext> contexts = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Dernière route compilée par véhicule, gardée au rechargement du contexte : même instance tant que
+    // la mission et son tracé n'ont pas changé, les curseurs de progression restent valides.
+    private final ConcurrentHashMap<Long, CachedRoute> routes = new ConcurrentHashMap<>();
 
     public MissionTrackingService(MissionRepository missionRepository,
-                                  RouteParsingService routeParsingService) {
+                                  RouteParsingService routeParsingService,
+                                  RouteDeviationService routeDeviationService,
+                                  @Value("${gps.mission-context.max-age-ms:300000}") long contextMaxAgeMs) {
         this.missionRepository = missionRepository;
         this.routeParsingService = routeParsingService;
+        this.routeDeviationService = routeDeviationService;
+        this.contextMaxAgeMs = contextMaxAgeMs;
     }
 
     public ActiveMissionContext getActiveMissionContext(Vehicle vehicle) {
@@ -25,12 +46,70 @@ public class MissionTrackingService {
             return ActiveMissionContext.empty();
         }
 
+        Long vehicleId = vehicle.getId();
+        long now = System.currentTimeMillis();
+
+        CachedContext cached = contexts.get(vehicleId);
+
+        if (cached != null && (contextMaxAgeMs <= 0 || now - cached.loadedAt() < contextMaxAgeMs)) {
+            return cached.context();
+        }
+
+        long epoch = invalidations.get();
+        ActiveMissionContext context = loadActiveMissionContext(vehicleId);
+        CachedContext entry = new CachedContext(context, now);
+
+        contexts.put(vehicleId, entry);
+
+        // Une invalidation pendant le chargement rend l'entrée douteuse : on ne la garde pas.
+        if (invalidations.get() != epoch) {
+            contexts.remove(vehicleId, entry);
+        }
+
+        return context;
+    }
+
+    public void invalidate(Long vehicleId) {
+        if (vehicleId == null) {
+            return;
+        }
+
+        evict(vehicleId);
+
+        // Un point GPS concurrent peut relire l'ancien état avant le commit : on invalide aussi après.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(vehicleId);
+                }
+            });
+        }
+    }
+
+    public void invalidate(Mission mission) {
+        if (mission != null && mission.getVehicle() != null) {
+            invalidate(mission.getVehicle().getId());
+        }
+    }
+
+    public int getCachedCount() {
+        return contexts.size();
+    }
+
+    private void evict(Long vehicleId) {
+        invalidations.incrementAndGet();
+        contexts.remove(vehicleId);
+    }
+
+    private ActiveMissionContext loadActiveMissionContext(Long vehicleId) {
         Optional<Mission> activeMissionOpt = missionRepository.findFirstByVehicleIdAndStatus(
-                vehicle.getId(),
+                vehicleId,
                 Mission.MissionStatus.IN_PROGRESS
         );
 
         if (activeMissionOpt.isEmpty()) {
+            routes.remove(vehicleId);
             return ActiveMissionContext.empty();
         }
 
@@ -40,8 +119,7 @@ public class MissionTrackingService {
         String missionStatus = mission.getStatus() != null ? mission.getStatus().name() : null;
         Long driverId = mission.getDriver() != null ? mission.getDriver().getId() : null;
         String driverName = buildDriverName(mission);
-        List<com.example.fleet_backend.dto.MissionRoutePointDTO> missionRoute =
-                routeParsingService.parseMissionRoute(mission.getRouteJson());
+        CachedRoute route = routeFor(vehicleId, missionId, mission.getRouteJson());
 
         return new ActiveMissionContext(
                 mission,
@@ -50,10 +128,27 @@ public class MissionTrackingService {
                 missionStatus,
                 driverId,
                 driverName,
-                missionRoute
+                route.missionRoute(),
+                route.compiledRoute()
         );
     }
 
+    private CachedRoute routeFor(Long vehicleId, Long missionId, String routeJson) {
+        CachedRoute cached = routes.get(vehicleId);
+
+        if (cached != null && Objects.equals(cached.missionId(), missionId) && Objects.equals(cached.routeJson(), routeJson)) {
+            return cached;
+        }
+
+        List<com.example.fleet_backend.dto.MissionRoutePointDTO> missionRoute =
+                Collections.unmodifiableList(routeParsingService.parseMissionRoute(routeJson));
+
+        CachedRoute route = new CachedRoute(missionId, routeJson, missionRoute, routeDeviationService.compile(missionRoute));
+        routes.put(vehicleId, route);
+
+        return route;
+    }
+
     private String buildDriverName(Mission mission) {
         if (mission == null || mission.getDriver() == null) {
             return null;
@@ -65,4 +160,13 @@ public class MissionTrackingService {
 
         return fullName.isBlank() ? mission.getDriver().getEmail() : fullName;
     }
-}
\ No newline at end of file
+
+    private record CachedContext(ActiveMissionContext context, long loadedAt) {
+    }
+
+    private record CachedRoute(Long missionId,
+                               String routeJson,
+                               List<com.example.fleet_backend.dto.MissionRoutePointDTO> missionRoute,
+                               CompiledRoute compiledRoute) {
+    }
+}
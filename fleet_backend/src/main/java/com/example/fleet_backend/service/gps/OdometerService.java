@@ -0,0 +1,387 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.dto.DailyMileageDTO;
+import com.example.fleet_backend.model.GpsData;
+import com.example.fleet_backend.repository.VehicleDailyMileageRepository;
+import com.example.fleet_backend.service.MaintenanceService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Odomètre alimenté par le flux GPS.
+ *
+ * <p>La distance entre points consécutifs est cumulée en mémoire une fois la transaction
+ * d'ingestion validée : les déplacements sous le seuil de bruit ne font pas avancer le point
+ * d'ancrage, et les sauts à vitesse implicite impossible sont rejetés. Les cumuls sont reportés
+ * périodiquement dans {@code vehicles.mileage} (km) et {@code vehicle_daily_mileage}, puis les
+ * maintenances planifiées au kilométrage sont évaluées pour les seuls véhicules concernés.</p>
+ *
+ * <p>L'incrément avance {@code vehicles.odometer_anchor_at} dans la même requête et n'est appliqué que
+ * s'il part de cet ancrage ou après : si les points d'un véhicule se répartissent entre plusieurs
+ * instances, un intervalle déjà compté ailleurs est écarté au lieu d'être compté deux fois.</p>
+ */
+@Service
+public class OdometerService {
+
+    private static final Logger log = LoggerFactory.getLogger(OdometerService.class);
+
+    private static final double EARTH_RADIUS_METERS = 6371000.0;
+    private static final double STATIONARY_SPEED_KMH = 1.0;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LastGpsPointStore lastGpsPointStore;
+    private final VehicleDailyMileageRepository vehicleDailyMileageRepository;
+    private final MaintenanceService maintenanceService;
+
+    private final ConcurrentHashMap<Long, Odometer> odometers = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+
+    // Déplacement minimal depuis le point d'ancrage pour être compté (dérive GPS à l'arrêt).
+    private final double jitterMeters;
+
+    private final double maxSpeedKmh;
+
+    // Rejets consécutifs au-delà desquels la nouvelle position est adoptée sans distance (ancrage faux).
+    private final int reanchorAfter;
+
+    private final int defaultRangeDays;
+
+    public OdometerService(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           LastGpsPointStore lastGpsPointStore,
+                           VehicleDailyMileageRepository vehicleDailyMileageRepository,
+                           MaintenanceService maintenanceService,
+                           @Value("${gps.odometer.enabled:true}") boolean enabled,
+                           @Value("${gps.odometer.jitter-meters:25}") double jitterMeters,
+                           @Value("${gps.odometer.max-speed-kmh:200}") double maxSpeedKmh,
+                           @Value("${gps.odometer.reanchor-after:3}") int reanchorAfter,
+                           @Value("${gps.odometer.default-range-days:30}") int defaultRangeDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lastGpsPointStore = lastGpsPointStore;
+        this.vehicleDailyMileageRepository = vehicleDailyMileageRepository;
+        this.maintenanceService = maintenanceService;
+        this.enabled = enabled;
+        this.jitterMeters = jitterMeters;
+        this.maxSpeedKmh = maxSpeedKmh;
+        this.reanchorAfter = reanchorAfter;
+        this.defaultRangeDays = defaultRangeDays;
+    }
+
+    // Appelé dans la transaction d'ingestion ; les points ne comptent qu'après validation.
+    public void record(List<GpsData> points) {
+        if (!enabled || points == null || points.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<Sample>> byVehicle = new LinkedHashMap<>();
+
+        for (GpsData gps : points) {
+            if (gps.getVehicle() == null || gps.getVehicle().getId() == null || gps.getTimestamp() == null
+                    || gps.getLatitude() == null || gps.getLongitude() == null) {
+                continue;
+            }
+
+            byVehicle.computeIfAbsent(gps.getVehicle().getId(), id -> new ArrayList<>()).add(Sample.from(gps));
+        }
+
+        // Premier point d'un véhicule depuis le démarrage : ancré sur le dernier point connu avant ce lot.
+        Map<Long, Sample> anchors = new HashMap<>();
+
+        for (Long vehicleId : byVehicle.keySet()) {
+            if (!odometers.containsKey(vehicleId)) {
+                lastGpsPointStore.find(vehicleId)
+                        .filter(LastGpsPoint::hasPosition)
+                        .ifPresent(last -> anchors.put(vehicleId, new Sample(
+                                last.getTimestamp(), last.getLatitude(), last.getLongitude(), last.getSpeed(), last.isEngineOn()
+                        )));
+            }
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accumulate(byVehicle, anchors);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accumulate(byVehicle, anchors);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${gps.odometer.flush-interval-ms:30000}")
+    public void flush() {
+        Map<Long, Counted> pending = new HashMap<>();
+
+        odometers.forEach((vehicleId, odometer) -> {
+            Counted counted = odometer.drain();
+
+            if (!counted.days().isEmpty()) {
+                pending.put(vehicleId, counted);
+            }
+        });
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(pending));
+        } catch (Exception e) {
+            // Cumuls rendus aux compteurs : ils repartiront au prochain passage.
+            pending.forEach((vehicleId, counted) -> odometer(vehicleId).restore(counted));
+            log.warn("Odometer flush failed for {} vehicles: {}", pending.size(), e.getMessage());
+            return;
+        }
+
+        try {
+            maintenanceService.markMileageDueMaintenances(pending.keySet());
+        } catch (Exception e) {
+            log.warn("Mileage-based maintenance check failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public List<DailyMileageDTO> getDailyMileage(Long vehicleId, LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(defaultRangeDays);
+
+        return vehicleDailyMileageRepository.findByVehicleIdAndDayBetweenOrderByDayAsc(vehicleId, start, end).stream()
+                .map(day -> new DailyMileageDTO(
+                        day.getDay(),
+                        day.getDistanceMeters() / 1000.0,
+                        day.getAcceptedPoints(),
+                        day.getRejectedPoints()
+                ))
+                .toList();
+    }
+
+    private void accumulate(Map<Long, List<Sample>> byVehicle, Map<Long, Sample> anchors) {
+        byVehicle.forEach((vehicleId, samples) -> {
+            samples.sort(Comparator.comparing(Sample::timestamp));
+
+            Odometer odometer = odometer(vehicleId);
+
+            synchronized (odometer) {
+                if (odometer.anchor == null) {
+                    odometer.anchor = anchors.get(vehicleId);
+                }
+
+                for (Sample sample : samples) {
+                    advance(odometer, sample);
+                }
+            }
+        });
+    }
+
+    void advance(Odometer odometer, Sample sample) {
+        Sample anchor = odometer.anchor;
+
+        if (anchor == null) {
+            odometer.anchor = sample;
+            return;
+        }
+
+        // Point en retard sur l'ancrage : déjà couvert par la distance comptée.
+        if (!sample.timestamp().isAfter(anchor.timestamp())) {
+            return;
+        }
+
+        // Moteur coupé à l'arrêt : la dérive du récepteur n'est pas du kilométrage.
+        if (!sample.engineOn() && sample.speed() <= STATIONARY_SPEED_KMH) {
+            return;
+        }
+
+        double meters = distanceMeters(anchor.latitude(), anchor.longitude(), sample.latitude(), sample.longitude());
+
+        if (meters < jitterMeters) {
+            return;
+        }
+
+        double seconds = Duration.between(anchor.timestamp(), sample.timestamp()).toMillis() / 1000.0;
+        double impliedKmh = meters / seconds * 3.6;
+        DayTotal day = odometer.pending.computeIfAbsent(sample.timestamp().toLocalDate(), d -> new DayTotal());
+
+        if (impliedKmh > maxSpeedKmh) {
+            day.rejectedPoints++;
+            odometer.rejections++;
+
+            if (odometer.rejections >= reanchorAfter) {
+                odometer.anchor = sample;
+                odometer.rejections = 0;
+            }
+
+            return;
+        }
+
+        day.meters += meters;
+        day.acceptedPoints++;
+
+        if (odometer.countedFrom == null) {
+            odometer.countedFrom = anchor.timestamp();
+        }
+        odometer.countedTo = sample.timestamp();
+
+        odometer.anchor = sample;
+        odometer.rejections = 0;
+    }
+
+    private void write(Map<Long, Counted> pending) {
+        List<Long> vehicleIds = new ArrayList<>(pending.size());
+        List<Object[]> vehicleUpdates = new ArrayList<>(pending.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        pending.forEach((vehicleId, counted) -> {
+            double meters = counted.days().values().stream().mapToDouble(total -> total.meters).sum();
+
+            if (meters > 0 && counted.from() != null) {
+                vehicleIds.add(vehicleId);
+                vehicleUpdates.add(new Object[]{
+                        meters / 1000.0, Timestamp.valueOf(counted.to()), vehicleId, Timestamp.valueOf(counted.from())
+                });
+            }
+        });
+
+        // Incrément relatif : une correction manuelle du kilométrage reste la base des cumuls suivants.
+        int[] updated = jdbcTemplate.batchUpdate("""
+                update vehicles
+                set mileage = coalesce(mileage, 0) + ?, odometer_anchor_at = ?
+                where id = ?
+                  and (odometer_anchor_at is null or odometer_anchor_at <= ?)
+                """, vehicleUpdates);
+
+        Set<Long> overlapping = new HashSet<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                overlapping.add(vehicleIds.get(i));
+            }
+        }
+
+        if (!overlapping.isEmpty()) {
+            log.warn("Odometer: distance of vehicles {} already counted by another instance, discarded", overlapping);
+        }
+
+        List<Object[]> dayUpserts = new ArrayList<>();
+
+        pending.forEach((vehicleId, counted) -> counted.days().forEach((day, total) -> dayUpserts.add(new Object[]{
+                vehicleId,
+                Date.valueOf(day),
+                overlapping.contains(vehicleId) ? 0.0 : total.meters,
+                overlapping.contains(vehicleId) ? 0L : total.acceptedPoints,
+                total.rejectedPoints,
+                now
+        })));
+
+        jdbcTemplate.batchUpdate("""
+                insert into vehicle_daily_mileage
+                    (vehicle_id, mileage_day, distance_meters, accepted_points, rejected_points, updated_at)
+                values (?, ?, ?, ?, ?, ?)
+                on conflict (vehicle_id, mileage_day) do update set
+                    distance_meters = vehicle_daily_mileage.distance_meters + excluded.distance_meters,
+                    accepted_points = vehicle_daily_mileage.accepted_points + excluded.accepted_points,
+                    rejected_points = vehicle_daily_mileage.rejected_points + excluded.rejected_points,
+                    updated_at = excluded.updated_at
+                """, dayUpserts);
+    }
+
+    private Odometer odometer(Long vehicleId) {
+        return odometers.computeIfAbsent(vehicleId, id -> new Odometer());
+    }
+
+    private double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+
+        return 2 * EARTH_RADIUS_METERS * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    record Sample(LocalDateTime timestamp, double latitude, double longitude, double speed, boolean engineOn) {
+
+        static Sample from(GpsData gps) {
+            return new Sample(
+                    gps.getTimestamp(),
+                    gps.getLatitude(),
+                    gps.getLongitude(),
+                    gps.getSpeed() != null ? gps.getSpeed() : 0.0,
+                    gps.isEngineOn()
+            );
+        }
+    }
+
+    static final class DayTotal {
+        double meters;
+        long acceptedPoints;
+        long rejectedPoints;
+    }
+
+    // Cumuls à reporter et intervalle [from, to] qu'ils couvrent.
+    record Counted(Map<LocalDate, DayTotal> days, LocalDateTime from, LocalDateTime to) {
+    }
+
+    // Accès sous verrou de l'instance : ingestion (afterCommit) et report périodique.
+    static final class Odometer {
+        Sample anchor;
+        int rejections;
+        Map<LocalDate, DayTotal> pending = new HashMap<>();
+        LocalDateTime countedFrom;
+        LocalDateTime countedTo;
+
+        synchronized Counted drain() {
+            Counted drained = new Counted(pending, countedFrom, countedTo);
+            pending = new HashMap<>();
+            countedFrom = null;
+            countedTo = null;
+            return drained;
+        }
+
+        synchronized void restore(Counted counted) {
+            counted.days().forEach((day, total) -> pending.merge(day, total, (current, restored) -> {
+                current.meters += restored.meters;
+                current.acceptedPoints += restored.acceptedPoints;
+                current.rejectedPoints += restored.rejectedPoints;
+                return current;
+            }));
+
+            if (counted.from() != null) {
+                countedFrom = countedFrom == null || counted.from().isBefore(countedFrom) ? counted.from() : countedFrom;
+                countedTo = countedTo == null || counted.to().isAfter(countedTo) ? counted.to() : countedTo;
+            }
+        }
+    }
+}
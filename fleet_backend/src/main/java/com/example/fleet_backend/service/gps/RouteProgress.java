@@ -0,0 +1,44 @@
+package com.example.fleet_backend.service.gps;
+
+public class RouteProgress {
+
+    private final boolean offRoute;
+    private final int segmentIndex;
+    private final double travelledMeters;
+    private final double totalMeters;
+
+    public RouteProgress(boolean offRoute, int segmentIndex, double travelledMeters, double totalMeters) {
+        this.offRoute = offRoute;
+        this.segmentIndex = segmentIndex;
+        this.travelledMeters = travelledMeters;
+        this.totalMeters = totalMeters;
+    }
+
+    public boolean isOffRoute() {
+        return offRoute;
+    }
+
+    public int getSegmentIndex() {
+        return segmentIndex;
+    }
+
+    public double getTravelledMeters() {
+        return travelledMeters;
+    }
+
+    public double getTotalMeters() {
+        return totalMeters;
+    }
+
+    public double getRemainingKm() {
+        return Math.max(0.0, totalMeters - travelledMeters) / 1000.0;
+    }
+
+    public double getPercentComplete() {
+        if (totalMeters <= 0) {
+            return 0.0;
+        }
+
+        return Math.min(100.0, Math.max(0.0, travelledMeters * 100.0 / totalMeters));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.fleet_backend.service.gps;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class RouteProgressService {
+
+    private final RouteDeviationService routeDeviationService;
+    private final int windowBehindSegments;
+    private final int windowAheadSegments;
+
+    // Curseur de progression par véhicule : mission, route compilée et segment courant.
+    private final ConcurrentHashMap<Long, Cursor> cursors = new ConcurrentHashMap<>();
+
+    public RouteProgressService(RouteDeviationService routeDeviationService,
+                                @Value("${gps.route-progress.window-behind-segments:3}") int windowBehindSegments,
+                                @Value("${gps.route-progress.window-ahead-segments:40}") int windowAheadSegments) {
+        this.routeDeviationService = routeDeviationService;
+        this.windowBehindSegments = Math.max(0, windowBehindSegments);
+        this.windowAheadSegments = Math.max(1, windowAheadSegments);
+    }
+
+    public RouteProgress track(Long vehicleId,
+                               Long missionId,
+                               CompiledRoute route,
+                               Double lat,
+                               Double lng) {
+        if (vehicleId == null || route == null || route.getSegmentCount() == 0 || lat == null || lng == null) {
+            return new RouteProgress(routeDeviationService.isOffRoute(lat, lng, route), -1, 0.0, 0.0);
+        }
+
+        double threshold = routeDeviationService.getOffRouteThresholdMeters();
+
+        Cursor cursor = cursors.get(vehicleId);
+
+        if (cursor != null && (cursor.route() != route || !Objects.equals(cursor.missionId(), missionId))) {
+            cursor = null;
+        }
+
+        if (cursor != null) {
+            CompiledRoute.Match local = route.nearestSegmentBetween(
+                    lat,
+                    lng,
+                    cursor.segment() - windowBehindSegments,
+                    cursor.segment() + windowAheadSegments
+            );
+
+            // Un segment de la fenêtre sous le seuil suffit : le véhicule n'est pas hors route.
+            if (local != null && local.distanceMeters() <= threshold) {
+                return advance(vehicleId, missionId, route, local, false);
+            }
+        }
+
+        CompiledRoute.Match global = route.nearestSegment(lat, lng);
+        boolean offRoute = global.distanceMeters() > threshold;
+
+        if (offRoute && cursor != null) {
+            return new RouteProgress(true, cursor.segment(), cursor.travelledMeters(), route.getTotalMeters());
+        }
+
+        return advance(vehicleId, missionId, route, global, offRoute);
+    }
+
+    public void forget(Long vehicleId) {
+        if (vehicleId != null) {
+            cursors.remove(vehicleId);
+        }
+    }
+
+    private RouteProgress advance(Long vehicleId,
+                                  Long missionId,
+                                  CompiledRoute route,
+                                  CompiledRoute.Match match,
+                                  boolean offRoute) {
+        cursors.put(vehicleId, new Cursor(missionId, route, match.segment(), match.travelledMeters()));
+
+        return new RouteProgress(offRoute, match.segment(), match.travelledMeters(), route.getTotalMeters());
+    }
+
+    private record Cursor(Long missionId, CompiledRoute route, int segment, double travelledMeters) {
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.dto.GpsPointDTO;
+import com.example.fleet_backend.dto.GpsTrackResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Simplification géométrique des traces (Douglas-Peucker) avant envoi à la carte.
+ *
+ * <p>Le calcul travaille sur des tableaux de coordonnées projetées en mètres ; les points
+ * porteurs d'événements (arrêt / redémarrage, contact moteur) sont toujours conservés.</p>
+ */
+@Service
+public class TrackSimplificationService {
+
+    private static final double EARTH_RADIUS_METERS = 6371000.0;
+
+    // Mètres par pixel au zoom 0 sur l'équateur (tuiles Web Mercator 256 px).
+    private static final double METERS_PER_PIXEL_ZOOM_0 = 156543.03392;
+
+    private static final double STOP_SPEED_KMH = 1.0;
+
+    private final double pixelTolerance;
+
+    public TrackSimplificationService(@Value("${gps.track.simplify.pixel-tolerance:1.5}") double pixelTolerance) {
+        this.pixelTolerance = pixelTolerance;
+    }
+
+    // Sans zoom ni tolérance, la trace est renvoyée telle quelle.
+    public GpsTrackResult simplify(List<GpsPointDTO> points, Integer zoom, Double toleranceMeters) {
+        int n = points.size();
+
+        double referenceLatitude = referenceLatitude(points);
+        double tolerance = toleranceMeters != null
+                ? toleranceMeters
+                : zoom != null ? toleranceForZoom(zoom, referenceLatitude) : 0.0;
+
+        if (tolerance <= 0 || n <= 2) {
+            return new GpsTrackResult(points, n);
+        }
+
+        double[] x = new double[n];
+        double[] y = new double[n];
+        boolean[] keep = new boolean[n];
+
+        project(points, referenceLatitude, x, y, keep);
+        markEventPoints(points, keep);
+
+        int[] stack = new int[2 * n];
+        double toleranceSquared = tolerance * tolerance;
+
+        // Douglas-Peucker entre deux points conservés consécutifs.
+        int anchor = 0;
+
+        for (int i = 1; i < n; i++) {
+            if (keep[i]) {
+                simplifySegment(x, y, keep, anchor, i, toleranceSquared, stack);
+                anchor = i;
+            }
+        }
+
+        int kept = 0;
+
+        for (boolean k : keep) {
+            if (k) kept++;
+        }
+
+        List<GpsPointDTO> simplified = new ArrayList<>(kept);
+
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) {
+                simplified.add(points.get(i));
+            }
+        }
+
+        return new GpsTrackResult(simplified, n);
+    }
+
+    private double toleranceForZoom(int zoom, double latitude) {
+        int clamped = Math.max(0, Math.min(22, zoom));
+        double metersPerPixel = METERS_PER_PIXEL_ZOOM_0 * Math.cos(Math.toRadians(latitude)) / (1L << clamped);
+
+        return pixelTolerance * metersPerPixel;
+    }
+
+    private double referenceLatitude(List<GpsPointDTO> points) {
+        for (GpsPointDTO point : points) {
+            if (point.getLatitude() != null && point.getLongitude() != null) {
+                return point.getLatitude();
+            }
+        }
+
+        return 0.0;
+    }
+
+    // Projection équirectangulaire locale : suffisante à l'échelle d'une trace.
+    private void project(List<GpsPointDTO> points, double referenceLatitude, double[] x, double[] y, boolean[] keep) {
+        double cos = Math.cos(Math.toRadians(referenceLatitude));
+        int n = points.size();
+
+        keep[0] = true;
+        keep[n - 1] = true;
+
+        for (int i = 0; i < n; i++) {
+            GpsPointDTO point = points.get(i);
+
+            if (point.getLatitude() == null || point.getLongitude() == null) {
+                // Point sans position : conservé, il coupe la trace en deux segments.
+                keep[i] = true;
+                x[i] = i > 0 ? x[i - 1] : 0.0;
+                y[i] = i > 0 ? y[i - 1] : 0.0;
+                continue;
+            }
+
+            x[i] = Math.toRadians(point.getLongitude()) * EARTH_RADIUS_METERS * cos;
+            y[i] = Math.toRadians(point.getLatitude()) * EARTH_RADIUS_METERS;
+        }
+    }
+
+    private void markEventPoints(List<GpsPointDTO> points, boolean[] keep) {
+        for (int i = 1; i < points.size(); i++) {
+            GpsPointDTO previous = points.get(i - 1);
+            GpsPointDTO current = points.get(i);
+
+            boolean engineChanged = previous.isEngineOn() != current.isEngineOn();
+            boolean stopChanged = isStopped(previous) != isStopped(current);
+            boolean routeChanged = !Objects.equals(previous.getRouteId(), current.getRouteId());
+
+            if (engineChanged || stopChanged || routeChanged) {
+                keep[i - 1] = true;
+                keep[i] = true;
+            }
+        }
+    }
+
+    private boolean isStopped(GpsPointDTO point) {
+        return point.getSpeed() == null || point.getSpeed() <= STOP_SPEED_KMH;
+    }
+
+    private void simplifySegment(double[] x,
+                                 double[] y,
+                                 boolean[] keep,
+                                 int first,
+                                 int last,
+                                 double toleranceSquared,
+                                 int[] stack) {
+        if (last - first < 2) {
+            return;
+        }
+
+        int top = 0;
+        stack[top++] = first;
+        stack[top++] = last;
+
+        while (top > 0) {
+            int end = stack[--top];
+            int start = stack[--top];
+
+            double maxDistance = 0.0;
+            int farthest = -1;
+
+            for (int i = start + 1; i < end; i++) {
+                double distance = segmentDistanceSquared(x[i], y[i], x[start], y[start], x[end], y[end]);
+
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+
+            if (farthest < 0 || maxDistance <= toleranceSquared) {
+                continue;
+            }
+
+            keep[farthest] = true;
+
+            if (farthest - start >= 2) {
+                stack[top++] = start;
+                stack[top++] = farthest;
+            }
+
+            if (end - farthest >= 2) {
+                stack[top++] = farthest;
+                stack[top++] = end;
+            }
+        }
+    }
+
+    private double segmentDistanceSquared(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+
+        if (lengthSquared == 0.0) {
+            double ex = px - ax;
+            double ey = py - ay;
+            return ex * ex + ey * ey;
+        }
+
+        double t = ((px - ax) * dx + (py - ay) * dy) / lengthSquared;
+        t = Math.max(0.0, Math.min(1.0, t));
+
+        double cx = ax + t * dx - px;
+        double cy = ay + t * dy - py;
+
+        return cx * cx + cy * cy;
+    }
+}
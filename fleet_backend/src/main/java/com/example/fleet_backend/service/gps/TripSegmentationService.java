@@ -0,0 +1,429 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.dto.TripDTO;
+import com.example.fleet_backend.model.GpsData;
+import com.example.fleet_backend.model.Trip;
+import com.example.fleet_backend.repository.TripRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Découpage incrémental du flux GPS de chaque véhicule en trajets et arrêts.
+ *
+ * <p>Chaque véhicule a au plus un segment ouvert ({@code trips.status = OPEN}) qui porte les cumuls
+ * et le dernier point reçu ; les points sont appliqués dans la transaction d'ingestion, sans relire
+ * {@code gps_data}. Un trajet se termine à la coupure du moteur, après un arrêt moteur tournant plus
+ * long que le temps d'immobilisation, ou sur une interruption du flux ; l'arrêt qui suit commence
+ * alors et dure jusqu'au redémarrage.</p>
+ */
+@Service
+public class TripSegmentationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TripSegmentationService.class);
+
+    private static final double EARTH_RADIUS_METERS = 6371000.0;
+
+    private final TripRepository tripRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    // En dessous, un point moteur tournant est considéré immobile (bruit GPS compris).
+    private final double movingSpeedKmh;
+
+    private final long stopDwellSeconds;
+
+    // Au-delà, le trajet en cours est clos sur son dernier point connu.
+    private final long maxGapSeconds;
+
+    // Trajet plus court : déplacement parasite, enregistré comme arrêt.
+    private final double minDistanceMeters;
+
+    private final int staleBatchSize;
+
+    private final int defaultRangeDays;
+
+    public TripSegmentationService(TripRepository tripRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${gps.trips.enabled:true}") boolean enabled,
+                                   @Value("${gps.trips.moving-speed-kmh:3.0}") double movingSpeedKmh,
+                                   @Value("${gps.trips.stop-dwell-seconds:300}") long stopDwellSeconds,
+                                   @Value("${gps.trips.max-gap-seconds:900}") long maxGapSeconds,
+                                   @Value("${gps.trips.min-distance-meters:200}") double minDistanceMeters,
+                                   @Value("${gps.trips.stale-batch-size:500}") int staleBatchSize,
+                                   @Value("${gps.trips.default-range-days:30}") int defaultRangeDays) {
+        this.tripRepository = tripRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.movingSpeedKmh = movingSpeedKmh;
+        this.stopDwellSeconds = stopDwellSeconds;
+        this.maxGapSeconds = maxGapSeconds;
+        this.minDistanceMeters = minDistanceMeters;
+        this.staleBatchSize = staleBatchSize;
+        this.defaultRangeDays = defaultRangeDays;
+    }
+
+    // Appelé dans la transaction d'ingestion, après l'écriture des points bruts.
+    public void record(List<GpsData> points) {
+        if (!enabled || points == null || points.isEmpty()) {
+            return;
+        }
+
+        // Véhicules pris dans un ordre fixe : deux lots concurrents verrouillent leurs segments sans interblocage.
+        Map<Long, List<GpsData>> byVehicle = new TreeMap<>();
+
+        for (GpsData point : points) {
+            if (point.getVehicle() == null || point.getTimestamp() == null
+                    || point.getLatitude() == null || point.getLongitude() == null) {
+                continue;
+            }
+
+            byVehicle.computeIfAbsent(point.getVehicle().getId(), id -> new ArrayList<>()).add(point);
+        }
+
+        for (Map.Entry<Long, List<GpsData>> entry : byVehicle.entrySet()) {
+            List<GpsData> vehiclePoints = entry.getValue();
+            vehiclePoints.sort(Comparator.comparing(GpsData::getTimestamp));
+
+            Trip segment = openSegment(entry.getKey());
+
+            for (GpsData point : vehiclePoints) {
+                segment = apply(entry.getKey(), segment, point);
+            }
+        }
+    }
+
+    // Trajets d'un véhicule sans point depuis plus que l'interruption tolérée : clos sur leur dernier point.
+    @Scheduled(fixedDelayString = "${gps.trips.close-stale-interval-ms:60000}")
+    public void closeStaleTrips() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime before = LocalDateTime.now().minusSeconds(maxGapSeconds);
+
+        try {
+            Integer closed = transactionTemplate.execute(status -> {
+                List<Trip> stale = tripRepository.findStaleTripsForUpdate(before, PageRequest.of(0, staleBatchSize));
+
+                for (Trip trip : stale) {
+                    closeTrip(trip);
+                }
+
+                return stale.size();
+            });
+
+            if (closed != null && closed > 0) {
+                log.debug("{} stale trips closed", closed);
+            }
+        } catch (Exception e) {
+            log.warn("Stale trip closing failed: {}", e.getMessage());
+        }
+    }
+
+    public List<TripDTO> getTrips(Long vehicleId, LocalDateTime from, LocalDateTime to, boolean includeStops) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(defaultRangeDays);
+
+        Set<Trip.Kind> kinds = includeStops ? EnumSet.allOf(Trip.Kind.class) : EnumSet.of(Trip.Kind.TRIP);
+
+        return tripRepository.findStartedBetween(vehicleId, kinds, start, end).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    private Trip openSegment(Long vehicleId) {
+        List<Trip> open = tripRepository.findOpenForUpdate(vehicleId);
+
+        if (open.isEmpty()) {
+            return null;
+        }
+
+        // Segments ouverts en double (créations concurrentes) : seul le plus récent continue.
+        for (int i = 1; i < open.size(); i++) {
+            close(open.get(i), open.get(i).getLastPointAt(), open.get(i).getLastLatitude(), open.get(i).getLastLongitude());
+        }
+
+        return open.get(0);
+    }
+
+    private Trip apply(Long vehicleId, Trip segment, GpsData point) {
+        if (segment == null) {
+            return create(vehicleId, isMoving(point) ? Trip.Kind.TRIP : Trip.Kind.STOP, point);
+        }
+
+        // Point en retard ou en double : l'état du segment a déjà dépassé cet instant.
+        if (!point.getTimestamp().isAfter(segment.getLastPointAt())) {
+            return segment;
+        }
+
+        long gap = Duration.between(segment.getLastPointAt(), point.getTimestamp()).getSeconds();
+
+        if (segment.getKind() == Trip.Kind.STOP) {
+            return applyToStop(vehicleId, segment, point, gap);
+        }
+
+        if (gap > maxGapSeconds) {
+            return applyToStop(vehicleId, closeTrip(segment), point, gap);
+        }
+
+        advance(segment, point);
+
+        if (!point.isEngineOn()) {
+            segment.setIdleSeconds(segment.getIdleSeconds() + pendingIdle(segment));
+            clearStationary(segment);
+            return closeTrip(segment);
+        }
+
+        if (isMoving(point)) {
+            segment.setIdleSeconds(segment.getIdleSeconds() + pendingIdle(segment));
+            clearStationary(segment);
+            return segment;
+        }
+
+        if (segment.getStationarySince() == null) {
+            segment.setStationarySince(point.getTimestamp());
+            segment.setStationaryLatitude(point.getLatitude());
+            segment.setStationaryLongitude(point.getLongitude());
+            segment.setStationaryIdleSeconds(0L);
+            // Cumuls du trajet jusqu'au premier point immobile : ce qui suit revient à l'arrêt si l'immobilisation dure.
+            segment.setStationaryDistanceMeters(segment.getDistanceMeters());
+            segment.setStationaryFuelUsed(segment.getFuelUsed());
+            segment.setStationaryFuelLevel(segment.getLastFuelLevel());
+            segment.setStationaryPointCount(segment.getPointCount());
+        } else {
+            segment.setStationaryIdleSeconds(pendingIdle(segment) + gap);
+        }
+
+        if (Duration.between(segment.getStationarySince(), point.getTimestamp()).getSeconds() >= stopDwellSeconds) {
+            return closeTrip(segment);
+        }
+
+        return segment;
+    }
+
+    private Trip applyToStop(Long vehicleId, Trip stop, GpsData point, long gap) {
+        if (!isMoving(point)) {
+            if (point.isEngineOn() && gap <= maxGapSeconds) {
+                stop.setIdleSeconds(stop.getIdleSeconds() + gap);
+            }
+
+            advance(stop, point);
+            return stop;
+        }
+
+        if (gap > maxGapSeconds) {
+            // Flux interrompu : le départ n'est connu qu'à partir de ce point.
+            close(stop, point.getTimestamp(), point.getLatitude(), point.getLongitude());
+            return create(vehicleId, Trip.Kind.TRIP, point);
+        }
+
+        // Le trajet part du dernier point immobile : la distance jusqu'à ce point lui revient.
+        close(stop, stop.getLastPointAt(), stop.getLastLatitude(), stop.getLastLongitude());
+
+        Trip trip = newSegment(vehicleId, Trip.Kind.TRIP, stop.getLastPointAt(), stop.getLastLatitude(), stop.getLastLongitude());
+        trip.setMissionId(stop.getMissionId());
+        trip.setLastFuelLevel(stop.getLastFuelLevel());
+        trip.setStartFuelLevel(stop.getLastFuelLevel());
+
+        advance(trip, point);
+        return tripRepository.save(trip);
+    }
+
+    // Clôt le trajet au début de l'immobilisation en cours (sinon au dernier point) et ouvre l'arrêt qui suit.
+    private Trip closeTrip(Trip trip) {
+        LocalDateTime end = trip.getStationarySince() != null ? trip.getStationarySince() : trip.getLastPointAt();
+        Double endLatitude = trip.getStationarySince() != null ? trip.getStationaryLatitude() : trip.getLastLatitude();
+        Double endLongitude = trip.getStationarySince() != null ? trip.getStationaryLongitude() : trip.getLastLongitude();
+        long stationaryIdle = pendingIdle(trip);
+        Double lastFuelLevel = trip.getLastFuelLevel();
+
+        // Points reçus pendant l'immobilisation : retirés du trajet, ils sont comptés dans l'arrêt.
+        double stationaryFuelUsed = 0.0;
+        long stationaryPoints = 0L;
+
+        if (trip.getStationarySince() != null && trip.getStationaryPointCount() != null) {
+            stationaryFuelUsed = trip.getFuelUsed() - trip.getStationaryFuelUsed();
+            stationaryPoints = trip.getPointCount() - trip.getStationaryPointCount();
+
+            trip.setDistanceMeters(trip.getStationaryDistanceMeters());
+            trip.setFuelUsed(trip.getStationaryFuelUsed());
+            trip.setPointCount(trip.getStationaryPointCount());
+            trip.setLastFuelLevel(trip.getStationaryFuelLevel());
+        }
+
+        close(trip, end, endLatitude, endLongitude);
+
+        if (trip.getDistanceMeters() < minDistanceMeters) {
+            trip.setKind(Trip.Kind.STOP);
+        }
+
+        Trip stop = newSegment(trip.getVehicleId(), Trip.Kind.STOP, end, endLatitude, endLongitude);
+        stop.setMissionId(trip.getMissionId());
+        stop.setIdleSeconds(stationaryIdle);
+        stop.setFuelUsed(stationaryFuelUsed);
+        stop.setPointCount(stationaryPoints);
+        stop.setLastPointAt(trip.getLastPointAt());
+        stop.setLastLatitude(trip.getLastLatitude());
+        stop.setLastLongitude(trip.getLastLongitude());
+        stop.setLastFuelLevel(lastFuelLevel);
+        stop.setStartFuelLevel(trip.getEndFuelLevel());
+        stop.setDurationSeconds(Duration.between(end, trip.getLastPointAt()).getSeconds());
+
+        clearStationary(trip);
+
+        return tripRepository.save(stop);
+    }
+
+    private void close(Trip segment, LocalDateTime end, Double endLatitude, Double endLongitude) {
+        segment.setStatus(Trip.Status.CLOSED);
+        segment.setEndedAt(end);
+        segment.setEndLatitude(endLatitude);
+        segment.setEndLongitude(endLongitude);
+        segment.setEndFuelLevel(segment.getLastFuelLevel());
+        segment.setDurationSeconds(Math.max(0L, Duration.between(segment.getStartedAt(), end).getSeconds()));
+    }
+
+    private Trip create(Long vehicleId, Trip.Kind kind, GpsData point) {
+        Trip segment = newSegment(vehicleId, kind, point.getTimestamp(), point.getLatitude(), point.getLongitude());
+        segment.setMissionId(point.getMissionId());
+        segment.setStartFuelLevel(point.getFuelLevel());
+        segment.setLastFuelLevel(point.getFuelLevel());
+        segment.setPointCount(1L);
+        segment.setMaxSpeed(speed(point));
+
+        return tripRepository.save(segment);
+    }
+
+    private Trip newSegment(Long vehicleId, Trip.Kind kind, LocalDateTime start, Double latitude, Double longitude) {
+        Trip segment = new Trip();
+        segment.setVehicleId(vehicleId);
+        segment.setKind(kind);
+        segment.setStatus(Trip.Status.OPEN);
+        segment.setStartedAt(start);
+        segment.setStartLatitude(latitude);
+        segment.setStartLongitude(longitude);
+        segment.setDistanceMeters(0.0);
+        segment.setDurationSeconds(0L);
+        segment.setIdleSeconds(0L);
+        segment.setMaxSpeed(0.0);
+        segment.setFuelUsed(0.0);
+        segment.setPointCount(0L);
+        segment.setLastPointAt(start);
+        segment.setLastLatitude(latitude);
+        segment.setLastLongitude(longitude);
+
+        return segment;
+    }
+
+    // Cumuls communs aux trajets et arrêts, puis le point devient le dernier point du segment.
+    private void advance(Trip segment, GpsData point) {
+        if (segment.getKind() == Trip.Kind.TRIP) {
+            segment.setDistanceMeters(segment.getDistanceMeters() + distanceMeters(
+                    segment.getLastLatitude(), segment.getLastLongitude(),
+                    point.getLatitude(), point.getLongitude()
+            ));
+        }
+
+        Double fuelLevel = point.getFuelLevel();
+
+        if (fuelLevel != null) {
+            if (segment.getLastFuelLevel() != null && fuelLevel < segment.getLastFuelLevel()) {
+                segment.setFuelUsed(segment.getFuelUsed() + segment.getLastFuelLevel() - fuelLevel);
+            }
+
+            if (segment.getStartFuelLevel() == null) {
+                segment.setStartFuelLevel(fuelLevel);
+            }
+
+            segment.setLastFuelLevel(fuelLevel);
+        }
+
+        if (segment.getMissionId() == null) {
+            segment.setMissionId(point.getMissionId());
+        }
+
+        segment.setMaxSpeed(Math.max(segment.getMaxSpeed(), speed(point)));
+        segment.setPointCount(segment.getPointCount() + 1);
+        segment.setLastPointAt(point.getTimestamp());
+        segment.setLastLatitude(point.getLatitude());
+        segment.setLastLongitude(point.getLongitude());
+        segment.setDurationSeconds(Duration.between(segment.getStartedAt(), point.getTimestamp()).getSeconds());
+    }
+
+    private long pendingIdle(Trip trip) {
+        return trip.getStationaryIdleSeconds() != null ? trip.getStationaryIdleSeconds() : 0L;
+    }
+
+    private void clearStationary(Trip trip) {
+        trip.setStationarySince(null);
+        trip.setStationaryLatitude(null);
+        trip.setStationaryLongitude(null);
+        trip.setStationaryIdleSeconds(null);
+        trip.setStationaryDistanceMeters(null);
+        trip.setStationaryFuelUsed(null);
+        trip.setStationaryFuelLevel(null);
+        trip.setStationaryPointCount(null);
+    }
+
+    private boolean isMoving(GpsData point) {
+        return point.isEngineOn() && speed(point) > movingSpeedKmh;
+    }
+
+    private double speed(GpsData point) {
+        return point.getSpeed() != null ? point.getSpeed() : 0.0;
+    }
+
+    private double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+
+        return 2 * EARTH_RADIUS_METERS * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private TripDTO toDto(Trip trip) {
+        boolean open = trip.getStatus() == Trip.Status.OPEN;
+
+        return new TripDTO(
+                trip.getId(),
+                trip.getVehicleId(),
+                trip.getMissionId(),
+                trip.getKind().name(),
+                trip.getStatus().name(),
+                trip.getStartedAt(),
+                open ? trip.getLastPointAt() : trip.getEndedAt(),
+                trip.getStartLatitude(),
+                trip.getStartLongitude(),
+                open ? trip.getLastLatitude() : trip.getEndLatitude(),
+                open ? trip.getLastLongitude() : trip.getEndLongitude(),
+                trip.getDistanceMeters(),
+                trip.getDurationSeconds(),
+                trip.getIdleSeconds(),
+                trip.getMaxSpeed(),
+                trip.getStartFuelLevel(),
+                open ? trip.getLastFuelLevel() : trip.getEndFuelLevel(),
+                trip.getFuelUsed(),
+                trip.getPointCount()
+        );
+    }
+}
@@ -0,0 +1,556 @@
+package com.example.fleet_backend.service.gps.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Format colonnaire des segments d'archive GPS (un véhicule, une journée).
+ *
+ * <p>Un en-tête (magic, version, véhicule, nombre de points, bornes horaires) suivi d'une colonne par
+ * champ, chacune préfixée par sa longueur. Identifiants et horodatages sont codés en delta zigzag
+ * varint ; les doubles en virgule fixe delta, avec la plus petite échelle décimale qui les restitue
+ * à l'identique (bits bruts sinon) ; les champs optionnels portent un bitmap de présence et les
+ * chaînes un dictionnaire. Le décodage est sans perte.</p>
+ */
+public final class GpsArchiveCodec {
+
+    private static final int MAGIC = 0x46475041;
+    private static final byte VERSION = 1;
+    private static final int COLUMN_COUNT = 15;
+
+    private static final byte DOUBLE_SCALED = 0;
+    private static final byte DOUBLE_RAW = 1;
+    private static final int MAX_DECIMALS = 10;
+
+    private static final double[] POWERS_OF_TEN = new double[MAX_DECIMALS + 1];
+
+    static {
+        double power = 1;
+
+        for (int i = 0; i <= MAX_DECIMALS; i++) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    private GpsArchiveCodec() {
+    }
+
+    // ===== Écriture =====
+
+    // records : un seul véhicule, triés par (timestamp, id).
+    public static byte[] encode(long vehicleId, List<GpsArchiveRecord> records) {
+        if (records.isEmpty()) {
+            throw new IllegalArgumentException("Empty archive segment");
+        }
+
+        int count = records.size();
+        Output out = new Output(count * 8);
+
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeVarLong(vehicleId);
+        out.writeVarLong(count);
+        out.writeLong(toMicros(records.get(0).timestamp()));
+        out.writeLong(toMicros(records.get(count - 1).timestamp()));
+        out.writeVarLong(COLUMN_COUNT);
+
+        writeColumn(out, longColumn(records, GpsArchiveRecord::id));
+        writeColumn(out, longColumn(records, record -> toMicros(record.timestamp())));
+        writeColumn(out, doubleColumn(records, GpsArchiveRecord::latitude));
+        writeColumn(out, doubleColumn(records, GpsArchiveRecord::longitude));
+        writeColumn(out, doubleColumn(records, GpsArchiveRecord::speed));
+        writeColumn(out, booleanColumn(records, GpsArchiveRecord::engineOn));
+        writeColumn(out, longColumn(records, GpsArchiveRecord::missionId));
+        writeColumn(out, stringColumn(records, GpsArchiveRecord::routeId));
+        writeColumn(out, stringColumn(records, GpsArchiveRecord::routeSource));
+        writeColumn(out, longColumn(records, record -> record.engineRpm() != null ? record.engineRpm().longValue() : null));
+        writeColumn(out, doubleColumn(records, GpsArchiveRecord::fuelLevel));
+        writeColumn(out, doubleColumn(records, GpsArchiveRecord::engineTemperature));
+        writeColumn(out, doubleColumn(records, GpsArchiveRecord::batteryVoltage));
+        writeColumn(out, doubleColumn(records, GpsArchiveRecord::engineLoad));
+        writeColumn(out, booleanColumn(records, GpsArchiveRecord::checkEngineOn));
+
+        return out.toByteArray();
+    }
+
+    private static void writeColumn(Output out, Output column) {
+        out.writeVarLong(column.size());
+        out.writeBytes(column.toByteArray());
+    }
+
+    private static Output longColumn(List<GpsArchiveRecord> records, Function<GpsArchiveRecord, Long> getter) {
+        Output out = new Output(records.size() * 2);
+        List<Long> present = new ArrayList<>(records.size());
+        boolean[] presence = new boolean[records.size()];
+
+        for (int i = 0; i < records.size(); i++) {
+            Long value = getter.apply(records.get(i));
+            presence[i] = value != null;
+
+            if (value != null) {
+                present.add(value);
+            }
+        }
+
+        writePresence(out, presence, present.size());
+
+        long previous = 0;
+
+        for (long value : present) {
+            out.writeZigZag(value - previous);
+            previous = value;
+        }
+
+        return out;
+    }
+
+    private static Output doubleColumn(List<GpsArchiveRecord> records, Function<GpsArchiveRecord, Double> getter) {
+        Output out = new Output(records.size() * 3);
+        boolean[] presence = new boolean[records.size()];
+        double[] present = new double[records.size()];
+        int presentCount = 0;
+
+        for (int i = 0; i < records.size(); i++) {
+            Double value = getter.apply(records.get(i));
+            presence[i] = value != null;
+
+            if (value != null) {
+                present[presentCount++] = value;
+            }
+        }
+
+        writePresence(out, presence, presentCount);
+
+        int decimals = exactDecimals(present, presentCount);
+
+        if (decimals < 0) {
+            out.writeByte(DOUBLE_RAW);
+
+            for (int i = 0; i < presentCount; i++) {
+                out.writeLong(Double.doubleToRawLongBits(present[i]));
+            }
+
+            return out;
+        }
+
+        out.writeByte(DOUBLE_SCALED);
+        out.writeByte((byte) decimals);
+
+        long previous = 0;
+
+        for (int i = 0; i < presentCount; i++) {
+            long value = Math.round(present[i] * POWERS_OF_TEN[decimals]);
+            out.writeZigZag(value - previous);
+            previous = value;
+        }
+
+        return out;
+    }
+
+    // Plus petite échelle décimale qui redonne exactement chaque valeur, -1 si aucune.
+    private static int exactDecimals(double[] values, int count) {
+        for (int decimals = 0; decimals <= MAX_DECIMALS; decimals++) {
+            if (restoresExactly(values, count, decimals)) {
+                return decimals;
+            }
+        }
+
+        return -1;
+    }
+
+    private static boolean restoresExactly(double[] values, int count, int decimals) {
+        double scale = POWERS_OF_TEN[decimals];
+
+        for (int i = 0; i < count; i++) {
+            double value = values[i];
+            double scaled = value * scale;
+
+            if (Double.isNaN(scaled) || Math.abs(scaled) >= 0x1p52) {
+                return false;
+            }
+
+            if (Double.doubleToRawLongBits(Math.round(scaled) / scale) != Double.doubleToRawLongBits(value)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static Output booleanColumn(List<GpsArchiveRecord> records, Function<GpsArchiveRecord, Boolean> getter) {
+        Output out = new Output(records.size() / 4 + 2);
+        boolean[] presence = new boolean[records.size()];
+        boolean[] values = new boolean[records.size()];
+        int presentCount = 0;
+
+        for (int i = 0; i < records.size(); i++) {
+            Boolean value = getter.apply(records.get(i));
+            presence[i] = value != null;
+
+            if (value != null) {
+                values[presentCount++] = value;
+            }
+        }
+
+        writePresence(out, presence, presentCount);
+        writeBitmap(out, values, presentCount);
+
+        return out;
+    }
+
+    private static Output stringColumn(List<GpsArchiveRecord> records, Function<GpsArchiveRecord, String> getter) {
+        Output codes = new Output(records.size());
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+
+        // 0 : null, n : entrée n - 1 du dictionnaire.
+        for (GpsArchiveRecord record : records) {
+            String value = getter.apply(record);
+
+            if (value == null) {
+                codes.writeVarLong(0);
+                continue;
+            }
+
+            Integer code = dictionary.get(value);
+
+            if (code == null) {
+                entries.add(value);
+                code = entries.size();
+                dictionary.put(value, code);
+            }
+
+            codes.writeVarLong(code);
+        }
+
+        Output out = new Output(codes.size() + entries.size() * 16);
+        out.writeVarLong(entries.size());
+
+        for (String entry : entries) {
+            byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+            out.writeVarLong(bytes.length);
+            out.writeBytes(bytes);
+        }
+
+        out.writeBytes(codes.toByteArray());
+        return out;
+    }
+
+    // Bitmap omis quand toutes les valeurs sont présentes ou toutes absentes.
+    private static void writePresence(Output out, boolean[] presence, int presentCount) {
+        if (presentCount == presence.length) {
+            out.writeByte((byte) 1);
+        } else if (presentCount == 0) {
+            out.writeByte((byte) 0);
+        } else {
+            out.writeByte((byte) 2);
+            writeBitmap(out, presence, presence.length);
+        }
+    }
+
+    private static void writeBitmap(Output out, boolean[] values, int count) {
+        for (int i = 0; i < count; i += 8) {
+            int bits = 0;
+
+            for (int bit = 0; bit < 8 && i + bit < count; bit++) {
+                if (values[i + bit]) {
+                    bits |= 1 << bit;
+                }
+            }
+
+            out.writeByte((byte) bits);
+        }
+    }
+
+    // ===== Lecture =====
+
+    public static List<GpsArchiveRecord> decode(ByteBuffer buffer) {
+        Input in = new Input(buffer);
+
+        if (in.readInt() != MAGIC) {
+            throw new IllegalStateException("Not a GPS archive segment");
+        }
+
+        byte version = in.readByte();
+
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported GPS archive version: " + version);
+        }
+
+        long vehicleId = in.readVarLong();
+        int count = Math.toIntExact(in.readVarLong());
+        in.readLong();
+        in.readLong();
+
+        int columns = Math.toIntExact(in.readVarLong());
+
+        if (columns < COLUMN_COUNT) {
+            throw new IllegalStateException("Truncated GPS archive segment");
+        }
+
+        Long[] ids = readLongs(in.column(), count);
+        Long[] micros = readLongs(in.column(), count);
+        Double[] latitudes = readDoubles(in.column(), count);
+        Double[] longitudes = readDoubles(in.column(), count);
+        Double[] speeds = readDoubles(in.column(), count);
+        Boolean[] engineOn = readBooleans(in.column(), count);
+        Long[] missionIds = readLongs(in.column(), count);
+        String[] routeIds = readStrings(in.column(), count);
+        String[] routeSources = readStrings(in.column(), count);
+        Long[] rpms = readLongs(in.column(), count);
+        Double[] fuelLevels = readDoubles(in.column(), count);
+        Double[] temperatures = readDoubles(in.column(), count);
+        Double[] batteryVoltages = readDoubles(in.column(), count);
+        Double[] engineLoads = readDoubles(in.column(), count);
+        Boolean[] checkEngine = readBooleans(in.column(), count);
+
+        List<GpsArchiveRecord> records = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            records.add(new GpsArchiveRecord(
+                    ids[i],
+                    vehicleId,
+                    missionIds[i],
+                    latitudes[i],
+                    longitudes[i],
+                    speeds[i],
+                    Boolean.TRUE.equals(engineOn[i]),
+                    fromMicros(micros[i]),
+                    routeIds[i],
+                    routeSources[i],
+                    rpms[i] != null ? Math.toIntExact(rpms[i]) : null,
+                    fuelLevels[i],
+                    temperatures[i],
+                    batteryVoltages[i],
+                    engineLoads[i],
+                    checkEngine[i]
+            ));
+        }
+
+        return records;
+    }
+
+    private static Long[] readLongs(Input in, int count) {
+        boolean[] presence = readPresence(in, count);
+        Long[] values = new Long[count];
+        long previous = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (presence[i]) {
+                previous += in.readZigZag();
+                values[i] = previous;
+            }
+        }
+
+        return values;
+    }
+
+    private static Double[] readDoubles(Input in, int count) {
+        boolean[] presence = readPresence(in, count);
+        Double[] values = new Double[count];
+        byte mode = in.readByte();
+
+        if (mode == DOUBLE_RAW) {
+            for (int i = 0; i < count; i++) {
+                if (presence[i]) {
+                    values[i] = Double.longBitsToDouble(in.readLong());
+                }
+            }
+
+            return values;
+        }
+
+        double scale = POWERS_OF_TEN[in.readByte()];
+        long previous = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (presence[i]) {
+                previous += in.readZigZag();
+                values[i] = previous / scale;
+            }
+        }
+
+        return values;
+    }
+
+    private static Boolean[] readBooleans(Input in, int count) {
+        boolean[] presence = readPresence(in, count);
+        int presentCount = 0;
+
+        for (boolean present : presence) {
+            if (present) {
+                presentCount++;
+            }
+        }
+
+        boolean[] bits = readBitmap(in, presentCount);
+        Boolean[] values = new Boolean[count];
+
+        for (int i = 0, next = 0; i < count; i++) {
+            if (presence[i]) {
+                values[i] = bits[next++];
+            }
+        }
+
+        return values;
+    }
+
+    private static String[] readStrings(Input in, int count) {
+        String[] dictionary = new String[Math.toIntExact(in.readVarLong())];
+
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = in.readString(Math.toIntExact(in.readVarLong()));
+        }
+
+        String[] values = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            int code = Math.toIntExact(in.readVarLong());
+            values[i] = code == 0 ? null : dictionary[code - 1];
+        }
+
+        return values;
+    }
+
+    private static boolean[] readPresence(Input in, int count) {
+        byte kind = in.readByte();
+        boolean[] presence = kind == 2 ? readBitmap(in, count) : new boolean[count];
+
+        if (kind == 1) {
+            Arrays.fill(presence, true);
+        }
+
+        return presence;
+    }
+
+    private static boolean[] readBitmap(Input in, int count) {
+        boolean[] values = new boolean[count];
+
+        for (int i = 0; i < count; i += 8) {
+            int bits = in.readByte() & 0xFF;
+
+            for (int bit = 0; bit < 8 && i + bit < count; bit++) {
+                values[i + bit] = (bits & (1 << bit)) != 0;
+            }
+        }
+
+        return values;
+    }
+
+    // ===== Horodatages (microsecondes, précision de PostgreSQL) =====
+
+    private static long toMicros(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000,
+                ZoneOffset.UTC
+        );
+    }
+
+    // ===== Varints =====
+
+    private static final class Output extends ByteArrayOutputStream {
+
+        Output(int capacity) {
+            super(Math.max(32, capacity));
+        }
+
+        void writeByte(byte value) {
+            write(value);
+        }
+
+        void writeInt(int value) {
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                write(value >>> shift);
+            }
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+
+            write((int) value);
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+    }
+
+    private static final class Input {
+
+        private final ByteBuffer buffer;
+
+        Input(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        // Vue sur la colonne suivante ; la position avance d'autant.
+        Input column() {
+            int length = Math.toIntExact(readVarLong());
+            ByteBuffer column = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            return new Input(column);
+        }
+
+        byte readByte() {
+            return buffer.get();
+        }
+
+        int readInt() {
+            return buffer.getInt();
+        }
+
+        long readLong() {
+            return buffer.getLong();
+        }
+
+        long readVarLong() {
+            long value = 0;
+
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+
+            throw new IllegalStateException("Malformed varint in GPS archive segment");
+        }
+
+        long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString(int length) {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
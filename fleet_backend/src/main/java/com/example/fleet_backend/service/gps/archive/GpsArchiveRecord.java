@@ -0,0 +1,39 @@
+package com.example.fleet_backend.service.gps.archive;
+
+import com.example.fleet_backend.dto.GpsPointDTO;
+
+import java.time.LocalDateTime;
+
+// Une ligne gps_data complète (position + OBD), telle qu'archivée.
+public record GpsArchiveRecord(long id,
+                               long vehicleId,
+                               Long missionId,
+                               double latitude,
+                               double longitude,
+                               double speed,
+                               boolean engineOn,
+                               LocalDateTime timestamp,
+                               String routeId,
+                               String routeSource,
+                               Integer engineRpm,
+                               Double fuelLevel,
+                               Double engineTemperature,
+                               Double batteryVoltage,
+                               Double engineLoad,
+                               Boolean checkEngineOn) {
+
+    public GpsPointDTO toPoint() {
+        return new GpsPointDTO(
+                id,
+                vehicleId,
+                missionId,
+                latitude,
+                longitude,
+                speed,
+                engineOn,
+                timestamp,
+                routeId,
+                routeSource
+        );
+    }
+}
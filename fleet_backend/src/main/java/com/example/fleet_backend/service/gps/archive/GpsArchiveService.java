@@ -0,0 +1,313 @@
+package com.example.fleet_backend.service.gps.archive;
+
+import com.example.fleet_backend.dto.GpsArchiveStatsDTO;
+import com.example.fleet_backend.model.GpsArchiveSegment;
+import com.example.fleet_backend.repository.GpsArchiveSegmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Déplace les journées GPS fermées et anciennes de {@code gps_data} vers des segments colonnaires
+ * ({@link GpsArchiveCodec}). Fichier écrit, segment enregistré et lignes supprimées dans la même
+ * transaction : un point est soit en base, soit dans un segment enregistré.
+ */
+@Service
+public class GpsArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(GpsArchiveService.class);
+
+    // Verrou consultatif PostgreSQL : une seule instance archive à la fois.
+    private static final long ARCHIVE_LOCK_KEY = 0x0F1EE70B2L;
+
+    private static final DateTimeFormatter FILE_DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final Comparator<GpsArchiveRecord> RECORD_ORDER =
+            Comparator.comparing(GpsArchiveRecord::timestamp).thenComparingLong(GpsArchiveRecord::id);
+
+    // Le dernier point de chaque véhicule reste en base : les lectures de dernière position ne lisent pas l'archive.
+    private static final String CANDIDATES_SQL = """
+            select v.id as vehicle_id, cast(g."timestamp" as date) as day
+            from vehicles v
+            cross join lateral (
+                select max(n."timestamp") as newest from gps_data n where n.vehicle_id = v.id
+            ) l
+            join gps_data g on g.vehicle_id = v.id
+            where g."timestamp" < ?
+              and g."timestamp" < l.newest
+            group by v.id, cast(g."timestamp" as date)
+            order by day, v.id
+            limit ?
+            """;
+
+    private static final String SELECT_DAY_SQL = """
+            select g.id, g.vehicle_id, g.mission_id, g.latitude, g.longitude, g.speed, g.engine_on,
+                   g."timestamp", g.route_id, g.route_source, g.engine_rpm, g.fuel_level,
+                   g.engine_temperature, g.battery_voltage, g.engine_load, g.check_engine_on,
+                   pg_column_size(g.*) as row_bytes
+            from gps_data g
+            where g.vehicle_id = ?
+              and g."timestamp" >= ?
+              and g."timestamp" < ?
+              and g."timestamp" < (select max(n."timestamp") from gps_data n where n.vehicle_id = ?)
+            order by g."timestamp", g.id
+            """;
+
+    // Les lignes arrivées après la lecture restent en base jusqu'au passage suivant.
+    private static final String DELETE_SQL = """
+            delete from gps_data
+            where vehicle_id = ?
+              and "timestamp" >= ?
+              and "timestamp" < ?
+              and id = any(?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GpsArchiveSegmentRepository segmentRepository;
+    private final GpsArchiveStore gpsArchiveStore;
+
+    @Value("${gps.archive.enabled:false}")
+    private boolean enabled;
+
+    // Âge minimal d'une journée avant archivage.
+    @Value("${gps.archive.after-days:30}")
+    private int afterDays;
+
+    @Value("${gps.archive.max-segments-per-run:500}")
+    private int maxSegmentsPerRun;
+
+    @Value("${gps.archive.benchmark-segments:20}")
+    private int benchmarkSegments;
+
+    public GpsArchiveService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             GpsArchiveSegmentRepository segmentRepository,
+                             GpsArchiveStore gpsArchiveStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.segmentRepository = segmentRepository;
+        this.gpsArchiveStore = gpsArchiveStore;
+    }
+
+    @Scheduled(cron = "${gps.archive.cron:0 45 2 * * *}")
+    public void archive() {
+        if (!enabled || afterDays <= 0) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDate.now().minusDays(afterDays).atStartOfDay();
+
+        List<Candidate> candidates = jdbcTemplate.query(
+                CANDIDATES_SQL,
+                (rs, rowNum) -> new Candidate(rs.getLong("vehicle_id"), rs.getDate("day").toLocalDate()),
+                Timestamp.valueOf(cutoff),
+                Math.max(1, maxSegmentsPerRun)
+        );
+
+        int archived = 0;
+
+        for (Candidate candidate : candidates) {
+            try {
+                if (archiveDay(candidate.vehicleId(), candidate.day())) {
+                    archived++;
+                }
+            } catch (Exception e) {
+                log.warn("GPS archive of vehicle {} on {} failed: {}", candidate.vehicleId(), candidate.day(), e.getMessage());
+            }
+        }
+
+        if (archived > 0) {
+            log.info("GPS archive: {} vehicle-days moved out of gps_data (before {})", archived, cutoff.toLocalDate());
+        }
+    }
+
+    public boolean archiveDay(Long vehicleId, LocalDate day) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("select pg_advisory_xact_lock(?)::text", String.class, ARCHIVE_LOCK_KEY);
+
+            LocalDateTime from = day.atStartOfDay();
+            LocalDateTime to = from.plusDays(1);
+
+            List<GpsArchiveRecord> rows = new ArrayList<>();
+            long[] dbBytes = {0};
+            long started = System.nanoTime();
+
+            jdbcTemplate.query(
+                    SELECT_DAY_SQL,
+                    (ResultSet rs) -> {
+                        rows.add(toRecord(rs));
+                        dbBytes[0] += rs.getLong("row_bytes");
+                    },
+                    vehicleId,
+                    Timestamp.valueOf(from),
+                    Timestamp.valueOf(to),
+                    vehicleId
+            );
+
+            long dbReadNanos = System.nanoTime() - started;
+
+            if (rows.isEmpty()) {
+                return false;
+            }
+
+            Optional<GpsArchiveSegment> existing = segmentRepository.findByVehicleIdAndDay(vehicleId, day);
+
+            // Points arrivés en retard sur une journée déjà archivée : le segment est réécrit en entier.
+            List<GpsArchiveRecord> records = existing
+                    .map(segment -> merge(gpsArchiveStore.read(segment), rows))
+                    .orElse(rows);
+
+            byte[] content = GpsArchiveCodec.encode(vehicleId, records);
+            String fileName = day.format(FILE_DAY) + "-" + System.currentTimeMillis() + GpsArchiveStore.EXTENSION;
+
+            gpsArchiveStore.write(vehicleId, fileName, content);
+
+            GpsArchiveSegment segment = existing.orElseGet(GpsArchiveSegment::new);
+            String previousFile = segment.getFileName();
+
+            segment.setVehicleId(vehicleId);
+            segment.setDay(day);
+            segment.setFileName(fileName);
+            segment.setPointCount((long) records.size());
+            segment.setFirstTimestamp(records.get(0).timestamp());
+            segment.setLastTimestamp(records.get(records.size() - 1).timestamp());
+            segment.setFileBytes((long) content.length);
+            segment.setDbBytes(dbBytes[0] + (segment.getDbBytes() != null ? segment.getDbBytes() : 0));
+            segment.setDbReadNanos(dbReadNanos + (segment.getDbReadNanos() != null ? segment.getDbReadNanos() : 0));
+            segment.setArchivedAt(LocalDateTime.now());
+            segmentRepository.save(segment);
+
+            Long[] ids = rows.stream().map(GpsArchiveRecord::id).toArray(Long[]::new);
+
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(DELETE_SQL);
+                ps.setLong(1, vehicleId);
+                ps.setTimestamp(2, Timestamp.valueOf(from));
+                ps.setTimestamp(3, Timestamp.valueOf(to));
+                ps.setArray(4, connection.createArrayOf("bigint", ids));
+                return ps;
+            });
+
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int completion) {
+                    if (completion != STATUS_COMMITTED) {
+                        gpsArchiveStore.delete(vehicleId, fileName);
+                    } else if (previousFile != null) {
+                        gpsArchiveStore.delete(vehicleId, previousFile);
+                    }
+                }
+            });
+
+            return true;
+        }));
+    }
+
+    /*
+     * Taux de compression et débit de lecture comparés à PostgreSQL : la base est mesurée au moment
+     * de l'archivage (mêmes lignes), l'archive en relisant les segments les plus récents.
+     */
+    public GpsArchiveStatsDTO getStats() {
+        Object[] totals = segmentRepository.aggregateStats().get(0);
+
+        long segments = ((Number) totals[0]).longValue();
+        long points = ((Number) totals[1]).longValue();
+        long archiveBytes = ((Number) totals[2]).longValue();
+        long dbBytes = ((Number) totals[3]).longValue();
+        long dbReadNanos = ((Number) totals[4]).longValue();
+
+        long benchmarkPoints = 0;
+        long benchmarkNanos = 0;
+        int benchmarked = 0;
+
+        for (GpsArchiveSegment segment : segmentRepository.findByOrderByArchivedAtDesc(
+                PageRequest.of(0, Math.max(1, benchmarkSegments)))) {
+            try {
+                long started = System.nanoTime();
+                benchmarkPoints += gpsArchiveStore.read(segment).size();
+                benchmarkNanos += System.nanoTime() - started;
+                benchmarked++;
+            } catch (Exception e) {
+                log.warn("GPS archive segment {} unreadable: {}", segment.getFileName(), e.getMessage());
+            }
+        }
+
+        return new GpsArchiveStatsDTO(
+                segments,
+                points,
+                archiveBytes,
+                dbBytes,
+                archiveBytes > 0 ? (double) dbBytes / archiveBytes : 0,
+                perSecond(points, dbReadNanos),
+                perSecond(benchmarkPoints, benchmarkNanos),
+                benchmarked
+        );
+    }
+
+    private double perSecond(long points, long nanos) {
+        return nanos > 0 ? points * 1_000_000_000d / nanos : 0;
+    }
+
+    private List<GpsArchiveRecord> merge(List<GpsArchiveRecord> archived, List<GpsArchiveRecord> rows) {
+        Map<Long, GpsArchiveRecord> byId = new LinkedHashMap<>();
+
+        for (GpsArchiveRecord record : archived) {
+            byId.put(record.id(), record);
+        }
+
+        for (GpsArchiveRecord record : rows) {
+            byId.put(record.id(), record);
+        }
+
+        List<GpsArchiveRecord> merged = new ArrayList<>(byId.values());
+        merged.sort(RECORD_ORDER);
+        return merged;
+    }
+
+    private GpsArchiveRecord toRecord(ResultSet rs) throws SQLException {
+        return new GpsArchiveRecord(
+                rs.getLong("id"),
+                rs.getLong("vehicle_id"),
+                rs.getObject("mission_id", Long.class),
+                rs.getDouble("latitude"),
+                rs.getDouble("longitude"),
+                rs.getDouble("speed"),
+                rs.getBoolean("engine_on"),
+                rs.getTimestamp("timestamp").toLocalDateTime(),
+                rs.getString("route_id"),
+                rs.getString("route_source"),
+                rs.getObject("engine_rpm", Integer.class),
+                rs.getObject("fuel_level", Double.class),
+                rs.getObject("engine_temperature", Double.class),
+                rs.getObject("battery_voltage", Double.class),
+                rs.getObject("engine_load", Double.class),
+                rs.getObject("check_engine_on", Boolean.class)
+        );
+    }
+
+    private record Candidate(Long vehicleId, LocalDate day) {
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.fleet_backend.service.gps.archive;
+
+import com.example.fleet_backend.dto.GpsPointDTO;
+import com.example.fleet_backend.model.GpsArchiveSegment;
+import com.example.fleet_backend.repository.GpsArchiveSegmentRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Fichiers de segments d'archive GPS : écriture atomique et durable, lecture par mappage mémoire.
+ * Seuls les segments enregistrés dans {@code gps_archive_segments} sont lus ; un fichier orphelin
+ * (transaction d'archivage annulée) est ignoré.
+ *
+ * <p>Les lignes archivées quittent la base partagée : le répertoire doit être un stockage commun à
+ * toutes les instances. L'exploitant le signale en y déposant le fichier {@value #SHARED_MARKER} ;
+ * sans lui, le démarrage échoue dès que l'archivage est actif ou que des segments existent.</p>
+ */
+@Component
+public class GpsArchiveStore {
+
+    private static final Logger log = LoggerFactory.getLogger(GpsArchiveStore.class);
+
+    public static final String EXTENSION = ".fgpa";
+    public static final String SHARED_MARKER = ".fleet-gps-archive";
+
+    private final GpsArchiveSegmentRepository segmentRepository;
+    private final Path root;
+    private final boolean enabled;
+
+    public GpsArchiveStore(GpsArchiveSegmentRepository segmentRepository,
+                           @Value("${gps.archive.dir:archive/gps}") String directory,
+                           @Value("${gps.archive.enabled:false}") boolean enabled) {
+        this.segmentRepository = segmentRepository;
+        this.root = Paths.get(directory).toAbsolutePath();
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void verifyStorage() {
+        if (!enabled && segmentRepository.count() == 0) {
+            return;
+        }
+
+        if (!Files.isRegularFile(root.resolve(SHARED_MARKER))) {
+            throw new IllegalStateException(
+                    "GPS archive directory " + root + " is not marked as shared storage (missing " + SHARED_MARKER
+                            + "): archived days would only be readable from the node that wrote them"
+            );
+        }
+    }
+
+    public void write(Long vehicleId, String fileName, byte[] content) {
+        Path target = path(vehicleId, fileName);
+        Path temporary = target.resolveSibling(fileName + ".tmp");
+
+        try {
+            boolean newDirectory = !Files.isDirectory(target.getParent());
+            Files.createDirectories(target.getParent());
+
+            try (FileChannel channel = FileChannel.open(
+                    temporary,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE
+            )) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+
+                // Durable avant l'enregistrement du segment et la suppression des lignes.
+                channel.force(true);
+            }
+
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            // Le renommage n'est durable qu'une fois le répertoire synchronisé, avant la suppression des lignes.
+            forceDirectory(target.getParent());
+
+            if (newDirectory) {
+                forceDirectory(root);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("GPS archive write failed: " + target, e);
+        }
+    }
+
+    private void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    public List<GpsArchiveRecord> read(GpsArchiveSegment segment) {
+        Path file = path(segment.getVehicleId(), segment.getFileName());
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Le mappage reste valide après la fermeture du canal, le temps du décodage.
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return GpsArchiveCodec.decode(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("GPS archive read failed: " + file, e);
+        }
+    }
+
+    public void delete(Long vehicleId, String fileName) {
+        try {
+            Files.deleteIfExists(path(vehicleId, fileName));
+        } catch (IOException e) {
+            log.warn("GPS archive file {} for vehicle {} not deleted: {}", fileName, vehicleId, e.getMessage());
+        }
+    }
+
+    // Majorant : les segments qui chevauchent la plage sont comptés en entier.
+    public long countPoints(Long vehicleId, LocalDateTime from, LocalDateTime to) {
+        return segmentRepository.sumPointsOverlapping(vehicleId, from, to);
+    }
+
+    public Iterator<GpsPointDTO> points(Long vehicleId, LocalDateTime from, LocalDateTime to, boolean descending) {
+        Iterator<GpsArchiveRecord> records = records(vehicleId, from, to, descending);
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return records.hasNext();
+            }
+
+            @Override
+            public GpsPointDTO next() {
+                return records.next().toPoint();
+            }
+        };
+    }
+
+    /*
+     * Lignes archivées de la plage, triées par (timestamp, id) ; un seul segment décodé à la fois,
+     * à la demande de l'itérateur.
+     */
+    public Iterator<GpsArchiveRecord> records(Long vehicleId, LocalDateTime from, LocalDateTime to, boolean descending) {
+        List<GpsArchiveSegment> segments = new ArrayList<>(segmentRepository.findOverlapping(vehicleId, from, to));
+
+        if (segments.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+
+        if (descending) {
+            Collections.reverse(segments);
+        }
+
+        Iterator<GpsArchiveSegment> pending = segments.iterator();
+
+        return new Iterator<>() {
+            private List<GpsArchiveRecord> current = List.of();
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                while (index >= current.size()) {
+                    if (!pending.hasNext()) {
+                        return false;
+                    }
+
+                    current = inRange(read(pending.next()), from, to, descending);
+                    index = 0;
+                }
+
+                return true;
+            }
+
+            @Override
+            public GpsArchiveRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                return current.get(index++);
+            }
+        };
+    }
+
+    private List<GpsArchiveRecord> inRange(List<GpsArchiveRecord> records,
+                                           LocalDateTime from,
+                                           LocalDateTime to,
+                                           boolean descending) {
+        List<GpsArchiveRecord> selected = new ArrayList<>(records.size());
+
+        for (GpsArchiveRecord record : records) {
+            if (!record.timestamp().isBefore(from) && !record.timestamp().isAfter(to)) {
+                selected.add(record);
+            }
+        }
+
+        if (descending) {
+            Collections.reverse(selected);
+        }
+
+        return selected;
+    }
+
+    private Path path(Long vehicleId, String fileName) {
+        return root.resolve("vehicle-" + vehicleId).resolve(fileName);
+    }
+}
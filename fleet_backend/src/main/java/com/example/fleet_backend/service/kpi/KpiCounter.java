@@ -0,0 +1,96 @@
+package com.example.fleet_backend.service.kpi;
+
+import com.example.fleet_backend.model.EventSeverity;
+import com.example.fleet_backend.model.IncidentStatus;
+import com.example.fleet_backend.model.MaintenanceStatus;
+import com.example.fleet_backend.model.Mission;
+import com.example.fleet_backend.model.Vehicle;
+
+public enum KpiCounter {
+    TOTAL_VEHICLES,
+    AVAILABLE_VEHICLES,
+    IN_USE_VEHICLES,
+    MAINTENANCE_VEHICLES,
+    RESERVED_VEHICLES,
+    OUT_OF_SERVICE_VEHICLES,
+
+    PLANNED_MISSIONS,
+    ACTIVE_MISSIONS,
+    COMPLETED_MISSIONS,
+    CANCELED_MISSIONS,
+
+    OPEN_INCIDENTS,
+    IN_PROGRESS_INCIDENTS,
+    RESOLVED_INCIDENTS,
+    CRITICAL_INCIDENTS,
+
+    PLANNED_MAINTENANCES,
+    IN_PROGRESS_MAINTENANCES,
+    DONE_MAINTENANCES,
+    OVERDUE_MAINTENANCES,
+    CANCELED_MAINTENANCES,
+
+    CRITICAL_ALERTS_TODAY,
+    WARNING_ALERTS_TODAY;
+
+    public boolean isDaily() {
+        return this == CRITICAL_ALERTS_TODAY || this == WARNING_ALERTS_TODAY;
+    }
+
+    static KpiCounter forVehicle(Vehicle.VehicleStatus status) {
+        if (status == null) return null;
+
+        return switch (status) {
+            case AVAILABLE -> AVAILABLE_VEHICLES;
+            case IN_USE -> IN_USE_VEHICLES;
+            case UNDER_MAINTENANCE -> MAINTENANCE_VEHICLES;
+            case RESERVED -> RESERVED_VEHICLES;
+            case OUT_OF_SERVICE -> OUT_OF_SERVICE_VEHICLES;
+            default -> null;
+        };
+    }
+
+    static KpiCounter forMission(Mission.MissionStatus status) {
+        if (status == null) return null;
+
+        return switch (status) {
+            case PLANNED -> PLANNED_MISSIONS;
+            case IN_PROGRESS -> ACTIVE_MISSIONS;
+            case COMPLETED -> COMPLETED_MISSIONS;
+            case CANCELED -> CANCELED_MISSIONS;
+        };
+    }
+
+    static KpiCounter forIncident(IncidentStatus status) {
+        if (status == null) return null;
+
+        return switch (status) {
+            case OPEN -> OPEN_INCIDENTS;
+            case IN_PROGRESS -> IN_PROGRESS_INCIDENTS;
+            case RESOLVED -> RESOLVED_INCIDENTS;
+            default -> null;
+        };
+    }
+
+    static KpiCounter forMaintenance(MaintenanceStatus status) {
+        if (status == null) return null;
+
+        return switch (status) {
+            case PLANNED -> PLANNED_MAINTENANCES;
+            case IN_PROGRESS -> IN_PROGRESS_MAINTENANCES;
+            case DONE -> DONE_MAINTENANCES;
+            case OVERDUE -> OVERDUE_MAINTENANCES;
+            case CANCELED -> CANCELED_MAINTENANCES;
+        };
+    }
+
+    static KpiCounter forAlert(EventSeverity severity) {
+        if (severity == null) return null;
+
+        return switch (severity) {
+            case CRITICAL -> CRITICAL_ALERTS_TODAY;
+            case WARNING -> WARNING_ALERTS_TODAY;
+            default -> null;
+        };
+    }
+}
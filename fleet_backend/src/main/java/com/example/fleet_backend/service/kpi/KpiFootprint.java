@@ -0,0 +1,16 @@
+package com.example.fleet_backend.service.kpi;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Contribution d'une ligne (véhicule, mission, incident, maintenance, événement) aux KPI de son propriétaire.
+ * Le propriétaire est donné directement, ou déduit du véhicule au moment de l'application.
+ */
+record KpiFootprint(Long ownerId,
+                    Long vehicleId,
+                    List<KpiCounter> counters,
+                    BigDecimal cost,
+                    LocalDate day) {
+}
@@ -0,0 +1,135 @@
+package com.example.fleet_backend.service.kpi;
+
+import com.example.fleet_backend.dto.DashboardKpiDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+
+final class OwnerKpiCounters {
+
+    private final long[] values = new long[KpiCounter.values().length];
+    private BigDecimal maintenanceTotalCost = BigDecimal.ZERO;
+    private LocalDate day;
+
+    static OwnerKpiCounters from(DashboardKpiDTO dto, LocalDate day) {
+        OwnerKpiCounters counters = new OwnerKpiCounters();
+
+        counters.day = day;
+        counters.set(KpiCounter.TOTAL_VEHICLES, dto.getTotalVehicles());
+        counters.set(KpiCounter.AVAILABLE_VEHICLES, dto.getAvailableVehicles());
+        counters.set(KpiCounter.IN_USE_VEHICLES, dto.getInUseVehicles());
+        counters.set(KpiCounter.MAINTENANCE_VEHICLES, dto.getMaintenanceVehicles());
+        counters.set(KpiCounter.RESERVED_VEHICLES, dto.getReservedVehicles());
+        counters.set(KpiCounter.OUT_OF_SERVICE_VEHICLES, dto.getOutOfServiceVehicles());
+        counters.set(KpiCounter.PLANNED_MISSIONS, dto.getPlannedMissions());
+        counters.set(KpiCounter.ACTIVE_MISSIONS, dto.getActiveMissions());
+        counters.set(KpiCounter.COMPLETED_MISSIONS, dto.getCompletedMissions());
+        counters.set(KpiCounter.CANCELED_MISSIONS, dto.getCanceledMissions());
+        counters.set(KpiCounter.OPEN_INCIDENTS, dto.getOpenIncidents());
+        counters.set(KpiCounter.IN_PROGRESS_INCIDENTS, dto.getInProgressIncidents());
+        counters.set(KpiCounter.RESOLVED_INCIDENTS, dto.getResolvedIncidents());
+        counters.set(KpiCounter.CRITICAL_INCIDENTS, dto.getCriticalIncidents());
+        counters.set(KpiCounter.PLANNED_MAINTENANCES, dto.getPlannedMaintenances());
+        counters.set(KpiCounter.IN_PROGRESS_MAINTENANCES, dto.getInProgressMaintenances());
+        counters.set(KpiCounter.DONE_MAINTENANCES, dto.getDoneMaintenances());
+        counters.set(KpiCounter.OVERDUE_MAINTENANCES, dto.getOverdueMaintenances());
+        counters.set(KpiCounter.CANCELED_MAINTENANCES, dto.getCanceledMaintenances());
+        counters.set(KpiCounter.CRITICAL_ALERTS_TODAY, dto.getCriticalAlertsToday());
+        counters.set(KpiCounter.WARNING_ALERTS_TODAY, dto.getWarningAlertsToday());
+        counters.maintenanceTotalCost = dto.getMaintenanceTotalCost() != null
+                ? dto.getMaintenanceTotalCost()
+                : BigDecimal.ZERO;
+
+        return counters;
+    }
+
+    synchronized void apply(KpiFootprint footprint, int sign, LocalDate today) {
+        rollDay(today);
+
+        for (KpiCounter counter : footprint.counters()) {
+            // Les alertes ne comptent que le jour de leur création.
+            if (counter.isDaily() && !Objects.equals(footprint.day(), today)) {
+                continue;
+            }
+
+            values[counter.ordinal()] += sign;
+        }
+
+        if (footprint.cost() != null) {
+            maintenanceTotalCost = sign > 0
+                    ? maintenanceTotalCost.add(footprint.cost())
+                    : maintenanceTotalCost.subtract(footprint.cost());
+        }
+    }
+
+    synchronized DashboardKpiDTO toDto(LocalDate today) {
+        rollDay(today);
+
+        DashboardKpiDTO dto = new DashboardKpiDTO();
+
+        dto.setTotalVehicles(get(KpiCounter.TOTAL_VEHICLES));
+        dto.setAvailableVehicles(get(KpiCounter.AVAILABLE_VEHICLES));
+        dto.setInUseVehicles(get(KpiCounter.IN_USE_VEHICLES));
+        dto.setMaintenanceVehicles(get(KpiCounter.MAINTENANCE_VEHICLES));
+        dto.setReservedVehicles(get(KpiCounter.RESERVED_VEHICLES));
+        dto.setOutOfServiceVehicles(get(KpiCounter.OUT_OF_SERVICE_VEHICLES));
+        dto.setPlannedMissions(get(KpiCounter.PLANNED_MISSIONS));
+        dto.setActiveMissions(get(KpiCounter.ACTIVE_MISSIONS));
+        dto.setCompletedMissions(get(KpiCounter.COMPLETED_MISSIONS));
+        dto.setCanceledMissions(get(KpiCounter.CANCELED_MISSIONS));
+        dto.setOpenIncidents(get(KpiCounter.OPEN_INCIDENTS));
+        dto.setInProgressIncidents(get(KpiCounter.IN_PROGRESS_INCIDENTS));
+        dto.setResolvedIncidents(get(KpiCounter.RESOLVED_INCIDENTS));
+        dto.setCriticalIncidents(get(KpiCounter.CRITICAL_INCIDENTS));
+        dto.setPlannedMaintenances(get(KpiCounter.PLANNED_MAINTENANCES));
+        dto.setInProgressMaintenances(get(KpiCounter.IN_PROGRESS_MAINTENANCES));
+        dto.setDoneMaintenances(get(KpiCounter.DONE_MAINTENANCES));
+        dto.setOverdueMaintenances(get(KpiCounter.OVERDUE_MAINTENANCES));
+        dto.setCanceledMaintenances(get(KpiCounter.CANCELED_MAINTENANCES));
+        dto.setMaintenanceTotalCost(maintenanceTotalCost);
+        dto.setCriticalAlertsToday(get(KpiCounter.CRITICAL_ALERTS_TODAY));
+        dto.setWarningAlertsToday(get(KpiCounter.WARNING_ALERTS_TODAY));
+        dto.setGeneratedAt(LocalDateTime.now());
+
+        return dto;
+    }
+
+    boolean sameAs(OwnerKpiCounters other) {
+        long[] otherValues;
+        BigDecimal otherCost;
+        LocalDate otherDay;
+
+        synchronized (other) {
+            otherValues = other.values.clone();
+            otherCost = other.maintenanceTotalCost;
+            otherDay = other.day;
+        }
+
+        synchronized (this) {
+            return Objects.equals(day, otherDay)
+                    && Arrays.equals(values, otherValues)
+                    && maintenanceTotalCost.compareTo(otherCost) == 0;
+        }
+    }
+
+    private void rollDay(LocalDate today) {
+        if (Objects.equals(day, today)) {
+            return;
+        }
+
+        day = today;
+        values[KpiCounter.CRITICAL_ALERTS_TODAY.ordinal()] = 0;
+        values[KpiCounter.WARNING_ALERTS_TODAY.ordinal()] = 0;
+    }
+
+    private void set(KpiCounter counter, long value) {
+        values[counter.ordinal()] = value;
+    }
+
+    private long get(KpiCounter counter) {
+        return values[counter.ordinal()];
+    }
+}
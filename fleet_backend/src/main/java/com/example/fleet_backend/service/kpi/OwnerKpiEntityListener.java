@@ -0,0 +1,277 @@
+package com.example.fleet_backend.service.kpi;
+
+import com.example.fleet_backend.model.EventSeverity;
+import com.example.fleet_backend.model.Incident;
+import com.example.fleet_backend.model.IncidentSeverity;
+import com.example.fleet_backend.model.IncidentStatus;
+import com.example.fleet_backend.model.Maintenance;
+import com.example.fleet_backend.model.MaintenanceStatus;
+import com.example.fleet_backend.model.Mission;
+import com.example.fleet_backend.model.User;
+import com.example.fleet_backend.model.Vehicle;
+import com.example.fleet_backend.model.VehicleEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Suit les transitions des entités qui alimentent les KPI propriétaire et les reporte dans
+ * {@link OwnerKpiStore} une fois la transaction validée.
+ */
+@Component
+public class OwnerKpiEntityListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Object PENDING_KEY = new Object();
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final OwnerKpiStore ownerKpiStore;
+
+    public OwnerKpiEntityListener(EntityManagerFactory entityManagerFactory,
+                                  OwnerKpiStore ownerKpiStore) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.ownerKpiStore = ownerKpiStore;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!isTracked(event.getEntity())) return;
+
+        track(event.getEntity(), null, footprint(event.getEntity(), event.getPersister(), event.getState()));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!isTracked(event.getEntity())) return;
+
+        if (event.getOldState() == null) {
+            // Entité rattachée sans état initial : la transition n'est pas reconstructible.
+            ownerKpiStore.invalidateAll();
+            return;
+        }
+
+        track(
+                event.getEntity(),
+                footprint(event.getEntity(), event.getPersister(), event.getOldState()),
+                footprint(event.getEntity(), event.getPersister(), event.getState())
+        );
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (!isTracked(event.getEntity())) return;
+
+        track(event.getEntity(), footprint(event.getEntity(), event.getPersister(), event.getDeletedState()), null);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private boolean isTracked(Object entity) {
+        return entity instanceof Vehicle
+                || entity instanceof Mission
+                || entity instanceof Incident
+                || entity instanceof Maintenance
+                || entity instanceof VehicleEvent;
+    }
+
+    private void track(Object entity, KpiFootprint removed, KpiFootprint added) {
+        List<Runnable> rollbacks = new ArrayList<>(1);
+
+        // Le rattachement véhicule -> propriétaire suit immédiatement, pour les lignes écrites dans la même transaction.
+        if (entity instanceof Vehicle vehicle && vehicle.getId() != null && ownerChanged(removed, added)) {
+            Long ownerId = added != null ? added.ownerId() : null;
+            Long previous = ownerKpiStore.vehicleOwnerChanged(vehicle.getId(), ownerId);
+            rollbacks.add(() -> ownerKpiStore.vehicleOwnerChanged(vehicle.getId(), previous));
+        }
+
+        OwnerKpiStore.KpiChange change = ownerKpiStore.begin(removed, added);
+
+        if (change == null && rollbacks.isEmpty()) {
+            return;
+        }
+
+        PendingChanges pending = currentPendingChanges();
+
+        if (pending == null) {
+            ownerKpiStore.complete(change, true);
+            return;
+        }
+
+        pending.changes.add(change);
+        pending.rollbacks.addAll(rollbacks);
+    }
+
+    private boolean ownerChanged(KpiFootprint removed, KpiFootprint added) {
+        return removed == null
+                || added == null
+                || !Objects.equals(removed.ownerId(), added.ownerId());
+    }
+
+    private PendingChanges currentPendingChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(PENDING_KEY);
+
+        if (pending != null) {
+            return pending;
+        }
+
+        PendingChanges created = new PendingChanges();
+        TransactionSynchronizationManager.bindResource(PENDING_KEY, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+
+                boolean committed = status == STATUS_COMMITTED;
+
+                if (!committed) {
+                    for (int i = created.rollbacks.size() - 1; i >= 0; i--) {
+                        created.rollbacks.get(i).run();
+                    }
+                }
+
+                for (OwnerKpiStore.KpiChange change : created.changes) {
+                    ownerKpiStore.complete(change, committed);
+                }
+            }
+        });
+
+        return created;
+    }
+
+    private KpiFootprint footprint(Object entity, EntityPersister persister, Object[] state) {
+        if (state == null) {
+            return null;
+        }
+
+        String[] names = persister.getPropertyNames();
+
+        if (entity instanceof Vehicle) {
+            Long ownerId = userId(value(names, state, "owner"));
+            KpiCounter status = KpiCounter.forVehicle((Vehicle.VehicleStatus) value(names, state, "status"));
+
+            return new KpiFootprint(ownerId, null, counters(KpiCounter.TOTAL_VEHICLES, status), null, null);
+        }
+
+        if (entity instanceof Mission) {
+            Long ownerId = userId(value(names, state, "owner"));
+            KpiCounter status = KpiCounter.forMission((Mission.MissionStatus) value(names, state, "status"));
+
+            return new KpiFootprint(ownerId, null, counters(status), null, null);
+        }
+
+        if (entity instanceof Incident) {
+            IncidentStatus status = (IncidentStatus) value(names, state, "status");
+            IncidentSeverity severity = (IncidentSeverity) value(names, state, "severity");
+
+            boolean critical = severity == IncidentSeverity.CRITICAL
+                    && (status == IncidentStatus.OPEN || status == IncidentStatus.IN_PROGRESS);
+
+            return new KpiFootprint(
+                    null,
+                    vehicleId(value(names, state, "vehicle")),
+                    counters(KpiCounter.forIncident(status), critical ? KpiCounter.CRITICAL_INCIDENTS : null),
+                    null,
+                    null
+            );
+        }
+
+        if (entity instanceof Maintenance) {
+            KpiCounter status = KpiCounter.forMaintenance((MaintenanceStatus) value(names, state, "status"));
+
+            return new KpiFootprint(
+                    null,
+                    vehicleId(value(names, state, "vehicle")),
+                    counters(status),
+                    (BigDecimal) value(names, state, "cost"),
+                    null
+            );
+        }
+
+        if (entity instanceof VehicleEvent) {
+            KpiCounter alert = KpiCounter.forAlert((EventSeverity) value(names, state, "severity"));
+            LocalDateTime createdAt = (LocalDateTime) value(names, state, "createdAt");
+
+            return new KpiFootprint(
+                    null,
+                    vehicleId(value(names, state, "vehicle")),
+                    counters(alert),
+                    null,
+                    createdAt != null ? createdAt.toLocalDate() : null
+            );
+        }
+
+        return null;
+    }
+
+    private Object value(String[] names, Object[] state, String property) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(property)) {
+                return state[i];
+            }
+        }
+
+        return null;
+    }
+
+    private List<KpiCounter> counters(KpiCounter... values) {
+        List<KpiCounter> result = new ArrayList<>(values.length);
+
+        for (KpiCounter value : values) {
+            if (value != null) {
+                result.add(value);
+            }
+        }
+
+        return List.copyOf(result);
+    }
+
+    // L'identifiant d'un proxy Hibernate se lit sans l'initialiser.
+    private Long userId(Object value) {
+        return value instanceof User user ? user.getId() : null;
+    }
+
+    private Long vehicleId(Object value) {
+        return value instanceof Vehicle vehicle ? vehicle.getId() : null;
+    }
+
+    private static final class PendingChanges {
+        private final List<OwnerKpiStore.KpiChange> changes = new ArrayList<>();
+        private final List<Runnable> rollbacks = new ArrayList<>();
+    }
+}
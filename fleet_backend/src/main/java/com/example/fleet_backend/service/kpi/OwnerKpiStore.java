@@ -0,0 +1,245 @@
+package com.example.fleet_backend.service.kpi;
+
+import com.example.fleet_backend.dto.DashboardKpiDTO;
+import com.example.fleet_backend.repository.VehicleRepository;
+import com.example.fleet_backend.service.DashboardKpiService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class OwnerKpiStore {
+
+    private static final Logger log = LoggerFactory.getLogger(OwnerKpiStore.class);
+
+    private final DashboardKpiService dashboardKpiService;
+    private final VehicleRepository vehicleRepository;
+
+    private final ConcurrentHashMap<Long, OwnerKpiCounters> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, OwnerState> owners = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> vehicleOwners = new ConcurrentHashMap<>();
+    private final Set<Long> changedOwners = ConcurrentHashMap.newKeySet();
+
+    // Incrémenté quand un changement n'a pas pu être rattaché à un propriétaire.
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    private volatile boolean warmed;
+
+    public OwnerKpiStore(DashboardKpiService dashboardKpiService,
+                         VehicleRepository vehicleRepository) {
+        this.dashboardKpiService = dashboardKpiService;
+        this.vehicleRepository = vehicleRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (Object[] row : vehicleRepository.findVehicleOwnerRows()) {
+            if (row[0] != null && row[1] != null) {
+                vehicleOwners.putIfAbsent((Long) row[0], (Long) row[1]);
+            }
+        }
+
+        warmed = true;
+
+        log.info("Owner KPI store warmed with {} vehicles", vehicleOwners.size());
+    }
+
+    public DashboardKpiDTO getOwnerKpi(Long ownerId) {
+        OwnerKpiCounters current = counters.get(ownerId);
+
+        if (current != null) {
+            return current.toDto(LocalDate.now());
+        }
+
+        return load(ownerId);
+    }
+
+    public Set<Long> drainChangedOwners() {
+        Set<Long> drained = new HashSet<>();
+        Iterator<Long> iterator = changedOwners.iterator();
+
+        while (iterator.hasNext()) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+
+        return drained;
+    }
+
+    public int getCachedOwnerCount() {
+        return counters.size();
+    }
+
+    /*
+     * Appelé au moment de l'écriture, avant le commit : le propriétaire est marqué "en cours"
+     * tant que la transaction n'est pas terminée, ce qui empêche un rechargement depuis la base
+     * de s'appuyer sur un état où le changement serait compté deux fois.
+     */
+    KpiChange begin(KpiFootprint removed, KpiFootprint added) {
+        if (Objects.equals(removed, added)) {
+            return null;
+        }
+
+        Long removedOwner = resolveOwner(removed);
+        Long addedOwner = resolveOwner(added);
+
+        KpiChange change = new KpiChange(removedOwner, removed, addedOwner, added);
+
+        for (Long ownerId : change.owners()) {
+            OwnerState state = stateOf(ownerId);
+            state.inFlight.incrementAndGet();
+            state.version.incrementAndGet();
+        }
+
+        return change;
+    }
+
+    void complete(KpiChange change, boolean committed) {
+        if (change == null) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+
+        if (committed) {
+            apply(change.removedOwner(), change.removed(), -1, today);
+            apply(change.addedOwner(), change.added(), 1, today);
+        }
+
+        for (Long ownerId : change.owners()) {
+            stateOf(ownerId).inFlight.decrementAndGet();
+
+            if (committed) {
+                changedOwners.add(ownerId);
+            }
+        }
+    }
+
+    Long vehicleOwnerChanged(Long vehicleId, Long ownerId) {
+        if (vehicleId == null) {
+            return null;
+        }
+
+        return ownerId == null
+                ? vehicleOwners.remove(vehicleId)
+                : vehicleOwners.put(vehicleId, ownerId);
+    }
+
+    // Écart non rattachable (ancien état inconnu, véhicule inconnu) : on repart de la base.
+    void invalidateAll() {
+        globalVersion.incrementAndGet();
+        changedOwners.addAll(counters.keySet());
+        counters.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.kpi.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        List<Long> ownerIds = new ArrayList<>(counters.keySet());
+        int corrected = 0;
+
+        for (Long ownerId : ownerIds) {
+            try {
+                OwnerKpiCounters before = counters.get(ownerId);
+                load(ownerId);
+                OwnerKpiCounters after = counters.get(ownerId);
+
+                if (before != null && after != null && after != before && !after.sameAs(before)) {
+                    corrected++;
+                    changedOwners.add(ownerId);
+                }
+            } catch (Exception e) {
+                log.warn("Owner KPI reconciliation failed for owner {}: {}", ownerId, e.getMessage());
+            }
+        }
+
+        if (corrected > 0) {
+            log.info("Owner KPI reconciliation corrected {} of {} owners", corrected, ownerIds.size());
+        }
+    }
+
+    private DashboardKpiDTO load(Long ownerId) {
+        OwnerState state = stateOf(ownerId);
+        long version = state.version.get();
+        long global = globalVersion.get();
+        boolean quiet = state.inFlight.get() == 0;
+
+        DashboardKpiDTO fresh = dashboardKpiService.getOwnerKpi(ownerId);
+        OwnerKpiCounters loaded = OwnerKpiCounters.from(fresh, fresh.getGeneratedAt().toLocalDate());
+
+        // Un changement en cours ou survenu pendant la lecture peut manquer au résultat : on ne le garde pas.
+        counters.compute(ownerId, (id, current) ->
+                quiet
+                        && state.inFlight.get() == 0
+                        && state.version.get() == version
+                        && globalVersion.get() == global
+                        ? loaded
+                        : null
+        );
+
+        return fresh;
+    }
+
+    private void apply(Long ownerId, KpiFootprint footprint, int sign, LocalDate today) {
+        if (ownerId == null || footprint == null) {
+            return;
+        }
+
+        counters.computeIfPresent(ownerId, (id, current) -> {
+            current.apply(footprint, sign, today);
+            return current;
+        });
+    }
+
+    private Long resolveOwner(KpiFootprint footprint) {
+        if (footprint == null) {
+            return null;
+        }
+
+        if (footprint.ownerId() != null) {
+            return footprint.ownerId();
+        }
+
+        Long ownerId = footprint.vehicleId() != null ? vehicleOwners.get(footprint.vehicleId()) : null;
+
+        if (ownerId == null && footprint.vehicleId() != null && warmed) {
+            invalidateAll();
+        }
+
+        return ownerId;
+    }
+
+    private OwnerState stateOf(Long ownerId) {
+        return owners.computeIfAbsent(ownerId, id -> new OwnerState());
+    }
+
+    record KpiChange(Long removedOwner, KpiFootprint removed, Long addedOwner, KpiFootprint added) {
+
+        Set<Long> owners() {
+            Set<Long> result = new HashSet<>(2);
+
+            if (removedOwner != null) result.add(removedOwner);
+            if (addedOwner != null) result.add(addedOwner);
+
+            return result;
+        }
+    }
+
+    private static final class OwnerState {
+        private final AtomicLong version = new AtomicLong();
+        private final AtomicInteger inFlight = new AtomicInteger();
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.fleet_backend.service.outbox;
+
+import com.example.fleet_backend.model.OutboxMessage;
+import com.example.fleet_backend.repository.OutboxMessageRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Le broker STOMP est en mémoire (enableSimpleBroker) : chaque instance ne sert que ses propres
+ * clients. Chaque instance relaie donc toutes les lignes de l'outbox vers son broker, avec son propre
+ * curseur sur les identifiants ; aucune ligne n'est marquée délivrée en base et la purge se fait à
+ * l'âge. Un identifiant sauté (transaction pas encore validée) est réclamé pendant gap-wait-ms.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    // Au-delà, un saut d'identifiants (séquence avancée, lots annulés) n'est plus suivi trou par trou.
+    private static final int MAX_TRACKED_GAPS = 10_000;
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long gapWaitNanos;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long retentionMinutes;
+
+    private final Semaphore wakeups = new Semaphore(0);
+    private final AtomicLong relayed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    // État du seul thread de relais.
+    private long cursor = -1;
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+    private final TreeMap<Long, Parked> parked = new TreeMap<>();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public OutboxRelay(OutboxMessageRepository outboxMessageRepository,
+                       SimpMessagingTemplate messagingTemplate,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${outbox.relay.poll-interval-ms:500}") long pollIntervalMs,
+                       @Value("${outbox.relay.gap-wait-ms:5000}") long gapWaitMs,
+                       @Value("${outbox.relay.max-attempts:5}") int maxAttempts,
+                       @Value("${outbox.relay.retry-backoff-ms:1000}") long retryBackoffMs,
+                       @Value("${outbox.retention-minutes:60}") long retentionMinutes) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.pollIntervalMs = pollIntervalMs;
+        this.gapWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, gapWaitMs));
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = Math.max(0, retryBackoffMs);
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        worker = new Thread(this::runLoop, "outbox-relay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void wakeUp() {
+        if (wakeups.availablePermits() == 0) {
+            wakeups.release();
+        }
+    }
+
+    public long getRelayedCount() {
+        return relayed.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.prune-interval-ms:60000}")
+    public void prune() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxMessageRepository
+                    .deleteCreatedBefore(LocalDateTime.now().minusMinutes(retentionMinutes)));
+        } catch (Exception e) {
+            log.warn("Outbox prune failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        wakeups.release();
+
+        if (worker != null) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            int count = 0;
+
+            try {
+                count = relayBatch();
+            } catch (Exception e) {
+                log.warn("Outbox relay batch failed: {}", e.getMessage());
+            }
+
+            // Lot plein : il reste probablement des messages, on enchaîne sans attendre.
+            if (count >= batchSize) {
+                continue;
+            }
+
+            try {
+                wakeups.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Renvoie le nombre de nouvelles lignes lues.
+    int relayBatch() {
+        // Une instance qui démarre ne rejoue pas l'historique : ses clients ne sont pas encore connectés.
+        if (cursor < 0) {
+            cursor = outboxMessageRepository.findMaxId();
+            return 0;
+        }
+
+        long now = System.nanoTime();
+
+        List<OutboxMessage> fresh = outboxMessageRepository.findAfter(cursor, PageRequest.of(0, batchSize));
+        TreeMap<Long, OutboxMessage> due = new TreeMap<>();
+
+        for (OutboxMessage message : fresh) {
+            long id = message.getId();
+
+            for (long missing = cursor + 1; missing < id && gaps.size() < MAX_TRACKED_GAPS; missing++) {
+                gaps.put(missing, now);
+            }
+
+            cursor = id;
+            due.put(id, message);
+        }
+
+        collectGaps(due, now);
+        deliver(due, now);
+
+        return fresh.size();
+    }
+
+    // Lignes validées après une ligne plus récente : relayées dès qu'elles apparaissent, oubliées passé le délai.
+    private void collectGaps(Map<Long, OutboxMessage> due, long now) {
+        gaps.values().removeIf(seenAt -> now - seenAt > gapWaitNanos);
+
+        if (gaps.isEmpty()) {
+            return;
+        }
+
+        for (OutboxMessage message : outboxMessageRepository.findByIds(new ArrayList<>(gaps.keySet()))) {
+            gaps.remove(message.getId());
+            due.put(message.getId(), message);
+        }
+    }
+
+    /*
+     * Un échec met le message de côté avec un délai croissant ; les messages suivants du même véhicule
+     * attendent derrière lui pour garder l'ordre, les autres partent. Après max-attempts il est abandonné.
+     */
+    private void deliver(TreeMap<Long, OutboxMessage> fresh, long now) {
+        TreeMap<Long, Parked> candidates = new TreeMap<>(parked);
+        for (OutboxMessage message : fresh.values()) {
+            candidates.putIfAbsent(message.getId(), new Parked(message));
+        }
+
+        Set<Long> blockedKeys = new HashSet<>();
+        int delivered = 0;
+
+        for (Parked entry : candidates.values()) {
+            OutboxMessage message = entry.message;
+            Long key = message.getPartitionKey();
+
+            if ((key != null && blockedKeys.contains(key)) || (entry.attempts > 0 && entry.nextAttemptAt - now > 0)) {
+                parked.put(message.getId(), entry);
+                if (key != null) {
+                    blockedKeys.add(key);
+                }
+                continue;
+            }
+
+            try {
+                send(message);
+                parked.remove(message.getId());
+                delivered++;
+            } catch (Exception e) {
+                entry.attempts++;
+                failed.incrementAndGet();
+
+                if (entry.attempts >= maxAttempts) {
+                    parked.remove(message.getId());
+                    log.warn("Outbox message {} dropped after {} attempts: {}", message.getId(), entry.attempts, e.getMessage());
+                    continue;
+                }
+
+                entry.nextAttemptAt = now + TimeUnit.MILLISECONDS.toNanos(retryBackoffMs << Math.min(entry.attempts - 1, 10));
+                parked.put(message.getId(), entry);
+
+                if (key != null) {
+                    blockedKeys.add(key);
+                }
+
+                log.warn("Outbox message {} (attempt {}) failed: {}", message.getId(), entry.attempts, e.getMessage());
+            }
+        }
+
+        relayed.addAndGet(delivered);
+    }
+
+    private void send(OutboxMessage message) {
+        // Charge utile déjà sérialisée par l'ObjectMapper du convertisseur STOMP : trame identique à convertAndSend.
+        byte[] body = message.getPayload().getBytes(StandardCharsets.UTF_8);
+
+        for (String destination : message.getDestinations().split("\n")) {
+            if (destination.isBlank()) {
+                continue;
+            }
+
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            accessor.setLeaveMutable(true);
+
+            messagingTemplate.send(destination, MessageBuilder.createMessage(body, accessor.getMessageHeaders()));
+        }
+    }
+
+    private static final class Parked {
+        private final OutboxMessage message;
+        private int attempts;
+        private long nextAttemptAt;
+
+        private Parked(OutboxMessage message) {
+            this.message = message;
+        }
+    }
+}
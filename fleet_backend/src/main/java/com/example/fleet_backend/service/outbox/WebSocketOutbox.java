@@ -0,0 +1,130 @@
+package com.example.fleet_backend.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class WebSocketOutbox {
+
+    private static final String INSERT = """
+            insert into outbox_messages (partition_key, destinations, payload, created_at)
+            values (?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxRelay outboxRelay;
+    private final ObjectMapper objectMapper;
+
+    private final Object pendingKey = new Object();
+
+    public WebSocketOutbox(JdbcTemplate jdbcTemplate,
+                           OutboxRelay outboxRelay,
+                           ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxRelay = outboxRelay;
+        this.objectMapper = objectMapper;
+    }
+
+    // Écrit le message dans la transaction courante ; il n'est relayé qu'une fois celle-ci validée.
+    public void enqueue(Long partitionKey, Object payload, List<String> destinations) {
+        add(partitionKey, payload, destinations, false);
+    }
+
+    // État courant (position, OBD) : dans une même transaction, seul le dernier message par véhicule et destinations est gardé.
+    public void enqueueLatest(Long partitionKey, Object payload, List<String> destinations) {
+        add(partitionKey, payload, destinations, true);
+    }
+
+    private void add(Long partitionKey, Object payload, List<String> destinations, boolean latestOnly) {
+        if (payload == null || destinations == null || destinations.isEmpty()) {
+            return;
+        }
+
+        Object[] row = new Object[]{
+                partitionKey,
+                String.join("\n", destinations),
+                serialize(payload),
+                Timestamp.valueOf(LocalDateTime.now())
+        };
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jdbcTemplate.update(INSERT, row);
+            outboxRelay.wakeUp();
+            return;
+        }
+
+        PendingMessages pending = currentPending();
+
+        if (latestOnly) {
+            String key = partitionKey + "|" + row[1];
+            Integer index = pending.latestIndex.get(key);
+
+            if (index != null) {
+                pending.rows.set(index, row);
+                return;
+            }
+
+            pending.latestIndex.put(key, pending.rows.size());
+        }
+
+        pending.rows.add(row);
+    }
+
+    // Les messages d'une transaction partent en un seul INSERT par lot, juste avant la validation.
+    private PendingMessages currentPending() {
+        PendingMessages pending = (PendingMessages) TransactionSynchronizationManager.getResource(pendingKey);
+
+        if (pending != null) {
+            return pending;
+        }
+
+        PendingMessages created = new PendingMessages();
+        TransactionSynchronizationManager.bindResource(pendingKey, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (!created.rows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT, created.rows);
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                if (!created.rows.isEmpty()) {
+                    outboxRelay.wakeUp();
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+            }
+        });
+
+        return created;
+    }
+
+    private String serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox payload " + payload.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static final class PendingMessages {
+        private final List<Object[]> rows = new ArrayList<>();
+        private final Map<String, Integer> latestIndex = new HashMap<>();
+    }
+}
@@ -1,32 +1,65 @@
 package com.example.fleet_backend.websocket;
 
 import com.example.fleet_backend.dto.DashboardKpiDTO;
-import com.example.fleet_backend.service.DashboardKpiService;
+import com.example.fleet_backend.service.kpi.OwnerKpiStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Component
 public class DashboardWebSocketPublisher {
 
+    private static final Logger log = LoggerFactory.getLogger(DashboardWebSocketPublisher.class);
+
     private final SimpMessagingTemplate messagingTemplate;
-    private final DashboardKpiService dashboardKpiService;
+    private final OwnerKpiStore ownerKpiStore;
+
+    private final Set<Long> pendingOwners = ConcurrentHashMap.newKeySet();
 
     public DashboardWebSocketPublisher(
             SimpMessagingTemplate messagingTemplate,
-            DashboardKpiService dashboardKpiService
+            OwnerKpiStore ownerKpiStore
     ) {
         this.messagingTemplate = messagingTemplate;
-        this.dashboardKpiService = dashboardKpiService;
+        this.ownerKpiStore = ownerKpiStore;
     }
 
+    // Envoi regroupé : au plus un push par propriétaire et par intervalle.
     public void publishOwnerKpi(Long ownerId) {
         if (ownerId == null) return;
 
-        DashboardKpiDTO dto = dashboardKpiService.getOwnerKpi(ownerId);
+        pendingOwners.add(ownerId);
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.kpi.push-interval-ms:2000}")
+    public void flushPendingKpis() {
+        pendingOwners.addAll(ownerKpiStore.drainChangedOwners());
+
+        if (pendingOwners.isEmpty()) {
+            return;
+        }
+
+        List<Long> ownerIds = new ArrayList<>(pendingOwners);
+        pendingOwners.removeAll(ownerIds);
+
+        for (Long ownerId : ownerIds) {
+            try {
+                DashboardKpiDTO dto = ownerKpiStore.getOwnerKpi(ownerId);
 
-        messagingTemplate.convertAndSend(
-                "/topic/owners/" + ownerId + "/dashboard/kpi",
-                dto
-        );
+                messagingTemplate.convertAndSend(
+                        "/topic/owners/" + ownerId + "/dashboard/kpi",
+                        dto
+                );
+            } catch (Exception e) {
+                log.warn("Dashboard KPI push failed for owner {}: {}", ownerId, e.getMessage());
+            }
+        }
     }
-}
\ No newline at end of file
+}
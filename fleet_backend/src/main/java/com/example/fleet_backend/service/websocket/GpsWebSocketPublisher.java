@@ -9,26 +9,27 @@ import com.example.fleet_backend.model.GpsData;
 import com.example.fleet_backend.model.LiveStatus;
 import com.example.fleet_backend.model.Vehicle;
 import com.example.fleet_backend.model.VehicleLiveState;
-import com.example.fleet_backend.repository.VehicleLiveStateRepository;
 import com.example.fleet_backend.service.gps.ActiveMissionContext;
 import com.example.fleet_backend.service.gps.GpsMapperService;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import com.example.fleet_backend.service.gps.LiveStateStore;
+import com.example.fleet_backend.service.outbox.WebSocketOutbox;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class GpsWebSocketPublisher {
 
-    private final SimpMessagingTemplate messagingTemplate;
-    private final VehicleLiveStateRepository vehicleLiveStateRepository;
+    private final WebSocketOutbox webSocketOutbox;
+    private final LiveStateStore liveStateStore;
     private final GpsMapperService gpsMapperService;
 
-    public GpsWebSocketPublisher(SimpMessagingTemplate messagingTemplate,
-                                 VehicleLiveStateRepository vehicleLiveStateRepository,
+    public GpsWebSocketPublisher(WebSocketOutbox webSocketOutbox,
+                                 LiveStateStore liveStateStore,
                                  GpsMapperService gpsMapperService) {
-        this.messagingTemplate = messagingTemplate;
-        this.vehicleLiveStateRepository = vehicleLiveStateRepository;
+        this.webSocketOutbox = webSocketOutbox;
+        this.liveStateStore = liveStateStore;
         this.gpsMapperService = gpsMapperService;
     }
 
@@ -41,8 +42,8 @@ public class GpsWebSocketPublisher {
             return;
         }
 
-        VehicleLiveState state = vehicleLiveStateRepository
-                .findByVehicleId(vehicle.getId())
+        VehicleLiveState state = liveStateStore
+                .find(vehicle.getId())
                 .orElse(null);
 
         if (state == null) {
@@ -64,24 +65,21 @@ public class GpsWebSocketPublisher {
         VehicleLiveSocketDTO liveSocketDto = toLiveSocketDto(fullDto);
         ObdLiveSocketDTO obdSocketDto = toObdSocketDto(state, gpsData);
 
-        messagingTemplate.convertAndSend("/topic/gps/live", liveSocketDto);
-
-        messagingTemplate.convertAndSend(
-                "/topic/vehicles/" + liveSocketDto.getVehicleId() + "/live",
-                liveSocketDto
-        );
-
-        messagingTemplate.convertAndSend(
-                "/topic/vehicles/" + liveSocketDto.getVehicleId() + "/obd",
-                obdSocketDto
-        );
+        List<String> liveDestinations = new ArrayList<>();
+        liveDestinations.add("/topic/gps/live");
+        liveDestinations.add("/topic/vehicles/" + liveSocketDto.getVehicleId() + "/live");
 
         if (liveSocketDto.getMissionId() != null) {
-            messagingTemplate.convertAndSend(
-                    "/topic/missions/" + liveSocketDto.getMissionId() + "/live",
-                    liveSocketDto
-            );
+            liveDestinations.add("/topic/missions/" + liveSocketDto.getMissionId() + "/live");
         }
+
+        webSocketOutbox.enqueueLatest(vehicle.getId(), liveSocketDto, liveDestinations);
+
+        webSocketOutbox.enqueueLatest(
+                vehicle.getId(),
+                obdSocketDto,
+                List.of("/topic/vehicles/" + liveSocketDto.getVehicleId() + "/obd")
+        );
     }
 
     public void publishMissionCompleted(Vehicle vehicle,
@@ -106,21 +104,19 @@ public class GpsWebSocketPublisher {
                 gpsData.getRouteSource()
         );
 
-        messagingTemplate.convertAndSend("/topic/gps/live", liveSocketDto);
-
-        messagingTemplate.convertAndSend(
-                "/topic/vehicles/" + vehicle.getId() + "/live",
-                liveSocketDto
-        );
-
-        messagingTemplate.convertAndSend(
-                "/topic/missions/" + missionId + "/live",
-                liveSocketDto
+        webSocketOutbox.enqueue(
+                vehicle.getId(),
+                liveSocketDto,
+                List.of(
+                        "/topic/gps/live",
+                        "/topic/vehicles/" + vehicle.getId() + "/live",
+                        "/topic/missions/" + missionId + "/live"
+                )
         );
     }
 
     private VehicleLiveSocketDTO toLiveSocketDto(VehicleLiveStatusDTO dto) {
-        return new VehicleLiveSocketDTO(
+        VehicleLiveSocketDTO socketDto = new VehicleLiveSocketDTO(
                 dto.getVehicleId(),
                 dto.getVehicleName(),
                 dto.getLatitude(),
@@ -134,11 +130,16 @@ public class GpsWebSocketPublisher {
                 dto.getMissionStatus(),
                 dto.getRouteSource()
         );
+
+        socketDto.setRouteProgressPercent(dto.getRouteProgressPercent());
+        socketDto.setRouteRemainingKm(dto.getRouteRemainingKm());
+
+        return socketDto;
     }
 
     private ObdLiveSocketDTO toObdSocketDto(VehicleLiveState state, GpsData gpsData) {
         return new ObdLiveSocketDTO(
-                state.getVehicle().getId(),
+                gpsData.getVehicle().getId(),
                 state.getEngineRpm(),
                 state.getFuelLevel(),
                 state.getEngineTemperature(),
@@ -158,20 +159,17 @@ public class GpsWebSocketPublisher {
             return;
         }
 
-        messagingTemplate.convertAndSend("/topic/events/live", dto);
+        List<String> destinations = new ArrayList<>();
+        destinations.add("/topic/events/live");
 
         if (dto.getVehicleId() != null) {
-            messagingTemplate.convertAndSend(
-                    "/topic/vehicles/" + dto.getVehicleId() + "/events",
-                    dto
-            );
+            destinations.add("/topic/vehicles/" + dto.getVehicleId() + "/events");
         }
 
         if (dto.getMissionId() != null) {
-            messagingTemplate.convertAndSend(
-                    "/topic/missions/" + dto.getMissionId() + "/events",
-                    dto
-            );
+            destinations.add("/topic/missions/" + dto.getMissionId() + "/events");
         }
+
+        webSocketOutbox.enqueue(dto.getVehicleId(), dto, destinations);
     }
 }
\ No newline at end of file
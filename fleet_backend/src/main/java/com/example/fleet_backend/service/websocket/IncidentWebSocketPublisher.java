@@ -1,24 +1,27 @@
 package com.example.fleet_backend.service.websocket;
 
 import com.example.fleet_backend.dto.IncidentDTO;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import com.example.fleet_backend.service.outbox.WebSocketOutbox;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class IncidentWebSocketPublisher {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketOutbox webSocketOutbox;
 
-    public IncidentWebSocketPublisher(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public IncidentWebSocketPublisher(WebSocketOutbox webSocketOutbox) {
+        this.webSocketOutbox = webSocketOutbox;
     }
 
     public void publishIncident(IncidentDTO incident) {
         if (incident == null) return;
 
-        messagingTemplate.convertAndSend(
-                "/topic/incidents/live",
-                incident
+        webSocketOutbox.enqueue(
+                incident.getVehicleId(),
+                incident,
+                List.of("/topic/incidents/live")
         );
     }
-}
\ No newline at end of file
+}
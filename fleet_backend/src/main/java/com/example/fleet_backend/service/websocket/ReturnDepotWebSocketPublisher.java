@@ -1,33 +1,33 @@
 package com.example.fleet_backend.websocket;
 
 import com.example.fleet_backend.dto.ReturnDepotDTO;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import com.example.fleet_backend.service.outbox.WebSocketOutbox;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class ReturnDepotWebSocketPublisher {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketOutbox webSocketOutbox;
 
-    public ReturnDepotWebSocketPublisher(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public ReturnDepotWebSocketPublisher(WebSocketOutbox webSocketOutbox) {
+        this.webSocketOutbox = webSocketOutbox;
     }
 
     public void publish(ReturnDepotDTO dto) {
-        messagingTemplate.convertAndSend("/topic/return-depot/live", dto);
+        List<String> destinations = new ArrayList<>();
+        destinations.add("/topic/return-depot/live");
 
         if (dto.getVehicleId() != null) {
-            messagingTemplate.convertAndSend(
-                    "/topic/vehicles/" + dto.getVehicleId() + "/return-depot",
-                    dto
-            );
+            destinations.add("/topic/vehicles/" + dto.getVehicleId() + "/return-depot");
         }
 
         if (dto.getMissionId() != null) {
-            messagingTemplate.convertAndSend(
-                    "/topic/missions/" + dto.getMissionId() + "/return-depot",
-                    dto
-            );
+            destinations.add("/topic/missions/" + dto.getMissionId() + "/return-depot");
         }
+
+        webSocketOutbox.enqueue(dto.getVehicleId(), dto, destinations);
     }
-}
\ No newline at end of file
+}
@@ -1,31 +1,31 @@
 package com.example.fleet_backend.service.websocket;
 
 import com.example.fleet_backend.dto.RouteCheckResultDTO;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import com.example.fleet_backend.service.outbox.WebSocketOutbox;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 public class RouteCheckWebSocketPublisher {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketOutbox webSocketOutbox;
 
-    public RouteCheckWebSocketPublisher(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public RouteCheckWebSocketPublisher(WebSocketOutbox webSocketOutbox) {
+        this.webSocketOutbox = webSocketOutbox;
     }
 
     public void publish(RouteCheckResultDTO dto) {
         if (dto == null || dto.getMissionId() == null) return;
 
-        messagingTemplate.convertAndSend(
-                "/topic/missions/" + dto.getMissionId() + "/route-check",
-                dto
-        );
+        List<String> destinations = new ArrayList<>();
+        destinations.add("/topic/missions/" + dto.getMissionId() + "/route-check");
 
         if (dto.getVehicleId() != null) {
-            messagingTemplate.convertAndSend(
-                    "/topic/vehicles/" + dto.getVehicleId() + "/route-check",
-                    dto
-            );
+            destinations.add("/topic/vehicles/" + dto.getVehicleId() + "/route-check");
         }
+
+        webSocketOutbox.enqueue(dto.getVehicleId(), dto, destinations);
     }
-}
\ No newline at end of file
+}
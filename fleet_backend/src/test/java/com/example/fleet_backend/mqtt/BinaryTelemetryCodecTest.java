@@ -0,0 +1,221 @@
+package com.example.fleet_backend.mqtt;
+
+import com.example.fleet_backend.dto.GpsIncomingDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryTelemetryCodecTest {
+
+    @Test
+    void roundTripsAFullMessage() {
+        GpsIncomingDTO dto = message(42L, LocalDateTime.of(2024, 5, 17, 14, 3, 27, 125_000_000));
+        dto.setSpeed(87.35);
+        dto.setEngineRpm(2450);
+        dto.setFuelLevel(63.27);
+        dto.setEngineTemperature(-12.4);
+        dto.setBatteryVoltage(13.842);
+        dto.setEngineLoad(41.5);
+        dto.setCheckEngineOn(true);
+        dto.setRouteId("mission-128");
+        dto.setRouteSource("MISSION");
+
+        byte[] frame = BinaryTelemetryCodec.encode(dto);
+
+        assertTrue(BinaryTelemetryCodec.looksBinary(frame));
+        assertSameMessage(dto, BinaryTelemetryCodec.decode(frame));
+    }
+
+    @Test
+    void roundTripsAMinimalMessageWithoutOptionalFields() {
+        GpsIncomingDTO dto = message(7L, LocalDateTime.of(2024, 1, 1, 0, 0));
+        dto.setEngineOn(false);
+
+        byte[] frame = BinaryTelemetryCodec.encode(dto);
+        GpsIncomingDTO decoded = BinaryTelemetryCodec.decode(frame);
+
+        assertEquals(BinaryTelemetryCodec.FIXED_LENGTH, frame.length);
+        assertSameMessage(dto, decoded);
+        assertNull(decoded.getSpeed());
+        assertNull(decoded.getCheckEngineOn());
+        assertNull(decoded.getRouteId());
+    }
+
+    @Test
+    void leavesMissingTimestampAndPositionNull() {
+        GpsIncomingDTO dto = message(8L, null);
+        dto.setLatitude(null);
+        dto.setLongitude(null);
+        dto.setSpeed(12.5);
+
+        GpsIncomingDTO decoded = BinaryTelemetryCodec.decode(BinaryTelemetryCodec.encode(dto));
+
+        assertSameMessage(dto, decoded);
+        assertNull(decoded.getTimestamp());
+        assertNull(decoded.getLatitude());
+        assertNull(decoded.getLongitude());
+
+        // Position partielle : seule la coordonnée manquante reste nulle.
+        GpsIncomingDTO partial = message(8L, LocalDateTime.of(2024, 7, 1, 10, 0));
+        partial.setLongitude(null);
+
+        GpsIncomingDTO decodedPartial = BinaryTelemetryCodec.decode(BinaryTelemetryCodec.encode(partial));
+        assertSameMessage(partial, decodedPartial);
+        assertNull(decodedPartial.getLongitude());
+    }
+
+    @Test
+    void framesWithoutAbsenceBitsStillCarryTimestampAndPosition() {
+        GpsIncomingDTO dto = message(3L, LocalDateTime.of(2024, 1, 1, 0, 0));
+        dto.setLatitude(0.0);
+        dto.setLongitude(0.0);
+
+        byte[] frame = BinaryTelemetryCodec.encode(dto);
+
+        // Trame d'un boîtier existant : seuls les bits 0 à 2 du champ flags sont utilisés.
+        assertEquals(0, frame[1] & ~0x07);
+
+        GpsIncomingDTO decoded = BinaryTelemetryCodec.decode(frame);
+        assertEquals(dto.getTimestamp(), decoded.getTimestamp());
+        assertEquals(0.0, decoded.getLatitude(), 0.0);
+        assertEquals(0.0, decoded.getLongitude(), 0.0);
+    }
+
+    @Test
+    void roundTripsRandomMessagesAtWirePrecision() {
+        Random random = new Random(11);
+
+        for (int i = 0; i < 5_000; i++) {
+            GpsIncomingDTO dto = message(
+                    random.nextLong() & Long.MAX_VALUE,
+                    LocalDateTime.of(2020, 1, 1, 0, 0).plusNanos(random.nextInt(1_000_000_000) * 1_000_000L)
+            );
+            dto.setLatitude(Math.round((random.nextDouble() * 180 - 90) * 1e7) / 1e7);
+            dto.setLongitude(Math.round((random.nextDouble() * 360 - 180) * 1e7) / 1e7);
+            dto.setEngineOn(random.nextBoolean());
+
+            if (random.nextBoolean()) dto.setSpeed(random.nextInt(0xFFFF) / 100.0);
+            if (random.nextBoolean()) dto.setEngineRpm(random.nextInt(0xFFFF));
+            if (random.nextBoolean()) dto.setFuelLevel(random.nextInt(10_001) / 100.0);
+            if (random.nextBoolean()) dto.setEngineTemperature((random.nextInt(4_000) - 400) / 10.0);
+            if (random.nextBoolean()) dto.setBatteryVoltage(random.nextInt(30_000) / 1000.0);
+            if (random.nextBoolean()) dto.setEngineLoad(random.nextInt(10_001) / 100.0);
+            if (random.nextBoolean()) dto.setCheckEngineOn(random.nextBoolean());
+            if (random.nextBoolean()) dto.setRouteId("route-" + random.nextInt(1_000));
+            if (random.nextBoolean()) dto.setRouteSource(random.nextBoolean() ? "MISSION" : "RETURN_DEPOT");
+
+            assertSameMessage(dto, BinaryTelemetryCodec.decode(BinaryTelemetryCodec.encode(dto)));
+        }
+    }
+
+    @Test
+    void decodesFromDirectAndSlicedBuffers() {
+        GpsIncomingDTO dto = message(99L, LocalDateTime.of(2024, 2, 29, 23, 59, 59));
+        dto.setRouteId("itinéraire-é");
+        dto.setRouteSource("MISSION");
+
+        byte[] frame = BinaryTelemetryCodec.encode(dto);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(frame.length);
+        direct.put(frame).flip();
+        assertSameMessage(dto, BinaryTelemetryCodec.decode(direct));
+
+        byte[] padded = new byte[frame.length + 8];
+        System.arraycopy(frame, 0, padded, 5, frame.length);
+        ByteBuffer slice = ByteBuffer.wrap(padded, 5, frame.length).slice();
+        assertSameMessage(dto, BinaryTelemetryCodec.decode(slice));
+
+        // Le décodage ne consomme pas le tampon de l'appelant.
+        assertEquals(0, slice.position());
+    }
+
+    @Test
+    void clampsOutOfRangeValuesAndLongStrings() {
+        GpsIncomingDTO dto = message(1L, LocalDateTime.of(2024, 3, 1, 12, 0));
+        dto.setSpeed(-5.0);
+        dto.setEngineRpm(100_000);
+        dto.setEngineTemperature(5_000.0);
+        dto.setRouteId("r".repeat(300));
+
+        GpsIncomingDTO decoded = BinaryTelemetryCodec.decode(BinaryTelemetryCodec.encode(dto));
+
+        assertEquals(0.0, decoded.getSpeed(), 0.0);
+        assertEquals(0xFFFF, decoded.getEngineRpm());
+        assertEquals(Short.MAX_VALUE / 10.0, decoded.getEngineTemperature(), 0.0);
+        assertEquals("r".repeat(255), decoded.getRouteId());
+    }
+
+    @Test
+    void rejectsShortTruncatedAndForeignFrames() {
+        GpsIncomingDTO dto = message(5L, LocalDateTime.of(2024, 6, 1, 8, 30));
+        dto.setRouteId("mission-5");
+        dto.setRouteSource("MISSION");
+
+        byte[] frame = BinaryTelemetryCodec.encode(dto);
+
+        // En-tête fixe incomplet.
+        for (int length = 0; length < BinaryTelemetryCodec.FIXED_LENGTH; length++) {
+            byte[] truncated = Arrays.copyOf(frame, length);
+            assertFalse(BinaryTelemetryCodec.looksBinary(truncated));
+            assertThrows(IllegalArgumentException.class, () -> BinaryTelemetryCodec.decode(truncated));
+        }
+
+        // Chaînes annoncées par le masque de présence mais coupées.
+        for (int length = BinaryTelemetryCodec.FIXED_LENGTH; length < frame.length; length++) {
+            byte[] truncated = Arrays.copyOf(frame, length);
+            assertThrows(IllegalArgumentException.class, () -> BinaryTelemetryCodec.decode(truncated));
+        }
+
+        byte[] otherVersion = frame.clone();
+        otherVersion[0] = 2;
+        assertFalse(BinaryTelemetryCodec.looksBinary(otherVersion));
+        assertThrows(IllegalArgumentException.class, () -> BinaryTelemetryCodec.decode(otherVersion));
+
+        byte[] json = "{\"vehicleId\":5,\"latitude\":36.8,\"longitude\":10.18,\"engineOn\":true}".getBytes();
+        assertFalse(BinaryTelemetryCodec.looksBinary(json));
+    }
+
+    private static GpsIncomingDTO message(long vehicleId, LocalDateTime timestamp) {
+        GpsIncomingDTO dto = new GpsIncomingDTO();
+        dto.setVehicleId(vehicleId);
+        dto.setTimestamp(timestamp);
+        dto.setLatitude(36.8065123);
+        dto.setLongitude(10.1815432);
+        dto.setEngineOn(true);
+        return dto;
+    }
+
+    private static void assertSameMessage(GpsIncomingDTO expected, GpsIncomingDTO actual) {
+        assertEquals(expected.getVehicleId(), actual.getVehicleId());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertCoordinate(expected.getLatitude(), actual.getLatitude());
+        assertCoordinate(expected.getLongitude(), actual.getLongitude());
+        assertEquals(expected.isEngineOn(), actual.isEngineOn());
+        assertEquals(expected.getSpeed(), actual.getSpeed());
+        assertEquals(expected.getEngineRpm(), actual.getEngineRpm());
+        assertEquals(expected.getFuelLevel(), actual.getFuelLevel());
+        assertEquals(expected.getEngineTemperature(), actual.getEngineTemperature());
+        assertEquals(expected.getBatteryVoltage(), actual.getBatteryVoltage());
+        assertEquals(expected.getEngineLoad(), actual.getEngineLoad());
+        assertEquals(expected.getCheckEngineOn(), actual.getCheckEngineOn());
+        assertEquals(expected.getRouteId(), actual.getRouteId());
+        assertEquals(expected.getRouteSource(), actual.getRouteSource());
+    }
+
+    private static void assertCoordinate(Double expected, Double actual) {
+        if (expected == null) {
+            assertNull(actual);
+        } else {
+            assertEquals(expected, actual, 1e-9);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.fleet_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LttbDownsamplerTest {
+
+    @Test
+    void keepsEndpointsAndReturnsExactlyThresholdPoints() {
+        Random random = new Random(7);
+
+        for (int length : new int[]{4, 10, 101, 1000, 4097}) {
+            double[] x = new double[length];
+            double[] y = new double[length];
+
+            for (int i = 0; i < length; i++) {
+                x[i] = i * 2.5;
+                y[i] = random.nextGaussian() * 10;
+            }
+
+            for (int threshold = 3; threshold < length; threshold += Math.max(1, length / 7)) {
+                int[] selected = LttbDownsampler.select(x, y, length, threshold);
+
+                assertEquals(threshold, selected.length, "length=" + length + " threshold=" + threshold);
+                assertEquals(0, selected[0]);
+                assertEquals(length - 1, selected[selected.length - 1]);
+
+                for (int i = 1; i < selected.length; i++) {
+                    assertTrue(selected[i] > selected[i - 1], "indices must be strictly increasing");
+                }
+            }
+        }
+    }
+
+    @Test
+    void returnsEveryPointWhenThresholdCoversTheSeries() {
+        double[] x = {0, 1, 2, 3, 4};
+        double[] y = {5, 3, 8, 1, 2};
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, LttbDownsampler.select(x, y, 5, 5));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, LttbDownsampler.select(x, y, 5, 50));
+        // Seuil inférieur à 3 : pas de réduction possible en gardant les extrémités.
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, LttbDownsampler.select(x, y, 5, 2));
+    }
+
+    @Test
+    void ignoresValuesBeyondLength() {
+        double[] x = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        double[] y = {0, 0, 0, 9, 0, 0, 0, 0, 999, 999};
+
+        int[] selected = LttbDownsampler.select(x, y, 8, 4);
+
+        assertEquals(4, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(7, selected[3]);
+    }
+
+    @Test
+    void keepsAnIsolatedSpike() {
+        int length = 1000;
+        double[] x = new double[length];
+        double[] y = new double[length];
+
+        for (int i = 0; i < length; i++) {
+            x[i] = i;
+            y[i] = 90;
+        }
+
+        y[437] = 130;
+
+        int[] selected = LttbDownsampler.select(x, y, length, 20);
+
+        boolean spikeKept = false;
+        for (int index : selected) {
+            spikeKept |= index == 437;
+        }
+
+        assertTrue(spikeKept, "spike must survive downsampling");
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.dto.MissionRoutePointDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compare la grille de {@link CompiledRoute} à un parcours linéaire de tous les segments,
+ * sur des routes et des points tirés au hasard (graine fixe).
+ */
+class CompiledRouteTest {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final double TOLERANCE_METERS = 1e-6;
+
+    private static final double[] CELL_SIZES_METERS = {50, 250, 1000};
+
+    @Test
+    void nearestSegmentMatchesLinearScanOnRandomRoutes() {
+        Random random = new Random(20240611L);
+
+        for (int routeIndex = 0; routeIndex < 150; routeIndex++) {
+            List<MissionRoutePointDTO> route = randomRoute(random);
+            double cellSize = CELL_SIZES_METERS[routeIndex % CELL_SIZES_METERS.length];
+            CompiledRoute compiled = CompiledRoute.compile(route, cellSize);
+            List<int[]> segments = segments(route);
+
+            assertEquals(segments.size(), compiled.getSegmentCount());
+
+            for (int query = 0; query < 200; query++) {
+                double[] point = randomQuery(random, route);
+                double lat = point[0];
+                double lng = point[1];
+
+                double expected = linearMinimum(route, segments, lat, lng, 0, segments.size() - 1);
+                String context = "route=" + routeIndex + " query=" + query + " lat=" + lat + " lng=" + lng;
+
+                if (segments.isEmpty()) {
+                    assertEquals(Double.MAX_VALUE, compiled.minimumDistanceMeters(lat, lng), 0.0, context);
+                    assertNull(compiled.nearestSegment(lat, lng), context);
+                    continue;
+                }
+
+                assertEquals(expected, compiled.minimumDistanceMeters(lat, lng), TOLERANCE_METERS, context);
+
+                // En cas d'égalité, le segment retenu peut différer : sa distance doit être le minimum.
+                CompiledRoute.Match match = compiled.nearestSegment(lat, lng);
+                assertEquals(expected, match.distanceMeters(), TOLERANCE_METERS, context);
+                assertEquals(expected, distance(route, segments.get(match.segment()), lat, lng), TOLERANCE_METERS, context);
+                assertTrue(match.travelledMeters() >= 0 && match.travelledMeters() <= compiled.getTotalMeters() + TOLERANCE_METERS, context);
+
+                double radius = 10 + random.nextDouble() * 2_000;
+                double within = compiled.minimumDistanceWithin(lat, lng, radius);
+
+                if (expected <= radius) {
+                    assertEquals(expected, within, TOLERANCE_METERS, context + " radius=" + radius);
+                } else {
+                    assertTrue(within > radius, context + " radius=" + radius);
+                }
+
+                int from = random.nextInt(segments.size());
+                int to = from + random.nextInt(segments.size() - from);
+                CompiledRoute.Match windowed = compiled.nearestSegmentBetween(lat, lng, from, to);
+
+                assertEquals(linearMinimum(route, segments, lat, lng, from, to), windowed.distanceMeters(), TOLERANCE_METERS, context);
+                assertTrue(windowed.segment() >= from && windowed.segment() <= to, context);
+            }
+        }
+    }
+
+    @Test
+    void pointsFarOutsideTheGridStillFindTheNearestSegment() {
+        List<MissionRoutePointDTO> route = List.of(
+                new MissionRoutePointDTO(36.80, 10.18),
+                new MissionRoutePointDTO(36.81, 10.19),
+                new MissionRoutePointDTO(36.82, 10.18)
+        );
+        CompiledRoute compiled = CompiledRoute.compile(route, 250);
+        List<int[]> segments = segments(route);
+
+        for (double[] point : new double[][]{{37.5, 11.0}, {35.0, 9.0}, {36.81, 12.5}, {-36.8, -10.18}}) {
+            double expected = linearMinimum(route, segments, point[0], point[1], 0, segments.size() - 1);
+            assertEquals(expected, compiled.minimumDistanceMeters(point[0], point[1]), TOLERANCE_METERS);
+        }
+    }
+
+    private static List<MissionRoutePointDTO> randomRoute(Random random) {
+        int size = 1 + random.nextInt(300);
+        double lat = -60 + random.nextDouble() * 120;
+        double lng = -170 + random.nextDouble() * 340;
+        double heading = random.nextDouble() * 2 * Math.PI;
+
+        List<MissionRoutePointDTO> route = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            // Quelques points sans coordonnées : les segments adjacents disparaissent.
+            if (random.nextInt(40) == 0) {
+                route.add(new MissionRoutePointDTO(null, random.nextBoolean() ? lng : null));
+                continue;
+            }
+
+            route.add(new MissionRoutePointDTO(lat, lng));
+
+            // Pas courts (tracé routier), points répétés et sauts longs (segments hors grille).
+            double step = switch (random.nextInt(10)) {
+                case 0 -> 0;
+                case 1 -> 5_000 + random.nextDouble() * 40_000;
+                default -> 5 + random.nextDouble() * 400;
+            };
+
+            heading += (random.nextDouble() - 0.5) * 1.5;
+            lat += step * Math.cos(heading) / METERS_PER_DEGREE;
+            lng += step * Math.sin(heading) / (METERS_PER_DEGREE * Math.cos(Math.toRadians(lat)));
+        }
+
+        return route;
+    }
+
+    private static double[] randomQuery(Random random, List<MissionRoutePointDTO> route) {
+        MissionRoutePointDTO anchor = route.get(random.nextInt(route.size()));
+        double lat = anchor.getLatitude() != null ? anchor.getLatitude() : 0;
+        double lng = anchor.getLongitude() != null ? anchor.getLongitude() : 0;
+
+        // Majorité de points proches de la route, quelques-uns très loin.
+        double offset = random.nextInt(10) == 0 ? 20_000 + random.nextDouble() * 200_000 : random.nextDouble() * 800;
+        double angle = random.nextDouble() * 2 * Math.PI;
+
+        double queryLat = lat + offset * Math.cos(angle) / METERS_PER_DEGREE;
+        double queryLng = lng + offset * Math.sin(angle) / (METERS_PER_DEGREE * Math.cos(Math.toRadians(lat)));
+
+        return new double[]{queryLat, queryLng};
+    }
+
+    private static List<int[]> segments(List<MissionRoutePointDTO> route) {
+        List<int[]> segments = new ArrayList<>();
+
+        for (int i = 0; i < route.size() - 1; i++) {
+            if (isValid(route.get(i)) && isValid(route.get(i + 1))) {
+                segments.add(new int[]{i, i + 1});
+            }
+        }
+
+        return segments;
+    }
+
+    private static boolean isValid(MissionRoutePointDTO point) {
+        return point.getLatitude() != null && point.getLongitude() != null;
+    }
+
+    private static double linearMinimum(List<MissionRoutePointDTO> route,
+                                        List<int[]> segments,
+                                        double lat,
+                                        double lng,
+                                        int from,
+                                        int to) {
+        double min = Double.MAX_VALUE;
+
+        for (int s = from; s <= to && s < segments.size(); s++) {
+            min = Math.min(min, distance(route, segments.get(s), lat, lng));
+        }
+
+        return min;
+    }
+
+    // Projection équirectangulaire à la latitude moyenne des deux extrémités et du point.
+    private static double distance(List<MissionRoutePointDTO> route, int[] segment, double lat, double lng) {
+        MissionRoutePointDTO a = route.get(segment[0]);
+        MissionRoutePointDTO b = route.get(segment[1]);
+
+        double cos = Math.cos(Math.toRadians((a.getLatitude() + b.getLatitude() + lat) / 3.0));
+
+        double px = lng * METERS_PER_DEGREE * cos;
+        double py = lat * METERS_PER_DEGREE;
+        double ax = a.getLongitude() * METERS_PER_DEGREE * cos;
+        double ay = a.getLatitude() * METERS_PER_DEGREE;
+        double bx = b.getLongitude() * METERS_PER_DEGREE * cos;
+        double by = b.getLatitude() * METERS_PER_DEGREE;
+
+        double abx = bx - ax;
+        double aby = by - ay;
+        double abSquared = abx * abx + aby * aby;
+        double t = abSquared == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * abx + (py - ay) * aby) / abSquared));
+
+        return Math.hypot(px - (ax + t * abx), py - (ay + t * aby));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.repository.GpsDataRepository;
+import com.example.fleet_backend.service.ObdHistoryService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compare, sur la même plage d'un véhicule, la lecture de l'historique par entités {@code GpsData}
+ * (entités gérées puis {@link GpsMapperService}) et par les chemins de production : le curseur JDBC de
+ * {@link GpsHistoryStreamService} et l'historique OBD réduit de {@link ObdHistoryService}. Chaque chemin
+ * s'exécute dans sa propre transaction en lecture seule ; durée et octets alloués par le thread sont
+ * ramenés à 100 000 lignes, le meilleur de plusieurs passes après un tour de chauffe.
+ *
+ * <p>Lancé à la demande contre une base peuplée :
+ * {@code mvn test -Dtest=GpsReadPathBenchmarkTest -Dbenchmark.vehicleId=42 [-Dbenchmark.days=30]
+ * [-Dbenchmark.maxRows=100000] [-Dbenchmark.obdPoints=500] [-Dbenchmark.iterations=3]}.</p>
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark.vehicleId", matches = "\\d+")
+class GpsReadPathBenchmarkTest {
+
+    private static final int ROWS_UNIT = 100_000;
+
+    @Autowired
+    private GpsDataRepository gpsDataRepository;
+
+    @Autowired
+    private GpsMapperService gpsMapperService;
+
+    @Autowired
+    private GpsHistoryStreamService gpsHistoryStreamService;
+
+    @Autowired
+    private ObdHistoryService obdHistoryService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareEntityAndProductionReadPaths() {
+        Long vehicleId = Long.getLong("benchmark.vehicleId");
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusDays(Long.getLong("benchmark.days", 30));
+        PageRequest limit = PageRequest.of(0, Integer.getInteger("benchmark.maxRows", 100_000));
+        int obdPoints = Integer.getInteger("benchmark.obdPoints", 500);
+        int passes = Math.max(1, Integer.getInteger("benchmark.iterations", 3));
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Sample entity = measure("entity", readOnly, passes, () -> gpsDataRepository
+                .findByVehicleIdAndTimestampBetweenOrderByTimestampDesc(vehicleId, from, to, limit)
+                .stream()
+                .map(gpsMapperService::toGpsPointDTO)
+                .toList()
+                .size());
+
+        Sample stream = measure("gps-stream", readOnly, passes, () -> {
+            int[] rows = {0};
+            gpsHistoryStreamService.forEach(vehicleId, from, to, true, point -> rows[0]++);
+            return rows[0];
+        });
+
+        // L'historique OBD vérifie l'accès au véhicule : le benchmark lit en administrateur.
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "benchmark", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        try {
+            measure("obd-history", readOnly, passes, () -> obdHistoryService
+                    .getVehicleHistory(vehicleId, from, to, obdPoints)
+                    .size());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        // Le flux n'est pas plafonné et fusionne les lignes archivées.
+        assertTrue(stream.rows() >= entity.rows());
+        assertEquals(0, stream.managed());
+    }
+
+    private Sample measure(String path, TransactionTemplate readOnly, int passes, Supplier<Integer> read) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()
+                ? bean
+                : null;
+
+        Sample best = null;
+
+        // Premier tour : chauffe (JIT, cache de requêtes, pages PostgreSQL), non retenu.
+        for (int pass = 0; pass <= passes; pass++) {
+            Sample sample = readOnly.execute(status -> {
+                long bytesBefore = allocations != null ? allocations.getCurrentThreadAllocatedBytes() : 0;
+                long started = System.nanoTime();
+
+                int rows = read.get();
+
+                long nanos = System.nanoTime() - started;
+                long bytes = allocations != null ? allocations.getCurrentThreadAllocatedBytes() - bytesBefore : -1;
+                int managed = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+
+                return new Sample(rows, nanos, bytes, managed);
+            });
+
+            if (pass > 0 && sample != null && (best == null || sample.nanos() < best.nanos())) {
+                best = sample;
+            }
+        }
+
+        double scale = best.rows() > 0 ? (double) ROWS_UNIT / best.rows() : 0;
+
+        System.out.printf(
+                "%-15s rows=%d time=%.1fms alloc=%dB managed=%d | per 100k rows: %.1fms %dB%n",
+                path,
+                best.rows(),
+                best.nanos() / 1_000_000d,
+                best.bytes(),
+                best.managed(),
+                best.nanos() / 1_000_000d * scale,
+                best.bytes() >= 0 ? Math.round(best.bytes() * scale) : -1
+        );
+
+        return best;
+    }
+
+    private record Sample(int rows, long nanos, long bytes, int managed) {
+    }
+}
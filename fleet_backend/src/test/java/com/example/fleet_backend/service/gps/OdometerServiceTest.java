@@ -0,0 +1,172 @@
+package com.example.fleet_backend.service.gps;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OdometerServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 3, 4, 8, 0);
+    private static final LocalDate DAY = T0.toLocalDate();
+
+    private static final double LAT = 36.80;
+    private static final double LON = 10.18;
+
+    // Environ 111 m de latitude.
+    private static final double HUNDRED_METERS = 0.001;
+
+    private OdometerService service;
+    private OdometerService.Odometer odometer;
+
+    @BeforeEach
+    void setUp() {
+        // jitter 25 m, 200 km/h, réancrage après 3 rejets consécutifs.
+        service = new OdometerService(null, null, null, null, null, true, 25, 200, 3, 30);
+        odometer = new OdometerService.Odometer();
+    }
+
+    @Test
+    void firstPointOnlyAnchors() {
+        OdometerService.Sample first = moving(0, LAT, LON);
+
+        service.advance(odometer, first);
+
+        assertSame(first, odometer.anchor);
+        assertTrue(odometer.pending.isEmpty());
+    }
+
+    @Test
+    void jitterBelowThresholdKeepsTheAnchor() {
+        OdometerService.Sample anchor = moving(0, LAT, LON);
+        service.advance(odometer, anchor);
+
+        // Dérive d'une dizaine de mètres autour de l'ancrage, moteur tournant.
+        service.advance(odometer, moving(10, LAT + 0.0001, LON));
+        service.advance(odometer, moving(20, LAT - 0.0001, LON + 0.0001));
+        service.advance(odometer, moving(30, LAT + 0.00005, LON - 0.0001));
+
+        assertSame(anchor, odometer.anchor);
+        assertTrue(odometer.pending.isEmpty());
+
+        // La distance suivante part toujours de l'ancrage : la dérive ne s'est pas accumulée.
+        service.advance(odometer, moving(40, LAT + HUNDRED_METERS, LON));
+
+        OdometerService.DayTotal day = odometer.pending.get(DAY);
+        assertEquals(111.2, day.meters, 0.5);
+        assertEquals(1, day.acceptedPoints);
+        assertEquals(0, day.rejectedPoints);
+    }
+
+    @Test
+    void parkedAndLatePointsAreIgnored() {
+        OdometerService.Sample anchor = moving(0, LAT, LON);
+        service.advance(odometer, anchor);
+
+        // Moteur coupé à l'arrêt, même loin de l'ancrage (saut du récepteur).
+        service.advance(odometer, new OdometerService.Sample(T0.plusSeconds(60), LAT + HUNDRED_METERS, LON, 0.0, false));
+        // Point antérieur à l'ancrage.
+        service.advance(odometer, moving(-30, LAT + HUNDRED_METERS, LON));
+
+        assertSame(anchor, odometer.anchor);
+        assertTrue(odometer.pending.isEmpty());
+    }
+
+    @Test
+    void outlierIsRejectedWithoutMovingTheAnchor() {
+        OdometerService.Sample anchor = moving(0, LAT, LON);
+        service.advance(odometer, anchor);
+
+        // 11 km en 10 s : vitesse implicite très au-delà de 200 km/h.
+        service.advance(odometer, moving(10, LAT + 100 * HUNDRED_METERS, LON));
+
+        OdometerService.DayTotal day = odometer.pending.get(DAY);
+        assertSame(anchor, odometer.anchor);
+        assertEquals(0.0, day.meters, 0.0);
+        assertEquals(1, day.rejectedPoints);
+        assertEquals(1, odometer.rejections);
+
+        // Le point plausible suivant est mesuré depuis l'ancrage d'origine et remet le compteur de rejets à zéro.
+        OdometerService.Sample next = moving(20, LAT + HUNDRED_METERS, LON);
+        service.advance(odometer, next);
+
+        assertSame(next, odometer.anchor);
+        assertEquals(111.2, day.meters, 0.5);
+        assertEquals(1, day.acceptedPoints);
+        assertEquals(0, odometer.rejections);
+    }
+
+    @Test
+    void consecutiveRejectionsReanchorWithoutDistance() {
+        // Ancrage erroné : la position réelle est à 11 km.
+        service.advance(odometer, moving(0, LAT, LON));
+
+        double realLat = LAT + 100 * HUNDRED_METERS;
+        service.advance(odometer, moving(10, realLat, LON));
+        service.advance(odometer, moving(20, realLat + 0.0003, LON));
+
+        OdometerService.Sample third = moving(30, realLat + 0.0006, LON);
+        service.advance(odometer, third);
+
+        OdometerService.DayTotal day = odometer.pending.get(DAY);
+        assertSame(third, odometer.anchor);
+        assertEquals(0, odometer.rejections);
+        assertEquals(3, day.rejectedPoints);
+        assertEquals(0.0, day.meters, 0.0);
+
+        // Reprise normale depuis la nouvelle position.
+        service.advance(odometer, moving(40, realLat + 0.0006 + HUNDRED_METERS, LON));
+
+        assertEquals(111.2, day.meters, 0.5);
+        assertEquals(1, day.acceptedPoints);
+    }
+
+    @Test
+    void distanceIsBookedOnTheDayOfThePoint() {
+        LocalDateTime lateEvening = T0.withHour(23).withMinute(59).withSecond(50);
+        service.advance(odometer, new OdometerService.Sample(lateEvening, LAT, LON, 40.0, true));
+        service.advance(odometer, new OdometerService.Sample(lateEvening.plusSeconds(20), LAT + HUNDRED_METERS, LON, 40.0, true));
+
+        assertNull(odometer.pending.get(DAY));
+        assertEquals(1, odometer.pending.get(DAY.plusDays(1)).acceptedPoints);
+    }
+
+    @Test
+    void drainedDistanceCarriesTheIntervalItCovers() {
+        service.advance(odometer, moving(0, LAT, LON));
+        service.advance(odometer, moving(10, LAT + HUNDRED_METERS, LON));
+        service.advance(odometer, moving(20, LAT + 2 * HUNDRED_METERS, LON));
+
+        OdometerService.Counted first = odometer.drain();
+
+        // De l'ancrage d'avant le premier segment compté jusqu'au dernier point compté.
+        assertEquals(T0, first.from());
+        assertEquals(T0.plusSeconds(20), first.to());
+
+        // Le report suivant repart exactement de la fin du précédent : l'ancrage en base est accepté.
+        service.advance(odometer, moving(30, LAT + 3 * HUNDRED_METERS, LON));
+        OdometerService.Counted second = odometer.drain();
+
+        assertEquals(first.to(), second.from());
+        assertEquals(T0.plusSeconds(30), second.to());
+
+        // Un report en échec est rendu avec son intervalle, élargi par les points comptés entre-temps.
+        service.advance(odometer, moving(40, LAT + 4 * HUNDRED_METERS, LON));
+        odometer.restore(second);
+        OdometerService.Counted retried = odometer.drain();
+
+        assertEquals(T0.plusSeconds(20), retried.from());
+        assertEquals(T0.plusSeconds(40), retried.to());
+        assertEquals(2, retried.days().get(DAY).acceptedPoints);
+    }
+
+    private static OdometerService.Sample moving(long seconds, double latitude, double longitude) {
+        return new OdometerService.Sample(T0.plusSeconds(seconds), latitude, longitude, 40.0, true);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.dto.GpsPointDTO;
+import com.example.fleet_backend.dto.GpsTrackResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrackSimplificationServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 4, 2, 9, 0);
+
+    private static final double LAT = 36.80;
+    private static final double LON = 10.18;
+
+    // Environ 11 m de latitude.
+    private static final double TEN_METERS = 0.0001;
+
+    private final TrackSimplificationService service = new TrackSimplificationService(1.5);
+
+    @Test
+    void straightLineReducesToItsEndpoints() {
+        List<GpsPointDTO> points = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            points.add(point(i, LAT + i * TEN_METERS, LON + i * TEN_METERS / 2, 40.0, true, "r1"));
+        }
+
+        GpsTrackResult result = service.simplify(points, null, 1.0);
+
+        assertEquals(500, result.getOriginalPointCount());
+        assertEquals(2, result.getPointCount());
+        assertSame(points.get(0), result.getPoints().get(0));
+        assertSame(points.get(499), result.getPoints().get(1));
+    }
+
+    @Test
+    void cornerIsKept() {
+        List<GpsPointDTO> points = new ArrayList<>();
+
+        for (int i = 0; i <= 50; i++) {
+            points.add(point(i, LAT + i * TEN_METERS, LON, 40.0, true, null));
+        }
+        for (int i = 1; i <= 50; i++) {
+            points.add(point(50 + i, LAT + 50 * TEN_METERS, LON + i * TEN_METERS, 40.0, true, null));
+        }
+
+        GpsTrackResult result = service.simplify(points, null, 5.0);
+
+        assertEquals(List.of(points.get(0), points.get(50), points.get(100)), result.getPoints());
+    }
+
+    @Test
+    void eventPointsAreAnchorsOnAStraightLine() {
+        List<GpsPointDTO> points = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            double speed = i >= 20 && i < 30 ? 0.0 : 40.0;
+            boolean engineOn = i < 60 || i >= 70;
+            String routeId = i < 80 ? "r1" : "r2";
+            Double latitude = i == 90 ? null : LAT + i * TEN_METERS;
+
+            points.add(point(i, latitude, LON, speed, engineOn, routeId));
+        }
+
+        List<GpsPointDTO> kept = service.simplify(points, null, 50.0).getPoints();
+
+        // Extrémités, arrêt et redémarrage, contact moteur, changement de route, point sans position.
+        List<GpsPointDTO> expected = new ArrayList<>();
+        for (int index : new int[]{0, 19, 20, 29, 30, 59, 60, 69, 70, 79, 80, 90, 99}) {
+            expected.add(points.get(index));
+        }
+
+        assertEquals(expected, kept);
+    }
+
+    @Test
+    void droppedPointsStayWithinToleranceOfTheSimplifiedTrack() {
+        Random random = new Random(3);
+        double tolerance = 15.0;
+
+        for (int run = 0; run < 50; run++) {
+            List<GpsPointDTO> points = new ArrayList<>();
+            double lat = LAT;
+            double lon = LON;
+            double heading = random.nextDouble() * 2 * Math.PI;
+
+            for (int i = 0; i < 400; i++) {
+                points.add(point(i, lat, lon, 40.0, true, null));
+                heading += (random.nextDouble() - 0.5) * 0.6;
+                lat += Math.cos(heading) * TEN_METERS;
+                lon += Math.sin(heading) * TEN_METERS;
+            }
+
+            List<GpsPointDTO> kept = service.simplify(points, null, tolerance).getPoints();
+
+            assertSame(points.get(0), kept.get(0));
+            assertSame(points.get(points.size() - 1), kept.get(kept.size() - 1));
+            assertTrue(kept.size() < points.size());
+
+            int segment = 0;
+            for (int i = 0; i < points.size(); i++) {
+                while (points.indexOf(kept.get(segment + 1)) < i) {
+                    segment++;
+                }
+
+                double distance = distanceToSegmentMeters(points.get(i), kept.get(segment), kept.get(segment + 1));
+                assertTrue(distance <= tolerance + 1e-6, "run=" + run + " point=" + i + " distance=" + distance);
+            }
+        }
+    }
+
+    @Test
+    void withoutToleranceTheTrackIsReturnedAsIs() {
+        List<GpsPointDTO> points = List.of(
+                point(0, LAT, LON, 40.0, true, null),
+                point(1, LAT + TEN_METERS, LON, 40.0, true, null),
+                point(2, LAT + 2 * TEN_METERS, LON, 40.0, true, null)
+        );
+
+        assertSame(points, service.simplify(points, null, null).getPoints());
+        assertSame(points, service.simplify(points, null, 0.0).getPoints());
+
+        // Au zoom 22 la tolérance est de quelques centimètres : la ligne droite reste réduite.
+        assertEquals(2, service.simplify(points, 22, null).getPointCount());
+    }
+
+    private static GpsPointDTO point(int second, Double latitude, double longitude, double speed, boolean engineOn, String routeId) {
+        return new GpsPointDTO((long) second, 1L, null, latitude, longitude, speed, engineOn, T0.plusSeconds(second), routeId, null);
+    }
+
+    // Même projection équirectangulaire que le service, à la latitude du premier point.
+    private static double distanceToSegmentMeters(GpsPointDTO p, GpsPointDTO a, GpsPointDTO b) {
+        double metersPerDegree = Math.toRadians(1) * 6371000.0;
+        double cos = Math.cos(Math.toRadians(LAT));
+
+        double px = p.getLongitude() * metersPerDegree * cos;
+        double py = p.getLatitude() * metersPerDegree;
+        double ax = a.getLongitude() * metersPerDegree * cos;
+        double ay = a.getLatitude() * metersPerDegree;
+        double bx = b.getLongitude() * metersPerDegree * cos;
+        double by = b.getLatitude() * metersPerDegree;
+
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / lengthSquared));
+
+        return Math.hypot(px - (ax + t * dx), py - (ay + t * dy));
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.fleet_backend.service.gps;
+
+import com.example.fleet_backend.model.GpsData;
+import com.example.fleet_backend.model.Trip;
+import com.example.fleet_backend.model.Vehicle;
+import com.example.fleet_backend.repository.TripRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TripSegmentationServiceTest {
+
+    private static final long VEHICLE_ID = 12L;
+
+    private static final double LAT = 36.80;
+    private static final double LON = 10.18;
+
+    // Environ 111 m de latitude.
+    private static final double HUNDRED_METERS = 0.001;
+
+    private final LocalDateTime t0 = LocalDateTime.now().minusHours(2).truncatedTo(ChronoUnit.SECONDS);
+
+    private final List<Trip> segments = new ArrayList<>();
+
+    private TripSegmentationService service;
+
+    @BeforeEach
+    void setUp() {
+        // 3 km/h, immobilisation de 300 s, interruption de 900 s, trajet minimal de 200 m.
+        service = new TripSegmentationService(repository(), transactionManager(), true, 3.0, 300, 900, 200, 500, 30);
+    }
+
+    @Test
+    void dwellLongerThanThresholdClosesTheTripAtItsFirstStationaryPoint() {
+        driveNorth(0, 4, 50.0);
+
+        // Premier point immobile : fin du trajet si l'immobilisation dure.
+        service.record(List.of(point(40, LAT + 3 * HUNDRED_METERS + 0.00005, 0.0, true, 49.6)));
+
+        // Dérive GPS et ralenti moteur tournant pendant 5 minutes.
+        for (int i = 1; i <= 5; i++) {
+            double jitter = i % 2 == 0 ? 0.0001 : -0.0001;
+            service.record(List.of(point(40 + 60 * i, LAT + 3 * HUNDRED_METERS + jitter, 0.0, true, 49.6 - 0.1 * i)));
+        }
+
+        assertEquals(2, segments.size());
+
+        Trip trip = segments.get(0);
+        assertEquals(Trip.Kind.TRIP, trip.getKind());
+        assertEquals(Trip.Status.CLOSED, trip.getStatus());
+        assertEquals(t0.plusSeconds(40), trip.getEndedAt());
+        assertEquals(3 * 111.2 + 5.6, trip.getDistanceMeters(), 1.5);
+        assertEquals(5L, trip.getPointCount());
+        assertEquals(0.4, trip.getFuelUsed(), 1e-9);
+        assertEquals(49.6, trip.getEndFuelLevel(), 1e-9);
+        assertEquals(0L, trip.getIdleSeconds());
+        assertEquals(40L, trip.getDurationSeconds());
+        assertNull(trip.getStationarySince());
+        assertNull(trip.getStationaryPointCount());
+
+        Trip stop = segments.get(1);
+        assertEquals(Trip.Kind.STOP, stop.getKind());
+        assertEquals(Trip.Status.OPEN, stop.getStatus());
+        assertEquals(t0.plusSeconds(40), stop.getStartedAt());
+        assertEquals(t0.plusSeconds(340), stop.getLastPointAt());
+        assertEquals(5L, stop.getPointCount());
+        assertEquals(0.5, stop.getFuelUsed(), 1e-9);
+        assertEquals(49.6, stop.getStartFuelLevel(), 1e-9);
+        assertEquals(49.1, stop.getLastFuelLevel(), 1e-9);
+        assertEquals(300L, stop.getIdleSeconds());
+        assertEquals(300L, stop.getDurationSeconds());
+        assertEquals(0.0, stop.getDistanceMeters(), 0.0);
+    }
+
+    @Test
+    void shortPauseStaysInTheTripAsIdle() {
+        driveNorth(0, 4, null);
+
+        service.record(List.of(
+                point(40, LAT + 3 * HUNDRED_METERS, 0.0, true, null),
+                point(100, LAT + 3 * HUNDRED_METERS, 1.0, true, null),
+                point(160, LAT + 3 * HUNDRED_METERS, 0.0, true, null),
+                point(170, LAT + 4 * HUNDRED_METERS, 40.0, true, null)
+        ));
+
+        assertEquals(1, segments.size());
+
+        Trip trip = segments.get(0);
+        assertEquals(Trip.Status.OPEN, trip.getStatus());
+        assertEquals(8L, trip.getPointCount());
+        assertEquals(120L, trip.getIdleSeconds());
+        assertEquals(4 * 111.2, trip.getDistanceMeters(), 1.5);
+        assertNull(trip.getStationarySince());
+        assertNull(trip.getStationaryIdleSeconds());
+    }
+
+    @Test
+    void engineOffClosesTheTripOnThatPoint() {
+        driveNorth(0, 4, null);
+        service.record(List.of(point(40, LAT + 3 * HUNDRED_METERS, 0.0, false, null)));
+
+        assertEquals(2, segments.size());
+
+        Trip trip = segments.get(0);
+        assertEquals(Trip.Status.CLOSED, trip.getStatus());
+        assertEquals(Trip.Kind.TRIP, trip.getKind());
+        assertEquals(t0.plusSeconds(40), trip.getEndedAt());
+        assertEquals(5L, trip.getPointCount());
+
+        Trip stop = segments.get(1);
+        assertEquals(Trip.Kind.STOP, stop.getKind());
+        assertEquals(t0.plusSeconds(40), stop.getStartedAt());
+        assertEquals(0L, stop.getPointCount());
+    }
+
+    @Test
+    void tooShortTripIsRecordedAsStop() {
+        driveNorth(0, 2, null);
+        service.record(List.of(point(20, LAT + HUNDRED_METERS, 0.0, false, null)));
+
+        assertEquals(Trip.Kind.STOP, segments.get(0).getKind());
+        assertEquals(Trip.Status.CLOSED, segments.get(0).getStatus());
+    }
+
+    @Test
+    void departureFromAStopStartsTheTripAtTheLastStationaryPoint() {
+        service.record(List.of(
+                point(0, LAT, 0.0, false, null),
+                point(60, LAT + 0.00002, 0.0, true, null),
+                point(70, LAT + HUNDRED_METERS, 40.0, true, null)
+        ));
+
+        assertEquals(2, segments.size());
+
+        Trip stop = segments.get(0);
+        assertEquals(Trip.Kind.STOP, stop.getKind());
+        assertEquals(Trip.Status.CLOSED, stop.getStatus());
+        assertEquals(t0.plusSeconds(60), stop.getEndedAt());
+        assertEquals(60L, stop.getIdleSeconds());
+
+        Trip trip = segments.get(1);
+        assertEquals(Trip.Kind.TRIP, trip.getKind());
+        assertEquals(t0.plusSeconds(60), trip.getStartedAt());
+        assertEquals(LAT + 0.00002, trip.getStartLatitude(), 1e-12);
+        assertEquals(109.0, trip.getDistanceMeters(), 1.5);
+        assertEquals(1L, trip.getPointCount());
+    }
+
+    @Test
+    void lateAndDuplicatePointsAreIgnored() {
+        driveNorth(0, 3, null);
+        service.record(List.of(
+                point(20, LAT + 5 * HUNDRED_METERS, 40.0, true, null),
+                point(5, LAT + 5 * HUNDRED_METERS, 40.0, true, null)
+        ));
+
+        Trip trip = segments.get(0);
+        assertEquals(3L, trip.getPointCount());
+        assertEquals(2 * 111.2, trip.getDistanceMeters(), 1.5);
+    }
+
+    @Test
+    void interruptedStreamClosesTheTripOnItsLastPoint() {
+        driveNorth(0, 3, null);
+        service.record(List.of(point(20 + 1000, LAT + 10 * HUNDRED_METERS, 40.0, true, null)));
+
+        assertEquals(3, segments.size());
+
+        Trip trip = segments.get(0);
+        assertEquals(Trip.Status.CLOSED, trip.getStatus());
+        assertEquals(t0.plusSeconds(20), trip.getEndedAt());
+
+        // L'arrêt couvre l'interruption, le trajet suivant part du premier point reçu après.
+        Trip stop = segments.get(1);
+        assertEquals(Trip.Kind.STOP, stop.getKind());
+        assertEquals(t0.plusSeconds(1020), stop.getEndedAt());
+        assertEquals(0L, stop.getIdleSeconds());
+
+        Trip next = segments.get(2);
+        assertEquals(Trip.Kind.TRIP, next.getKind());
+        assertEquals(t0.plusSeconds(1020), next.getStartedAt());
+        assertEquals(0.0, next.getDistanceMeters(), 0.0);
+    }
+
+    @Test
+    void staleTripWithPendingDwellIsClosedAtTheDwellStart() {
+        driveNorth(0, 4, 30.0);
+        service.record(List.of(
+                point(40, LAT + 3 * HUNDRED_METERS, 0.0, true, 29.6),
+                point(100, LAT + 3 * HUNDRED_METERS + 0.0001, 0.0, true, 29.5)
+        ));
+
+        service.closeStaleTrips();
+
+        assertEquals(2, segments.size());
+
+        Trip trip = segments.get(0);
+        assertEquals(Trip.Status.CLOSED, trip.getStatus());
+        assertEquals(t0.plusSeconds(40), trip.getEndedAt());
+        assertEquals(5L, trip.getPointCount());
+        assertEquals(3 * 111.2, trip.getDistanceMeters(), 1.5);
+        assertEquals(0.4, trip.getFuelUsed(), 1e-9);
+
+        Trip stop = segments.get(1);
+        assertEquals(Trip.Status.OPEN, stop.getStatus());
+        assertEquals(1L, stop.getPointCount());
+        assertEquals(0.1, stop.getFuelUsed(), 1e-9);
+        assertEquals(60L, stop.getIdleSeconds());
+
+        // Un second passage ne trouve plus de trajet ouvert.
+        service.closeStaleTrips();
+        assertEquals(2, segments.size());
+    }
+
+    // Points en mouvement vers le nord, 10 s et environ 111 m d'écart, carburant en baisse de 0,1 par point.
+    private void driveNorth(long fromSeconds, int count, Double startFuel) {
+        List<GpsData> points = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            Double fuel = startFuel != null ? startFuel - 0.1 * i : null;
+            points.add(point(fromSeconds + 10L * i, LAT + i * HUNDRED_METERS, 40.0, true, fuel));
+        }
+
+        service.record(points);
+    }
+
+    private GpsData point(long seconds, double latitude, double speed, boolean engineOn, Double fuelLevel) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(VEHICLE_ID);
+
+        GpsData point = new GpsData();
+        point.setVehicle(vehicle);
+        point.setTimestamp(t0.plusSeconds(seconds));
+        point.setLatitude(latitude);
+        point.setLongitude(LON);
+        point.setSpeed(speed);
+        point.setEngineOn(engineOn);
+        point.setFuelLevel(fuelLevel);
+        return point;
+    }
+
+    // Dépôt en mémoire : seules les requêtes utilisées par le découpage sont servies.
+    private TripRepository repository() {
+        return (TripRepository) Proxy.newProxyInstance(
+                TripRepository.class.getClassLoader(),
+                new Class<?>[]{TripRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> {
+                        Trip trip = (Trip) args[0];
+                        if (!segments.contains(trip)) {
+                            segments.add(trip);
+                        }
+                        yield trip;
+                    }
+                    case "findOpenForUpdate" -> segments.stream()
+                            .filter(t -> t.getVehicleId().equals(args[0]) && t.getStatus() == Trip.Status.OPEN)
+                            .sorted(Comparator.comparing(Trip::getStartedAt).reversed())
+                            .toList();
+                    case "findStaleTripsForUpdate" -> segments.stream()
+                            .filter(t -> t.getStatus() == Trip.Status.OPEN && t.getKind() == Trip.Kind.TRIP)
+                            .filter(t -> t.getLastPointAt().isBefore((LocalDateTime) args[0]))
+                            .toList();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    private static PlatformTransactionManager transactionManager() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.fleet_backend.service.gps.archive;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GpsArchiveCodecTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 14, 0, 0);
+
+    @Test
+    void roundTripsADayOfMixedRows() {
+        Random random = new Random(42);
+        List<GpsArchiveRecord> records = new ArrayList<>();
+
+        double latitude = 33.589886;
+        double longitude = -7.603869;
+        long id = 1_000_000;
+
+        for (int i = 0; i < 5_000; i++) {
+            latitude += (random.nextDouble() - 0.5) * 0.001;
+            longitude += (random.nextDouble() - 0.5) * 0.001;
+            id += 1 + random.nextInt(3);
+
+            // Champs OBD absents par intermittence : présence codée en bitmap.
+            boolean obd = random.nextInt(4) != 0;
+
+            records.add(new GpsArchiveRecord(
+                    id,
+                    7L,
+                    i < 2_500 ? 12L : null,
+                    latitude,
+                    longitude,
+                    Math.round(random.nextDouble() * 900) / 10.0,
+                    random.nextBoolean(),
+                    DAY.plusSeconds(i).plusNanos(random.nextInt(1_000_000) * 1_000L),
+                    i % 3 == 0 ? null : "route-" + (i % 5),
+                    i % 2 == 0 ? "MISSION" : "OSRM",
+                    obd ? 800 + random.nextInt(3_000) : null,
+                    obd ? random.nextDouble() * 100 : null,
+                    obd ? 70 + random.nextInt(40) / 2.0 : null,
+                    obd ? 12.0 + random.nextInt(30) / 10.0 : null,
+                    obd ? random.nextDouble() : null,
+                    obd ? random.nextInt(10) == 0 : null
+            ));
+        }
+
+        assertEquals(records, roundTrip(records));
+    }
+
+    @Test
+    void roundTripsASingleRowWithoutOptionalFields() {
+        List<GpsArchiveRecord> records = List.of(new GpsArchiveRecord(
+                1L, 3L, null, 48.8566, 2.3522, 0.0, false, DAY,
+                null, null, null, null, null, null, null, null
+        ));
+
+        assertEquals(records, roundTrip(records));
+    }
+
+    @Test
+    void roundTripsValuesWithoutAShortDecimalForm() {
+        double[] awkward = {Math.PI, -0.0, Double.MIN_VALUE, 1e-300, 123456.789012345678, Double.MAX_VALUE};
+        List<GpsArchiveRecord> records = new ArrayList<>();
+
+        for (int i = 0; i < awkward.length; i++) {
+            records.add(new GpsArchiveRecord(
+                    i, 5L, null, awkward[i], -awkward[i], awkward[i], true, DAY.minusYears(30).plusMinutes(i),
+                    "r", "s", Integer.MIN_VALUE + i, awkward[i], awkward[i], awkward[i], awkward[i], true
+            ));
+        }
+
+        List<GpsArchiveRecord> decoded = roundTrip(records);
+
+        for (int i = 0; i < records.size(); i++) {
+            // Comparaison bit à bit : -0.0 et 0.0 sont distincts.
+            assertEquals(Double.doubleToRawLongBits(records.get(i).latitude()),
+                    Double.doubleToRawLongBits(decoded.get(i).latitude()));
+            assertEquals(records.get(i), decoded.get(i));
+        }
+    }
+
+    @Test
+    void rejectsForeignAndTruncatedBuffers() {
+        byte[] encoded = GpsArchiveCodec.encode(7L, List.of(new GpsArchiveRecord(
+                1L, 7L, 2L, 1.5, 2.5, 30.0, true, DAY, "r", "s", 900, 50.0, 90.0, 12.6, 0.4, false
+        )));
+
+        byte[] foreign = encoded.clone();
+        foreign[0] ^= 0x7F;
+
+        assertThrows(IllegalStateException.class, () -> GpsArchiveCodec.decode(ByteBuffer.wrap(foreign)));
+        assertThrows(RuntimeException.class,
+                () -> GpsArchiveCodec.decode(ByteBuffer.wrap(Arrays.copyOf(encoded, encoded.length / 2))));
+        assertThrows(IllegalArgumentException.class, () -> GpsArchiveCodec.encode(7L, List.of()));
+    }
+
+    private List<GpsArchiveRecord> roundTrip(List<GpsArchiveRecord> records) {
+        byte[] encoded = GpsArchiveCodec.encode(records.get(0).vehicleId(), records);
+        return GpsArchiveCodec.decode(ByteBuffer.wrap(encoded));
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.fleet_backend.service.outbox;
+
+import com.example.fleet_backend.model.OutboxMessage;
+import com.example.fleet_backend.repository.OutboxMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OutboxRelayTest {
+
+    // Lignes validées, partagées par toutes les instances.
+    private final TreeMap<Long, OutboxMessage> table = new TreeMap<>();
+
+    private OutboxMessageRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = repository(table);
+    }
+
+    @Test
+    void everyInstanceRelaysEveryRowToItsOwnClients() {
+        List<String> nodeA = new ArrayList<>();
+        List<String> nodeB = new ArrayList<>();
+        OutboxRelay relayA = relay(nodeA, Map.of());
+        OutboxRelay relayB = relay(nodeB, Map.of());
+
+        relayA.relayBatch();
+        relayB.relayBatch();
+
+        insert(1, 7L, "a");
+        insert(2, 8L, "b");
+
+        relayA.relayBatch();
+        relayB.relayBatch();
+
+        assertEquals(List.of("a", "b"), nodeA);
+        assertEquals(List.of("a", "b"), nodeB);
+
+        // Une seconde passe ne renvoie rien.
+        relayA.relayBatch();
+        assertEquals(List.of("a", "b"), nodeA);
+    }
+
+    @Test
+    void startingInstanceDoesNotReplayHistory() {
+        insert(1, 7L, "old");
+
+        List<String> sent = new ArrayList<>();
+        OutboxRelay relay = relay(sent, Map.of());
+
+        relay.relayBatch();
+        insert(2, 7L, "new");
+        relay.relayBatch();
+
+        assertEquals(List.of("new"), sent);
+    }
+
+    @Test
+    void rowCommittedAfterANewerOneIsStillRelayed() {
+        List<String> sent = new ArrayList<>();
+        OutboxRelay relay = relay(sent, Map.of());
+        relay.relayBatch();
+
+        // L'identifiant 1 est réservé par une transaction encore ouverte quand 2 est validé.
+        insert(2, 8L, "second");
+        relay.relayBatch();
+
+        insert(1, 7L, "first");
+        relay.relayBatch();
+
+        assertEquals(List.of("second", "first"), sent);
+    }
+
+    @Test
+    void failingRowIsParkedWithoutBlockingOtherVehicles() {
+        List<String> sent = new ArrayList<>();
+        Map<String, Integer> failures = new HashMap<>(Map.of("stuck", 2));
+        OutboxRelay relay = relay(sent, failures);
+        relay.relayBatch();
+
+        insert(1, 7L, "stuck");
+        insert(2, 7L, "after-stuck");
+        insert(3, 8L, "other");
+        relay.relayBatch();
+
+        // Le véhicule 7 attend derrière son message en échec, le véhicule 8 passe.
+        assertEquals(List.of("other"), sent);
+
+        relay.relayBatch();
+        assertEquals(List.of("other"), sent);
+
+        relay.relayBatch();
+        assertEquals(List.of("other", "stuck", "after-stuck"), sent);
+        assertEquals(2, relay.getFailedCount());
+    }
+
+    @Test
+    void rowIsDroppedAfterMaxAttempts() {
+        List<String> sent = new ArrayList<>();
+        Map<String, Integer> failures = new HashMap<>(Map.of("poison", Integer.MAX_VALUE));
+        OutboxRelay relay = relay(sent, failures);
+        relay.relayBatch();
+
+        insert(1, 7L, "poison");
+        insert(2, 7L, "next");
+
+        for (int pass = 0; pass < 3; pass++) {
+            relay.relayBatch();
+        }
+
+        assertEquals(List.of("next"), sent);
+        assertEquals(3, relay.getFailedCount());
+    }
+
+    // Chaque message échoue autant de fois que demandé pour sa charge utile, sans attente entre les essais.
+    private OutboxRelay relay(List<String> sent, Map<String, Integer> failures) {
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> {
+            String payload = new String((byte[]) message.getPayload(), StandardCharsets.UTF_8);
+            Integer remaining = failures.get(payload);
+
+            if (remaining != null && remaining > 0) {
+                failures.put(payload, remaining - 1);
+                throw new MessageDeliveryException("broker unavailable");
+            }
+
+            assertEquals("/topic/test", SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+            sent.add(payload);
+            return true;
+        });
+
+        return new OutboxRelay(repository, template, new NoopTransactionManager(), 200, 500, 60_000, 3, 0, 60);
+    }
+
+    private void insert(long id, Long partitionKey, String payload) {
+        OutboxMessage message = new OutboxMessage();
+        message.setPartitionKey(partitionKey);
+        message.setDestinations("/topic/test");
+        message.setPayload(payload);
+        message.setCreatedAt(LocalDateTime.now());
+
+        try {
+            Field field = OutboxMessage.class.getDeclaredField("id");
+            field.setAccessible(true);
+            field.set(message, id);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+
+        table.put(id, message);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static OutboxMessageRepository repository(TreeMap<Long, OutboxMessage> table) {
+        return (OutboxMessageRepository) Proxy.newProxyInstance(
+                OutboxMessageRepository.class.getClassLoader(),
+                new Class<?>[]{OutboxMessageRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findMaxId" -> table.isEmpty() ? 0L : table.lastKey();
+                    case "findAfter" -> table.tailMap((Long) args[0], false).values().stream()
+                            .limit(((Pageable) args[1]).getPageSize())
+                            .toList();
+                    case "findByIds" -> ((Collection<Long>) args[0]).stream()
+                            .sorted()
+                            .map(table::get)
+                            .filter(message -> message != null)
+                            .toList();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static final class NoopTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -249,6 +249,7 @@ export default function MaintenanceDetailPage() {
 
                     <p>Date terminée : {formatDate(item.completedAt)}</p>
                     <p>Kilométrage : {item.mileage ?? "-"}</p>
+                    <p>Échéance : {item.dueMileage != null ? `${item.dueMileage} km` : "-"}</p>
                     <p>Créée par : {item.createdByEmail ?? "-"}</p>
                   </div>
                 </div>
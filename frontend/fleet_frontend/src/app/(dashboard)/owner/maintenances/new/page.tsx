@@ -43,6 +43,7 @@ export default function NewMaintenancePage() {
   const [plannedDate, setPlannedDate] = useState("");
   const [maintenanceDate, setMaintenanceDate] = useState("");
   const [mileage, setMileage] = useState("");
+  const [dueMileage, setDueMileage] = useState("");
   const [cost, setCost] = useState("");
   const [loading, setLoading] = useState(false);
 
@@ -95,6 +96,7 @@ export default function NewMaintenancePage() {
         plannedDate: toLocalDateTime(plannedDate),
         maintenanceDate: toLocalDateTime(maintenanceDate),
         mileage: mileage ? Number(mileage) : undefined,
+        dueMileage: dueMileage ? Number(dueMileage) : undefined,
         cost: cost ? Number(cost) : undefined,
       });
 
@@ -278,6 +280,20 @@ export default function NewMaintenancePage() {
                   />
                 </div>
 
+                <div>
+                  <label className="mb-1 block text-sm font-bold text-slate-600">
+                    Échéance (km)
+                  </label>
+                  <input
+                    type="number"
+                    min="0"
+                    className="w-full rounded-xl border border-slate-200 bg-slate-50 p-3 text-sm outline-none focus:border-blue-400 focus:bg-white"
+                    placeholder="Ex: 150000"
+                    value={dueMileage}
+                    onChange={(e) => setDueMileage(e.target.value)}
+                  />
+                </div>
+
                 <div>
                   <label className="mb-1 block text-sm font-bold text-slate-600">
                     Coût
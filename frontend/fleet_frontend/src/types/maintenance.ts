@@ -34,6 +34,7 @@ export interface MaintenanceDTO {
   completedAt: string | null;
 
   mileage: number | null;
+  dueMileage: number | null;
   cost: number | null;
 
   createdByUserId: number | null;
@@ -59,6 +60,7 @@ export interface MaintenanceCreateRequest {
   maintenanceDate?: string;
   plannedDate?: string;
   mileage?: number;
+  dueMileage?: number;
   cost?: number;
   incidentId?: number;
 }